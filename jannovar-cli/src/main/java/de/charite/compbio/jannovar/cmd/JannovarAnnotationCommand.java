@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import de.charite.compbio.jannovar.JannovarException;
 import de.charite.compbio.jannovar.data.Chromosome;
 import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataFilter;
 import de.charite.compbio.jannovar.data.JannovarDataSerializer;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
 
@@ -41,4 +42,24 @@ public abstract class JannovarAnnotationCommand extends JannovarCommand {
 		this.chromosomeMap = this.jannovarData.getChromosomes();
 	}
 
+	/**
+	 * Deserialize the subset of the transcript definition file from {@link pathToDataFile} selected by
+	 * <code>filter</code>.
+	 *
+	 * @param pathToDataFile
+	 *            String with the path to the data file to deserialize
+	 * @param filter
+	 *            {@link JannovarDataFilter} with the transcripts to load
+	 * @throws JannovarException
+	 *             when there is a problem with the deserialization
+	 * @throws HelpRequestedException
+	 *             when the user requested the help page
+	 */
+	protected void deserializeTranscriptDefinitionFile(String pathToDataFile, JannovarDataFilter filter)
+			throws JannovarException, HelpRequestedException {
+		this.jannovarData = new JannovarDataSerializer(pathToDataFile).load(filter);
+		this.refDict = this.jannovarData.getRefDict();
+		this.chromosomeMap = this.jannovarData.getChromosomes();
+	}
+
 }
\ No newline at end of file
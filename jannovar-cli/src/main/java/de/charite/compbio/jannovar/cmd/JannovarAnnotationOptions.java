@@ -1,5 +1,19 @@
 package de.charite.compbio.jannovar.cmd;
 
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.base.Splitter;
+
+import de.charite.compbio.jannovar.JannovarException;
+import de.charite.compbio.jannovar.data.JannovarDataFilter;
 import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentGroup;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -25,6 +39,18 @@ public class JannovarAnnotationOptions extends JannovarBaseOptions {
 
 	/** Path to database file */
 	private String databaseFilePath = null;
+
+	/** Names of the contigs to load the transcripts of, all transcripts are loaded if all restrictions are empty */
+	private List<String> onlyContigs = new ArrayList<>();
+
+	/** Symbols of the genes to load the transcripts of */
+	private List<String> onlyGenes = new ArrayList<>();
+
+	/** Accessions of the transcripts to load */
+	private List<String> onlyTranscripts = new ArrayList<>();
+
+	/** Path to BED file with the regions to load the overlapping transcripts of, <code>null</code> for none */
+	private String onlyRegionsPath = null;
 	
 	/**
 	 * Setup {@link ArgumentParser}
@@ -39,6 +65,19 @@ public class JannovarAnnotationOptions extends JannovarBaseOptions {
 				.dest("3_prime_shifting").setDefault(true).action(Arguments.storeFalse());
 		optionalGroup.addArgument("--3-letter-amino-acids").help("Enable usage of 3 letter amino acid codes")
 				.setDefault(false).action(Arguments.storeTrue());
+
+		ArgumentGroup restrictGroup = subParser.addArgumentGroup("Database Subset Arguments");
+		restrictGroup.addArgument("--only-contigs").help(
+				"Only load transcripts on the given contigs, comma-separated, can be given multiple times")
+				.setDefault(new ArrayList<String>()).action(Arguments.append());
+		restrictGroup.addArgument("--only-genes").help(
+				"Only load transcripts of the given gene symbols, comma-separated, can be given multiple times")
+				.setDefault(new ArrayList<String>()).action(Arguments.append());
+		restrictGroup.addArgument("--only-transcripts").help(
+				"Only load the given transcripts, accessions with or without version, comma-separated, can be given "
+						+ "multiple times").setDefault(new ArrayList<String>()).action(Arguments.append());
+		restrictGroup.addArgument("--only-regions").help(
+				"Only load transcripts overlapping with the regions from the given BED file");
 		
 		JannovarBaseOptions.setupParser(subParser);
 	}
@@ -53,6 +92,54 @@ public class JannovarAnnotationOptions extends JannovarBaseOptions {
 		nt3PrimeShifting = !args.getBoolean("3_prime_shifting");
 		databaseFilePath = args.getString("database");
 		showAll = args.getBoolean("show_all");
+		onlyContigs = splitValues(args.<String> getList("only_contigs"));
+		onlyGenes = splitValues(args.<String> getList("only_genes"));
+		onlyTranscripts = splitValues(args.<String> getList("only_transcripts"));
+		onlyRegionsPath = args.getString("only_regions");
+	}
+
+	/** @return the comma-separated values of <code>args</code> */
+	private static List<String> splitValues(List<String> args) {
+		List<String> result = new ArrayList<>();
+		for (String arg : args)
+			for (String value : Splitter.on(',').trimResults().omitEmptyStrings().split(arg))
+				result.add(value);
+		return result;
+	}
+
+	/**
+	 * @return {@link JannovarDataFilter} for the database subset arguments, empty if none was given
+	 * @throws JannovarException
+	 *             on problems reading the BED file with the regions
+	 */
+	public JannovarDataFilter buildDataFilter() throws JannovarException {
+		List<JannovarDataFilter.Region> regions = new ArrayList<>();
+		if (onlyRegionsPath != null) {
+			InputStream stream = null;
+			try {
+				stream = new FileInputStream(onlyRegionsPath);
+				if (onlyRegionsPath.endsWith(".gz"))
+					stream = new GZIPInputStream(stream);
+			} catch (IOException e) {
+				throw new JannovarException("Could not open BED file " + onlyRegionsPath, e);
+			}
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty() || line.startsWith("#") || line.startsWith("track")
+							|| line.startsWith("browser"))
+						continue;
+					final String fields[] = line.split("\t");
+					if (fields.length < 3)
+						throw new JannovarException("Invalid line in BED file " + onlyRegionsPath + ": " + line);
+					regions.add(new JannovarDataFilter.Region(fields[0], Integer.parseInt(fields[1]), Integer
+							.parseInt(fields[2])));
+				}
+			} catch (IOException | NumberFormatException e) {
+				throw new JannovarException("Problem reading BED file " + onlyRegionsPath, e);
+			}
+		}
+		return new JannovarDataFilter(onlyContigs, onlyGenes, onlyTranscripts, regions);
 	}
 
 	public boolean isUseThreeLetterAminoAcidCode() {
@@ -79,6 +166,38 @@ public class JannovarAnnotationOptions extends JannovarBaseOptions {
 		this.databaseFilePath = databaseFilePath;
 	}
 
+	public List<String> getOnlyContigs() {
+		return onlyContigs;
+	}
+
+	public void setOnlyContigs(List<String> onlyContigs) {
+		this.onlyContigs = onlyContigs;
+	}
+
+	public List<String> getOnlyGenes() {
+		return onlyGenes;
+	}
+
+	public void setOnlyGenes(List<String> onlyGenes) {
+		this.onlyGenes = onlyGenes;
+	}
+
+	public List<String> getOnlyTranscripts() {
+		return onlyTranscripts;
+	}
+
+	public void setOnlyTranscripts(List<String> onlyTranscripts) {
+		this.onlyTranscripts = onlyTranscripts;
+	}
+
+	public String getOnlyRegionsPath() {
+		return onlyRegionsPath;
+	}
+
+	public void setOnlyRegionsPath(String onlyRegionsPath) {
+		this.onlyRegionsPath = onlyRegionsPath;
+	}
+
 	public boolean isShowAll() {
 		return showAll;
 	}
@@ -91,7 +210,8 @@ public class JannovarAnnotationOptions extends JannovarBaseOptions {
 	public String toString() {
 		return "JannovarAnnotationOptions [useThreeLetterAminoAcidCode=" + useThreeLetterAminoAcidCode
 				+ ", nt3PrimeShifting=" + nt3PrimeShifting + ", showAll=" + showAll + ", databaseFilePath="
-				+ databaseFilePath + ", toString()=" + super.toString() + "]";
+				+ databaseFilePath + ", onlyContigs=" + onlyContigs + ", onlyGenes=" + onlyGenes + ", onlyTranscripts="
+				+ onlyTranscripts + ", onlyRegionsPath=" + onlyRegionsPath + ", toString()=" + super.toString() + "]";
 	}
 
 }
@@ -0,0 +1,135 @@
+package de.charite.compbio.jannovar.cmd.annotate_bed;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.base.Joiner;
+
+import de.charite.compbio.jannovar.JannovarException;
+import de.charite.compbio.jannovar.annotation.AnnotationException;
+import de.charite.compbio.jannovar.annotation.RegionAnnotations;
+import de.charite.compbio.jannovar.annotation.RegionAnnotator;
+import de.charite.compbio.jannovar.annotation.RegionOverlap;
+import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
+import de.charite.compbio.jannovar.cmd.JannovarAnnotationCommand;
+import de.charite.compbio.jannovar.data.ContigNameInterner;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Annotate the regions of a sorted BED file with the overlapping transcript features.
+ *
+ * One line is written for each pair of region and overlapping transcript and one line with empty fields for regions
+ * without any overlap or on contigs unknown to the database.
+ */
+public class AnnotateBEDCommand extends JannovarAnnotationCommand {
+
+	/** Header line of the output file */
+	static final String HEADER = "#CHROM\tSTART\tEND\tNAME\tGENE_SYMBOL\tTRANSCRIPT\tSTRAND\tEXONS\tFEATURES\t"
+			+ "CDS_BASES\tCDS_LENGTH";
+
+	/** Configuration */
+	private JannovarAnnotateBEDOptions options;
+
+	public AnnotateBEDCommand(String argv[], Namespace args) throws CommandLineParsingException {
+		this.options = new JannovarAnnotateBEDOptions();
+		this.options.setFromArgs(args);
+	}
+
+	@Override
+	public void run() throws JannovarException {
+		System.err.println("Options");
+		System.err.println(options.toString());
+
+		System.err.println("Deserializing transcripts...");
+		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath());
+
+		System.err.println("Annotating BED file...");
+		final long startTime = System.nanoTime();
+		final RegionAnnotator annotator = new RegionAnnotator(refDict, chromosomeMap);
+		final ContigNameInterner interner = new ContigNameInterner(refDict);
+		int numRegions = 0;
+		try (BufferedReader reader = openInput(options.getPathInputBED());
+				PrintStream out = new PrintStream(options.getPathOutputTSV(), StandardCharsets.UTF_8.name())) {
+			out.println(HEADER);
+			String line;
+			int lineNo = 0;
+			while ((line = reader.readLine()) != null) {
+				++lineNo;
+				if (line.isEmpty() || line.startsWith("#") || line.startsWith("track") || line.startsWith("browser"))
+					continue;
+				final String fields[] = line.split("\t");
+				if (fields.length < 3)
+					throw new JannovarException("Invalid BED line " + lineNo + ", expected at least 3 fields: " + line);
+				final String name = (fields.length > 3) ? fields[3] : ".";
+				final String prefix = fields[0] + "\t" + fields[1] + "\t" + fields[2] + "\t" + name;
+				++numRegions;
+
+				final int chr = interner.getContigID(fields[0]);
+				if (chr == -1) {
+					writeEmpty(out, prefix);
+					continue;
+				}
+
+				final GenomeInterval region;
+				try {
+					region = new GenomeInterval(refDict, Strand.FWD, chr, Integer.parseInt(fields[1]),
+							Integer.parseInt(fields[2]), PositionType.ZERO_BASED);
+				} catch (NumberFormatException e) {
+					throw new JannovarException("Invalid coordinates in BED line " + lineNo + ": " + line, e);
+				}
+
+				final RegionAnnotations annos;
+				try {
+					annos = annotator.annotate(region);
+				} catch (AnnotationException e) {
+					throw new JannovarException("Problem in BED line " + lineNo + ", the input has to be sorted, e.g. "
+							+ "with \"sort -k1,1 -k2,2n\"", e);
+				}
+				if (!annos.hasOverlaps())
+					writeEmpty(out, prefix);
+				for (RegionOverlap overlap : annos.getOverlaps())
+					writeOverlap(out, prefix, overlap);
+			}
+		} catch (IOException e) {
+			throw new JannovarException("Problem annotating BED file", e);
+		}
+
+		final long endTime = System.nanoTime();
+		System.err.println(String.format("Annotated %d regions in %.2f sec.", numRegions,
+				(endTime - startTime) / 1000.0 / 1000.0 / 1000.0));
+	}
+
+	/** @return {@link BufferedReader} for <code>path</code>, decompressing if the name ends in <tt>.gz</tt> */
+	private static BufferedReader openInput(String path) throws IOException {
+		InputStream stream = new FileInputStream(path);
+		if (path.endsWith(".gz"))
+			stream = new GZIPInputStream(stream);
+		return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+	}
+
+	/** Write line for region without overlap */
+	private static void writeEmpty(PrintStream out, String prefix) {
+		out.println(prefix + "\t.\t.\t.\t.\t.\t.\t.");
+	}
+
+	/** Write line for the overlap of a region with a transcript */
+	private static void writeOverlap(PrintStream out, String prefix, RegionOverlap overlap) {
+		final TranscriptModel tm = overlap.getTranscript();
+		final String exons = overlap.getExonNumbers().isEmpty() ? "." : Joiner.on(',').join(
+				overlap.getExonNumbers());
+		final String features = overlap.getFeatures().isEmpty() ? "." : Joiner.on(',').join(overlap.getFeatures());
+		out.println(Joiner.on('\t').join(prefix, tm.getGeneSymbol() == null ? "." : tm.getGeneSymbol(),
+				tm.getAccession(), tm.getStrand(), exons, features, overlap.getCDSBases(), tm.cdsTranscriptLength()));
+	}
+
+}
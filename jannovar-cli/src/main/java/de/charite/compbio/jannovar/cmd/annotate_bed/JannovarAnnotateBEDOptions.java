@@ -0,0 +1,100 @@
+package de.charite.compbio.jannovar.cmd.annotate_bed;
+
+import java.util.function.BiFunction;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
+import de.charite.compbio.jannovar.cmd.JannovarBaseOptions;
+import net.sourceforge.argparse4j.inf.ArgumentGroup;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * Options for the <tt>annotate-bed</tt> command
+ */
+public class JannovarAnnotateBEDOptions extends JannovarBaseOptions {
+
+	/** Path to database file */
+	private String databaseFilePath = null;
+
+	/** Path to input BED file */
+	private String pathInputBED = null;
+
+	/** Path to output TSV file */
+	private String pathOutputTSV = null;
+
+	/**
+	 * Setup {@link ArgumentParser}
+	 *
+	 * @param subParsers
+	 *            {@link Subparsers} to setup
+	 */
+	public static void setupParser(Subparsers subParsers) {
+		BiFunction<String[], Namespace, AnnotateBEDCommand> handler = (argv, args) -> {
+			try {
+				return new AnnotateBEDCommand(argv, args);
+			} catch (CommandLineParsingException e) {
+				throw new UncheckedJannovarException("Could not parse command line", e);
+			}
+		};
+
+		Subparser subParser = subParsers.addParser("annotate-bed", true)
+				.help("annotate regions from BED file with overlapping transcript features")
+				.setDefault("cmd", handler);
+		subParser.description("Annotate the regions from a BED file sorted by chromosome and begin position with the "
+				+ "exons, coding sequence, UTRs, introns, and splice sites of the overlapping transcripts");
+
+		ArgumentGroup requiredGroup = subParser.addArgumentGroup("Required arguments");
+		requiredGroup.addArgument("-i", "--input-bed").help("Path to sorted input BED file, may be gzip-compressed")
+				.required(true);
+		requiredGroup.addArgument("-o", "--output-tsv").help("Path to output TSV file").required(true);
+		requiredGroup.addArgument("-d", "--database").help("Path to database .ser file").required(true);
+
+		subParser.epilog("Example: java -jar Jannovar.jar annotate-bed -d hg19_refseq.ser -i targets.bed "
+				+ "-o targets.tsv");
+
+		JannovarBaseOptions.setupParser(subParser);
+	}
+
+	@Override
+	public void setFromArgs(Namespace args) throws CommandLineParsingException {
+		super.setFromArgs(args);
+
+		databaseFilePath = args.getString("database");
+		pathInputBED = args.getString("input_bed");
+		pathOutputTSV = args.getString("output_tsv");
+	}
+
+	public String getDatabaseFilePath() {
+		return databaseFilePath;
+	}
+
+	public void setDatabaseFilePath(String databaseFilePath) {
+		this.databaseFilePath = databaseFilePath;
+	}
+
+	public String getPathInputBED() {
+		return pathInputBED;
+	}
+
+	public void setPathInputBED(String pathInputBED) {
+		this.pathInputBED = pathInputBED;
+	}
+
+	public String getPathOutputTSV() {
+		return pathOutputTSV;
+	}
+
+	public void setPathOutputTSV(String pathOutputTSV) {
+		this.pathOutputTSV = pathOutputTSV;
+	}
+
+	@Override
+	public String toString() {
+		return "JannovarAnnotateBEDOptions [databaseFilePath=" + databaseFilePath + ", pathInputBED=" + pathInputBED
+				+ ", pathOutputTSV=" + pathOutputTSV + ", isReportProgress()=" + isReportProgress() + "]";
+	}
+
+}
@@ -3,6 +3,7 @@ package de.charite.compbio.jannovar.cmd.annotate_vcf;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -10,8 +11,11 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
 import de.charite.compbio.jannovar.JannovarException;
+import de.charite.compbio.jannovar.annotation.AnnotationMessage;
+import de.charite.compbio.jannovar.annotation.AnnotationMessageCounter;
 import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
 import de.charite.compbio.jannovar.cmd.JannovarAnnotationCommand;
+import de.charite.compbio.jannovar.htsjdk.ReadAheadVCFReader;
 import de.charite.compbio.jannovar.mendel.IncompatiblePedigreeException;
 import de.charite.compbio.jannovar.mendel.bridge.MendelVCFHeaderExtender;
 import de.charite.compbio.jannovar.mendel.filter.ConsumerProcessor;
@@ -26,11 +30,11 @@ import de.charite.compbio.jannovar.pedigree.Pedigree;
 import de.charite.compbio.jannovar.progress.GenomeRegionListFactoryFromSAMSequenceDictionary;
 import de.charite.compbio.jannovar.progress.ProgressReporter;
 import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
-import de.charite.compbio.jannovar.vardbs.facade.DBVariantContextAnnotator;
-import de.charite.compbio.jannovar.vardbs.facade.DBVariantContextAnnotatorFactory;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import de.charite.compbio.jannovar.vardbs.facade.MultiDBVariantContextAnnotator;
+import de.charite.compbio.jannovar.vardbs.facade.MultiDBVariantContextAnnotatorBuilder;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.variant.variantcontext.VariantContext;
-import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
 import net.sourceforge.argparse4j.inf.Namespace;
 
@@ -70,13 +74,15 @@ public class AnnotateVCFCommand extends JannovarAnnotationCommand {
 		System.err.println(options.toString());
 
 		System.err.println("Deserializing transcripts...");
-		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath());
+		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath(), options.buildDataFilter());
 
 		final String vcfPath = options.getPathInputVCF();
 
-		try (VCFFileReader vcfReader = new VCFFileReader(new File(vcfPath), false)) {
+		// read, decompress, and split the input into lines in the background, decode when needed
+		try (ReadAheadVCFReader vcfReader = new ReadAheadVCFReader(new File(vcfPath),
+				options.getDecompressionThreads())) {
 			if (this.options.getVerbosity() >= 1) {
-				final SAMSequenceDictionary seqDict = VCFFileReader.getSequenceDictionary(new File(vcfPath));
+				final SAMSequenceDictionary seqDict = vcfReader.getFileHeader().getSequenceDictionary();
 				if (seqDict != null) {
 					final GenomeRegionListFactoryFromSAMSequenceDictionary factory = new GenomeRegionListFactoryFromSAMSequenceDictionary();
 					this.progressReporter = new ProgressReporter(factory.construct(seqDict), 60);
@@ -93,36 +99,21 @@ public class AnnotateVCFCommand extends JannovarAnnotationCommand {
 			System.err.println("Annotating VCF...");
 			final long startTime = System.nanoTime();
 
-			Stream<VariantContext> stream = vcfReader.iterator().stream();
-
-			// If configured, annotate using dbSNP VCF file (extend header to use for writing out)
-			if (options.pathVCFDBSNP != null) {
-				DBAnnotationOptions dbSNPOptions = DBAnnotationOptions.createDefaults();
-				dbSNPOptions.setIdentifierPrefix(options.prefixDBSNP);
-				DBVariantContextAnnotator dbSNPAnno = new DBVariantContextAnnotatorFactory()
-						.constructDBSNP(options.pathVCFDBSNP, options.pathFASTARef, dbSNPOptions);
-				dbSNPAnno.extendHeader(vcfHeader);
-				stream = stream.map(dbSNPAnno::annotateVariantContext);
+			// In pass-through mode, only annotate the raw lines without decoding them
+			if (options.isPassThrough()) {
+				annotateLines(vcfReader, vcfHeader);
+				printDone(startTime);
+				return;
 			}
 
-			// If configured, annotate using ExAC VCF file (extend header to use for writing out)
-			if (options.pathVCFExac != null) {
-				DBAnnotationOptions exacOptions = DBAnnotationOptions.createDefaults();
-				exacOptions.setIdentifierPrefix(options.prefixExac);
-				DBVariantContextAnnotator exacAnno = new DBVariantContextAnnotatorFactory()
-						.constructExac(options.pathVCFExac, options.pathFASTARef, exacOptions);
-				exacAnno.extendHeader(vcfHeader);
-				stream = stream.map(exacAnno::annotateVariantContext);
-			}
+			Stream<VariantContext> stream = vcfReader.stream();
 
-			// If configured, annotate using UK10K VCF file (extend header to use for writing out)
-			if (options.pathVCFUK10K != null) {
-				DBAnnotationOptions exacOptions = DBAnnotationOptions.createDefaults();
-				exacOptions.setIdentifierPrefix(options.prefixUK10K);
-				DBVariantContextAnnotator uk10kAnno = new DBVariantContextAnnotatorFactory()
-						.constructUK10K(options.pathVCFUK10K, options.pathFASTARef, exacOptions);
-				uk10kAnno.extendHeader(vcfHeader);
-				stream = stream.map(uk10kAnno::annotateVariantContext);
+			// If configured, annotate using dbSNP, ExAC, UK10K, and generic annotation files in one step (extend
+			// header to use for writing out)
+			final MultiDBVariantContextAnnotator dbAnno = buildDBAnnotator();
+			if (dbAnno != null) {
+				dbAnno.extendHeader(vcfHeader);
+				stream = stream.map(dbAnno::annotateVariantContext);
 			}
 
 			// Extend header with INHERITANCE filter
@@ -139,14 +130,13 @@ public class AnnotateVCFCommand extends JannovarAnnotationCommand {
 					stream = stream.peek(vc -> this.progressReporter.setCurrentVC(vc));
 
 				stream.forEachOrdered(sink::put);
-
-				System.err.println("Wrote annotations to \"" + options.getPathOutputVCF() + "\"");
-				final long endTime = System.nanoTime();
-				System.err.println(String.format("Annotation and writing took %.2f sec.",
-						(endTime - startTime) / 1000.0 / 1000.0 / 1000.0));
-			} catch (IOException e) {
-				throw new JannovarException("Problem opening file", e);
+				printErrorCounts(writer.getErrorCounter());
 			}
+			if (dbAnno != null)
+				dbAnno.close();
+			printDone(startTime);
+		} catch (IOException e) {
+			throw new JannovarException("Problem opening file", e);
 		} catch (IncompatiblePedigreeException e) {
 			System.err.println("VCF file " + vcfPath + " is not compatible to pedigree file " + options.pathPedFile);
 		} catch (VariantContextFilterException e) {
@@ -158,11 +148,90 @@ public class AnnotateVCFCommand extends JannovarAnnotationCommand {
 			e.printStackTrace(System.err);
 			return;
 		}
+	}
+
+	/**
+	 * Annotate the raw record lines from <code>vcfReader</code> and write them out
+	 *
+	 * @param vcfReader
+	 *            the {@link ReadAheadVCFReader} to take the lines from
+	 * @param vcfHeader
+	 *            the {@link VCFHeader} to write out
+	 * @throws IOException
+	 *             on problems writing the output file
+	 */
+	private void annotateLines(ReadAheadVCFReader vcfReader, VCFHeader vcfHeader) throws IOException {
+		try (AnnotatedVCFLineWriter writer = new AnnotatedVCFLineWriter(refDict, vcfHeader, chromosomeMap, options,
+				ImmutableList.copyOf(argv))) {
+			ImmutableList<String> batch;
+			while (!(batch = vcfReader.nextBatch()).isEmpty()) {
+				for (String line : batch) {
+					writer.put(line);
+					if (this.progressReporter != null) {
+						final int contigEnd = line.indexOf('\t');
+						final int posEnd = line.indexOf('\t', contigEnd + 1);
+						this.progressReporter.setCurrentPosition(line.substring(0, contigEnd),
+								Integer.parseInt(line.substring(contigEnd + 1, posEnd)));
+					}
+				}
+			}
+			printErrorCounts(writer.getErrorCounter());
+		}
+	}
+
+	/** Print the numbers of problems counted in <code>errorCounter</code>, if any */
+	private void printErrorCounts(AnnotationMessageCounter errorCounter) {
+		if (errorCounter.getTotalCount() == 0)
+			return;
+		System.err.println("Problems during annotation (per record for unknown contigs, per allele otherwise):");
+		for (Map.Entry<AnnotationMessage, Long> entry : errorCounter.getCounts().entrySet())
+			System.err.println("  " + entry.getKey() + ": " + entry.getValue());
+	}
 
+	/** Print message on successful annotation that started at <code>startTime</code> */
+	private void printDone(long startTime) {
+		System.err.println("Wrote annotations to \"" + options.getPathOutputVCF() + "\"");
+		final long endTime = System.nanoTime();
+		System.err.println(String.format("Annotation and writing took %.2f sec.",
+				(endTime - startTime) / 1000.0 / 1000.0 / 1000.0));
 		if (progressReporter != null)
 			progressReporter.done();
 	}
 
+	/**
+	 * Construct the annotator for the configured variant databases
+	 *
+	 * @return {@link MultiDBVariantContextAnnotator} for the configured databases, <code>null</code> if none is
+	 *         configured
+	 * @throws JannovarVarDBException
+	 *             on problems loading the databases
+	 */
+	private MultiDBVariantContextAnnotator buildDBAnnotator() throws JannovarVarDBException {
+		if (!options.isDBAnnotation())
+			return null;
+
+		MultiDBVariantContextAnnotatorBuilder builder = new MultiDBVariantContextAnnotatorBuilder(
+				options.pathFASTARef);
+		if (options.pathVCFDBSNP != null) {
+			DBAnnotationOptions dbSNPOptions = DBAnnotationOptions.createDefaults();
+			dbSNPOptions.setIdentifierPrefix(options.prefixDBSNP);
+			builder.addDBSNP(options.pathVCFDBSNP, dbSNPOptions);
+		}
+		if (options.pathVCFExac != null) {
+			DBAnnotationOptions exacOptions = DBAnnotationOptions.createDefaults();
+			exacOptions.setIdentifierPrefix(options.prefixExac);
+			builder.addExac(options.pathVCFExac, exacOptions);
+		}
+		if (options.pathVCFUK10K != null) {
+			DBAnnotationOptions uk10kOptions = DBAnnotationOptions.createDefaults();
+			uk10kOptions.setIdentifierPrefix(options.prefixUK10K);
+			builder.addUK10K(options.pathVCFUK10K, uk10kOptions);
+		}
+		for (GenericDBAnnotationSpec spec : options.getGenericAnnotations())
+			spec.addTo(builder);
+		return builder.setNumThreads(options.getDBThreads()).build();
+	}
+
 	/**
 	 * Construct the mendelian inheritance annotation processors
 	 * 
@@ -183,7 +252,7 @@ public class AnnotateVCFCommand extends JannovarAnnotationCommand {
 			final Pedigree pedigree = new Pedigree(pedContents, pedContents.getIndividuals().get(0).getPedigree());
 			checkPedigreeCompatibility(pedigree, writer.getVCFHeader());
 			final GeneWiseMendelianAnnotationProcessor mendelProcessor = new GeneWiseMendelianAnnotationProcessor(
-					pedigree, jannovarData, vc -> writer.put(vc));
+					pedigree, jannovarData, writer.getVCFHeader().getGenotypeSamples(), vc -> writer.put(vc));
 			return new CoordinateSortingChecker(mendelProcessor);
 		} else {
 			return new ConsumerProcessor(vc -> writer.put(vc));
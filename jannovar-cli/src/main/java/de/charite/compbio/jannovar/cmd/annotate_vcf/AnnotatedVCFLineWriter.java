@@ -0,0 +1,96 @@
+package de.charite.compbio.jannovar.cmd.annotate_vcf;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.charite.compbio.jannovar.Jannovar;
+import de.charite.compbio.jannovar.annotation.AnnotationMessageCounter;
+import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.htsjdk.VCFLineAnnotator;
+import de.charite.compbio.jannovar.htsjdk.VariantContextAnnotator;
+import de.charite.compbio.jannovar.htsjdk.VariantContextWriterConstructionHelper;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLine;
+
+/**
+ * Annotate raw VCF record lines and write them out, only inserting the <tt>ANN</tt> entry into the <tt>INFO</tt>
+ * column (pass-through mode of <tt>annotate-vcf</tt>).
+ */
+public class AnnotatedVCFLineWriter implements Closeable {
+
+	/** VCF header to use */
+	private final VCFHeader vcfHeader;
+
+	/** the annotator for the raw lines */
+	private final VCFLineAnnotator annotator;
+
+	/** writer for the annotated lines */
+	private final Writer out;
+
+	public AnnotatedVCFLineWriter(ReferenceDictionary refDict, VCFHeader vcfHeader,
+			ImmutableMap<Integer, Chromosome> chromosomeMap, JannovarAnnotateVCFOptions options,
+			ImmutableList<String> args) throws IOException {
+		this.vcfHeader = vcfHeader;
+		// same configuration as in AnnotatedVCFWriter
+		this.annotator = new VCFLineAnnotator(new VariantContextAnnotator(refDict, chromosomeMap,
+				new VariantContextAnnotator.Options(!options.isShowAll(), options.isEscapeAnnField(),
+						options.isNt3PrimeShifting(), options.isSVGeneSummary(), options.getMaxSVGenes(), true,
+						!options.isShowAll(), options.getPreferredTSL())));
+
+		ImmutableSet<VCFHeaderLine> additionalLines = ImmutableSet.of(
+				new VCFHeaderLine("jannovarVersion", Jannovar.getVersion()),
+				new VCFHeaderLine("jannovarCommand", Joiner.on(' ').join(args)));
+		this.out = new BufferedWriter(new OutputStreamWriter(
+				VariantContextWriterConstructionHelper.openOutputStream(vcfHeader, options.getPathOutputVCF(),
+						options.isTabixIndex(), options.getCompressionLevel(), options.getCompressionThreads()),
+				StandardCharsets.UTF_8), 1024 * 1024);
+		VariantContextWriterConstructionHelper.writeHeader(vcfHeader, additionalLines, out);
+	}
+
+	/**
+	 * @return {@link VCFHeader} that is used
+	 */
+	public VCFHeader getVCFHeader() {
+		return vcfHeader;
+	}
+
+	/**
+	 * @return counts of the errors during the annotation of the lines written so far
+	 */
+	public AnnotationMessageCounter getErrorCounter() {
+		return annotator.getErrorCounter();
+	}
+
+	/**
+	 * Annotate and write out record line
+	 *
+	 * @param line
+	 *            the VCF record line, without line break
+	 */
+	public void put(String line) {
+		try {
+			annotator.annotateLine(line, out);
+			out.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Close the output file */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+}
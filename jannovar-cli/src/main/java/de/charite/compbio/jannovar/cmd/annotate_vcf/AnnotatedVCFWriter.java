@@ -8,9 +8,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.charite.compbio.jannovar.Jannovar;
+import de.charite.compbio.jannovar.annotation.AnnotationMessageCounter;
 import de.charite.compbio.jannovar.data.Chromosome;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
-import de.charite.compbio.jannovar.htsjdk.InvalidCoordinatesException;
 import de.charite.compbio.jannovar.htsjdk.VariantContextAnnotator;
 import de.charite.compbio.jannovar.htsjdk.VariantContextWriterConstructionHelper;
 import htsjdk.variant.variantcontext.VariantContext;
@@ -48,8 +48,12 @@ public class AnnotatedVCFWriter implements Closeable {
 			ImmutableList<String> args) {
 		this.refDict = refDict;
 		this.vcfHeader = vcfHeader;
+		// VCF files are usually sorted, unsorted records are still annotated correctly but slower; when showing one
+		// effect only, only the annotation with the highest priority is built
 		this.annotator = new VariantContextAnnotator(refDict, chromosomeMap, new VariantContextAnnotator.Options(
-				!options.isShowAll(), options.isEscapeAnnField(), options.isNt3PrimeShifting()));
+				!options.isShowAll(), options.isEscapeAnnField(), options.isNt3PrimeShifting(),
+				options.isSVGeneSummary(), options.getMaxSVGenes(), true, !options.isShowAll(),
+				options.getPreferredTSL()));
 		this.options = options;
 		this.args = args;
 
@@ -57,7 +61,8 @@ public class AnnotatedVCFWriter implements Closeable {
 				new VCFHeaderLine("jannovarVersion", Jannovar.getVersion()),
 				new VCFHeaderLine("jannovarCommand", Joiner.on(' ').join(args)));
 		this.out = VariantContextWriterConstructionHelper.openVariantContextWriter(vcfHeader,
-				options.getPathOutputVCF(), additionalLines);
+				options.getPathOutputVCF(), additionalLines, options.isTabixIndex(), options.getCompressionLevel(),
+				options.getCompressionThreads());
 	}
 
 	/**
@@ -67,12 +72,15 @@ public class AnnotatedVCFWriter implements Closeable {
 		return vcfHeader;
 	}
 
+	/**
+	 * @return counts of the errors during the annotation of the records written so far
+	 */
+	public AnnotationMessageCounter getErrorCounter() {
+		return annotator.getErrorCounter();
+	}
+
 	public void put(VariantContext vc) {
-		try {
-			vc = annotator.applyAnnotations(vc, annotator.buildAnnotations(vc));
-		} catch (InvalidCoordinatesException e) {
-			annotator.putErrorAnnotation(vc, ImmutableSet.of(e.getAnnotationMessage()));
-		}
+		vc = annotator.applyAnnotations(vc, annotator.buildAnnotationResult(vc));
 		vc.getCommonInfo().removeAttribute(""); // remove leading/trailing comma
 		out.add(vc);
 	}
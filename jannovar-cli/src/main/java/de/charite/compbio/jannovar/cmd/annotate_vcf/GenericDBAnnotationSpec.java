@@ -0,0 +1,164 @@
+package de.charite.compbio.jannovar.cmd.annotate_vcf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Joiner;
+
+import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import de.charite.compbio.jannovar.vardbs.facade.MultiDBVariantContextAnnotatorBuilder;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVValueColumnDescription;
+import de.charite.compbio.jannovar.vardbs.generic_vcf.GenericVCFAnnotationOptions;
+
+/**
+ * Configuration of one generic annotation source given on the command line
+ *
+ * The sources are given as <tt>PATH:PREFIX:FIELD,...</tt> for VCF files, <tt>PATH:PREFIX:NAME=COLUMN,...</tt> for
+ * BED files, and <tt>PATH:PREFIX:CHROM,POS,REF,ALT:NAME=COLUMN,...</tt> for tabular files with one variant per line
+ * (1-based columns and positions).
+ */
+public final class GenericDBAnnotationSpec {
+
+	/** Path to the annotation file */
+	private final String path;
+	/** Options for VCF files, <code>null</code> for tabular files */
+	private final GenericVCFAnnotationOptions vcfOptions;
+	/** Options for tabular files, <code>null</code> for VCF files */
+	private final GenericTSVAnnotationOptions tsvOptions;
+
+	private GenericDBAnnotationSpec(String path, GenericVCFAnnotationOptions vcfOptions,
+			GenericTSVAnnotationOptions tsvOptions) {
+		this.path = path;
+		this.vcfOptions = vcfOptions;
+		this.tsvOptions = tsvOptions;
+	}
+
+	/**
+	 * Parse specification of VCF annotation source
+	 *
+	 * @param spec
+	 *            specification of the form <tt>PATH:PREFIX:FIELD,...</tt>
+	 * @return the parsed {@link GenericDBAnnotationSpec}
+	 * @throws CommandLineParsingException
+	 *             on invalid specifications
+	 */
+	public static GenericDBAnnotationSpec parseVCF(String spec) throws CommandLineParsingException {
+		final String[] parts = splitSpec(spec, 2);
+		GenericVCFAnnotationOptions options = GenericVCFAnnotationOptions
+				.createDefaults(Arrays.asList(parts[2].split(",")));
+		options.setIdentifierPrefix(parts[1]);
+		return new GenericDBAnnotationSpec(parts[0], options, null);
+	}
+
+	/**
+	 * Parse specification of BED annotation source
+	 *
+	 * @param spec
+	 *            specification of the form <tt>PATH:PREFIX:NAME=COLUMN,...</tt>
+	 * @return the parsed {@link GenericDBAnnotationSpec}
+	 * @throws CommandLineParsingException
+	 *             on invalid specifications
+	 */
+	public static GenericDBAnnotationSpec parseBED(String spec) throws CommandLineParsingException {
+		final String[] parts = splitSpec(spec, 2);
+		GenericTSVAnnotationOptions options = GenericTSVAnnotationOptions
+				.createBEDDefaults(parseValueColumns(spec, parts[2]));
+		options.setIdentifierPrefix(parts[1]);
+		return new GenericDBAnnotationSpec(parts[0], null, options);
+	}
+
+	/**
+	 * Parse specification of tabular annotation source with one variant per line
+	 *
+	 * @param spec
+	 *            specification of the form <tt>PATH:PREFIX:CHROM,POS,REF,ALT:NAME=COLUMN,...</tt>
+	 * @return the parsed {@link GenericDBAnnotationSpec}
+	 * @throws CommandLineParsingException
+	 *             on invalid specifications
+	 */
+	public static GenericDBAnnotationSpec parseTSV(String spec) throws CommandLineParsingException {
+		final String[] parts = splitSpec(spec, 3);
+		final String[] cols = parts[2].split(",");
+		if (cols.length != 4)
+			throw new CommandLineParsingException("Expected CHROM,POS,REF,ALT columns in " + spec);
+		GenericTSVAnnotationOptions options = GenericTSVAnnotationOptions.createVariantDefaults(
+				parseColumn(spec, cols[0]), parseColumn(spec, cols[1]), parseColumn(spec, cols[2]),
+				parseColumn(spec, cols[3]), parseValueColumns(spec, parts[3]));
+		options.setIdentifierPrefix(parts[1]);
+		return new GenericDBAnnotationSpec(parts[0], null, options);
+	}
+
+	/**
+	 * Split specification into path and <code>numFields</code> further fields, the path can contain colons
+	 */
+	private static String[] splitSpec(String spec, int numFields) throws CommandLineParsingException {
+		final String[] tokens = spec.split(":", -1);
+		if (tokens.length < numFields + 1)
+			throw new CommandLineParsingException("Invalid annotation source specification " + spec);
+		String[] result = new String[numFields + 1];
+		result[0] = Joiner.on(':').join(Arrays.copyOfRange(tokens, 0, tokens.length - numFields));
+		for (int i = 0; i < numFields; ++i)
+			result[i + 1] = tokens[tokens.length - numFields + i];
+		if (result[0].isEmpty() || result[numFields].isEmpty())
+			throw new CommandLineParsingException("Invalid annotation source specification " + spec);
+		return result;
+	}
+
+	/**
+	 * Parse <tt>NAME=COLUMN,...</tt> into value column descriptions
+	 */
+	private static List<GenericTSVValueColumnDescription> parseValueColumns(String spec, String columns)
+			throws CommandLineParsingException {
+		List<GenericTSVValueColumnDescription> result = new ArrayList<>();
+		for (String column : columns.split(",")) {
+			final String[] pair = column.split("=");
+			if (pair.length != 2 || pair[0].isEmpty())
+				throw new CommandLineParsingException("Expected NAME=COLUMN but got " + column + " in " + spec);
+			result.add(new GenericTSVValueColumnDescription(parseColumn(spec, pair[1]), pair[0]));
+		}
+		return result;
+	}
+
+	/**
+	 * Parse 1-based column index
+	 */
+	private static int parseColumn(String spec, String column) throws CommandLineParsingException {
+		try {
+			final int result = Integer.parseInt(column);
+			if (result < 1)
+				throw new CommandLineParsingException("Column indices must be positive in " + spec);
+			return result;
+		} catch (NumberFormatException e) {
+			throw new CommandLineParsingException("Invalid column index " + column + " in " + spec);
+		}
+	}
+
+	/**
+	 * Add the annotation source to <code>builder</code>
+	 *
+	 * @param builder
+	 *            the {@link MultiDBVariantContextAnnotatorBuilder} to add the source to
+	 * @throws JannovarVarDBException
+	 *             on problems opening the annotation file
+	 */
+	public void addTo(MultiDBVariantContextAnnotatorBuilder builder) throws JannovarVarDBException {
+		if (vcfOptions != null)
+			builder.addGenericVCF(path, vcfOptions);
+		else
+			builder.addGenericTSV(path, tsvOptions);
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		return "GenericDBAnnotationSpec [path=" + path + ", vcfOptions=" + vcfOptions + ", tsvOptions=" + tsvOptions
+				+ "]";
+	}
+
+}
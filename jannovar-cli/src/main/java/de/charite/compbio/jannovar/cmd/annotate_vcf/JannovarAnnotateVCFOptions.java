@@ -1,5 +1,7 @@
 package de.charite.compbio.jannovar.cmd.annotate_vcf;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import de.charite.compbio.jannovar.UncheckedJannovarException;
@@ -50,9 +52,39 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 	/** Prefix to use for UK10K VCF INFO Fields */
 	public String prefixUK10K;
 
+	/** Generic VCF, BED, and tabular annotation sources */
+	private List<GenericDBAnnotationSpec> genericAnnotations = new ArrayList<>();
+
 	/** Path to pedigree file */
 	public String pathPedFile;
 
+	/** Whether or not to summarize structural variants on the gene level and annotate symbolic SV alleles */
+	private boolean svGeneSummary = false;
+
+	/** Maximal number of genes to report for a structural variant, 0 for no limit */
+	private int maxSVGenes = 100;
+
+	/** Maximal transcript support level of the preferred transcripts when showing one effect only, 0 for all */
+	private int preferredTSL = 0;
+
+	/** Whether or not to write a tabix index for <tt>.gz</tt> output */
+	private boolean tabixIndex = false;
+
+	/** Compression level for <tt>.gz</tt> output */
+	private int compressionLevel = 5;
+
+	/** Number of threads for compressing <tt>.gz</tt> output */
+	private int compressionThreads = 4;
+
+	/** Number of threads for decompressing BGZF-compressed input */
+	private int decompressionThreads = 2;
+
+	/** Number of threads for querying the variant databases */
+	private int dbThreads = 1;
+
+	/** Whether or not to copy the records verbatim and only insert the ANN field */
+	private boolean passThrough = false;
+
 	/**
 	 * Setup {@link ArgumentParser}
 	 * 
@@ -81,7 +113,7 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 		annotationGroup.addArgument("--pedigree-file").help("Pedigree file to use for Mendelian inheritance annotation")
 				.required(false);
 		annotationGroup.addArgument("--ref-fasta")
-				.help("Path to FAI-indexed reference FASTA file, required for dbSNP/ExAC/UK10K-based annotation");
+				.help("Path to FAI-indexed reference FASTA file, required for database-based annotation");
 		annotationGroup.addArgument("--dbsnp-vcf").help("Path to dbSNP VCF file, activates dbSNP annotation")
 				.required(false);
 		annotationGroup.addArgument("--dbsnp-prefix").help("Prefix for dbSNP annotations").setDefault("DBSNP_")
@@ -94,6 +126,21 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 				.required(false);
 		annotationGroup.addArgument("--uk10k-prefix").help("Prefix for UK10K annotations").setDefault("UK10K_")
 				.required(false);
+		annotationGroup.addArgument("--vcf-annotation")
+				.help("Copy INFO fields from a tabix-indexed VCF file, given as PATH:PREFIX:FIELD[,FIELD...], can be "
+						+ "given multiple times")
+				.setDefault(new ArrayList<String>()).action(Arguments.append());
+		annotationGroup.addArgument("--bed-annotation")
+				.help("Annotate with columns of the overlapping regions in a tabix-indexed BED file, given as "
+						+ "PATH:PREFIX:NAME=COLUMN[,NAME=COLUMN...], can be given multiple times")
+				.setDefault(new ArrayList<String>()).action(Arguments.append());
+		annotationGroup.addArgument("--tsv-annotation")
+				.help("Annotate with columns of the matching variants in a tabix-indexed tabular file, given as "
+						+ "PATH:PREFIX:CHROM,POS,REF,ALT:NAME=COLUMN[,NAME=COLUMN...], can be given multiple times")
+				.setDefault(new ArrayList<String>()).action(Arguments.append());
+		annotationGroup.addArgument("--db-threads").type(Integer.class)
+				.help("Number of threads for querying the annotation databases, at most one per database")
+				.setDefault(1);
 
 		ArgumentGroup optionalGroup = subParser.addArgumentGroup("Other, optional Arguments");
 		optionalGroup.addArgument("--no-escape-ann-field").help("Disable escaping of INFO/ANN field in VCF output")
@@ -104,6 +151,27 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 				.dest("3_prime_shifting").setDefault(true).action(Arguments.storeFalse());
 		optionalGroup.addArgument("--3-letter-amino-acids").help("Enable usage of 3 letter amino acid codes")
 				.setDefault(false).action(Arguments.storeTrue());
+		optionalGroup.addArgument("--sv-gene-summary")
+				.help("Annotate structural variants (including symbolic alleles) on the gene level")
+				.setDefault(false).action(Arguments.storeTrue());
+		optionalGroup.addArgument("--max-sv-genes").type(Integer.class)
+				.help("Maximal number of genes to report for a structural variant, 0 for no limit").setDefault(100);
+		optionalGroup.addArgument("--preferred-tsl").type(Integer.class)
+				.help("Report the effect on transcripts with at most this support level if any overlap with a "
+						+ "variant, not with --show-all, 0 for considering all transcripts")
+				.setDefault(0);
+		optionalGroup.addArgument("--tabix-index").help("Write tabix index for VCF output ending in .gz")
+				.setDefault(false).action(Arguments.storeTrue());
+		optionalGroup.addArgument("--compression-level").type(Integer.class)
+				.help("Compression level (0-9) for VCF output ending in .gz").setDefault(5);
+		optionalGroup.addArgument("--compression-threads").type(Integer.class)
+				.help("Number of threads for compressing VCF output ending in .gz").setDefault(4);
+		optionalGroup.addArgument("--decompression-threads").type(Integer.class)
+				.help("Number of threads for decompressing BGZF-compressed VCF input").setDefault(2);
+		optionalGroup.addArgument("--pass-through")
+				.help("Copy the VCF records verbatim and only insert the ANN field, without decoding the genotypes; "
+						+ "cannot be combined with database or pedigree annotation")
+				.setDefault(false).action(Arguments.storeTrue());
 
 		JannovarBaseOptions.setupParser(subParser);
 	}
@@ -124,10 +192,48 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 		prefixExac = args.getString("exac_prefix");
 		pathVCFUK10K = args.getString("uk10k_vcf");
 		prefixUK10K = args.getString("uk10k_prefix");
+		genericAnnotations = new ArrayList<>();
+		for (String spec : args.<String> getList("vcf_annotation"))
+			genericAnnotations.add(GenericDBAnnotationSpec.parseVCF(spec));
+		for (String spec : args.<String> getList("bed_annotation"))
+			genericAnnotations.add(GenericDBAnnotationSpec.parseBED(spec));
+		for (String spec : args.<String> getList("tsv_annotation"))
+			genericAnnotations.add(GenericDBAnnotationSpec.parseTSV(spec));
+		svGeneSummary = args.getBoolean("sv_gene_summary");
+		maxSVGenes = args.getInt("max_sv_genes");
+		if (maxSVGenes < 0)
+			throw new CommandLineParsingException("Maximal number of SV genes must not be negative");
+		preferredTSL = args.getInt("preferred_tsl");
+		if (preferredTSL < 0)
+			throw new CommandLineParsingException("Preferred transcript support level must not be negative");
+		tabixIndex = args.getBoolean("tabix_index");
+		compressionLevel = args.getInt("compression_level");
+		if (compressionLevel < 0 || compressionLevel > 9)
+			throw new CommandLineParsingException("Compression level must be between 0 and 9");
+		compressionThreads = args.getInt("compression_threads");
+		if (compressionThreads < 1)
+			throw new CommandLineParsingException("Number of compression threads must be positive");
+		decompressionThreads = args.getInt("decompression_threads");
+		if (decompressionThreads < 1)
+			throw new CommandLineParsingException("Number of decompression threads must be positive");
+		dbThreads = args.getInt("db_threads");
+		if (dbThreads < 1)
+			throw new CommandLineParsingException("Number of database threads must be positive");
+		passThrough = args.getBoolean("pass_through");
+		if (passThrough && (pathPedFile != null || isDBAnnotation()))
+			throw new CommandLineParsingException(
+					"Command --pass-through cannot be used with database or pedigree annotation.");
 
-		if (pathFASTARef == null && (pathVCFDBSNP != null || pathVCFExac != null || pathVCFUK10K != null))
+		if (pathFASTARef == null && isDBAnnotation())
 			throw new CommandLineParsingException(
-					"Command --ref-fasta required when using dbSNP, ExAC, or UK10K annotations.");
+					"Command --ref-fasta required when using dbSNP, ExAC, UK10K, or generic annotations.");
+	}
+
+	/**
+	 * @return whether or not any annotation with variant databases or generic annotation sources is configured
+	 */
+	public boolean isDBAnnotation() {
+		return pathVCFDBSNP != null || pathVCFExac != null || pathVCFUK10K != null || !genericAnnotations.isEmpty();
 	}
 
 	public String getPathInputVCF() {
@@ -154,16 +260,101 @@ public class JannovarAnnotateVCFOptions extends JannovarAnnotationOptions {
 		this.escapeAnnField = escapeAnnField;
 	}
 
+	public boolean isSVGeneSummary() {
+		return svGeneSummary;
+	}
+
+	public void setSVGeneSummary(boolean svGeneSummary) {
+		this.svGeneSummary = svGeneSummary;
+	}
+
+	public int getMaxSVGenes() {
+		return maxSVGenes;
+	}
+
+	public void setMaxSVGenes(int maxSVGenes) {
+		this.maxSVGenes = maxSVGenes;
+	}
+
+	public int getPreferredTSL() {
+		return preferredTSL;
+	}
+
+	public void setPreferredTSL(int preferredTSL) {
+		this.preferredTSL = preferredTSL;
+	}
+
+	public boolean isTabixIndex() {
+		return tabixIndex;
+	}
+
+	public void setTabixIndex(boolean tabixIndex) {
+		this.tabixIndex = tabixIndex;
+	}
+
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	public int getCompressionThreads() {
+		return compressionThreads;
+	}
+
+	public void setCompressionThreads(int compressionThreads) {
+		this.compressionThreads = compressionThreads;
+	}
+
+	public int getDecompressionThreads() {
+		return decompressionThreads;
+	}
+
+	public void setDecompressionThreads(int decompressionThreads) {
+		this.decompressionThreads = decompressionThreads;
+	}
+
+	public int getDBThreads() {
+		return dbThreads;
+	}
+
+	public void setDBThreads(int dbThreads) {
+		this.dbThreads = dbThreads;
+	}
+
+	public List<GenericDBAnnotationSpec> getGenericAnnotations() {
+		return genericAnnotations;
+	}
+
+	public void setGenericAnnotations(List<GenericDBAnnotationSpec> genericAnnotations) {
+		this.genericAnnotations = genericAnnotations;
+	}
+
+	public boolean isPassThrough() {
+		return passThrough;
+	}
+
+	public void setPassThrough(boolean passThrough) {
+		this.passThrough = passThrough;
+	}
+
 	@Override
 	public String toString() {
 		return "JannovarAnnotateVCFOptions [escapeAnnField=" + escapeAnnField + ", pathInputVCF=" + pathInputVCF
 				+ ", pathOutputVCF=" + pathOutputVCF + ", pathVCFDBSNP=" + pathVCFDBSNP + ", prefixDBSNP=" + prefixDBSNP
 				+ ", pathFASTARef=" + pathFASTARef + ", pathVCFExac=" + pathVCFExac + ", prefixExac=" + prefixExac
-				+ ", pathVCFUK10K=" + pathVCFUK10K + ", prefixUK10K=" + prefixUK10K + ", pathPedFile=" + pathPedFile
-				+ ", isUseThreeLetterAminoAcidCode()=" + isUseThreeLetterAminoAcidCode() + ", isNt3PrimeShifting()="
-				+ isNt3PrimeShifting() + ", getDatabaseFilePath()=" + getDatabaseFilePath() + ", isReportProgress()="
-				+ isReportProgress() + ", getHttpProxy()=" + getHttpProxy() + ", getHttpsProxy()=" + getHttpsProxy()
-				+ ", getFtpProxy()=" + getFtpProxy() + "]";
+				+ ", pathVCFUK10K=" + pathVCFUK10K + ", prefixUK10K=" + prefixUK10K + ", genericAnnotations="
+				+ genericAnnotations + ", pathPedFile=" + pathPedFile
+				+ ", svGeneSummary=" + svGeneSummary + ", maxSVGenes=" + maxSVGenes + ", preferredTSL=" + preferredTSL
+				+ ", tabixIndex=" + tabixIndex + ", compressionLevel=" + compressionLevel + ", compressionThreads="
+				+ compressionThreads + ", decompressionThreads=" + decompressionThreads
+				+ ", dbThreads=" + dbThreads + ", passThrough=" + passThrough + ", isUseThreeLetterAminoAcidCode()="
+				+ isUseThreeLetterAminoAcidCode()
+				+ ", isNt3PrimeShifting()=" + isNt3PrimeShifting() + ", getDatabaseFilePath()=" + getDatabaseFilePath()
+				+ ", isReportProgress()=" + isReportProgress() + ", getHttpProxy()=" + getHttpProxy()
+				+ ", getHttpsProxy()=" + getHttpsProxy() + ", getFtpProxy()=" + getFtpProxy() + "]";
 	}
 
 }
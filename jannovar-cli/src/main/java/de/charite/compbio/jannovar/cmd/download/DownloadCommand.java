@@ -1,9 +1,15 @@
 package de.charite.compbio.jannovar.cmd.download;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
 import de.charite.compbio.jannovar.JannovarException;
 import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
 import de.charite.compbio.jannovar.cmd.JannovarCommand;
 import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataPatch;
 import de.charite.compbio.jannovar.data.JannovarDataSerializer;
 import de.charite.compbio.jannovar.datasource.DataSourceFactory;
 import de.charite.compbio.jannovar.datasource.DatasourceOptions;
@@ -34,16 +40,41 @@ public final class DownloadCommand extends JannovarCommand {
 
 		DatasourceOptions dsOptions = new DatasourceOptions(options.getHttpProxy(), options.getHttpsProxy(),
 				options.getFtpProxy(), options.isReportProgress());
+		dsOptions.setDownloadThreads(options.getDownloadThreads());
+		dsOptions.setConnectionsPerFile(options.getConnectionsPerFile());
 
 		DataSourceFactory factory = new DataSourceFactory(dsOptions, options.dataSourceFiles);
 		for (String name : options.getDatabaseNames()) {
 			System.err.println("Downloading/parsing for data source \"" + name + "\"");
-			JannovarData data = factory.getDataSource(name).getDataFactory().build(options.getDownloadDir(),
-					options.isReportProgress());
-			String filename = PathUtil.join(options.getDownloadDir(),
-					name.replace('/', '_').replace('\\', '_') + ".ser");
-			JannovarDataSerializer serializer = new JannovarDataSerializer(filename);
-			serializer.save(data);
+			String prefix = PathUtil.join(options.getDownloadDir(), name.replace('/', '_').replace('\\', '_'));
+			JannovarDataSerializer serializer = new JannovarDataSerializer(prefix + ".ser");
+			if (options.isIncremental() && new File(prefix + ".ser").exists()) {
+				System.err.println("Patching existing database " + prefix + ".ser");
+				JannovarData base = serializer.load();
+				JannovarDataPatch patch = factory.getDataSource(name).getDataFactory()
+						.buildPatch(options.getDownloadDir(), options.isReportProgress(), base);
+				writeChangeReport(patch, prefix + ".changes.tsv");
+				if (patch.hasChanges())
+					serializer.save(patch.getData(), options.isMapSequences());
+				else
+					System.err.println("No changes, keeping existing database");
+			} else {
+				JannovarData data = factory.getDataSource(name).getDataFactory().build(options.getDownloadDir(),
+						options.isReportProgress());
+				serializer.save(data, options.isMapSequences());
+			}
+		}
+	}
+
+	/**
+	 * Write change report of <code>patch</code> to <code>path</code>.
+	 */
+	private void writeChangeReport(JannovarDataPatch patch, String path) throws JannovarException {
+		System.err.println("Writing change report to " + path);
+		try (PrintStream out = new PrintStream(new FileOutputStream(path), false, "UTF-8")) {
+			patch.writeReport(out);
+		} catch (IOException e) {
+			throw new JannovarException("Could not write change report to " + path, e);
 		}
 	}
 
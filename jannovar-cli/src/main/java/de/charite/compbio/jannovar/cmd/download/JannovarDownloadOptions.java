@@ -30,6 +30,18 @@ public class JannovarDownloadOptions extends JannovarDBOptions {
 	/** Names of the databases to download */
 	private List<String> databaseNames = new ArrayList<>();
 
+	/** Number of files to download in parallel */
+	private int downloadThreads = 1;
+
+	/** Number of connections to use for downloading one file */
+	private int connectionsPerFile = 1;
+
+	/** Whether to patch an existing database file instead of building from scratch */
+	private boolean incremental = false;
+
+	/** Whether to write the transcript sequences to a memory-mapped .seq file next to the .ser file */
+	private boolean mapSequences = false;
+
 	/**
 	 * Setup {@link ArgumentParser}
 	 * 
@@ -57,6 +69,16 @@ public class JannovarDownloadOptions extends JannovarDBOptions {
 		optionalGroup.addArgument("-s", "--data-source-list").help("INI file with data source list")
 				.setDefault(Lists.newArrayList("bundle:///default_sources.ini")).action(Arguments.append());
 		optionalGroup.addArgument("--download-dir").help("Path to download directory").setDefault("data");
+		optionalGroup.addArgument("--download-threads").type(Integer.class)
+				.help("Number of files to download in parallel").setDefault(1);
+		optionalGroup.addArgument("--connections-per-file").type(Integer.class)
+				.help("Number of connections to use for downloading large files").setDefault(1);
+		optionalGroup.addArgument("--incremental").help(
+				"Reuse unchanged transcripts from an existing .ser file and write a change report to .changes.tsv")
+				.action(Arguments.storeTrue()).setDefault(false);
+		optionalGroup.addArgument("--map-sequences").help(
+				"Write transcript sequences to a .seq file that is memory-mapped and shared between processes")
+				.action(Arguments.storeTrue()).setDefault(false);
 
 		JannovarBaseOptions.setupParser(subParser);
 	}
@@ -67,6 +89,14 @@ public class JannovarDownloadOptions extends JannovarDBOptions {
 
 		downloadDir = args.getString("download_dir");
 		databaseNames = args.getList("database");
+		downloadThreads = args.getInt("download_threads");
+		if (downloadThreads < 1)
+			throw new CommandLineParsingException("Number of download threads must be at least 1");
+		connectionsPerFile = args.getInt("connections_per_file");
+		if (connectionsPerFile < 1)
+			throw new CommandLineParsingException("Number of connections per file must be at least 1");
+		incremental = args.getBoolean("incremental");
+		mapSequences = args.getBoolean("map_sequences");
 	}
 
 	public String getDownloadDir() {
@@ -85,9 +115,44 @@ public class JannovarDownloadOptions extends JannovarDBOptions {
 		this.databaseNames = databaseNames;
 	}
 
+	public int getDownloadThreads() {
+		return downloadThreads;
+	}
+
+	public void setDownloadThreads(int downloadThreads) {
+		this.downloadThreads = downloadThreads;
+	}
+
+	public int getConnectionsPerFile() {
+		return connectionsPerFile;
+	}
+
+	public void setConnectionsPerFile(int connectionsPerFile) {
+		this.connectionsPerFile = connectionsPerFile;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public boolean isMapSequences() {
+		return mapSequences;
+	}
+
+	public void setMapSequences(boolean mapSequences) {
+		this.mapSequences = mapSequences;
+	}
+
 	@Override
 	public String toString() {
-		return "JannovarDownloadOptions [downloadDir=" + downloadDir + ", getDataSourceFiles()=" + getDataSourceFiles()
+		return "JannovarDownloadOptions [downloadDir=" + downloadDir + ", downloadThreads=" + downloadThreads
+				+ ", connectionsPerFile=" + connectionsPerFile + ", incremental=" + incremental
+				+ ", mapSequences=" + mapSequences
+				+ ", getDataSourceFiles()=" + getDataSourceFiles()
 				+ ", isReportProgress()=" + isReportProgress() + ", getHttpProxy()=" + getHttpProxy()
 				+ ", getHttpsProxy()=" + getHttpsProxy() + ", getFtpProxy()=" + getFtpProxy() + "]";
 	}
@@ -0,0 +1,141 @@
+package de.charite.compbio.jannovar.cmd.filter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.charite.compbio.jannovar.Jannovar;
+import de.charite.compbio.jannovar.JannovarException;
+import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
+import de.charite.compbio.jannovar.cmd.JannovarAnnotationCommand;
+import de.charite.compbio.jannovar.htsjdk.VariantContextWriterConstructionHelper;
+import de.charite.compbio.jannovar.mendel.filter.CoordinateSortingChecker;
+import de.charite.compbio.jannovar.mendel.filter.MultiPedigreeMendelianFilterProcessor;
+import de.charite.compbio.jannovar.mendel.filter.VariantContextFilterException;
+import de.charite.compbio.jannovar.mendel.filter.VariantContextProcessor;
+import de.charite.compbio.jannovar.pedigree.PedFileContents;
+import de.charite.compbio.jannovar.pedigree.PedFileReader;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLine;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Filter VCF file for variants compatible with Mendelian inheritance in any family of a (multi-family) pedigree file.
+ *
+ * The VCF file is read in a single pass, each VCF sample is assigned to its family from the pedigree file.
+ */
+public class FilterVCFCommand extends JannovarAnnotationCommand {
+
+	/** Raw command line arguments */
+	private String[] argv = null;
+
+	/** Configuration */
+	private JannovarFilterOptions options;
+
+	public FilterVCFCommand(String[] argv, Namespace args) throws CommandLineParsingException {
+		this.argv = argv;
+		this.options = new JannovarFilterOptions();
+		this.options.setFromArgs(args);
+	}
+
+	@Override
+	public void run() throws JannovarException {
+		System.err.println("Options");
+		System.err.println(options.toString());
+
+		System.err.println("Deserializing transcripts...");
+		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath());
+
+		final String vcfPath = options.getPathInputVCF();
+		try (VCFFileReader vcfReader = new VCFFileReader(new File(vcfPath), false)) {
+			VCFHeader vcfHeader = vcfReader.getFileHeader();
+
+			System.err.println("Assigning samples to families...");
+			final ImmutableList<Pedigree> pedigrees = buildPedigrees(vcfHeader);
+			System.err.println("Filtering for " + pedigrees.size() + " families.");
+
+			final MultiPedigreeMendelianFilterProcessor.Options filterOptions = new MultiPedigreeMendelianFilterProcessor.Options(
+					options.getModes(), options.isTagIncompatible(), options.getFilterName(), "",
+					options.getNumThreads(), 64);
+
+			System.err.println("Filtering VCF...");
+			final long startTime = System.nanoTime();
+
+			final VCFHeader outHeader = new VCFHeader(vcfHeader);
+			MultiPedigreeMendelianFilterProcessor.extendHeader(outHeader, filterOptions);
+			ImmutableSet<VCFHeaderLine> additionalLines = ImmutableSet.of(
+					new VCFHeaderLine("jannovarVersion", Jannovar.getVersion()),
+					new VCFHeaderLine("jannovarCommand", Joiner.on(' ').join(argv)));
+			try (VariantContextWriter writer = VariantContextWriterConstructionHelper.openVariantContextWriter(
+					outHeader, options.getPathOutputVCF(), additionalLines);
+					VariantContextProcessor sink = new CoordinateSortingChecker(
+							new MultiPedigreeMendelianFilterProcessor(pedigrees, vcfHeader.getGenotypeSamples(),
+									jannovarData, filterOptions, vc -> writer.add(vc)))) {
+				vcfReader.iterator().stream().forEachOrdered(sink::put);
+			}
+
+			System.err.println("Wrote filtered variants to \"" + options.getPathOutputVCF() + "\"");
+			final long endTime = System.nanoTime();
+			System.err.println(String.format("Filtering and writing took %.2f sec.",
+					(endTime - startTime) / 1000.0 / 1000.0 / 1000.0));
+		} catch (IOException e) {
+			throw new JannovarException("Problem opening file", e);
+		} catch (VariantContextFilterException e) {
+			throw new JannovarException("There was a problem filtering the VCF file", e);
+		}
+	}
+
+	/**
+	 * Load pedigree file and build one {@link Pedigree} for each family with at least one sample in the VCF file,
+	 * restricted to these samples
+	 *
+	 * @param vcfHeader
+	 *            {@link VCFHeader} with the sample names
+	 * @return {@link ImmutableList} of the families to filter for
+	 * @throws JannovarException
+	 *             on problems with loading the pedigree file or if no VCF sample is in the pedigree file
+	 * @throws IOException
+	 *             on problems with reading the pedigree file
+	 */
+	private ImmutableList<Pedigree> buildPedigrees(VCFHeader vcfHeader) throws JannovarException, IOException {
+		final PedFileContents pedContents = new PedFileReader(new File(options.getPathPedFile())).read();
+		final HashSet<String> vcfSamples = new HashSet<>(vcfHeader.getGenotypeSamples());
+
+		ImmutableList.Builder<Pedigree> builder = new ImmutableList.Builder<>();
+		for (String name : pedContents.getPedigreeNames()) {
+			final Pedigree pedigree = new Pedigree(pedContents, name);
+			List<String> present = new ArrayList<>();
+			for (String member : pedigree.getNames())
+				if (vcfSamples.contains(member))
+					present.add(member);
+			if (present.isEmpty())
+				System.err.println("WARNING: skipping family " + name + ", none of its members is in the VCF file");
+			else
+				builder.add(pedigree.subsetOfMembers(present));
+		}
+
+		List<String> missing = new ArrayList<>();
+		for (String sample : vcfHeader.getGenotypeSamples())
+			if (!pedContents.getNameToPerson().containsKey(sample))
+				missing.add(sample);
+		if (!missing.isEmpty())
+			System.err.println("WARNING: ignoring VCF samples not present in pedigree file: "
+					+ Joiner.on(", ").join(missing));
+
+		final ImmutableList<Pedigree> result = builder.build();
+		if (result.isEmpty())
+			throw new JannovarException("None of the samples in " + options.getPathInputVCF()
+					+ " is present in pedigree file " + options.getPathPedFile());
+		return result;
+	}
+
+}
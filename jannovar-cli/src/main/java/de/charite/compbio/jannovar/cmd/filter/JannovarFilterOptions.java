@@ -0,0 +1,187 @@
+package de.charite.compbio.jannovar.cmd.filter;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import de.charite.compbio.jannovar.cmd.CommandLineParsingException;
+import de.charite.compbio.jannovar.cmd.JannovarBaseOptions;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.mendel.filter.MultiPedigreeMendelianFilterProcessor;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentGroup;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import net.sourceforge.argparse4j.inf.Subparsers;
+
+/**
+ * Options for filtering VCF files for compatibility with Mendelian inheritance
+ */
+public class JannovarFilterOptions extends JannovarBaseOptions {
+
+	/** Path to database file */
+	private String databaseFilePath = null;
+
+	/** Path to input VCF file */
+	private String pathInputVCF = null;
+
+	/** Path to output VCF file */
+	private String pathOutputVCF = null;
+
+	/** Path to pedigree file, may contain multiple families */
+	private String pathPedFile = null;
+
+	/** Modes of inheritance to accept */
+	private ImmutableList<ModeOfInheritance> modes = null;
+
+	/** Whether to write out incompatible variants with a FILTER value instead of removing them */
+	private boolean tagIncompatible = false;
+
+	/** FILTER value to use for incompatible variants */
+	private String filterName = null;
+
+	/** Number of threads to use for checking the families */
+	private int numThreads = 1;
+
+	/**
+	 * Setup {@link ArgumentParser}
+	 *
+	 * @param subParsers
+	 *            {@link Subparsers} to setup
+	 */
+	public static void setupParser(Subparsers subParsers) {
+		BiFunction<String[], Namespace, FilterVCFCommand> handler = (argv, args) -> {
+			try {
+				return new FilterVCFCommand(argv, args);
+			} catch (CommandLineParsingException e) {
+				throw new UncheckedJannovarException("Could not parse command line", e);
+			}
+		};
+
+		Subparser subParser = subParsers.addParser("filter", true)
+				.help("filter VCF files for compatible Mendelian inheritance").setDefault("cmd", handler);
+		subParser.description("Filter a VCF file for variants compatible with Mendelian inheritance in at least "
+				+ "one of the families from the pedigree file");
+
+		ArgumentGroup requiredGroup = subParser.addArgumentGroup("Required arguments");
+		requiredGroup.addArgument("-i", "--input-vcf").help("Path to input VCF file").required(true);
+		requiredGroup.addArgument("-o", "--output-vcf").help("Path to output VCF file").required(true);
+		requiredGroup.addArgument("-d", "--database").help("Path to database .ser file").required(true);
+		requiredGroup.addArgument("--pedigree-file").help("Pedigree file, may contain multiple families")
+				.required(true);
+
+		ArgumentGroup filterGroup = subParser.addArgumentGroup("Filter Arguments (optional)");
+		filterGroup.addArgument("--modes").help("Modes of inheritance to accept").nargs("+")
+				.choices("AD", "AR", "XD", "XR").setDefault(ImmutableList.of("AD", "AR", "XD", "XR"));
+		filterGroup.addArgument("--tag-incompatible")
+				.help("Write out incompatible variants with a FILTER value instead of removing them")
+				.setDefault(false).action(Arguments.storeTrue());
+		filterGroup.addArgument("--filter-name").help("FILTER value to use with --tag-incompatible")
+				.setDefault(MultiPedigreeMendelianFilterProcessor.DEFAULT_FILTER_NAME);
+		filterGroup.addArgument("--threads").type(Integer.class)
+				.help("Number of threads to use for checking the families").setDefault(1);
+
+		subParser.epilog("Example: java -jar Jannovar.jar filter -d hg19_refseq.ser --pedigree-file cohort.ped "
+				+ "-i in.vcf -o out.vcf --modes AR");
+
+		JannovarBaseOptions.setupParser(subParser);
+	}
+
+	@Override
+	public void setFromArgs(Namespace args) throws CommandLineParsingException {
+		super.setFromArgs(args);
+
+		databaseFilePath = args.getString("database");
+		pathInputVCF = args.getString("input_vcf");
+		pathOutputVCF = args.getString("output_vcf");
+		pathPedFile = args.getString("pedigree_file");
+		tagIncompatible = args.getBoolean("tag_incompatible");
+		filterName = args.getString("filter_name");
+		numThreads = args.getInt("threads");
+		if (numThreads < 1)
+			throw new CommandLineParsingException("Number of threads must be at least 1");
+
+		ImmutableList.Builder<ModeOfInheritance> builder = new ImmutableList.Builder<>();
+		for (String abbr : args.<String> getList("modes"))
+			for (ModeOfInheritance mode : ModeOfInheritance.values())
+				if (abbr.equals(mode.getAbbreviation()))
+					builder.add(mode);
+		modes = builder.build();
+	}
+
+	public String getDatabaseFilePath() {
+		return databaseFilePath;
+	}
+
+	public void setDatabaseFilePath(String databaseFilePath) {
+		this.databaseFilePath = databaseFilePath;
+	}
+
+	public String getPathInputVCF() {
+		return pathInputVCF;
+	}
+
+	public void setPathInputVCF(String pathInputVCF) {
+		this.pathInputVCF = pathInputVCF;
+	}
+
+	public String getPathOutputVCF() {
+		return pathOutputVCF;
+	}
+
+	public void setPathOutputVCF(String pathOutputVCF) {
+		this.pathOutputVCF = pathOutputVCF;
+	}
+
+	public String getPathPedFile() {
+		return pathPedFile;
+	}
+
+	public void setPathPedFile(String pathPedFile) {
+		this.pathPedFile = pathPedFile;
+	}
+
+	public List<ModeOfInheritance> getModes() {
+		return modes;
+	}
+
+	public void setModes(List<ModeOfInheritance> modes) {
+		this.modes = ImmutableList.copyOf(modes);
+	}
+
+	public boolean isTagIncompatible() {
+		return tagIncompatible;
+	}
+
+	public void setTagIncompatible(boolean tagIncompatible) {
+		this.tagIncompatible = tagIncompatible;
+	}
+
+	public String getFilterName() {
+		return filterName;
+	}
+
+	public void setFilterName(String filterName) {
+		this.filterName = filterName;
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	public void setNumThreads(int numThreads) {
+		this.numThreads = numThreads;
+	}
+
+	@Override
+	public String toString() {
+		return "JannovarFilterOptions [databaseFilePath=" + databaseFilePath + ", pathInputVCF=" + pathInputVCF
+				+ ", pathOutputVCF=" + pathOutputVCF + ", pathPedFile=" + pathPedFile + ", modes=" + modes
+				+ ", tagIncompatible=" + tagIncompatible + ", filterName=" + filterName + ", numThreads="
+				+ numThreads + ", isReportProgress()=" + isReportProgress() + "]";
+	}
+
+}
@@ -68,7 +68,7 @@ public class ProjectTranscriptToChromosome extends JannovarAnnotationCommand {
 		System.err.println("Options");
 		System.err.println(options.toString());
 		System.err.println("Loading database file...");
-		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath());
+		deserializeTranscriptDefinitionFile(options.getDatabaseFilePath(), options.buildDataFilter());
 		System.err.println("Loading FASTA index...");
 		loadFASTAIndex();
 		System.err.println("Opening output VCF file...");
@@ -51,8 +51,11 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 	/** the annotated {@link GenomeVariant} */
 	private final GenomeVariant change;
 
-	/** variant types, sorted by internal pathogenicity score */
-	private final ImmutableSortedSet<VariantEffect> effects;
+	/** variant types as bit mask, see {@link VariantEffect#toMask} */
+	private final long effectMask;
+
+	/** variant types sorted by internal pathogenicity score, <code>null</code> if not decoded from mask yet */
+	private ImmutableSortedSet<VariantEffect> effects;
 
 	/** errors and warnings */
 	private final ImmutableSortedSet<AnnotationMessage> messages;
@@ -141,9 +144,9 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 			change = change.withStrand(Strand.FWD); // enforce forward strand
 		this.change = change;
 		if (varTypes == null)
-			this.effects = ImmutableSortedSet.<VariantEffect> of();
+			this.effectMask = 0;
 		else
-			this.effects = ImmutableSortedSet.copyOf(varTypes);
+			this.effectMask = VariantEffect.toMask(varTypes);
 		this.annoLoc = annoLoc;
 		this.genomicNTChange = genomicNTChange;
 		this.cdsNTChange = cdsNTChange;
@@ -159,9 +162,16 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 
 	/** @return variant types, sorted by internal pathogenicity score */
 	public ImmutableSortedSet<VariantEffect> getEffects() {
+		if (effects == null)
+			effects = VariantEffect.fromMask(effectMask);
 		return effects;
 	}
 
+	/** @return variant types as bit mask, see {@link VariantEffect#toMask} */
+	public long getEffectMask() {
+		return effectMask;
+	}
+
 	/** @return errors and warnings */
 	public ImmutableSortedSet<AnnotationMessage> getMessages() {
 		return messages;
@@ -243,13 +253,7 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 	 * @return highest {@link PutativeImpact} of all {@link #getEffects}.
 	 */
 	public PutativeImpact getPutativeImpact() {
-		if (effects.isEmpty())
-			return null;
-		VariantEffect worst = effects.first();
-		for (VariantEffect vt : effects)
-			if (worst.getImpact().compareTo(vt.getImpact()) > 0)
-				worst = vt;
-		return worst.getImpact();
+		return VariantEffect.highestImpact(effectMask);
 	}
 
 	/**
@@ -266,7 +270,7 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 	 */
 	public String toVCFAnnoString(String alt, boolean escape) {
 		VCFAnnotationData data = new VCFAnnotationData();
-		data.effects = effects;
+		data.effects = getEffects();
 		data.impact = getPutativeImpact();
 		data.setTranscriptAndChange(transcript, change);
 		data.setAnnoLoc(annoLoc);
@@ -322,12 +326,10 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 	}
 
 	/**
-	 * @return most pathogenic {@link VariantEffect} link {@link #effects}, <code>null</code> if none.
+	 * @return most pathogenic {@link VariantEffect} of {@link #getEffects}, <code>null</code> if none.
 	 */
 	public VariantEffect getMostPathogenicVarType() {
-		if (effects.isEmpty())
-			return null;
-		return effects.first();
+		return VariantEffect.mostPathogenic(effectMask);
 	}
 
 	@Override
@@ -357,14 +359,10 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 
 	@Override
 	public int compareTo(Annotation other) {
-		if (getMostPathogenicVarType() == null && getMostPathogenicVarType() == other.getMostPathogenicVarType())
+		// the lowest bit is the most pathogenic effect, empty masks yield Long.SIZE and are thus sorted last
+		if (effectMask == 0 && other.effectMask == 0)
 			return 0;
-		else if (other.getMostPathogenicVarType() == null)
-			return -1;
-		else if (getMostPathogenicVarType() == null)
-			return 1;
-
-		int result = getMostPathogenicVarType().ordinal() - other.getMostPathogenicVarType().ordinal();
+		int result = Long.numberOfTrailingZeros(effectMask) - Long.numberOfTrailingZeros(other.effectMask);
 		if (result != 0)
 			return result;
 
@@ -380,7 +378,7 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 
 	@Override
 	public String toString() {
-		return "Annotation [change=" + change + ", effects=" + effects + ", cdsNTChange=" + cdsNTChange
+		return "Annotation [change=" + change + ", effects=" + getEffects() + ", cdsNTChange=" + cdsNTChange
 				+ ", proteinChange=" + (proteinChange == null ? "." : proteinChange.toHGVSString())
 				+ ", transcript.getAccession()=" + transcript.getAccession() + "]";
 	}
@@ -391,7 +389,7 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 		int result = 1;
 		result = prime * result + ((proteinChange == null) ? 0 : proteinChange.hashCode());
 		result = prime * result + ((annoLoc == null) ? 0 : annoLoc.hashCode());
-		result = prime * result + ((effects == null) ? 0 : effects.hashCode());
+		result = prime * result + (int) (effectMask ^ (effectMask >>> 32));
 		result = prime * result + ((messages == null) ? 0 : messages.hashCode());
 		result = prime * result + ((cdsNTChange == null) ? 0 : cdsNTChange.hashCode());
 		result = prime * result + ((transcript == null) ? 0 : transcript.hashCode());
@@ -417,10 +415,7 @@ public final class Annotation implements VariantDescription, Comparable<Annotati
 				return false;
 		} else if (!annoLoc.equals(other.annoLoc))
 			return false;
-		if (effects == null) {
-			if (other.effects != null)
-				return false;
-		} else if (!effects.equals(other.effects))
+		if (effectMask != other.effectMask)
 			return false;
 		if (messages == null) {
 			if (other.messages != null)
@@ -56,6 +56,20 @@ public enum AnnotationMessage {
 	 * this indicates a bug.
 	 */
 	ERROR_PROBLEM_DURING_ANNOTATION,
+	/**
+	 * (non-standard) The list of annotations has been truncated, e.g., for a structural variant affecting more genes
+	 * than configured to report.
+	 */
+	INFO_TRUNCATED_ANNOTATIONS,
 	/** AnnotationMessage not encoded in enum. */
-	OTHER_MESSAGE
+	OTHER_MESSAGE;
+
+	/**
+	 * @return <code>true</code> if this message marks a variant that could not be annotated
+	 */
+	public boolean isError() {
+		return (this == ERROR_CHROMOSOME_NOT_FOUND || this == ERROR_OUT_OF_CHROMOSOME_RANGE
+				|| this == ERROR_PROBLEM_DURING_ANNOTATION);
+	}
+
 }
\ No newline at end of file
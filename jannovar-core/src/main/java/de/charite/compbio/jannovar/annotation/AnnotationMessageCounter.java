@@ -0,0 +1,81 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Thread-safe counter of {@link AnnotationMessage}s
+ *
+ * Used for summarizing the problems during the annotation of a file, e.g., the number of records on unknown contigs
+ * or of alleles that could not be annotated, without keeping the affected variants around.
+ */
+public final class AnnotationMessageCounter {
+
+	/** counts, indexed by {@link AnnotationMessage#ordinal()} */
+	private final AtomicLongArray counts = new AtomicLongArray(AnnotationMessage.values().length);
+
+	/**
+	 * Increment count of <code>message</code> by one
+	 *
+	 * @param message
+	 *            the {@link AnnotationMessage} to count
+	 */
+	public void increment(AnnotationMessage message) {
+		counts.incrementAndGet(message.ordinal());
+	}
+
+	/**
+	 * Count each error message ({@link AnnotationMessage#isError()}) of <code>annotations</code> once
+	 *
+	 * @param annotations
+	 *            the {@link VariantAnnotations} of one variant
+	 */
+	public void incrementErrors(VariantAnnotations annotations) {
+		long seen = 0; // bit mask of ordinals, there are less than 64 messages
+		for (Annotation anno : annotations.getUnsortedAnnotations()) {
+			for (AnnotationMessage message : anno.getMessages()) {
+				if (message.isError() && (seen & (1L << message.ordinal())) == 0) {
+					seen |= 1L << message.ordinal();
+					increment(message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param message
+	 *            the {@link AnnotationMessage} to get the count of
+	 * @return number of times that <code>message</code> was counted
+	 */
+	public long getCount(AnnotationMessage message) {
+		return counts.get(message.ordinal());
+	}
+
+	/**
+	 * @return sum of all counts
+	 */
+	public long getTotalCount() {
+		long result = 0;
+		for (int i = 0; i < counts.length(); ++i)
+			result += counts.get(i);
+		return result;
+	}
+
+	/**
+	 * @return the non-zero counts, in the order of {@link AnnotationMessage}
+	 */
+	public ImmutableMap<AnnotationMessage, Long> getCounts() {
+		ImmutableMap.Builder<AnnotationMessage, Long> builder = ImmutableMap.builder();
+		for (AnnotationMessage message : AnnotationMessage.values())
+			if (getCount(message) > 0)
+				builder.put(message, getCount(message));
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		return "AnnotationMessageCounter [counts=" + getCounts() + "]";
+	}
+
+}
@@ -22,9 +22,9 @@ public final class BestAnnotationListTextGenerator extends VariantAnnotationsTex
 
 	@Override
 	protected ImmutableList<Annotation> getAnnotations() {
-		if (annotations.getAnnotations().isEmpty())
-			return annotations.getAnnotations().subList(0, 0);
+		if (!annotations.hasAnnotation())
+			return ImmutableList.of();
 		else
-			return annotations.getAnnotations().subList(0, 1);
+			return ImmutableList.of(annotations.getHighestImpactAnnotation());
 	}
 }
@@ -0,0 +1,145 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderDispatcher;
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
+import de.charite.compbio.jannovar.annotation.builders.TranscriptAnnotationContext;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Builds the {@link Annotation} with highest priority for a variant without building the annotations for all
+ * overlapping transcripts.
+ *
+ * For each candidate transcript, a lower bound on the ordinal of the most pathogenic {@link VariantEffect} of its
+ * annotation is derived from the transcript's coding status and a quick classification of the variant's location:
+ * variants far away from all exons can only yield intronic (or UTR intron, upstream, downstream) effects. The
+ * candidates are then processed in the order of their bounds, and a candidate is only passed to
+ * {@link AnnotationBuilderDispatcher} if its annotation could rank before the best annotation built so far. The
+ * result is the same as the first entry of the {@link VariantAnnotations} with the annotations of all candidates.
+ */
+final class BestTranscriptSelector {
+
+	/**
+	 * variants within this distance of an exon can have exonic or splicing effects (splice regions reach 8 bases into
+	 * the intron, plus one base for the left neighbour of insertions)
+	 */
+	static final int EXON_MARGIN = 9;
+
+	/** lowest effect ordinal of coding transcripts for variants away from exons */
+	private static final int CODING_INTRONIC_BOUND = VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT.ordinal();
+	/** lowest effect ordinal of non-coding transcripts for variants close to exons */
+	private static final int NON_CODING_EXONIC_BOUND = Math.min(VariantEffect.SPLICE_ACCEPTOR_VARIANT.ordinal(),
+			VariantEffect.SPLICE_DONOR_VARIANT.ordinal());
+	/** lowest effect ordinal of non-coding transcripts for variants away from exons */
+	private static final int NON_CODING_INTRONIC_BOUND = VariantEffect.NON_CODING_TRANSCRIPT_INTRON_VARIANT
+			.ordinal();
+
+	/** configuration for the annotation builders */
+	private final AnnotationBuilderOptions options;
+
+	/**
+	 * Initialize the selector
+	 *
+	 * @param options
+	 *            configuration for the annotation builders, including the preferred transcript support level
+	 */
+	BestTranscriptSelector(AnnotationBuilderOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * Build the annotation with highest priority for <code>change</code>
+	 *
+	 * @param change
+	 *            the {@link GenomeVariant} to annotate
+	 * @param changeInterval
+	 *            {@link GenomeInterval} of <code>change</code>
+	 * @param overlapping
+	 *            contexts of the transcripts overlapping with <code>changeInterval</code>, must not be empty
+	 * @return {@link Annotation} with highest priority for the (preferred) overlapping transcripts
+	 * @throws InvalidGenomeVariant
+	 *             on problems building an annotation
+	 */
+	Annotation build(GenomeVariant change, GenomeInterval changeInterval,
+			List<TranscriptAnnotationContext> overlapping) throws InvalidGenomeVariant {
+		final List<TranscriptAnnotationContext> contexts = selectPreferred(overlapping);
+		final GenomeInterval fwdInterval = changeInterval.withStrand(Strand.FWD);
+
+		final Candidate[] candidates = new Candidate[contexts.size()];
+		for (int i = 0; i < candidates.length; ++i)
+			candidates[i] = new Candidate(contexts.get(i), fwdInterval.getBeginPos(), fwdInterval.getEndPos());
+		// transcripts with equal effects are ordered by TranscriptModel.compareTo(), process in this order as well
+		Arrays.sort(candidates, new Comparator<Candidate>() {
+			@Override
+			public int compare(Candidate lhs, Candidate rhs) {
+				if (lhs.bound != rhs.bound)
+					return Integer.compare(lhs.bound, rhs.bound);
+				return lhs.context.getTranscript().compareTo(rhs.context.getTranscript());
+			}
+		});
+
+		Annotation best = null;
+		for (Candidate candidate : candidates) {
+			if (best != null) {
+				// empty effect sets are sorted last
+				final int bestRank = Long.numberOfTrailingZeros(best.getEffectMask());
+				if (candidate.bound > bestRank)
+					break; // the remaining candidates have larger bounds
+				final TranscriptModel tm = candidate.context.getTranscript();
+				if (candidate.bound == bestRank && tm.compareTo(best.getTranscript()) >= 0)
+					continue;
+			}
+			final Annotation anno = new AnnotationBuilderDispatcher(candidate.context, change, options).build();
+			if (best == null || anno.compareTo(best) < 0)
+				best = anno;
+		}
+		return best;
+	}
+
+	/**
+	 * @return the contexts of the transcripts with a transcript support level of at most
+	 *         {@link AnnotationBuilderOptions#getPreferredTranscriptSupportLevel}, <code>contexts</code> if there are
+	 *         none or no level is configured
+	 */
+	private List<TranscriptAnnotationContext> selectPreferred(List<TranscriptAnnotationContext> contexts) {
+		final int maxLevel = options.getPreferredTranscriptSupportLevel();
+		if (maxLevel <= 0)
+			return contexts;
+		ArrayList<TranscriptAnnotationContext> result = new ArrayList<>();
+		for (TranscriptAnnotationContext context : contexts) {
+			final int level = context.getTranscript().getTranscriptSupportLevel();
+			if (level > 0 && level <= maxLevel)
+				result.add(context);
+		}
+		return result.isEmpty() ? contexts : result;
+	}
+
+	/**
+	 * A candidate transcript with the lower bound on its most pathogenic effect ordinal
+	 */
+	private static final class Candidate {
+
+		/** context of the candidate transcript */
+		final TranscriptAnnotationContext context;
+		/** lower bound on the ordinal of the most pathogenic {@link VariantEffect} */
+		final int bound;
+
+		Candidate(TranscriptAnnotationContext context, int beginPos, int endPos) {
+			this.context = context;
+			final boolean nearExon = context.isNearExon(beginPos, endPos, EXON_MARGIN);
+			if (context.getTranscript().isCoding())
+				this.bound = nearExon ? 0 : CODING_INTRONIC_BOUND;
+			else
+				this.bound = nearExon ? NON_CODING_EXONIC_BOUND : NON_CODING_INTRONIC_BOUND;
+		}
+
+	}
+
+}
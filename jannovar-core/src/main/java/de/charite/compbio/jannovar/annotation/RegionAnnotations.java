@@ -0,0 +1,58 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.Collection;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+
+/**
+ * The {@link RegionOverlap}s of one genomic region, as built by {@link RegionAnnotator}.
+ */
+@Immutable
+public final class RegionAnnotations {
+
+	/** the annotated region, on the forward strand */
+	private final GenomeInterval region;
+
+	/** the overlaps with transcripts, in the order of the transcripts' begin positions */
+	private final ImmutableList<RegionOverlap> overlaps;
+
+	/**
+	 * Initialize object with the given values
+	 *
+	 * Note that <code>region</code> is converted to the forward strand.
+	 *
+	 * @param region
+	 *            the annotated region
+	 * @param overlaps
+	 *            the {@link RegionOverlap}s of <code>region</code>
+	 */
+	public RegionAnnotations(GenomeInterval region, Collection<RegionOverlap> overlaps) {
+		this.region = region.withStrand(Strand.FWD);
+		this.overlaps = ImmutableList.copyOf(overlaps);
+	}
+
+	/** @return the annotated region, on the forward strand */
+	public GenomeInterval getRegion() {
+		return region;
+	}
+
+	/** @return the overlaps with transcripts, in the order of the transcripts' begin positions */
+	public ImmutableList<RegionOverlap> getOverlaps() {
+		return overlaps;
+	}
+
+	/** @return <code>true</code> if the region overlaps with any transcript */
+	public boolean hasOverlaps() {
+		return !overlaps.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "RegionAnnotations [region=" + region + ", overlaps=" + overlaps + "]";
+	}
+
+}
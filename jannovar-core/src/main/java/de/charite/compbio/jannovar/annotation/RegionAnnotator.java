@@ -0,0 +1,214 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.annotation.RegionOverlap.Feature;
+import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.impl.intervals.Interval;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Annotation of sorted genomic regions (e.g., from a BED file) with the transcript features they overlap.
+ *
+ * In contrast to {@link VariantAnnotator}, no interval tree query is performed for each region. Instead, the regions
+ * have to be passed in sorted by chromosome and begin position and the transcripts of each chromosome, which are
+ * already sorted by begin position in the {@link Chromosome}'s interval tree, are swept in one merge pass. The
+ * transcripts that may overlap with the current region are kept in an "active" list that is updated incrementally,
+ * such that annotating all regions of a chromosome takes time linear in the number of regions, transcripts, and
+ * reported overlaps.
+ *
+ * The order of the chromosomes is arbitrary but all regions of a chromosome must be passed in consecutively. Objects
+ * of this class are stateful and thus not thread-safe.
+ */
+public final class RegionAnnotator {
+
+	/** number of bases next to the exon-intron boundaries in the exon that belong to the splice region */
+	private static final int SPLICE_REGION_EXON_BASES = 3;
+	/** number of bases next to the exon-intron boundaries in the intron that belong to the splice region */
+	private static final int SPLICE_REGION_INTRON_BASES = 8;
+	/** number of bases of the splice donor and acceptor sites */
+	private static final int SPLICE_SITE_BASES = 2;
+
+	/** {@link ReferenceDictionary} to use for genome information */
+	private final ReferenceDictionary refDict;
+
+	/** {@link Chromosome}s with their transcripts */
+	private final ImmutableMap<Integer, Chromosome> chromosomeMap;
+
+	/** numeric IDs of the chromosomes that were processed before {@link #currentChr} */
+	private final HashSet<Integer> finishedChrs = new HashSet<>();
+
+	/** numeric ID of the current chromosome, <code>-1</code> before the first region */
+	private int currentChr = -1;
+
+	/** begin position of the last region on {@link #currentChr} */
+	private int lastBegin = Integer.MIN_VALUE;
+
+	/** transcript intervals of {@link #currentChr}, sorted by begin position */
+	private ImmutableList<Interval<TranscriptModel>> intervals = ImmutableList.of();
+
+	/** index of the next interval in {@link #intervals} to add to {@link #active} */
+	private int nextIdx = 0;
+
+	/** intervals from {@link #intervals} that may overlap with the current or following regions */
+	private final ArrayList<Interval<TranscriptModel>> active = new ArrayList<>();
+
+	/**
+	 * Construct new RegionAnnotator, given a chromosome map
+	 *
+	 * @param refDict
+	 *            {@link ReferenceDictionary} with information about the genome
+	 * @param chromosomeMap
+	 *            chromosome map to use for the annotator
+	 */
+	public RegionAnnotator(ReferenceDictionary refDict, ImmutableMap<Integer, Chromosome> chromosomeMap) {
+		this.refDict = refDict;
+		this.chromosomeMap = chromosomeMap;
+	}
+
+	/** @return {@link ReferenceDictionary} with information about the genome */
+	public ReferenceDictionary getRefDict() {
+		return refDict;
+	}
+
+	/**
+	 * Annotate the next region
+	 *
+	 * @param region
+	 *            the {@link GenomeInterval} to annotate, regions of one chromosome have to be passed in consecutively
+	 *            and sorted by begin position on the forward strand
+	 * @return {@link RegionAnnotations} with the overlaps of <code>region</code>
+	 * @throws AnnotationException
+	 *             if <code>region</code> is not sorted after the previous region
+	 */
+	public RegionAnnotations annotate(GenomeInterval region) throws AnnotationException {
+		final GenomeInterval fwdRegion = region.withStrand(Strand.FWD);
+		final int beginPos = fwdRegion.getBeginPos();
+		final int endPos = fwdRegion.getEndPos();
+
+		if (fwdRegion.getChr() != currentChr)
+			switchChromosome(fwdRegion.getChr());
+		else if (beginPos < lastBegin)
+			throw new AnnotationException("Regions are not sorted by begin position: " + fwdRegion
+					+ " comes after begin position " + lastBegin);
+		lastBegin = beginPos;
+
+		// Drop intervals that end before the region, these cannot overlap with any following region.
+		Iterator<Interval<TranscriptModel>> it = active.iterator();
+		while (it.hasNext())
+			if (it.next().getEnd() <= beginPos)
+				it.remove();
+		// Add intervals that begin before the end of the region.
+		while (nextIdx < intervals.size() && intervals.get(nextIdx).getBegin() < endPos) {
+			final Interval<TranscriptModel> interval = intervals.get(nextIdx++);
+			if (interval.getEnd() > beginPos)
+				active.add(interval);
+		}
+
+		ArrayList<RegionOverlap> overlaps = new ArrayList<>();
+		for (Interval<TranscriptModel> interval : active)
+			if (interval.getBegin() < endPos && interval.getEnd() > beginPos)
+				overlaps.add(buildOverlap(interval.getValue(), fwdRegion));
+		return new RegionAnnotations(fwdRegion, overlaps);
+	}
+
+	/** Reset sweep state for chromosome <code>chr</code> */
+	private void switchChromosome(int chr) throws AnnotationException {
+		if (finishedChrs.contains(chr))
+			throw new AnnotationException("Regions are not sorted by chromosome, " + refDict.getContigIDToName().get(chr)
+					+ " was seen before");
+		if (currentChr != -1)
+			finishedChrs.add(currentChr);
+		currentChr = chr;
+		lastBegin = Integer.MIN_VALUE;
+		nextIdx = 0;
+		active.clear();
+		final Chromosome chrom = chromosomeMap.get(chr);
+		intervals = (chrom == null) ? ImmutableList.<Interval<TranscriptModel>> of() : chrom.getTMIntervalTree()
+				.getIntervals();
+	}
+
+	/**
+	 * Compute the features of <code>tm</code> overlapping with <code>region</code>
+	 *
+	 * All computations are performed on primitive coordinates on the strand of <code>tm</code>, using the same splice
+	 * site and region definitions as {@link de.charite.compbio.jannovar.reference.TranscriptSequenceOntologyDecorator}.
+	 *
+	 * @param tm
+	 *            {@link TranscriptModel} overlapping with <code>region</code>
+	 * @param region
+	 *            {@link GenomeInterval} on the forward strand
+	 * @return {@link RegionOverlap} for <code>tm</code> and <code>region</code>
+	 */
+	private static RegionOverlap buildOverlap(TranscriptModel tm, GenomeInterval region) {
+		final GenomeInterval txRegion = region.withStrand(tm.getStrand());
+		final int rb = txRegion.getBeginPos();
+		final int re = txRegion.getEndPos();
+		final boolean coding = tm.isCoding();
+		final int cdsBegin = tm.getCDSRegion().getBeginPos();
+		final int cdsEnd = tm.getCDSRegion().getEndPos();
+
+		EnumSet<Feature> features = EnumSet.noneOf(Feature.class);
+		List<Integer> exonNumbers = new ArrayList<>();
+		int exonicBases = 0;
+		int cdsBases = 0;
+
+		final ImmutableList<GenomeInterval> exons = tm.getExonRegions();
+		final int numExons = exons.size();
+		for (int i = 0; i < numExons; ++i) {
+			final int eb = exons.get(i).getBeginPos();
+			final int ee = exons.get(i).getEndPos();
+
+			final int exonOverlap = overlap(rb, re, eb, ee);
+			if (exonOverlap > 0) {
+				features.add(Feature.EXON);
+				exonNumbers.add(i + 1);
+				exonicBases += exonOverlap;
+				if (coding) {
+					final int cdsOverlap = overlap(rb, re, Math.max(eb, cdsBegin), Math.min(ee, cdsEnd));
+					if (cdsOverlap > 0) {
+						features.add(Feature.CDS);
+						cdsBases += cdsOverlap;
+					}
+					if (overlap(rb, re, eb, Math.min(ee, cdsBegin)) > 0)
+						features.add(Feature.FIVE_PRIME_UTR);
+					if (overlap(rb, re, Math.max(eb, cdsEnd), ee) > 0)
+						features.add(Feature.THREE_PRIME_UTR);
+				}
+			}
+
+			if (i > 0) {
+				if (overlap(rb, re, eb - SPLICE_SITE_BASES, eb) > 0)
+					features.add(Feature.SPLICE_ACCEPTOR_SITE);
+				if (overlap(rb, re, eb - SPLICE_REGION_INTRON_BASES, eb + SPLICE_REGION_EXON_BASES) > 0)
+					features.add(Feature.SPLICE_REGION);
+			}
+			if (i + 1 < numExons) {
+				if (overlap(rb, re, ee, exons.get(i + 1).getBeginPos()) > 0)
+					features.add(Feature.INTRON);
+				if (overlap(rb, re, ee, ee + SPLICE_SITE_BASES) > 0)
+					features.add(Feature.SPLICE_DONOR_SITE);
+				if (overlap(rb, re, ee - SPLICE_REGION_EXON_BASES, ee + SPLICE_REGION_INTRON_BASES) > 0)
+					features.add(Feature.SPLICE_REGION);
+			}
+		}
+
+		return new RegionOverlap(tm, features, exonNumbers, exonicBases, cdsBases);
+	}
+
+	/** @return length of the overlap of the half-open intervals <code>[b1, e1)</code> and <code>[b2, e2)</code> */
+	private static int overlap(int b1, int e1, int b2, int e2) {
+		return Math.max(0, Math.min(e1, e2) - Math.max(b1, b2));
+	}
+
+}
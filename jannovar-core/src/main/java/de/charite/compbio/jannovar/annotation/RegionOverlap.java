@@ -0,0 +1,115 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.Collection;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Overlap of a genomic region with the features of one transcript, built by {@link RegionAnnotator}.
+ */
+@Immutable
+public final class RegionOverlap {
+
+	/**
+	 * Transcript features that a region can overlap with.
+	 *
+	 * The splice sites and regions are defined as in {@link VariantEffect#SPLICE_DONOR_VARIANT},
+	 * {@link VariantEffect#SPLICE_ACCEPTOR_VARIANT}, and {@link VariantEffect#SPLICE_REGION_VARIANT}.
+	 */
+	public enum Feature {
+		/** exon of the transcript */
+		EXON,
+		/** coding part of an exon */
+		CDS,
+		/** 5' UTR part of an exon */
+		FIVE_PRIME_UTR,
+		/** 3' UTR part of an exon */
+		THREE_PRIME_UTR,
+		/** intron of the transcript */
+		INTRON,
+		/** the first 2 bases of an intron */
+		SPLICE_DONOR_SITE,
+		/** the last 2 bases of an intron */
+		SPLICE_ACCEPTOR_SITE,
+		/** 3 bases of the exon or 8 bases of the intron next to an exon-intron boundary */
+		SPLICE_REGION;
+	}
+
+	/** the overlapping transcript */
+	private final TranscriptModel transcript;
+	/** the features of {@link #transcript} overlapping with the region */
+	private final ImmutableSortedSet<Feature> features;
+	/** the one-based numbers of the overlapping exons, in transcript order */
+	private final ImmutableList<Integer> exonNumbers;
+	/** number of exonic bases of {@link #transcript} in the region */
+	private final int exonicBases;
+	/** number of coding bases of {@link #transcript} in the region */
+	private final int cdsBases;
+
+	/**
+	 * Initialize object with the given values
+	 *
+	 * @param transcript
+	 *            the overlapping transcript
+	 * @param features
+	 *            the features of <code>transcript</code> overlapping with the region
+	 * @param exonNumbers
+	 *            the one-based numbers of the overlapping exons, in transcript order
+	 * @param exonicBases
+	 *            number of exonic bases of <code>transcript</code> in the region
+	 * @param cdsBases
+	 *            number of coding bases of <code>transcript</code> in the region
+	 */
+	public RegionOverlap(TranscriptModel transcript, Collection<Feature> features, Collection<Integer> exonNumbers,
+			int exonicBases, int cdsBases) {
+		this.transcript = transcript;
+		this.features = ImmutableSortedSet.copyOf(features);
+		this.exonNumbers = ImmutableList.copyOf(exonNumbers);
+		this.exonicBases = exonicBases;
+		this.cdsBases = cdsBases;
+	}
+
+	/** @return the overlapping transcript */
+	public TranscriptModel getTranscript() {
+		return transcript;
+	}
+
+	/** @return the features of the transcript overlapping with the region */
+	public ImmutableSortedSet<Feature> getFeatures() {
+		return features;
+	}
+
+	/** @return the one-based numbers of the overlapping exons, in transcript order */
+	public ImmutableList<Integer> getExonNumbers() {
+		return exonNumbers;
+	}
+
+	/** @return number of exonic bases of the transcript in the region */
+	public int getExonicBases() {
+		return exonicBases;
+	}
+
+	/** @return number of coding bases of the transcript in the region */
+	public int getCDSBases() {
+		return cdsBases;
+	}
+
+	/** @return fraction of the coding sequence of the transcript in the region, <code>0</code> if non-coding */
+	public double getCDSCoverage() {
+		final int cdsLength = transcript.cdsTranscriptLength();
+		if (cdsLength == 0)
+			return 0;
+		return ((double) cdsBases) / cdsLength;
+	}
+
+	@Override
+	public String toString() {
+		return "RegionOverlap [transcript=" + transcript.getAccession() + ", features=" + features
+				+ ", exonNumbers=" + exonNumbers + ", exonicBases=" + exonicBases + ", cdsBases=" + cdsBases + "]";
+	}
+
+}
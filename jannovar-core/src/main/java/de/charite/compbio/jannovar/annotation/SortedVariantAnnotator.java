@@ -0,0 +1,223 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
+import de.charite.compbio.jannovar.annotation.builders.TranscriptAnnotationContext;
+import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.impl.intervals.Interval;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Variant annotation for streams of variants sorted by coordinate, e.g., from a sorted VCF file.
+ *
+ * Builds the same {@link VariantAnnotations} as {@link VariantAnnotator#buildAnnotations(GenomeVariant)} but instead
+ * of querying the interval tree for each variant, the transcripts of the current chromosome are swept in order of
+ * their begin positions. A window of the transcripts that may overlap with the current or following variants is kept
+ * and advanced incrementally, together with pointers to the left and right neighbors used for intergenic, upstream,
+ * and downstream annotations. For each transcript in the window, one {@link TranscriptAnnotationContext} is created
+ * and reused for all variants until the transcript leaves the window. This gives amortized constant work per variant
+ * for finding the transcripts instead of a tree query and avoids recomputing the wild type protein sequence for each
+ * indel.
+ *
+ * Variants are annotated correctly in any order: when the chromosome changes, the window is reset, and variants that
+ * begin left of the previous variant on the same chromosome (e.g., the alleles of a multi-allelic VCF record after
+ * normalization) are annotated using the interval tree without changing the window.
+ *
+ * Objects of this class are stateful and thus not thread-safe.
+ */
+public final class SortedVariantAnnotator {
+
+	/** annotator used for building the annotations and for variants that cannot be handled by the sweep */
+	private final VariantAnnotator annotator;
+
+	/** {@link Chromosome}s with their {@link TranscriptModel} objects */
+	private final ImmutableMap<Integer, Chromosome> chromosomeMap;
+
+	/** numeric ID of the current chromosome, <code>-1</code> before the first variant */
+	private int currentChr = -1;
+
+	/** begin position of the last variant annotated by the sweep on {@link #currentChr} */
+	private int lastBegin = Integer.MIN_VALUE;
+
+	/** transcript intervals of {@link #currentChr}, sorted by begin position */
+	private ImmutableList<Interval<TranscriptModel>> intervals = ImmutableList.of();
+
+	/** transcript intervals of {@link #currentChr}, sorted by end position */
+	private ImmutableList<Interval<TranscriptModel>> intervalsEnd = ImmutableList.of();
+
+	/** index of the next interval in {@link #intervals} to add to {@link #window} */
+	private int nextIdx = 0;
+
+	/** number of intervals in {@link #intervalsEnd} ending at or before {@link #lastBegin} */
+	private int endIdx = 0;
+
+	/** number of intervals in {@link #intervals} beginning at or before {@link #lastBegin} */
+	private int rightIdx = 0;
+
+	/** transcripts that may overlap with the current or following variants, in the order of {@link #intervals} */
+	private final ArrayList<WindowEntry> window = new ArrayList<>();
+
+	/** context of the last left neighbor, <code>null</code> if none */
+	private TranscriptAnnotationContext leftContext = null;
+
+	/** context of the last right neighbor, <code>null</code> if none */
+	private TranscriptAnnotationContext rightContext = null;
+
+	/** number of variants annotated using the interval tree instead of the sweep */
+	private long numTreeQueries = 0;
+
+	/**
+	 * Construct new SortedVariantAnnotator, given a chromosome map.
+	 *
+	 * @param refDict
+	 *            {@link ReferenceDictionary} with information about the genome.
+	 * @param chromosomeMap
+	 *            chromosome map to use for the annotator.
+	 * @param options
+	 *            configuration to use for building the annotations
+	 */
+	public SortedVariantAnnotator(ReferenceDictionary refDict, ImmutableMap<Integer, Chromosome> chromosomeMap,
+			AnnotationBuilderOptions options) {
+		this.annotator = new VariantAnnotator(refDict, chromosomeMap, options);
+		this.chromosomeMap = chromosomeMap;
+	}
+
+	/**
+	 * @return the {@link VariantAnnotator} used for building annotations, can be used for the functions that do not
+	 *         profit from sorted input
+	 */
+	public VariantAnnotator getAnnotator() {
+		return annotator;
+	}
+
+	/**
+	 * @return number of variants that were annotated using the interval tree because they began left of the previous
+	 *         variant or at the end of several transcripts
+	 */
+	public long getNumTreeQueries() {
+		return numTreeQueries;
+	}
+
+	/**
+	 * Build annotations for the next variant, equivalent to {@link VariantAnnotator#buildAnnotations(GenomeVariant)}
+	 *
+	 * @param change
+	 *            the {@link GenomeVariant} to annotate
+	 * @return {@link VariantAnnotations} for the genome change
+	 * @throws AnnotationException
+	 *             on problems building the annotation list
+	 */
+	public VariantAnnotations buildAnnotations(GenomeVariant change) throws AnnotationException {
+		// Symbolic alleles have no extent here, see VariantAnnotator.buildAnnotations().
+		if (change.isSymbolic())
+			return VariantAnnotations.buildEmptyList(change);
+
+		final GenomeInterval changeInterval = change.getGenomeInterval();
+		final int beginPos = changeInterval.getBeginPos();
+		// A point query for insertions behaves as the interval query for the base at beginPos.
+		final int endPos = (changeInterval.length() == 0) ? beginPos + 1 : changeInterval.getEndPos();
+
+		if (change.getChr() != currentChr) {
+			if (!chromosomeMap.containsKey(change.getChr()))
+				return VariantAnnotations.buildErrorList(change, AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
+			switchChromosome(change.getChr());
+		} else if (beginPos < lastBegin) {
+			++numTreeQueries;
+			return annotator.buildAnnotations(change);
+		}
+		lastBegin = beginPos;
+
+		// Drop transcripts that end before the variant, these cannot overlap with any following variant.
+		Iterator<WindowEntry> it = window.iterator();
+		while (it.hasNext())
+			if (it.next().interval.getEnd() <= beginPos)
+				it.remove();
+		// Add transcripts that begin before the end of the variant.
+		while (nextIdx < intervals.size() && intervals.get(nextIdx).getBegin() < endPos) {
+			final Interval<TranscriptModel> interval = intervals.get(nextIdx++);
+			if (interval.getEnd() > beginPos)
+				window.add(new WindowEntry(interval));
+		}
+
+		ArrayList<TranscriptAnnotationContext> overlapping = new ArrayList<>();
+		for (WindowEntry entry : window)
+			if (entry.interval.getBegin() < endPos && entry.interval.getEnd() > beginPos)
+				overlapping.add(entry.getContext());
+		if (!overlapping.isEmpty())
+			return annotator.buildAnnotations(change, changeInterval, overlapping, null, null);
+
+		// Advance the neighbor pointers, the left neighbor is the last transcript ending at or before beginPos and the
+		// right neighbor is the first transcript beginning after beginPos.
+		while (endIdx < intervalsEnd.size() && intervalsEnd.get(endIdx).getEnd() <= beginPos)
+			++endIdx;
+		while (rightIdx < intervals.size() && intervals.get(rightIdx).getBegin() <= beginPos)
+			++rightIdx;
+		// The interval tree picks an arbitrary one of several transcripts ending exactly at beginPos, use it for
+		// consistent results.
+		if (endIdx >= 2 && intervalsEnd.get(endIdx - 2).getEnd() == beginPos) {
+			++numTreeQueries;
+			return annotator.buildAnnotations(change);
+		}
+
+		final TranscriptModel left = (endIdx == 0) ? null : intervalsEnd.get(endIdx - 1).getValue();
+		final TranscriptModel right = (rightIdx == intervals.size()) ? null : intervals.get(rightIdx).getValue();
+		if (left == null)
+			leftContext = null;
+		else if (leftContext == null || leftContext.getTranscript() != left)
+			leftContext = new TranscriptAnnotationContext(left);
+		if (right == null)
+			rightContext = null;
+		else if (rightContext == null || rightContext.getTranscript() != right)
+			rightContext = new TranscriptAnnotationContext(right);
+		return annotator.buildAnnotations(change, changeInterval, overlapping, leftContext, rightContext);
+	}
+
+	/** Reset sweep state for chromosome <code>chr</code> */
+	private void switchChromosome(int chr) throws AnnotationException {
+		final Chromosome chrom = chromosomeMap.get(chr);
+		if (chrom == null)
+			throw new AnnotationException(String.format("Could not identify chromosome \"%d\"", chr));
+
+		currentChr = chr;
+		lastBegin = Integer.MIN_VALUE;
+		intervals = chrom.getTMIntervalTree().getIntervals();
+		intervalsEnd = chrom.getTMIntervalTree().getIntervalsEnd();
+		nextIdx = 0;
+		endIdx = 0;
+		rightIdx = 0;
+		window.clear();
+		leftContext = null;
+		rightContext = null;
+	}
+
+	/**
+	 * Transcript interval in the window, with lazily created {@link TranscriptAnnotationContext}
+	 */
+	private static final class WindowEntry {
+
+		/** the transcript's interval */
+		final Interval<TranscriptModel> interval;
+		/** context for the transcript, <code>null</code> before the first use */
+		TranscriptAnnotationContext context = null;
+
+		WindowEntry(Interval<TranscriptModel> interval) {
+			this.interval = interval;
+		}
+
+		TranscriptAnnotationContext getContext() {
+			if (context == null)
+				context = new TranscriptAnnotationContext(interval.getValue());
+			return context;
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package de.charite.compbio.jannovar.annotation;
+
+/**
+ * Type of a structural variant, as used for the symbolic alleles in VCF files (e.g., <code>&lt;DEL&gt;</code>).
+ */
+public enum StructuralVariantType {
+	/** deletion, <code>&lt;DEL&gt;</code> */
+	DEL,
+	/** duplication, <code>&lt;DUP&gt;</code> */
+	DUP,
+	/** inversion, <code>&lt;INV&gt;</code> */
+	INV,
+	/** insertion, <code>&lt;INS&gt;</code> */
+	INS,
+	/** copy number variable region, <code>&lt;CNV&gt;</code> */
+	CNV;
+
+	/**
+	 * Get type for a symbolic allele, sub types (e.g., <code>&lt;DUP:TANDEM&gt;</code>) are mapped to their top-level
+	 * type
+	 *
+	 * @param allele
+	 *            allele string, e.g. <code>"&lt;DEL&gt;"</code>
+	 * @return {@link StructuralVariantType} for <code>allele</code> or <code>null</code> if <code>allele</code> is no
+	 *         symbolic allele of a known type (e.g., a break-end)
+	 */
+	public static StructuralVariantType fromSymbolicAllele(String allele) {
+		if (allele.length() < 3 || allele.charAt(0) != '<' || allele.charAt(allele.length() - 1) != '>')
+			return null;
+		int end = allele.indexOf(':');
+		if (end == -1)
+			end = allele.length() - 1;
+		switch (allele.substring(1, end)) {
+		case "DEL":
+			return DEL;
+		case "DUP":
+			return DUP;
+		case "INV":
+			return INV;
+		case "INS":
+			return INS;
+		case "CNV":
+			return CNV;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Get type for a non-symbolic variant from the allele lengths
+	 *
+	 * @param refLength
+	 *            length of the reference allele
+	 * @param altLength
+	 *            length of the alternative allele
+	 * @return {@link #DEL} if <code>refLength &gt; altLength</code>, {@link #INS} if <code>refLength &lt;
+	 *         altLength</code>, and <code>null</code> for substitutions
+	 */
+	public static StructuralVariantType fromAlleleLengths(int refLength, int altLength) {
+		if (refLength > altLength)
+			return DEL;
+		else if (refLength < altLength)
+			return INS;
+		else
+			return null;
+	}
+
+}
@@ -13,6 +13,9 @@ import de.charite.compbio.jannovar.reference.VariantDescription;
 /**
  * A list of priority-sorted {@link Annotation} objects.
  *
+ * The annotations are only sorted when the full list is requested through {@link #getAnnotations}, the
+ * {@link Annotation} with highest priority is selected in a single pass by {@link #getHighestImpactAnnotation}.
+ *
  * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
  */
 @Immutable
@@ -21,8 +24,11 @@ public final class VariantAnnotations implements VariantDescription {
 	/** the {@link GenomeVariant} that this <code>AnnotationList</code> contains entries for. */
 	private final GenomeVariant change;
 
-	/** the list of the annotations */
-	private final ImmutableList<Annotation> entries;
+	/** the list of the annotations, in the order given on construction */
+	private final ImmutableList<Annotation> unsortedEntries;
+
+	/** the list of the annotations sorted by priority, <code>null</code> if not sorted yet */
+	private ImmutableList<Annotation> entries;
 
 	/**
 	 * @param change
@@ -33,6 +39,17 @@ public final class VariantAnnotations implements VariantDescription {
 		return new VariantAnnotations(change, ImmutableList.<Annotation> of());
 	}
 
+	/**
+	 * @param change
+	 *            to use for the error list
+	 * @param message
+	 *            the error message, e.g., {@link AnnotationMessage#ERROR_PROBLEM_DURING_ANNOTATION}
+	 * @return <code>AnnotationList</code> with one {@link Annotation} that only has <code>message</code>
+	 */
+	public static VariantAnnotations buildErrorList(GenomeVariant change, AnnotationMessage message) {
+		return new VariantAnnotations(change, ImmutableList.of(new Annotation(ImmutableList.of(message))));
+	}
+
 	/**
 	 * Construct ImmutableAnnotationList from a {@link Collection} of {@link Annotation} objects.
 	 *
@@ -45,7 +62,7 @@ public final class VariantAnnotations implements VariantDescription {
 	 */
 	public VariantAnnotations(GenomeVariant variant, Collection<Annotation> entries) {
 		this.change = variant.withStrand(Strand.FWD);
-		this.entries = ImmutableList.copyOf(ImmutableSortedMultiset.copyOf(entries));
+		this.unsortedEntries = ImmutableList.copyOf(entries);
 	}
 
 	/**
@@ -64,24 +81,42 @@ public final class VariantAnnotations implements VariantDescription {
 	 * @return the list of annotations
 	 */
 	public ImmutableList<Annotation> getAnnotations() {
+		if (entries == null)
+			entries = ImmutableList.copyOf(ImmutableSortedMultiset.copyOf(unsortedEntries));
 		return entries;
 	}
 
+	/**
+	 * @return the annotations in the order given on construction, without sorting them
+	 */
+	ImmutableList<Annotation> getUnsortedAnnotations() {
+		return unsortedEntries;
+	}
+
 	/**
 	 * @return <code>true</code> if the result of {@link #getAnnotations} is empty
 	 */
 	public boolean hasAnnotation() {
-		return !entries.isEmpty();
+		return !unsortedEntries.isEmpty();
 	}
 
 	/**
+	 * Returns the first entry of {@link #getAnnotations} without sorting all annotations.
+	 *
 	 * @return {@link Annotation} with highest predicted impact, or <code>null</code> if there is none.
 	 */
 	public Annotation getHighestImpactAnnotation() {
 		if (!hasAnnotation())
 			return null;
-		else
+		else if (entries != null)
 			return entries.get(0);
+
+		// the first of the smallest entries, as kept by the sorting in getAnnotations()
+		Annotation best = unsortedEntries.get(0);
+		for (int i = 1; i < unsortedEntries.size(); ++i)
+			if (unsortedEntries.get(i).compareTo(best) < 0)
+				best = unsortedEntries.get(i);
+		return best;
 	}
 
 	/**
@@ -92,22 +127,22 @@ public final class VariantAnnotations implements VariantDescription {
 	 */
 	public VariantEffect getHighestImpactEffect() {
 		final Annotation anno = getHighestImpactAnnotation();
-		if (anno == null || anno.getEffects().isEmpty())
+		if (anno == null || anno.getEffectMask() == 0)
 			return VariantEffect.SEQUENCE_VARIANT;
 		else
-			return anno.getEffects().first();
+			return anno.getMostPathogenicVarType();
 	}
 
 	@Override
 	public String toString() {
-		return "AnnotationList(change=" + change + ", entries=[" + entries + "])";
+		return "AnnotationList(change=" + change + ", entries=[" + getAnnotations() + "])";
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((entries == null) ? 0 : entries.hashCode());
+		result = prime * result + getAnnotations().hashCode();
 		return result;
 	}
 
@@ -120,12 +155,7 @@ public final class VariantAnnotations implements VariantDescription {
 		if (getClass() != obj.getClass())
 			return false;
 		VariantAnnotations other = (VariantAnnotations) obj;
-		if (entries == null) {
-			if (other.entries != null)
-				return false;
-		} else if (!entries.equals(other.entries))
-			return false;
-		return true;
+		return getAnnotations().equals(other.getAnnotations());
 	}
 
 	public String getChrName() {
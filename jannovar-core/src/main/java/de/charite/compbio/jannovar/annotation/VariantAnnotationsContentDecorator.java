@@ -56,20 +56,20 @@ public class VariantAnnotationsContentDecorator {
 	 *         empty
 	 */
 	public String getGeneSymbol() {
-		if (annotations.getAnnotations().size() == 0)
+		if (!annotations.hasAnnotation())
 			return null;
 		else
-			return annotations.getAnnotations().get(0).getTranscript().getGeneSymbol();
+			return annotations.getHighestImpactAnnotation().getTranscript().getGeneSymbol();
 	}
 
 	/**
 	 * @return the gene ID of the variant with highest priority, or <code>null</code> if no such variant
 	 */
 	public String getGeneID() {
-		if (annotations.getAnnotations().size() == 0)
+		if (!annotations.hasAnnotation())
 			return null;
 		else
-			return annotations.getAnnotations().get(0).getTranscript().getGeneID();
+			return annotations.getHighestImpactAnnotation().getTranscript().getGeneID();
 	}
 
 	/**
@@ -77,10 +77,10 @@ public class VariantAnnotationsContentDecorator {
 	 *         exists
 	 */
 	public VariantEffect getVariantType() {
-		if (annotations.getAnnotations().size() == 0)
+		if (!annotations.hasAnnotation())
 			return null;
 		else
-			return annotations.getAnnotations().get(0).getMostPathogenicVarType();
+			return annotations.getHighestImpactAnnotation().getMostPathogenicVarType();
 	}
 
 }
@@ -1,13 +1,17 @@
 package de.charite.compbio.jannovar.annotation;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderDispatcher;
 import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
 import de.charite.compbio.jannovar.annotation.builders.StructuralVariantAnnotationBuilder;
+import de.charite.compbio.jannovar.annotation.builders.StructuralVariantGeneSummaryBuilder;
+import de.charite.compbio.jannovar.annotation.builders.TranscriptAnnotationContext;
 import de.charite.compbio.jannovar.data.Chromosome;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
 import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
@@ -41,6 +45,9 @@ public final class VariantAnnotator {
 	/** {@link Chromosome}s with their {@link TranscriptInfo} objects. */
 	final private ImmutableMap<Integer, Chromosome> chromosomeMap;
 
+	/** selection of the best annotation in best transcript mode, <code>null</code> otherwise */
+	final private BestTranscriptSelector bestTranscriptSelector;
+
 	/**
 	 * Construct new VariantAnnotator, given a chromosome map.
 	 *
@@ -56,6 +63,7 @@ public final class VariantAnnotator {
 		this.refDict = refDict;
 		this.chromosomeMap = chromosomeMap;
 		this.options = options;
+		this.bestTranscriptSelector = options.isBestTranscriptOnly() ? new BestTranscriptSelector(options) : null;
 	}
 
 	// TODO(holtgrem): Remove this?
@@ -96,6 +104,12 @@ public final class VariantAnnotator {
 	 * When we get to this point, the client code has identified the right chromosome, and we are provided the
 	 * coordinates on that chromosome.
 	 *
+	 * If {@link AnnotationBuilderOptions#isBestTranscriptOnly} is set, only the annotation with highest priority is
+	 * returned for variants overlapping with transcripts.
+	 *
+	 * Variants on chromosomes that are not in the chromosome map get an error annotation with
+	 * {@link AnnotationMessage#ERROR_CHROMOSOME_NOT_FOUND} instead of an exception being thrown.
+	 *
 	 * @param change
 	 *            the {@link GenomeVariant} to annotate
 	 * @return {@link VariantAnnotations} for the genome change
@@ -104,63 +118,251 @@ public final class VariantAnnotator {
 	 */
 	public VariantAnnotations buildAnnotations(GenomeVariant change) throws AnnotationException {
 		// Short-circuit in the case of symbolic changes/alleles. These could be SVs, large duplications, etc., that are
-		// described as shortcuts in the VCF file. We cannot annotate these yet.
+		// described as shortcuts in the VCF file. Their extent is not known here, buildStructuralVariantAnnotations()
+		// has to be used for these.
 		if (change.isSymbolic())
 			return VariantAnnotations.buildEmptyList(change);
 
+		final Chromosome chr = chromosomeMap.get(change.getChr());
+		if (chr == null)
+			return VariantAnnotations.buildErrorList(change, AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
+
 		// Get genomic change interval and reset the factory.
 		final GenomeInterval changeInterval = change.getGenomeInterval();
 
 		// Get the TranscriptModel objects that overlap with changeInterval.
-		final Chromosome chr = chromosomeMap.get(change.getChr());
 		IntervalArray<TranscriptModel>.QueryResult qr;
 		if (changeInterval.length() == 0)
 			qr = chr.getTMIntervalTree().findOverlappingWithPoint(changeInterval.getBeginPos());
 		else
 			qr = chr.getTMIntervalTree().findOverlappingWithInterval(changeInterval.getBeginPos(),
 					changeInterval.getEndPos());
-		ArrayList<TranscriptModel> candidateTranscripts = new ArrayList<TranscriptModel>(qr.getEntries());
+
+		ArrayList<TranscriptAnnotationContext> overlapping = new ArrayList<>(qr.getEntries().size());
+		for (TranscriptModel tm : qr.getEntries())
+			overlapping.add(new TranscriptAnnotationContext(tm));
+		return buildAnnotations(change, changeInterval, overlapping,
+				(qr.getLeft() == null) ? null : new TranscriptAnnotationContext(qr.getLeft()),
+				(qr.getRight() == null) ? null : new TranscriptAnnotationContext(qr.getRight()));
+	}
+
+	/**
+	 * Build annotations for a block of {@link GenomeVariant}s, e.g., the alternative alleles of a multi-allelic VCF
+	 * record or a run of nearby records.
+	 *
+	 * The result is the same as calling {@link #buildAnnotations(GenomeVariant)} for each change. However, the
+	 * transcripts are obtained with one interval tree query per chromosome for the span of all changes and the
+	 * {@link TranscriptAnnotationContext}s are shared between the changes, so the per-transcript projection state is
+	 * computed at most once for the block. Changes that overlap with no transcript are annotated using a separate
+	 * query for obtaining their neighbors. Changes on unknown chromosomes get error annotations as in
+	 * {@link #buildAnnotations(GenomeVariant)}.
+	 *
+	 * @param changes
+	 *            the {@link GenomeVariant}s to annotate, should be close to each other
+	 * @return {@link ImmutableList} of {@link VariantAnnotations}, one for each entry of <code>changes</code>, in the
+	 *         same order
+	 * @throws AnnotationException
+	 *             on problems building the annotation lists
+	 */
+	public ImmutableList<VariantAnnotations> buildAnnotations(List<GenomeVariant> changes) throws AnnotationException {
+		if (changes.size() == 1)
+			return ImmutableList.of(buildAnnotations(changes.get(0)));
+
+		// Get the union of the change intervals on each chromosome, symbolic changes are skipped.
+		ArrayList<GenomeInterval> changeIntervals = new ArrayList<>(changes.size());
+		HashMap<Integer, int[]> spans = new HashMap<>();
+		for (GenomeVariant change : changes) {
+			if (change.isSymbolic()) {
+				changeIntervals.add(null);
+				continue;
+			}
+			final GenomeInterval changeInterval = change.getGenomeInterval();
+			changeIntervals.add(changeInterval);
+			// points are queried as [pos, pos + 1), which overlaps with the same transcripts
+			final int beginPos = changeInterval.getBeginPos();
+			final int endPos = Math.max(changeInterval.getEndPos(), beginPos + 1);
+			final int[] span = spans.get(change.getChr());
+			if (span == null) {
+				spans.put(change.getChr(), new int[] { beginPos, endPos });
+			} else {
+				span[0] = Math.min(span[0], beginPos);
+				span[1] = Math.max(span[1], endPos);
+			}
+		}
+
+		// Query the candidate transcripts once for each chromosome and create one context for each transcript.
+		HashMap<Integer, ArrayList<TranscriptAnnotationContext>> candidates = new HashMap<>();
+		for (int chrID : spans.keySet()) {
+			final Chromosome chr = chromosomeMap.get(chrID);
+			if (chr == null)
+				continue;
+			final int[] span = spans.get(chrID);
+			final IntervalArray<TranscriptModel>.QueryResult qr = chr.getTMIntervalTree()
+					.findOverlappingWithInterval(span[0], span[1]);
+			ArrayList<TranscriptAnnotationContext> contexts = new ArrayList<>(qr.getEntries().size());
+			for (TranscriptModel tm : qr.getEntries())
+				contexts.add(new TranscriptAnnotationContext(tm));
+			candidates.put(chrID, contexts);
+		}
+
+		ImmutableList.Builder<VariantAnnotations> builder = ImmutableList.builder();
+		for (int i = 0; i < changes.size(); ++i) {
+			final GenomeVariant change = changes.get(i);
+			final GenomeInterval changeInterval = changeIntervals.get(i);
+			if (changeInterval == null) {
+				builder.add(VariantAnnotations.buildEmptyList(change));
+				continue;
+			}
+
+			// The candidates are sorted by begin position, same as the result of a query for the change alone.
+			final ArrayList<TranscriptAnnotationContext> chrCandidates = candidates.get(change.getChr());
+			if (chrCandidates == null) {
+				builder.add(VariantAnnotations.buildErrorList(change, AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND));
+				continue;
+			}
+			ArrayList<TranscriptAnnotationContext> overlapping = new ArrayList<>();
+			for (TranscriptAnnotationContext context : chrCandidates)
+				if (overlapsWith(context.getTranscript(), changeInterval))
+					overlapping.add(context);
+			if (overlapping.isEmpty()) // the neighbors are only known to the interval tree
+				builder.add(buildAnnotations(change));
+			else
+				builder.add(buildAnnotations(change, changeInterval, overlapping, null, null));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return <code>true</code> if <code>transcript</code> is found by an interval tree query for
+	 *         <code>changeInterval</code> in {@link #buildAnnotations(GenomeVariant)}
+	 */
+	private static boolean overlapsWith(TranscriptModel transcript, GenomeInterval changeInterval) {
+		final GenomeInterval txRegion = transcript.getTXRegion().withStrand(Strand.FWD);
+		final int beginPos = changeInterval.getBeginPos();
+		if (changeInterval.length() == 0)
+			return (txRegion.getBeginPos() <= beginPos && beginPos < txRegion.getEndPos());
+		else
+			return (beginPos < txRegion.getEndPos() && txRegion.getBeginPos() < changeInterval.getEndPos());
+	}
+
+	/**
+	 * Build annotations for <code>change</code> given the overlapping transcripts or the neighbors
+	 *
+	 * This is shared with {@link SortedVariantAnnotator}, which obtains the transcripts from a sweep over the
+	 * transcripts instead of an interval tree query and reuses the {@link TranscriptAnnotationContext}s.
+	 *
+	 * @param change
+	 *            the {@link GenomeVariant} to annotate
+	 * @param changeInterval
+	 *            {@link GenomeInterval} of <code>change</code>
+	 * @param overlapping
+	 *            contexts of the transcripts overlapping with <code>changeInterval</code>, in the order of their
+	 *            begin positions
+	 * @param leftNeighbor
+	 *            context of the left neighbor if <code>overlapping</code> is empty, <code>null</code> if none
+	 * @param rightNeighbor
+	 *            context of the right neighbor if <code>overlapping</code> is empty, <code>null</code> if none
+	 * @return {@link VariantAnnotations} for the genome change
+	 * @throws AnnotationException
+	 *             on problems building the annotation list
+	 */
+	VariantAnnotations buildAnnotations(GenomeVariant change, GenomeInterval changeInterval,
+			List<TranscriptAnnotationContext> overlapping, TranscriptAnnotationContext leftNeighbor,
+			TranscriptAnnotationContext rightNeighbor) throws AnnotationException {
+		// Summarize large variants on the gene level if configured, without looking at each transcript in detail.
+		boolean isStructuralVariant = (change.getRef().length() >= 1000 || change.getAlt().length() >= 1000);
+		if (isStructuralVariant && options.isSVGeneSummary()) {
+			final StructuralVariantType svType = StructuralVariantType.fromAlleleLengths(change.getRef().length(),
+					change.getAlt().length());
+			ArrayList<TranscriptModel> transcripts = new ArrayList<>(overlapping.size());
+			for (TranscriptAnnotationContext context : overlapping)
+				transcripts.add(context.getTranscript());
+			return new VariantAnnotations(change, new StructuralVariantGeneSummaryBuilder(change, changeInterval,
+					svType, transcripts, options.getMaxSVGenes()).build());
+		}
 
 		// The annotations collected so far for GenomeVariant.
 		ArrayList<Annotation> annotations = new ArrayList<>();
 
 		// Handle the case of no overlapping transcript. Then, create intergenic, upstream, or downstream annotations
 		// and return the result.
-		boolean isStructuralVariant = (change.getRef().length() >= 1000 || change.getAlt().length() >= 1000);
-		if (candidateTranscripts.isEmpty()) {
+		if (overlapping.isEmpty()) {
 			if (isStructuralVariant)
 				buildSVAnnotation(annotations, change, null);
 			else
-				buildNonSVAnnotation(annotations, change, qr.getLeft(), qr.getRight());
+				buildNonSVAnnotation(annotations, change, leftNeighbor, rightNeighbor);
 			return new VariantAnnotations(change, annotations);
 		}
 
+		// In best transcript mode, only build the annotations that can have the highest priority.
+		if (bestTranscriptSelector != null && !isStructuralVariant)
+			return new VariantAnnotations(change,
+					ImmutableList.of(bestTranscriptSelector.build(change, changeInterval, overlapping)));
+
 		// If we reach here, then there is at least one transcript that overlaps with the query. Iterate over these
 		// transcripts and collect annotations for each (they are collected in annovarFactory).
-		for (TranscriptModel tm : candidateTranscripts)
+		for (TranscriptAnnotationContext context : overlapping)
 			if (isStructuralVariant)
-				buildSVAnnotation(annotations, change, tm);
+				buildSVAnnotation(annotations, change, context.getTranscript());
 			else
-				buildNonSVAnnotation(annotations, change, tm);
+				buildNonSVAnnotation(annotations, change, context);
 
 		return new VariantAnnotations(change, annotations);
 	}
 
+	/**
+	 * Build gene-level annotations for a structural variant given by its interval and type.
+	 *
+	 * This works for symbolic alleles (e.g., <code>&lt;DEL&gt;</code>) where the affected interval is given by the
+	 * <code>END</code> or <code>SVLEN</code> INFO fields in VCF. The annotations are built using
+	 * {@link StructuralVariantGeneSummaryBuilder}, limited to {@link AnnotationBuilderOptions#getMaxSVGenes()} genes,
+	 * regardless of {@link AnnotationBuilderOptions#isSVGeneSummary()}.
+	 *
+	 * As in {@link #buildAnnotations(GenomeVariant)}, structural variants on chromosomes that are not in the
+	 * chromosome map get an error annotation with {@link AnnotationMessage#ERROR_CHROMOSOME_NOT_FOUND}.
+	 *
+	 * @param change
+	 *            the {@link GenomeVariant} to annotate, possibly with symbolic allele
+	 * @param svRegion
+	 *            {@link GenomeInterval} affected by the SV, empty for insertions
+	 * @param svType
+	 *            {@link StructuralVariantType} of the SV, <code>null</code> if unknown
+	 * @return {@link VariantAnnotations} for the structural variant
+	 * @throws AnnotationException
+	 *             on problems building the annotation list
+	 */
+	public VariantAnnotations buildStructuralVariantAnnotations(GenomeVariant change, GenomeInterval svRegion,
+			StructuralVariantType svType) throws AnnotationException {
+		final Chromosome chr = chromosomeMap.get(svRegion.getChr());
+		if (chr == null)
+			return VariantAnnotations.buildErrorList(change, AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
+
+		svRegion = svRegion.withStrand(Strand.FWD);
+		IntervalArray<TranscriptModel>.QueryResult qr;
+		if (svRegion.length() == 0)
+			qr = chr.getTMIntervalTree().findOverlappingWithPoint(svRegion.getBeginPos());
+		else
+			qr = chr.getTMIntervalTree().findOverlappingWithInterval(svRegion.getBeginPos(), svRegion.getEndPos());
+		return new VariantAnnotations(change, new StructuralVariantGeneSummaryBuilder(change, svRegion, svType,
+				qr.getEntries(), options.getMaxSVGenes()).build());
+	}
+
 	private void buildSVAnnotation(List<Annotation> annotations, GenomeVariant change, TranscriptModel transcript)
 			throws AnnotationException {
 		annotations.add(new StructuralVariantAnnotationBuilder(transcript, change).build());
 	}
 
-	private void buildNonSVAnnotation(List<Annotation> annotations, GenomeVariant change, TranscriptModel leftNeighbor,
-			TranscriptModel rightNeighbor) throws AnnotationException {
+	private void buildNonSVAnnotation(List<Annotation> annotations, GenomeVariant change,
+			TranscriptAnnotationContext leftNeighbor, TranscriptAnnotationContext rightNeighbor)
+			throws AnnotationException {
 		buildNonSVAnnotation(annotations, change, leftNeighbor);
 		buildNonSVAnnotation(annotations, change, rightNeighbor);
 	}
 
-	private void buildNonSVAnnotation(List<Annotation> annotations, GenomeVariant change, TranscriptModel transcript)
-			throws InvalidGenomeVariant {
-		if (transcript != null) // TODO(holtgrew): Is not necessarily an exonic annotation!
-			annotations.add(new AnnotationBuilderDispatcher(transcript, change, options).build());
+	private void buildNonSVAnnotation(List<Annotation> annotations, GenomeVariant change,
+			TranscriptAnnotationContext context) throws InvalidGenomeVariant {
+		if (context != null) // TODO(holtgrew): Is not necessarily an exonic annotation!
+			annotations.add(new AnnotationBuilderDispatcher(context, change, options).build());
 	}
 
 }
@@ -2,6 +2,7 @@ package de.charite.compbio.jannovar.annotation;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSortedSet;
 
 // TODO(holtgrew): For now, only insert most specific variants by default, add switch that adds transitive changes
 // TODO(holtgrew): structural variants need more refinement
@@ -13,6 +14,10 @@ import com.google.common.base.Predicate;
  * gives the sequence ontology (SO) ID and the SO description. Also, the documentation of each value explains whether
  * Jannovar generates this annotation or not.
  *
+ * Sets of effects can be encoded as <code>long</code> bit masks where bit <code>i</code> corresponds to the value with
+ * ordinal <code>i</code> (see {@link #toMask} and {@link #fromMask}). The lowest bit that is set in a mask thus
+ * corresponds to the most pathogenic effect of the set.
+ *
  * @author <a href="mailto:Peter.Robinson@jax.org">Peter Robinson</a>
  * @author <a href="mailto:marten.jaeger@charite.de">Marten Jaeger</a>
  * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
@@ -472,6 +477,19 @@ public enum VariantEffect {
 	 */
 	SEQUENCE_VARIANT;
 
+	/** all values, indexed by ordinal */
+	private static final VariantEffect[] VALUES = values();
+
+	/** precomputed {@link PutativeImpact} of all values, indexed by ordinal */
+	private static final PutativeImpact[] IMPACTS = new PutativeImpact[VALUES.length];
+
+	static {
+		if (VALUES.length > Long.SIZE)
+			throw new ExceptionInInitializerError("Too many VariantEffect values for encoding sets as long");
+		for (VariantEffect effect : VALUES)
+			IMPACTS[effect.ordinal()] = effect.computeImpact();
+	}
+
 	/**
 	 * {@link Predicate} for testing whether a {@link VariantEffect} is related to splicing.
 	 */
@@ -625,6 +643,13 @@ public enum VariantEffect {
 	 * @return {@link PutativeImpact} of this effect annotation.
 	 */
 	public PutativeImpact getImpact() {
+		return IMPACTS[ordinal()];
+	}
+
+	/**
+	 * @return {@link PutativeImpact} of this effect annotation, for filling {@link #IMPACTS}
+	 */
+	private PutativeImpact computeImpact() {
 		if (this.ordinal() <= _SMALLEST_HIGH_IMPACT.ordinal())
 			return PutativeImpact.HIGH;
 		else if (this.ordinal() <= _SMALLEST_MODERATE_IMPACT.ordinal())
@@ -904,6 +929,61 @@ public enum VariantEffect {
 		return ordinal();
 	}
 
+	/**
+	 * @return bit mask with the bit for this value set
+	 */
+	public long getMask() {
+		return 1L << ordinal();
+	}
+
+	/**
+	 * @param effects
+	 *            the {@link VariantEffect}s to encode
+	 * @return bit mask with the bits of all <code>effects</code> set
+	 */
+	public static long toMask(Iterable<VariantEffect> effects) {
+		long mask = 0;
+		for (VariantEffect effect : effects)
+			mask |= effect.getMask();
+		return mask;
+	}
+
+	/**
+	 * @param mask
+	 *            bit mask built with {@link #toMask}
+	 * @return {@link ImmutableSortedSet} with the {@link VariantEffect}s encoded in <code>mask</code>
+	 */
+	public static ImmutableSortedSet<VariantEffect> fromMask(long mask) {
+		ImmutableSortedSet.Builder<VariantEffect> builder = ImmutableSortedSet.naturalOrder();
+		for (long rest = mask; rest != 0; rest &= rest - 1)
+			builder.add(VALUES[Long.numberOfTrailingZeros(rest)]);
+		return builder.build();
+	}
+
+	/**
+	 * @param mask
+	 *            bit mask built with {@link #toMask}
+	 * @return the most pathogenic {@link VariantEffect} encoded in <code>mask</code>, <code>null</code> if
+	 *         <code>mask</code> is empty
+	 */
+	public static VariantEffect mostPathogenic(long mask) {
+		if (mask == 0)
+			return null;
+		return VALUES[Long.numberOfTrailingZeros(mask)];
+	}
+
+	/**
+	 * @param mask
+	 *            bit mask built with {@link #toMask}
+	 * @return the highest {@link PutativeImpact} of the {@link VariantEffect}s encoded in <code>mask</code>,
+	 *         <code>null</code> if <code>mask</code> is empty
+	 */
+	public static PutativeImpact highestImpact(long mask) {
+		if (mask == 0)
+			return null;
+		return IMPACTS[Long.numberOfTrailingZeros(mask)];
+	}
+
 	/**
 	 * @return <code>true</code> if this {@link VariantEffect} annotates structural variants.
 	 */
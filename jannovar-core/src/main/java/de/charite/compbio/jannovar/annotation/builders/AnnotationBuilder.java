@@ -56,6 +56,8 @@ abstract class AnnotationBuilder {
 	/** genome change to use for annotation */
 	protected final GenomeVariant change;
 
+	/** shared per-transcript state, source of the decorators below */
+	protected final TranscriptAnnotationContext context;
 	/** helper for sequence ontology terms */
 	protected final TranscriptSequenceOntologyDecorator so;
 	/** helper for coordinate transformations */
@@ -85,16 +87,35 @@ abstract class AnnotationBuilder {
 	 *            the configuration to use for the {@link AnnotationBuilder}
 	 */
 	AnnotationBuilder(TranscriptModel transcript, GenomeVariant change, AnnotationBuilderOptions options) {
+		this(new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * Initialize the helper object with the given <code>context</code> and <code>change</code>.
+	 *
+	 * The decorators are taken from <code>context</code> which can be shared between the builders for the same
+	 * transcript.
+	 *
+	 * @param context
+	 *            the {@link TranscriptAnnotationContext} of the transcript to build the annotation for
+	 * @param change
+	 *            the {@link GenomeVariant} to use for building the annotation
+	 * @param options
+	 *            the configuration to use for the {@link AnnotationBuilder}
+	 */
+	AnnotationBuilder(TranscriptAnnotationContext context, GenomeVariant change, AnnotationBuilderOptions options) {
 		this.options = options;
+		this.context = context;
 
 		// Project the change to the same strand as transcript, reverse-complementing the REF/ALT strings.
+		final TranscriptModel transcript = context.getTranscript();
 		change = change.withStrand(transcript.getStrand());
 		this.transcript = transcript;
 
-		this.so = new TranscriptSequenceOntologyDecorator(transcript);
-		this.projector = new TranscriptProjectionDecorator(transcript);
-		this.seqChangeHelper = new TranscriptSequenceChangeHelper(transcript);
-		this.seqDecorator = new TranscriptSequenceDecorator(transcript);
+		this.so = context.getSequenceOntologyDecorator();
+		this.projector = context.getProjector();
+		this.seqChangeHelper = context.getSeqChangeHelper();
+		this.seqDecorator = context.getSeqDecorator();
 
 		// Shift the GenomeChange if lies within precisely one exon.
 		if (so.liesInExon(change.getGenomeInterval())) {
@@ -343,8 +364,8 @@ abstract class AnnotationBuilder {
 	 */
 	private AnnotationLocation buildLocAnno(TranscriptModel transcript, GenomeVariant change) {
 		// System.err.println("ACCESSION\t" + transcript.accession);
-		TranscriptSequenceOntologyDecorator soDecorator = new TranscriptSequenceOntologyDecorator(transcript);
-		TranscriptProjectionDecorator projector = new TranscriptProjectionDecorator(transcript);
+		final TranscriptSequenceOntologyDecorator soDecorator = context.getSequenceOntologyDecorator();
+		final TranscriptProjectionDecorator projector = context.getProjector();
 
 		AnnotationLocationBuilder locBuilder = new AnnotationLocationBuilder();
 		locBuilder.setTranscript(transcript);
@@ -22,6 +22,8 @@ public final class AnnotationBuilderDispatcher {
 
 	/** transcript to build annotation for */
 	private final TranscriptModel transcript;
+	/** per-transcript state for {@link #transcript}, <code>null</code> if {@link #transcript} is <code>null</code> */
+	private final TranscriptAnnotationContext context;
 	/** genomic change to build annotation for */
 	private final GenomeVariant change;
 	/** configuration to use */
@@ -29,7 +31,23 @@ public final class AnnotationBuilderDispatcher {
 
 	public AnnotationBuilderDispatcher(TranscriptModel transcript, GenomeVariant change,
 			AnnotationBuilderOptions options) {
-		this.transcript = transcript;
+		this((transcript == null) ? null : new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * Initialize dispatcher with a {@link TranscriptAnnotationContext} that can be shared with other dispatchers
+	 *
+	 * @param context
+	 *            context of the transcript to build the annotation for, <code>null</code> for intergenic annotation
+	 * @param change
+	 *            genomic change to build annotation for
+	 * @param options
+	 *            configuration to use
+	 */
+	public AnnotationBuilderDispatcher(TranscriptAnnotationContext context, GenomeVariant change,
+			AnnotationBuilderOptions options) {
+		this.transcript = (context == null) ? null : context.getTranscript();
+		this.context = context;
 		this.change = change;
 		this.options = options;
 	}
@@ -48,17 +66,17 @@ public final class AnnotationBuilderDispatcher {
 		switch (change.getType()) {
 		case SNV:
 			LOGGER.debug("Annotating SNV {}", new Object[] { change });
-			return new SNVAnnotationBuilder(transcript, change, options).build();
+			return new SNVAnnotationBuilder(context, change, options).build();
 		case DELETION:
 			LOGGER.debug("Annotating deletion {}", new Object[] { change });
-			return new DeletionAnnotationBuilder(transcript, change, options).build();
+			return new DeletionAnnotationBuilder(context, change, options).build();
 		case INSERTION:
 			LOGGER.debug("Annotating insertion {}", new Object[] { change });
-			return new InsertionAnnotationBuilder(transcript, change, options).build();
+			return new InsertionAnnotationBuilder(context, change, options).build();
 		case BLOCK_SUBSTITUTION:
 		default:
 			LOGGER.debug("Annotating block substitution {}", new Object[] { change });
-			return new BlockSubstitutionAnnotationBuilder(transcript, change, options).build();
+			return new BlockSubstitutionAnnotationBuilder(context, change, options).build();
 		}
 	}
 
@@ -12,12 +12,49 @@ public class AnnotationBuilderOptions {
 	 */
 	private final boolean nt3PrimeShifting;
 
+	/**
+	 * whether or not to summarize structural variants on the gene level instead of building one annotation for each
+	 * transcript (default is <code>false</code>)
+	 */
+	private final boolean svGeneSummary;
+
+	/**
+	 * maximal number of genes to report for a structural variant in gene summary mode, <code>0</code> for no limit
+	 * (default is <code>0</code>)
+	 */
+	private final int maxSVGenes;
+
+	/**
+	 * whether or not to build the annotation with highest priority only, skipping the transcripts that cannot yield it
+	 * (default is <code>false</code>)
+	 */
+	private final boolean bestTranscriptOnly;
+
+	/**
+	 * in best transcript mode, only consider the transcripts with a transcript support level between <code>1</code> and
+	 * this value if there are any, <code>0</code> to consider all transcripts (default is <code>0</code>)
+	 */
+	private final int preferredTranscriptSupportLevel;
+
 	public AnnotationBuilderOptions() {
-		this.nt3PrimeShifting = true;
+		this(true);
 	}
 
 	public AnnotationBuilderOptions(boolean nt3PrimeShifting) {
+		this(nt3PrimeShifting, false, 0);
+	}
+
+	public AnnotationBuilderOptions(boolean nt3PrimeShifting, boolean svGeneSummary, int maxSVGenes) {
+		this(nt3PrimeShifting, svGeneSummary, maxSVGenes, false, 0);
+	}
+
+	public AnnotationBuilderOptions(boolean nt3PrimeShifting, boolean svGeneSummary, int maxSVGenes,
+			boolean bestTranscriptOnly, int preferredTranscriptSupportLevel) {
 		this.nt3PrimeShifting = nt3PrimeShifting;
+		this.svGeneSummary = svGeneSummary;
+		this.maxSVGenes = maxSVGenes;
+		this.bestTranscriptOnly = bestTranscriptOnly;
+		this.preferredTranscriptSupportLevel = preferredTranscriptSupportLevel;
 	}
 
 	/**
@@ -27,4 +64,34 @@ public class AnnotationBuilderOptions {
 	public boolean isNt3PrimeShifting() {
 		return nt3PrimeShifting;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return whether or not to summarize structural variants on the gene level (default is <code>false</code>)
+	 */
+	public boolean isSVGeneSummary() {
+		return svGeneSummary;
+	}
+
+	/**
+	 * @return maximal number of genes to report for a structural variant in gene summary mode, <code>0</code> for no
+	 *         limit
+	 */
+	public int getMaxSVGenes() {
+		return maxSVGenes;
+	}
+
+	/**
+	 * @return whether or not to build the annotation with highest priority only (default is <code>false</code>)
+	 */
+	public boolean isBestTranscriptOnly() {
+		return bestTranscriptOnly;
+	}
+
+	/**
+	 * @return maximal transcript support level of the transcripts that are preferred in best transcript mode,
+	 *         <code>0</code> if all transcripts are considered
+	 */
+	public int getPreferredTranscriptSupportLevel() {
+		return preferredTranscriptSupportLevel;
+	}
+}
@@ -50,7 +50,22 @@ public final class BlockSubstitutionAnnotationBuilder extends AnnotationBuilder
 	 */
 	public BlockSubstitutionAnnotationBuilder(TranscriptModel transcript, GenomeVariant change,
 			AnnotationBuilderOptions options) throws InvalidGenomeVariant {
-		super(transcript, change, options);
+		this(new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * @param context
+	 *            {@link TranscriptAnnotationContext} of the transcript to build the annotation for
+	 * @param change
+	 *            {@link GenomeVariant} to build the annotation with
+	 * @param options
+	 *            the configuration to use for the {@link AnnotationBuilder}
+	 * @throws InvalidGenomeVariant
+	 *             if <code>change</code> did not describe a block substitution
+	 */
+	BlockSubstitutionAnnotationBuilder(TranscriptAnnotationContext context, GenomeVariant change,
+			AnnotationBuilderOptions options) throws InvalidGenomeVariant {
+		super(context, change, options);
 
 		// Guard against invalid genome change.
 		if (change.getRef().length() == 0 || change.getAlt().length() == 0)
@@ -136,12 +151,12 @@ public final class BlockSubstitutionAnnotationBuilder extends AnnotationBuilder
 
 		public CDSExonicAnnotationBuilder() {
 			this.changeInterval = change.getGenomeInterval();
-			this.wtCDSSeq = projector.getTranscriptStartingAtCDS();
+			this.wtCDSSeq = context.getWildTypeCDSSequence();
 			this.varCDSSeq = seqChangeHelper.getCDSWithGenomeVariant(change);
 			this.delFrameShift = (varCDSSeq.length() - wtCDSSeq.length()) % 3;
 
 			// Translate the variant CDS sequence.
-			this.wtAASeq = t.translateDNA(wtCDSSeq);
+			this.wtAASeq = context.getWildTypeAASequence();
 			this.varAASeq = t.translateDNA(varCDSSeq);
 
 			// Get the reference change begin position as CDS coordinate, handling introns and positions outside of CDS.
@@ -45,7 +45,22 @@ public final class DeletionAnnotationBuilder extends AnnotationBuilder {
 	 */
 	DeletionAnnotationBuilder(TranscriptModel transcript, GenomeVariant change, AnnotationBuilderOptions options)
 			throws InvalidGenomeVariant {
-		super(transcript, change, options);
+		this(new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * @param context
+	 *            {@link TranscriptAnnotationContext} of the transcript to build the annotation for
+	 * @param change
+	 *            {@link GenomeVariant} to build the annotation with
+	 * @param options
+	 *            the configuration to use for the {@link AnnotationBuilder}
+	 * @throws InvalidGenomeVariant
+	 *             if <code>change</code> did not describe a deletion
+	 */
+	DeletionAnnotationBuilder(TranscriptAnnotationContext context, GenomeVariant change,
+			AnnotationBuilderOptions options) throws InvalidGenomeVariant {
+		super(context, change, options);
 
 		// Guard against invalid genome change.
 		if (change.getRef().length() == 0 || change.getAlt().length() != 0)
@@ -125,7 +140,7 @@ public final class DeletionAnnotationBuilder extends AnnotationBuilder {
 
 		public CDSExonicAnnotationBuilder() {
 			this.changeInterval = change.getGenomeInterval();
-			this.wtCDSSeq = projector.getTranscriptStartingAtCDS();
+			this.wtCDSSeq = context.getWildTypeCDSSequence();
 			this.varCDSSeq = seqChangeHelper.getCDSWithGenomeVariant(change);
 			this.delFrameShift = DeletionAnnotationBuilder.this.change.getRef().length() % 3;
 
@@ -134,7 +149,7 @@ public final class DeletionAnnotationBuilder extends AnnotationBuilder {
 			this.changeLastPos = projector.projectGenomeToCDSPosition(changeInterval.getGenomeEndPos().shifted(-1));
 
 			// Translate the variant CDS sequence and look for stop codon.
-			this.wtAASeq = t.translateDNA(wtCDSSeq);
+			this.wtAASeq = context.getWildTypeAASequence();
 			this.varAASeq = t.translateDNA(varCDSSeq);
 			this.varAAStopPos = varAASeq.indexOf('*', this.changeBeginPos.getPos() / 3);
 
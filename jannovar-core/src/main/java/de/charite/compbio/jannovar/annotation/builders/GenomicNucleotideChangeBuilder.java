@@ -6,6 +6,7 @@ import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideIndel;
 import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideInsertion;
 import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideInversion;
 import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideSubstitution;
+import de.charite.compbio.jannovar.impl.util.DNAUtils;
 import de.charite.compbio.jannovar.reference.GenomePosition;
 import de.charite.compbio.jannovar.reference.GenomeVariant;
 
@@ -53,19 +54,7 @@ public class GenomicNucleotideChangeBuilder {
 			// if tm is null it is intergenic
 			return NucleotideIndel.buildWithSequence(false, beginPos, beginPos + ref.length() - 1, ref, alt);
 
-		// Build reverse-complement of alt string.
-		StringBuilder altRC = new StringBuilder(alt).reverse();
-		for (int i = 0; i < altRC.length(); ++i)
-			if (altRC.charAt(i) == 'A')
-				altRC.setCharAt(i, 'T');
-			else if (altRC.charAt(i) == 'T')
-				altRC.setCharAt(i, 'A');
-			else if (altRC.charAt(i) == 'C')
-				altRC.setCharAt(i, 'G');
-			else if (altRC.charAt(i) == 'G')
-				altRC.setCharAt(i, 'C');
-
-		if (ref.length() == alt.length() && ref.equals(altRC.toString()))
+		if (DNAUtils.isReverseComplement(ref, alt))
 			return NucleotideInversion.buildWithoutSeqDescription(false, beginPos, beginPos + ref.length()
 					- 1);
 		else
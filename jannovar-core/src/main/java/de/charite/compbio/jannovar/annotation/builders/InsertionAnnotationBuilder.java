@@ -62,7 +62,22 @@ public final class InsertionAnnotationBuilder extends AnnotationBuilder {
 	 */
 	InsertionAnnotationBuilder(TranscriptModel transcript, GenomeVariant change, AnnotationBuilderOptions options)
 			throws InvalidGenomeVariant {
-		super(transcript, change, options);
+		this(new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * @param context
+	 *            {@link TranscriptAnnotationContext} of the transcript to build the annotation for
+	 * @param change
+	 *            {@link GenomeVariant} to build the annotation with
+	 * @param options
+	 *            the configuration to use for the {@link AnnotationBuilder}
+	 * @throws InvalidGenomeVariant
+	 *             if <code>change</code> did not describe an insertion
+	 */
+	InsertionAnnotationBuilder(TranscriptAnnotationContext context, GenomeVariant change,
+			AnnotationBuilderOptions options) throws InvalidGenomeVariant {
+		super(context, change, options);
 
 		// Guard against invalid genome change.
 		if (change.getRef().length() != 0 || change.getAlt().length() == 0)
@@ -177,14 +192,14 @@ public final class InsertionAnnotationBuilder extends AnnotationBuilder {
 		ProteinChange proteinChange;
 
 		public CDSExonicAnnotationBuilder() {
-			this.wtCDSSeq = projector.getTranscriptStartingAtCDS();
+			this.wtCDSSeq = context.getWildTypeCDSSequence();
 			this.varCDSSeq = seqChangeHelper.getCDSWithGenomeVariant(change);
 
 			// Get position of insertion on CDS level, will obtain AA change pos after normalization.
 			this.insertPos = projector.projectGenomeToCDSPosition(change.getGenomePos());
 
 			// Translate the variant CDS sequence and look for stop codon.
-			this.wtAASeq = t.translateDNA(wtCDSSeq);
+			this.wtAASeq = context.getWildTypeAASequence();
 			this.wtAAStopPos = wtAASeq.indexOf('*', this.insertPos.getPos() / 3);
 			this.varAASeq = t.translateDNA(varCDSSeq);
 			this.varAAStopPos = varAASeq.indexOf('*', this.insertPos.getPos() / 3);
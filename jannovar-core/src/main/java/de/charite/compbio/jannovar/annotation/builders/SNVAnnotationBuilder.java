@@ -52,7 +52,22 @@ public final class SNVAnnotationBuilder extends AnnotationBuilder {
 	 */
 	SNVAnnotationBuilder(TranscriptModel transcript, GenomeVariant change, AnnotationBuilderOptions options)
 			throws InvalidGenomeVariant {
-		super(transcript, change, options);
+		this(new TranscriptAnnotationContext(transcript), change, options);
+	}
+
+	/**
+	 * @param context
+	 *            {@link TranscriptAnnotationContext} of the transcript to build the annotation for
+	 * @param change
+	 *            {@link GenomeVariant} to build the annotation with
+	 * @param options
+	 *            the configuration to use for the {@link AnnotationBuilder}
+	 * @throws InvalidGenomeVariant
+	 *             if <code>change</code> did not describe a deletion
+	 */
+	SNVAnnotationBuilder(TranscriptAnnotationContext context, GenomeVariant change, AnnotationBuilderOptions options)
+			throws InvalidGenomeVariant {
+		super(context, change, options);
 
 		// guard against invalid genome change
 		if (change.getRef().length() != 1 || change.getAlt().length() != 1)
@@ -93,8 +108,8 @@ public final class SNVAnnotationBuilder extends AnnotationBuilder {
 
 		// Check that the WT nucleotide from the transcript is consistent with change.ref and generate a warning message
 		// if this is not the case.
-		if (txPos.getPos() >= transcript.getSequence().length()
-				|| !transcript.getSequence().substring(txPos.getPos(), txPos.getPos() + 1).equals(change.getRef()))
+		if (txPos.getPos() >= transcript.getSequenceLength()
+				|| !transcript.getSequence(txPos.getPos(), txPos.getPos() + 1).equals(change.getRef()))
 			messages.add(AnnotationMessage.WARNING_REF_DOES_NOT_MATCH_GENOME);
 
 		// Compute the frame shift and codon start position.
@@ -103,15 +118,18 @@ public final class SNVAnnotationBuilder extends AnnotationBuilder {
 		// where the transcript differs from the reference. This inconsistency of the reference and the transcript is
 		// not necessarily an error in the data base but can also occur in the case of post-transcriptional changes of
 		// the transcript.
-		String transcriptCodon;
-		try {
-			transcriptCodon = seqDecorator.getCodonAt(txPos, cdsPos);
-		} catch (InvalidCodonException e) {
+		if (!seqDecorator.hasCodonAt(txPos, cdsPos)) {
 			// Bail out in the case of invalid codon from sequence
 			return new Annotation(transcript, change, new ArrayList<VariantEffect>(), locAnno, getGenomicNTChange(),
 					getCDSNTChange(), ProteinMiscChange.build(true, ProteinMiscChangeType.DIFFICULT_TO_PREDICT),
 					ImmutableList.of(AnnotationMessage.ERROR_PROBLEM_DURING_ANNOTATION));
 		}
+		String transcriptCodon;
+		try {
+			transcriptCodon = seqDecorator.getCodonAt(txPos, cdsPos);
+		} catch (InvalidCodonException e) {
+			throw new Error("Bug: codon must be accessible at this point");
+		}
 		String wtCodon = TranscriptSequenceDecorator.codonWithUpdatedBase(transcriptCodon, frameShift,
 				change.getRef().charAt(0));
 		String varCodon = TranscriptSequenceDecorator.codonWithUpdatedBase(transcriptCodon, frameShift,
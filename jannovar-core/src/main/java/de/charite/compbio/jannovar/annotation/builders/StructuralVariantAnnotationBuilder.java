@@ -7,6 +7,7 @@ import de.charite.compbio.jannovar.annotation.AnnotationLocation;
 import de.charite.compbio.jannovar.annotation.AnnotationLocation.RankType;
 import de.charite.compbio.jannovar.annotation.VariantEffect;
 import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideChange;
+import de.charite.compbio.jannovar.impl.util.DNAUtils;
 import de.charite.compbio.jannovar.reference.GenomePosition;
 import de.charite.compbio.jannovar.reference.GenomeVariant;
 import de.charite.compbio.jannovar.reference.TranscriptModel;
@@ -53,18 +54,6 @@ public final class StructuralVariantAnnotationBuilder {
 		final String ref = change.getRef();
 		final String alt = change.getAlt();
 
-		// Build reverse-complement of alt string.
-		StringBuilder altRC = new StringBuilder(alt).reverse();
-		for (int i = 0; i < altRC.length(); ++i)
-			if (altRC.charAt(i) == 'A')
-				altRC.setCharAt(i, 'T');
-			else if (altRC.charAt(i) == 'T')
-				altRC.setCharAt(i, 'A');
-			else if (altRC.charAt(i) == 'C')
-				altRC.setCharAt(i, 'G');
-			else if (altRC.charAt(i) == 'G')
-				altRC.setCharAt(i, 'C');
-
 		// chromosome/genome level change
 		NucleotideChange ntChange = new GenomicNucleotideChangeBuilder(change).build();
 
@@ -73,7 +62,7 @@ public final class StructuralVariantAnnotationBuilder {
 		final AnnotationLocation annoLoc = new AnnotationLocation(null, RankType.UNDEFINED,
 				AnnotationLocation.INVALID_RANK, AnnotationLocation.INVALID_RANK, null);
 
-		if (ref.length() == alt.length() && ref.equals(altRC.toString())) { // SV inversion
+		if (DNAUtils.isReverseComplement(ref, alt)) { // SV inversion
 			if (transcript == null) {
 				return new Annotation(null, change, ImmutableList.of(VariantEffect.INTERGENIC_VARIANT,
 						VariantEffect.STRUCTURAL_VARIANT), null, ntChange, null, null);
@@ -0,0 +1,244 @@
+package de.charite.compbio.jannovar.annotation.builders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.annotation.Annotation;
+import de.charite.compbio.jannovar.annotation.AnnotationMessage;
+import de.charite.compbio.jannovar.annotation.StructuralVariantType;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideChange;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideDeletion;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideDuplication;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideIndel;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideInsertion;
+import de.charite.compbio.jannovar.hgvs.nts.change.NucleotideInversion;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Build gene-level {@link Annotation} objects for structural variants.
+ *
+ * In contrast to {@link StructuralVariantAnnotationBuilder}, this builder does not generate one {@link Annotation} for
+ * each overlapping transcript but one for each overlapping gene. Only the SV interval end points are used, so this also
+ * works for symbolic alleles (e.g., <code>&lt;DEL&gt;</code> with <code>END</code>) and never looks at the allele
+ * sequences. For each transcript, the SV is classified as containing the whole transcript, having a break point in an
+ * exon, or having break points in introns only (see {@link GeneOverlapType}). The annotation for a gene is built for
+ * the transcript with the most severe class, the first one in the given order on ties.
+ *
+ * When more genes than the configured maximum are affected, only the genes with the most severe classes are reported
+ * and all annotations get the message {@link AnnotationMessage#INFO_TRUNCATED_ANNOTATIONS}.
+ */
+public final class StructuralVariantGeneSummaryBuilder {
+
+	/**
+	 * Classification of the overlap of a structural variant with a transcript, most severe first
+	 */
+	public enum GeneOverlapType {
+		/** the transcript is fully contained in the SV */
+		CONTAINED,
+		/** a break point of the SV lies in an exon of the transcript */
+		BREAKPOINT_IN_EXON,
+		/** the break points of the SV lie in introns of the transcript or outside of the transcript */
+		BREAKPOINT_IN_INTRON;
+	}
+
+	/** the genome change to build the annotations for */
+	private final GenomeVariant change;
+	/** the interval affected by the SV, on the forward strand */
+	private final GenomeInterval svRegion;
+	/** the type of the SV, <code>null</code> if unknown */
+	private final StructuralVariantType svType;
+	/** the transcripts overlapping with {@link #svRegion} */
+	private final Collection<TranscriptModel> transcripts;
+	/** maximal number of genes to report, <code>0</code> for no limit */
+	private final int maxGenes;
+	/** first position affected by the SV, insertion point for insertions */
+	private final GenomePosition firstBreakPoint;
+	/** last position affected by the SV, insertion point for insertions */
+	private final GenomePosition lastBreakPoint;
+
+	/**
+	 * Initialize the builder
+	 *
+	 * @param change
+	 *            {@link GenomeVariant} to build the annotations for, possibly with symbolic allele
+	 * @param svRegion
+	 *            {@link GenomeInterval} affected by the SV, empty for insertions
+	 * @param svType
+	 *            {@link StructuralVariantType} of the SV, <code>null</code> if unknown
+	 * @param transcripts
+	 *            the transcripts overlapping with <code>svRegion</code>, in the order of their begin positions
+	 * @param maxGenes
+	 *            maximal number of genes to report, <code>0</code> for no limit
+	 */
+	public StructuralVariantGeneSummaryBuilder(GenomeVariant change, GenomeInterval svRegion,
+			StructuralVariantType svType, Collection<TranscriptModel> transcripts, int maxGenes) {
+		this.change = change;
+		this.svRegion = svRegion.withStrand(Strand.FWD);
+		this.svType = svType;
+		this.transcripts = transcripts;
+		this.maxGenes = maxGenes;
+		this.firstBreakPoint = this.svRegion.getGenomeBeginPos();
+		this.lastBreakPoint = (this.svRegion.length() == 0) ? firstBreakPoint
+				: new GenomePosition(this.svRegion.getRefDict(), Strand.FWD, this.svRegion.getChr(),
+						this.svRegion.getEndPos() - 1, PositionType.ZERO_BASED);
+	}
+
+	/**
+	 * @return {@link ImmutableList} of {@link Annotation}s, one for each affected gene or one intergenic annotation
+	 */
+	public ImmutableList<Annotation> build() {
+		final NucleotideChange ntChange = buildNucleotideChange();
+		if (transcripts.isEmpty())
+			return ImmutableList.of(new Annotation(null, change,
+					ImmutableList.of(VariantEffect.INTERGENIC_VARIANT, VariantEffect.STRUCTURAL_VARIANT), null,
+					ntChange, null, null));
+
+		// Collect most severely affected transcript for each gene.
+		LinkedHashMap<String, GeneSummary> genes = new LinkedHashMap<>();
+		for (TranscriptModel tm : transcripts) {
+			final GeneOverlapType overlapType = classify(tm);
+			final String key = geneKey(tm);
+			final GeneSummary summary = genes.get(key);
+			if (summary == null)
+				genes.put(key, new GeneSummary(genes.size(), tm, overlapType));
+			else if (overlapType.compareTo(summary.overlapType) < 0)
+				genes.put(key, new GeneSummary(summary.index, tm, overlapType));
+		}
+
+		// Limit to the genes with the most severe classes.
+		List<GeneSummary> selected = new ArrayList<>(genes.values());
+		final boolean truncated = (maxGenes > 0 && selected.size() > maxGenes);
+		if (truncated) {
+			Collections.sort(selected);
+			selected = selected.subList(0, maxGenes);
+		}
+
+		ImmutableList.Builder<Annotation> builder = ImmutableList.builder();
+		for (GeneSummary summary : selected)
+			builder.add(new Annotation(summary.transcript, change, buildEffects(summary.transcript,
+					summary.overlapType), null, ntChange, null, null,
+					truncated ? ImmutableList.of(AnnotationMessage.INFO_TRUNCATED_ANNOTATIONS)
+							: ImmutableList.<AnnotationMessage> of()));
+		return builder.build();
+	}
+
+	/**
+	 * Classify the overlap of the SV with <code>tm</code>
+	 *
+	 * @param tm
+	 *            {@link TranscriptModel} to classify the overlap for
+	 * @return {@link GeneOverlapType} for <code>tm</code>
+	 */
+	public GeneOverlapType classify(TranscriptModel tm) {
+		if (svRegion.length() > 0 && svRegion.contains(tm.getTXRegion()))
+			return GeneOverlapType.CONTAINED;
+		for (GenomeInterval exon : tm.getExonRegions())
+			if (exon.contains(firstBreakPoint) || exon.contains(lastBreakPoint))
+				return GeneOverlapType.BREAKPOINT_IN_EXON;
+		return GeneOverlapType.BREAKPOINT_IN_INTRON;
+	}
+
+	/** @return effects for <code>tm</code> with the given overlap type */
+	private ImmutableList<VariantEffect> buildEffects(TranscriptModel tm, GeneOverlapType overlapType) {
+		if (svType == StructuralVariantType.DEL) {
+			if (overlapType == GeneOverlapType.CONTAINED)
+				return ImmutableList.of(VariantEffect.TRANSCRIPT_ABLATION, VariantEffect.STRUCTURAL_VARIANT);
+			else if (overlapType == GeneOverlapType.BREAKPOINT_IN_EXON || overlapsExon(tm))
+				return ImmutableList.of(VariantEffect.EXON_LOSS_VARIANT, VariantEffect.STRUCTURAL_VARIANT);
+			else
+				return ImmutableList.of(VariantEffect.INTRON_VARIANT, VariantEffect.STRUCTURAL_VARIANT);
+		}
+
+		switch (overlapType) {
+		case CONTAINED:
+			return ImmutableList.of(VariantEffect.STRUCTURAL_VARIANT);
+		case BREAKPOINT_IN_EXON:
+			if (tm.isCoding())
+				return ImmutableList.of(VariantEffect.CODING_SEQUENCE_VARIANT, VariantEffect.STRUCTURAL_VARIANT);
+			else
+				return ImmutableList.of(VariantEffect.NON_CODING_TRANSCRIPT_EXON_VARIANT,
+						VariantEffect.STRUCTURAL_VARIANT);
+		default:
+			return ImmutableList.of(VariantEffect.INTRON_VARIANT, VariantEffect.STRUCTURAL_VARIANT);
+		}
+	}
+
+	/** @return <code>true</code> if the SV overlaps with an exon of <code>tm</code> */
+	private boolean overlapsExon(TranscriptModel tm) {
+		for (GenomeInterval exon : tm.getExonRegions())
+			if (svRegion.overlapsWith(exon))
+				return true;
+		return false;
+	}
+
+	/** @return {@link NucleotideChange} on the genome level, built from the SV end points only */
+	private NucleotideChange buildNucleotideChange() {
+		final int beginPos = svRegion.getBeginPos();
+		final int lastPos = svRegion.getEndPos() - 1;
+		if (svType == null)
+			return NucleotideIndel.buildWithLength(false, beginPos, lastPos, svRegion.length(),
+					change.getAlt().length());
+		switch (svType) {
+		case DEL:
+			return NucleotideDeletion.buildWithoutSeqDescription(false, beginPos, lastPos);
+		case DUP:
+			return NucleotideDuplication.buildWithoutSeqDescription(false, beginPos, lastPos);
+		case INV:
+			return NucleotideInversion.buildWithoutSeqDescription(false, beginPos, lastPos);
+		case INS:
+			return NucleotideInsertion.buildWithLength(false, beginPos - 1, beginPos);
+		default:
+			return NucleotideIndel.buildWithoutSeqDescription(false, beginPos, lastPos);
+		}
+	}
+
+	/** @return key for grouping transcripts by gene, gene ID if available, gene symbol or accession otherwise */
+	private static String geneKey(TranscriptModel tm) {
+		if (tm.getGeneID() != null)
+			return tm.getGeneID();
+		else if (tm.getGeneSymbol() != null)
+			return tm.getGeneSymbol();
+		else
+			return tm.getAccession();
+	}
+
+	/**
+	 * Most severely affected transcript of a gene, ordered by severity and then by first occurrence
+	 */
+	private static final class GeneSummary implements Comparable<GeneSummary> {
+
+		/** index of the gene in the order of first occurrence */
+		final int index;
+		/** the most severely affected transcript */
+		final TranscriptModel transcript;
+		/** overlap type of {@link #transcript} */
+		final GeneOverlapType overlapType;
+
+		GeneSummary(int index, TranscriptModel transcript, GeneOverlapType overlapType) {
+			this.index = index;
+			this.transcript = transcript;
+			this.overlapType = overlapType;
+		}
+
+		@Override
+		public int compareTo(GeneSummary o) {
+			final int result = overlapType.compareTo(o.overlapType);
+			if (result != 0)
+				return result;
+			return Integer.compare(index, o.index);
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+package de.charite.compbio.jannovar.annotation.builders;
+
+import de.charite.compbio.jannovar.impl.util.Translator;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptProjectionDecorator;
+import de.charite.compbio.jannovar.reference.TranscriptSequenceChangeHelper;
+import de.charite.compbio.jannovar.reference.TranscriptSequenceDecorator;
+import de.charite.compbio.jannovar.reference.TranscriptSequenceOntologyDecorator;
+
+/**
+ * Per-transcript state that is shared by all annotations built for one {@link TranscriptModel}.
+ *
+ * Bundles the decorators used by the annotation builders and lazily computes the wild type sequence starting at the
+ * CDS and its translation that the builders for indels and block substitutions need (the translation is taken from
+ * the {@link TranscriptModel} if it has been precomputed when building the database). When many variants are annotated
+ * against the same transcript (e.g., by {@link de.charite.compbio.jannovar.annotation.SortedVariantAnnotator}), the
+ * same context can be passed to {@link AnnotationBuilderDispatcher} such that this is only done once.
+ *
+ * Objects of this class are not thread-safe because of the lazy initialization.
+ */
+public final class TranscriptAnnotationContext {
+
+	/** the transcript that this context is for */
+	private final TranscriptModel transcript;
+	/** helper for sequence ontology terms */
+	private final TranscriptSequenceOntologyDecorator so;
+	/** helper for coordinate transformations */
+	private final TranscriptProjectionDecorator projector;
+	/** helper for updating CDS/TX sequence */
+	private final TranscriptSequenceChangeHelper seqChangeHelper;
+	/** helper for sequence access */
+	private final TranscriptSequenceDecorator seqDecorator;
+
+	/** transcript sequence starting at the CDS, <code>null</code> before the first call to the getter */
+	private String wtCDSSeq = null;
+	/** translation of {@link #wtCDSSeq}, <code>null</code> before the first call to the getter */
+	private String wtAASeq = null;
+	/** forward strand begin and end positions of the exons, <code>null</code> before the first call to the getter */
+	private int[] fwdExonBounds = null;
+
+	/**
+	 * Initialize the context for the given transcript
+	 *
+	 * @param transcript
+	 *            the {@link TranscriptModel} to build the context for
+	 */
+	public TranscriptAnnotationContext(TranscriptModel transcript) {
+		this.transcript = transcript;
+		this.so = new TranscriptSequenceOntologyDecorator(transcript);
+		this.projector = new TranscriptProjectionDecorator(transcript);
+		this.seqChangeHelper = new TranscriptSequenceChangeHelper(transcript);
+		this.seqDecorator = new TranscriptSequenceDecorator(transcript);
+	}
+
+	/** @return the transcript that this context is for */
+	public TranscriptModel getTranscript() {
+		return transcript;
+	}
+
+	/** @return helper for sequence ontology terms */
+	public TranscriptSequenceOntologyDecorator getSequenceOntologyDecorator() {
+		return so;
+	}
+
+	/** @return helper for coordinate transformations */
+	public TranscriptProjectionDecorator getProjector() {
+		return projector;
+	}
+
+	/** @return helper for updating CDS/TX sequence */
+	public TranscriptSequenceChangeHelper getSeqChangeHelper() {
+		return seqChangeHelper;
+	}
+
+	/** @return helper for sequence access */
+	public TranscriptSequenceDecorator getSeqDecorator() {
+		return seqDecorator;
+	}
+
+	/**
+	 * @return the wild type transcript sequence starting at the CDS, see
+	 *         {@link TranscriptProjectionDecorator#getTranscriptStartingAtCDS}
+	 */
+	public String getWildTypeCDSSequence() {
+		if (wtCDSSeq == null)
+			wtCDSSeq = projector.getTranscriptStartingAtCDS();
+		return wtCDSSeq;
+	}
+
+	/** @return translation of {@link #getWildTypeCDSSequence} */
+	public String getWildTypeAASequence() {
+		if (wtAASeq == null) {
+			if (transcript.isTranslationPrecomputed()) // stored in the database
+				wtAASeq = transcript.getTranslationStartingAtCDS();
+			else
+				wtAASeq = Translator.getTranslator().translateDNA(getWildTypeCDSSequence());
+		}
+		return wtAASeq;
+	}
+
+	/** @return begin and end positions of the exons on the forward strand, alternating */
+	private int[] getForwardExonBounds() {
+		if (fwdExonBounds == null) {
+			int[] bounds = new int[2 * transcript.getExonRegions().size()];
+			for (int i = 0; i < transcript.getExonRegions().size(); ++i) {
+				final GenomeInterval exon = transcript.getExonRegions().get(i).withStrand(Strand.FWD);
+				bounds[2 * i] = exon.getBeginPos();
+				bounds[2 * i + 1] = exon.getEndPos();
+			}
+			fwdExonBounds = bounds;
+		}
+		return fwdExonBounds;
+	}
+
+	/**
+	 * Query whether an interval lies close to an exon of the transcript
+	 *
+	 * @param beginPos
+	 *            0-based begin position of the interval on the forward strand
+	 * @param endPos
+	 *            0-based end position of the interval on the forward strand, exclusive
+	 * @param margin
+	 *            number of bases around the exons that count as close
+	 * @return <code>true</code> if <code>[beginPos, endPos)</code> overlaps with an exon extended by
+	 *         <code>margin</code> bases on each side
+	 */
+	public boolean isNearExon(int beginPos, int endPos, int margin) {
+		final int[] bounds = getForwardExonBounds();
+		for (int i = 0; i < bounds.length; i += 2)
+			if (beginPos < bounds[i + 1] + margin && bounds[i] - margin < endPos)
+				return true;
+		return false;
+	}
+
+}
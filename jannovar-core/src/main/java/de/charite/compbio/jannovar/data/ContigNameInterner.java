@@ -0,0 +1,75 @@
+package de.charite.compbio.jannovar.data;
+
+// NOTE(holtgrem): Part of the public interface of the Jannovar library.
+
+/**
+ * Fast resolution of contig names from input files (e.g., the CHROM column of VCF files) to numeric contig IDs.
+ *
+ * Input files are usually sorted by contig, so consecutive lookups are mostly for the same name. The last resolved name
+ * is cached and compared by identity first (VCF parsers usually return the same <code>String</code> object for the
+ * same contig), then by value, before falling back to the name map of the {@link ReferenceDictionary}. Unknown names
+ * are cached as well, so skipping records on contigs missing from the dictionary is cheap, too.
+ *
+ * Objects of this class can be shared between threads.
+ */
+public final class ContigNameInterner {
+
+	/** the {@link ReferenceDictionary} to use for the lookup */
+	private final ReferenceDictionary refDict;
+
+	/** last looked up contig, replaced as a whole for thread safety */
+	private volatile CachedContig last = null;
+
+	/**
+	 * Initialize the interner
+	 *
+	 * @param refDict
+	 *            the {@link ReferenceDictionary} to use for the lookup
+	 */
+	public ContigNameInterner(ReferenceDictionary refDict) {
+		this.refDict = refDict;
+	}
+
+	/** @return the {@link ReferenceDictionary} used for the lookup */
+	public ReferenceDictionary getRefDict() {
+		return refDict;
+	}
+
+	/**
+	 * @param name
+	 *            contig name to look up
+	 * @return numeric contig ID, <code>-1</code> if <code>name</code> is not known in the {@link ReferenceDictionary}
+	 */
+	public int getContigID(String name) {
+		return lookup(name).id;
+	}
+
+	/** @return cache entry for <code>name</code>, updating {@link #last} if necessary */
+	private CachedContig lookup(String name) {
+		final CachedContig entry = last;
+		if (entry != null && (entry.name == name || entry.name.equals(name)))
+			return entry;
+
+		final CachedContig result = new CachedContig(name, refDict.getContigID(name));
+		last = result;
+		return result;
+	}
+
+	/**
+	 * Cache entry for the last looked up contig
+	 */
+	private static final class CachedContig {
+
+		/** the name as passed to the lookup */
+		final String name;
+		/** the numeric contig ID, <code>-1</code> if unknown */
+		final int id;
+
+		CachedContig(String name, int id) {
+			this.name = name;
+			this.id = id;
+		}
+
+	}
+
+}
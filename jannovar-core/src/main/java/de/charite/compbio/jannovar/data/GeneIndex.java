@@ -0,0 +1,217 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
+import de.charite.compbio.jannovar.impl.intervals.IntervalEndExtractor;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+// NOTE(holtgrem): Part of the public interface of the Jannovar library.
+
+/**
+ * Index of the genes of a {@link JannovarData} object, built once when the database is created.
+ *
+ * {@link JannovarDataSerializer} stores the genes as a table of their transcripts in the index of the database file,
+ * and loading passes them to {@link #fromGenes}, such that the transcripts do not need to be clustered again.
+ *
+ * The transcripts of each gene symbol on a chromosome are clustered by position: a transcript belongs to the same
+ * {@link GeneModel} as the previous ones if it begins less than {@link #MAX_TRANSCRIPT_DISTANCE} after the end of one
+ * of them. This keeps, e.g., RNA transcript matches far away from the gene locus from inflating the gene region.
+ */
+@Immutable
+public final class GeneIndex implements Serializable {
+
+	/** serial version ID */
+	private static final long serialVersionUID = 1L;
+
+	/** transcripts with the same gene symbol closer than this are assigned to the same gene */
+	public static final int MAX_TRANSCRIPT_DISTANCE = 10000;
+
+	/** all genes, sorted by chromosome and position */
+	private final ImmutableList<GeneModel> genes;
+	/** map from numeric chromosome ID to interval tree of the genes on the chromosome */
+	private final ImmutableMap<Integer, IntervalArray<GeneModel>> geneIntervalTrees;
+	/** map from gene symbol to the genes with this symbol */
+	private final ImmutableMultimap<String, GeneModel> genesBySymbol;
+
+	/**
+	 * Initialize the index
+	 *
+	 * @param genes
+	 *            the genes to put into the index, sorted by chromosome and position
+	 */
+	public GeneIndex(ImmutableList<GeneModel> genes) {
+		this.genes = genes;
+		this.geneIntervalTrees = buildIntervalTrees(genes);
+		this.genesBySymbol = buildGenesBySymbol(genes);
+	}
+
+	/**
+	 * Build {@link GeneIndex} from a list of transcripts
+	 *
+	 * @param transcripts
+	 *            the {@link TranscriptModel}s to build the genes from
+	 * @return {@link GeneIndex} with the genes of <code>transcripts</code>
+	 */
+	public static GeneIndex build(Collection<TranscriptModel> transcripts) {
+		ArrayList<TranscriptModel> sorted = new ArrayList<>(transcripts);
+		Collections.sort(sorted, new Comparator<TranscriptModel>() {
+			@Override
+			public int compare(TranscriptModel lhs, TranscriptModel rhs) {
+				return ComparisonChain.start().compare(lhs.getTXRegion().withStrand(Strand.FWD),
+						rhs.getTXRegion().withStrand(Strand.FWD)).compare(lhs.getAccession(), rhs.getAccession())
+						.result();
+			}
+		});
+
+		// the transcripts are sorted by position, so there is at most one open cluster for each gene symbol
+		ArrayList<GeneModel> genes = new ArrayList<>();
+		HashMap<String, Cluster> openClusters = new HashMap<>();
+		int chr = -1;
+		for (TranscriptModel tm : sorted) {
+			if (tm.getChr() != chr) {
+				for (Cluster cluster : openClusters.values())
+					genes.add(cluster.build());
+				openClusters.clear();
+				chr = tm.getChr();
+			}
+			final Cluster cluster = openClusters.get(tm.getGeneSymbol());
+			if (cluster != null && cluster.accepts(tm)) {
+				cluster.add(tm);
+			} else {
+				if (cluster != null)
+					genes.add(cluster.build());
+				openClusters.put(tm.getGeneSymbol(), new Cluster(tm));
+			}
+		}
+		for (Cluster cluster : openClusters.values())
+			genes.add(cluster.build());
+		return fromGenes(genes);
+	}
+
+	/**
+	 * Build {@link GeneIndex} from existing {@link GeneModel}s
+	 *
+	 * @param genes
+	 *            the genes to put into the index, in any order
+	 * @return {@link GeneIndex} with <code>genes</code>
+	 */
+	public static GeneIndex fromGenes(Collection<GeneModel> genes) {
+		ArrayList<GeneModel> sorted = new ArrayList<>(genes);
+		Collections.sort(sorted, new Comparator<GeneModel>() {
+			@Override
+			public int compare(GeneModel lhs, GeneModel rhs) {
+				return ComparisonChain.start().compare(lhs.getRegion(), rhs.getRegion())
+						.compare(lhs.getTranscripts().get(0).getAccession(),
+								rhs.getTranscripts().get(0).getAccession())
+						.result();
+			}
+		});
+		return new GeneIndex(ImmutableList.copyOf(sorted));
+	}
+
+	/** @return all genes, sorted by chromosome and position */
+	public ImmutableList<GeneModel> getGenes() {
+		return genes;
+	}
+
+	/** @return map from numeric chromosome ID to interval tree of the genes on the chromosome */
+	public ImmutableMap<Integer, IntervalArray<GeneModel>> getGeneIntervalTrees() {
+		return geneIntervalTrees;
+	}
+
+	/** @return map from gene symbol to the genes with this symbol, genes without symbol are not contained */
+	public ImmutableMultimap<String, GeneModel> getGenesBySymbol() {
+		return genesBySymbol;
+	}
+
+	/** @return interval trees of <code>genes</code>, by chromosome */
+	private static ImmutableMap<Integer, IntervalArray<GeneModel>> buildIntervalTrees(
+			ImmutableList<GeneModel> genes) {
+		HashMap<Integer, ArrayList<GeneModel>> chrToGenes = new HashMap<>();
+		for (GeneModel gene : genes) {
+			if (!chrToGenes.containsKey(gene.getChr()))
+				chrToGenes.put(gene.getChr(), new ArrayList<GeneModel>());
+			chrToGenes.get(gene.getChr()).add(gene);
+		}
+
+		ImmutableMap.Builder<Integer, IntervalArray<GeneModel>> builder = new ImmutableMap.Builder<>();
+		for (Map.Entry<Integer, ArrayList<GeneModel>> entry : chrToGenes.entrySet())
+			builder.put(entry.getKey(), new IntervalArray<GeneModel>(entry.getValue(), new GeneIntervalEndExtractor()));
+		return builder.build();
+	}
+
+	/** @return mapping from gene symbol to the genes of <code>genes</code> */
+	private static ImmutableMultimap<String, GeneModel> buildGenesBySymbol(ImmutableList<GeneModel> genes) {
+		ImmutableMultimap.Builder<String, GeneModel> builder = new ImmutableMultimap.Builder<>();
+		for (GeneModel gene : genes)
+			if (gene.getGeneSymbol() != null)
+				builder.put(gene.getGeneSymbol(), gene);
+		return builder.build();
+	}
+
+	/**
+	 * Transcripts of one gene symbol that are collected into a {@link GeneModel}
+	 */
+	private static final class Cluster {
+
+		/** gene symbol of the transcripts */
+		private final String geneSymbol;
+		/** transcripts of the cluster, sorted by begin position */
+		private final ImmutableList.Builder<TranscriptModel> transcripts = new ImmutableList.Builder<>();
+		/** largest end position of the transcripts */
+		private int endPos;
+
+		Cluster(TranscriptModel tm) {
+			this.geneSymbol = tm.getGeneSymbol();
+			this.endPos = Integer.MIN_VALUE;
+			add(tm);
+		}
+
+		/** @return whether <code>tm</code>, beginning right of all transcripts so far, belongs to the cluster */
+		boolean accepts(TranscriptModel tm) {
+			return tm.getTXRegion().withStrand(Strand.FWD).getBeginPos() - MAX_TRANSCRIPT_DISTANCE < endPos;
+		}
+
+		void add(TranscriptModel tm) {
+			transcripts.add(tm);
+			endPos = Math.max(endPos, tm.getTXRegion().withStrand(Strand.FWD).getEndPos());
+		}
+
+		GeneModel build() {
+			return new GeneModel(geneSymbol, transcripts.build());
+		}
+
+	}
+
+	/**
+	 * Extraction of interval ends of {@link GeneModel} objects
+	 */
+	private static final class GeneIntervalEndExtractor implements IntervalEndExtractor<GeneModel> {
+
+		@Override
+		public int getBegin(GeneModel gene) {
+			return gene.getRegion().getBeginPos();
+		}
+
+		@Override
+		public int getEnd(GeneModel gene) {
+			return gene.getRegion().getEndPos();
+		}
+
+	}
+
+}
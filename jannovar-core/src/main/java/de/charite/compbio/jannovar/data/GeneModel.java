@@ -0,0 +1,131 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.Serializable;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+// NOTE(holtgrem): Part of the public interface of the Jannovar library.
+
+/**
+ * A gene as stored in the {@link GeneIndex} of a {@link JannovarData} object: a cluster of transcripts with the same
+ * gene symbol on one chromosome.
+ *
+ * The transcripts are the same objects as in the {@link JannovarData}, such that they are only stored once on
+ * serialization. Two genes are equal if they have the same gene symbol, gene ID, and region.
+ */
+@Immutable
+public final class GeneModel implements Serializable {
+
+	/** serial version ID */
+	private static final long serialVersionUID = 1L;
+
+	/** gene symbol of the transcripts, can be <code>null</code> */
+	private final String geneSymbol;
+	/** gene ID, the first one of the transcripts that is not <code>null</code>, or <code>null</code> */
+	private final String geneID;
+	/** region from the smallest begin to the largest end position of the transcripts, on forward strand */
+	private final GenomeInterval region;
+	/** transcripts of the gene, sorted by begin position */
+	private final ImmutableList<TranscriptModel> transcripts;
+
+	/**
+	 * Initialize the gene
+	 *
+	 * @param geneSymbol
+	 *            gene symbol of the transcripts, can be <code>null</code>
+	 * @param transcripts
+	 *            non-empty list of transcripts on the same chromosome
+	 * @throws IllegalArgumentException
+	 *             if <code>transcripts</code> is empty
+	 */
+	public GeneModel(String geneSymbol, ImmutableList<TranscriptModel> transcripts) {
+		if (transcripts.isEmpty())
+			throw new IllegalArgumentException("Gene " + geneSymbol + " must have at least one transcript");
+		this.geneSymbol = geneSymbol;
+		this.transcripts = transcripts;
+
+		String geneID = null;
+		GenomeInterval first = transcripts.get(0).getTXRegion().withStrand(Strand.FWD);
+		int beginPos = first.getBeginPos();
+		int endPos = first.getEndPos();
+		for (TranscriptModel tm : transcripts) {
+			if (geneID == null)
+				geneID = tm.getGeneID();
+			final GenomeInterval txRegion = tm.getTXRegion().withStrand(Strand.FWD);
+			beginPos = Math.min(beginPos, txRegion.getBeginPos());
+			endPos = Math.max(endPos, txRegion.getEndPos());
+		}
+		this.geneID = geneID;
+		this.region = new GenomeInterval(first.getRefDict(), Strand.FWD, first.getChr(), beginPos, endPos);
+	}
+
+	/** @return gene symbol of the transcripts, can be <code>null</code> */
+	public String getGeneSymbol() {
+		return geneSymbol;
+	}
+
+	/** @return gene ID, the first one of the transcripts that is not <code>null</code>, or <code>null</code> */
+	public String getGeneID() {
+		return geneID;
+	}
+
+	/** @return region from the smallest begin to the largest end position of the transcripts, on forward strand */
+	public GenomeInterval getRegion() {
+		return region;
+	}
+
+	/** @return numeric chromosome ID */
+	public int getChr() {
+		return region.getChr();
+	}
+
+	/** @return transcripts of the gene, sorted by begin position */
+	public ImmutableList<TranscriptModel> getTranscripts() {
+		return transcripts;
+	}
+
+	@Override
+	public String toString() {
+		return geneSymbol + "(" + region + ")";
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((geneID == null) ? 0 : geneID.hashCode());
+		result = prime * result + ((geneSymbol == null) ? 0 : geneSymbol.hashCode());
+		result = prime * result + region.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		GeneModel other = (GeneModel) obj;
+		if (geneID == null) {
+			if (other.geneID != null)
+				return false;
+		} else if (!geneID.equals(other.geneID)) {
+			return false;
+		}
+		if (geneSymbol == null) {
+			if (other.geneSymbol != null)
+				return false;
+		} else if (!geneSymbol.equals(other.geneSymbol)) {
+			return false;
+		}
+		return region.equals(other.region);
+	}
+
+}
@@ -12,6 +12,7 @@ import de.charite.compbio.jannovar.Immutable;
 import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
 import de.charite.compbio.jannovar.reference.TranscriptIntervalEndExtractor;
 import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelInterner;
 
 /**
  * This data type is used for serialization after downloading.
@@ -38,6 +39,18 @@ public final class JannovarData implements Serializable {
 	/** information about reference lengths and identities */
 	private final ReferenceDictionary refDict;
 
+	/**
+	 * index of the genes of the transcripts, stored with the database by {@link JannovarDataSerializer},
+	 * <code>null</code> when read from files of older versions
+	 */
+	private final GeneIndex geneIndex;
+
+	/**
+	 * whether equal values of the transcripts are shared, see {@link #withInternedTranscripts}, always
+	 * <code>false</code> when read from files of older versions
+	 */
+	private final boolean transcriptsInterned;
+
 	/**
 	 * Initialize the object with the given values.
 	 *
@@ -47,10 +60,73 @@ public final class JannovarData implements Serializable {
 	 *            the list of {@link TranscriptModel} objects to use in this object
 	 */
 	public JannovarData(ReferenceDictionary refDict, ImmutableList<TranscriptModel> transcriptInfos) {
+		this(refDict, transcriptInfos, ImmutableMap.<Integer, Chromosome> of());
+	}
+
+	/**
+	 * Initialize the object with the given values, reusing {@link Chromosome} objects
+	 *
+	 * @param refDict
+	 *            the {@link ReferenceDictionary} to use in this object
+	 * @param transcriptInfos
+	 *            the list of {@link TranscriptModel} objects to use in this object
+	 * @param reusedChromosomes
+	 *            {@link Chromosome} objects to use instead of building new ones, each must contain exactly the
+	 *            transcripts from <code>transcriptInfos</code> on its chromosome
+	 */
+	JannovarData(ReferenceDictionary refDict, ImmutableList<TranscriptModel> transcriptInfos,
+			ImmutableMap<Integer, Chromosome> reusedChromosomes) {
+		this(refDict, transcriptInfos, reusedChromosomes, null, false);
+	}
+
+	/**
+	 * Initialize the object with the given values and an existing {@link GeneIndex}, e.g., when loading the database
+	 *
+	 * @param refDict
+	 *            the {@link ReferenceDictionary} to use in this object
+	 * @param transcriptInfos
+	 *            the list of {@link TranscriptModel} objects to use in this object
+	 * @param geneIndex
+	 *            the {@link GeneIndex} of exactly the transcripts from <code>transcriptInfos</code>
+	 * @param transcriptsInterned
+	 *            whether equal values of <code>transcriptInfos</code> are shared already (see
+	 *            {@link #withInternedTranscripts})
+	 */
+	JannovarData(ReferenceDictionary refDict, ImmutableList<TranscriptModel> transcriptInfos, GeneIndex geneIndex,
+			boolean transcriptsInterned) {
+		this(refDict, transcriptInfos, ImmutableMap.<Integer, Chromosome> of(), geneIndex, transcriptsInterned);
+	}
+
+	private JannovarData(ReferenceDictionary refDict, ImmutableList<TranscriptModel> transcriptInfos,
+			ImmutableMap<Integer, Chromosome> reusedChromosomes, GeneIndex geneIndex, boolean transcriptsInterned) {
 		this.refDict = refDict;
-		this.chromosomes = makeChromsomes(refDict, transcriptInfos);
+		this.chromosomes = makeChromsomes(refDict, transcriptInfos, reusedChromosomes);
 		this.tmByAccession = makeTMByAccession(transcriptInfos);
 		this.tmByGeneSymbol = makeTMByGeneSymbol(transcriptInfos);
+		this.geneIndex = (geneIndex != null) ? geneIndex : GeneIndex.build(transcriptInfos);
+		this.transcriptsInterned = transcriptsInterned;
+	}
+
+	/**
+	 * Share the equal transcript values and build the {@link GeneIndex} for objects deserialized from files written
+	 * before these were introduced
+	 *
+	 * @return <code>this</code> or a copy with shared values and the {@link GeneIndex}
+	 */
+	private Object readResolve() {
+		return withInternedTranscripts();
+	}
+
+	/**
+	 * Replace equal values of the transcripts (e.g., the gene IDs of isoforms or the sequences of alternative locus
+	 * copies) by shared instances using {@link TranscriptModelInterner}
+	 *
+	 * @return <code>this</code> if the values are already shared, otherwise a copy where this is the case
+	 */
+	public JannovarData withInternedTranscripts() {
+		if (transcriptsInterned)
+			return this;
+		return new JannovarData(refDict, TranscriptModelInterner.internAll(tmByAccession.values()), null, true);
 	}
 
 	/** @return map from chromosome ID to {@link Chromosome} */
@@ -73,6 +149,11 @@ public final class JannovarData implements Serializable {
 		return refDict;
 	}
 
+	/** @return index of the genes built from the transcripts */
+	public GeneIndex getGeneIndex() {
+		return geneIndex;
+	}
+
 	/**
 	 * @param transcriptInfos
 	 *            set of {@link TranscriptModel}s to build multi-mapping for
@@ -107,10 +188,12 @@ public final class JannovarData implements Serializable {
 	 *            the {@link ReferenceDictionary} to use for the construction
 	 * @param transcriptInfos
 	 *            list of {@link TranscriptInfo} objects with the transcripts of all chromosomes
+	 * @param reusedChromosomes
+	 *            {@link Chromosome} objects to use instead of building new interval trees
 	 * @return a mapping from numeric chromsome ID to {@link Chromosome} object
 	 */
 	private static ImmutableMap<Integer, Chromosome> makeChromsomes(ReferenceDictionary refDict,
-			ImmutableList<TranscriptModel> transcriptInfos) {
+			ImmutableList<TranscriptModel> transcriptInfos, ImmutableMap<Integer, Chromosome> reusedChromosomes) {
 		ImmutableMap.Builder<Integer, Chromosome> builder = new ImmutableMap.Builder<Integer, Chromosome>();
 
 		// First, factorize the TranscriptInfo objects by chromosome ID.
@@ -125,6 +208,10 @@ public final class JannovarData implements Serializable {
 
 		// Then, construct an interval tree for each chromosome and add the lists of intervals.
 		for (Integer chrID : transcripts.keySet()) {
+			if (reusedChromosomes.containsKey(chrID)) {
+				builder.put(chrID, reusedChromosomes.get(chrID));
+				continue;
+			}
 			IntervalArray<TranscriptModel> iTree = new IntervalArray<TranscriptModel>(transcripts.get(chrID),
 					new TranscriptIntervalEndExtractor());
 			builder.put(chrID, new Chromosome(refDict, chrID, iTree));
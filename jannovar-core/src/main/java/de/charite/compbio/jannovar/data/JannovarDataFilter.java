@@ -0,0 +1,288 @@
+package de.charite.compbio.jannovar.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+// NOTE(holtgrem): Part of the public interface of the Jannovar library.
+
+/**
+ * Selection of a subset of the transcripts of a {@link JannovarData} object, e.g., for the genes of a panel.
+ *
+ * A transcript is selected if it lies on one of the given contigs, has one of the given gene symbols, has one of the
+ * given accessions (with or without version), or overlaps with one of the given regions. A filter without any
+ * criteria selects all transcripts.
+ *
+ * Note that the intergenic, upstream, and downstream annotations of variants outside of the selected transcripts
+ * refer to the nearest selected transcripts.
+ */
+@Immutable
+public final class JannovarDataFilter {
+
+	/**
+	 * Genomic region for selecting the overlapping transcripts.
+	 */
+	@Immutable
+	public static final class Region {
+
+		/** name of the contig */
+		private final String contig;
+		/** 0-based begin position */
+		private final int beginPos;
+		/** 0-based end position, exclusive */
+		private final int endPos;
+
+		/**
+		 * Initialize the region
+		 *
+		 * @param contig
+		 *            name of the contig
+		 * @param beginPos
+		 *            0-based begin position
+		 * @param endPos
+		 *            0-based end position, exclusive (as in BED files)
+		 */
+		public Region(String contig, int beginPos, int endPos) {
+			this.contig = contig;
+			this.beginPos = beginPos;
+			this.endPos = endPos;
+		}
+
+		/** @return name of the contig */
+		public String getContig() {
+			return contig;
+		}
+
+		/** @return 0-based begin position */
+		public int getBeginPos() {
+			return beginPos;
+		}
+
+		/** @return 0-based end position, exclusive */
+		public int getEndPos() {
+			return endPos;
+		}
+
+		@Override
+		public String toString() {
+			return contig + ":" + beginPos + "-" + endPos;
+		}
+
+	}
+
+	/** names of the contigs to select all transcripts of */
+	private final ImmutableSet<String> contigs;
+	/** gene symbols of the transcripts to select */
+	private final ImmutableSet<String> geneSymbols;
+	/** accessions of the transcripts to select, with or without version */
+	private final ImmutableSet<String> accessions;
+	/** regions to select the overlapping transcripts of */
+	private final ImmutableList<Region> regions;
+
+	/**
+	 * Initialize the filter, pass empty collections for unused criteria
+	 *
+	 * @param contigs
+	 *            names of the contigs to select all transcripts of
+	 * @param geneSymbols
+	 *            gene symbols of the transcripts to select
+	 * @param accessions
+	 *            accessions of the transcripts to select, with or without version (e.g., <tt>NM_000059</tt> selects
+	 *            <tt>NM_000059.3</tt>)
+	 * @param regions
+	 *            regions to select the overlapping transcripts of
+	 */
+	public JannovarDataFilter(Collection<String> contigs, Collection<String> geneSymbols,
+			Collection<String> accessions, Collection<Region> regions) {
+		this.contigs = ImmutableSet.copyOf(contigs);
+		this.geneSymbols = ImmutableSet.copyOf(geneSymbols);
+		this.accessions = ImmutableSet.copyOf(accessions);
+		this.regions = ImmutableList.copyOf(regions);
+	}
+
+	/** @return names of the contigs to select all transcripts of */
+	public ImmutableSet<String> getContigs() {
+		return contigs;
+	}
+
+	/** @return gene symbols of the transcripts to select */
+	public ImmutableSet<String> getGeneSymbols() {
+		return geneSymbols;
+	}
+
+	/** @return accessions of the transcripts to select, with or without version */
+	public ImmutableSet<String> getAccessions() {
+		return accessions;
+	}
+
+	/** @return regions to select the overlapping transcripts of */
+	public ImmutableList<Region> getRegions() {
+		return regions;
+	}
+
+	/** @return <code>true</code> if no criteria are given and all transcripts are selected */
+	public boolean isEmpty() {
+		return contigs.isEmpty() && geneSymbols.isEmpty() && accessions.isEmpty() && regions.isEmpty();
+	}
+
+	/**
+	 * Build {@link JannovarData} with the selected transcripts of <code>data</code>
+	 *
+	 * Contigs and regions on contigs that are unknown to the {@link ReferenceDictionary} of <code>data</code> are
+	 * ignored.
+	 *
+	 * @param data
+	 *            the {@link JannovarData} to select the transcripts from
+	 * @return <code>data</code> if the filter is empty, otherwise new {@link JannovarData} with the same
+	 *         {@link ReferenceDictionary} and the selected transcripts only
+	 */
+	public JannovarData apply(JannovarData data) {
+		if (isEmpty())
+			return data;
+
+		final Selector selector = resolve(data.getRefDict());
+		ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		for (TranscriptModel tm : data.getTmByAccession().values())
+			if (selector.isSelected(tm))
+				builder.add(tm);
+		return new JannovarData(data.getRefDict(), builder.build());
+	}
+
+	/**
+	 * Resolve the contig names of the criteria using <code>refDict</code>
+	 *
+	 * @param refDict
+	 *            the {@link ReferenceDictionary} of the data to select the transcripts from
+	 * @return {@link Selector} for deciding whether a transcript is selected
+	 */
+	Selector resolve(ReferenceDictionary refDict) {
+		final ImmutableSet.Builder<Integer> chrBuilder = new ImmutableSet.Builder<Integer>();
+		for (String contig : contigs)
+			if (refDict.getContigNameToID().containsKey(contig))
+				chrBuilder.add(refDict.getContigNameToID().get(contig));
+		final ImmutableSet<Integer> chrs = chrBuilder.build();
+		final HashMap<Integer, ArrayList<Region>> regionLists = new HashMap<>();
+		for (Region region : regions) {
+			final Integer chr = refDict.getContigNameToID().get(region.getContig());
+			if (chr == null)
+				continue;
+			if (!regionLists.containsKey(chr))
+				regionLists.put(chr, new ArrayList<Region>());
+			regionLists.get(chr).add(region);
+		}
+		final HashMap<Integer, SortedRegions> regionsByChr = new HashMap<>();
+		for (Integer chr : regionLists.keySet())
+			regionsByChr.put(chr, new SortedRegions(regionLists.get(chr)));
+		return new Selector(chrs, regionsByChr);
+	}
+
+	/**
+	 * The criteria of the filter with the contigs resolved to IDs
+	 *
+	 * {@link JannovarDataSerializer} uses this for selecting transcripts from its index without deserializing them.
+	 */
+	final class Selector {
+
+		/** IDs of the contigs to select all transcripts of */
+		private final ImmutableSet<Integer> chrs;
+		/** regions to select the overlapping transcripts of, by contig ID */
+		private final HashMap<Integer, SortedRegions> regionsByChr;
+
+		private Selector(ImmutableSet<Integer> chrs, HashMap<Integer, SortedRegions> regionsByChr) {
+			this.chrs = chrs;
+			this.regionsByChr = regionsByChr;
+		}
+
+		/** @return whether <code>tm</code> is selected */
+		boolean isSelected(TranscriptModel tm) {
+			final GenomeInterval txRegion = tm.getTXRegion().withStrand(Strand.FWD);
+			return isSelected(tm.getChr(), tm.getGeneSymbol(), tm.getAccession(), txRegion.getBeginPos(),
+					txRegion.getEndPos());
+		}
+
+		/**
+		 * @param chr
+		 *            contig ID of the transcript
+		 * @param geneSymbol
+		 *            gene symbol of the transcript, may be <code>null</code>
+		 * @param accession
+		 *            accession of the transcript
+		 * @param beginPos
+		 *            0-based begin position of the transcript on the forward strand
+		 * @param endPos
+		 *            0-based end position of the transcript on the forward strand, exclusive
+		 * @return whether the transcript is selected
+		 */
+		boolean isSelected(int chr, String geneSymbol, String accession, int beginPos, int endPos) {
+			if (chrs.contains(chr))
+				return true;
+			if (geneSymbol != null && geneSymbols.contains(geneSymbol))
+				return true;
+			if (accessions.contains(accession))
+				return true;
+			final int dotPos = accession.lastIndexOf('.');
+			if (dotPos != -1 && accessions.contains(accession.substring(0, dotPos)))
+				return true;
+
+			final SortedRegions chrRegions = regionsByChr.get(chr);
+			return chrRegions != null && chrRegions.overlapsWith(beginPos, endPos);
+		}
+
+	}
+
+	/**
+	 * Regions of one contig, prepared for overlap queries in logarithmic time
+	 */
+	private static final class SortedRegions {
+
+		/** begin positions of the regions, sorted */
+		private final int[] begins;
+		/** <code>maxEnds[i]</code> is the largest end position of the regions <code>0..i</code> */
+		private final int[] maxEnds;
+
+		SortedRegions(ArrayList<Region> regions) {
+			Collections.sort(regions, new Comparator<Region>() {
+				@Override
+				public int compare(Region lhs, Region rhs) {
+					return Integer.compare(lhs.getBeginPos(), rhs.getBeginPos());
+				}
+			});
+			this.begins = new int[regions.size()];
+			this.maxEnds = new int[regions.size()];
+			for (int i = 0; i < regions.size(); ++i) {
+				begins[i] = regions.get(i).getBeginPos();
+				maxEnds[i] = Math.max(regions.get(i).getEndPos(), (i == 0) ? Integer.MIN_VALUE : maxEnds[i - 1]);
+			}
+		}
+
+		/** @return whether any region overlaps with <code>[beginPos, endPos)</code> */
+		boolean overlapsWith(int beginPos, int endPos) {
+			// number of regions beginning before endPos, one of these overlaps iff the largest end is after beginPos
+			int idx = Arrays.binarySearch(begins, endPos);
+			if (idx < 0)
+				idx = -idx - 1;
+			while (idx > 0 && begins[idx - 1] >= endPos)
+				--idx;
+			return idx > 0 && maxEnds[idx - 1] > beginPos;
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		return "JannovarDataFilter [contigs=" + contigs + ", geneSymbols=" + geneSymbols + ", accessions="
+				+ accessions + ", regions=" + regions + "]";
+	}
+
+}
@@ -0,0 +1,132 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.PrintStream;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Result of patching a {@link JannovarData} object with newly built transcripts, see {@link JannovarDataPatcher}.
+ *
+ * Contains the patched {@link JannovarData} and the change report, i.e., the added, removed, and changed transcripts.
+ */
+@Immutable
+public final class JannovarDataPatch {
+
+	/** the patched {@link JannovarData} */
+	private final JannovarData data;
+	/** transcripts that are new in {@link #data} */
+	private final ImmutableList<TranscriptModel> added;
+	/** transcripts from the previous data that are not in {@link #data} any more */
+	private final ImmutableList<TranscriptModel> removed;
+	/** pairs of previous and new versions of changed transcripts */
+	private final ImmutableList<Change> changed;
+	/** number of transcripts that were reused unchanged */
+	private final int numUnchanged;
+	/** number of chromosomes that were reused unchanged */
+	private final int numReusedChromosomes;
+
+	/** Initialize object with the given values */
+	JannovarDataPatch(JannovarData data, ImmutableList<TranscriptModel> added, ImmutableList<TranscriptModel> removed,
+			ImmutableList<Change> changed, int numUnchanged, int numReusedChromosomes) {
+		this.data = data;
+		this.added = added;
+		this.removed = removed;
+		this.changed = changed;
+		this.numUnchanged = numUnchanged;
+		this.numReusedChromosomes = numReusedChromosomes;
+	}
+
+	/** @return the patched {@link JannovarData} */
+	public JannovarData getData() {
+		return data;
+	}
+
+	/** @return transcripts that are new in the patched data */
+	public ImmutableList<TranscriptModel> getAdded() {
+		return added;
+	}
+
+	/** @return transcripts from the previous data that are not in the patched data any more */
+	public ImmutableList<TranscriptModel> getRemoved() {
+		return removed;
+	}
+
+	/** @return pairs of previous and new versions of changed transcripts */
+	public ImmutableList<Change> getChanged() {
+		return changed;
+	}
+
+	/** @return number of transcripts that were reused unchanged */
+	public int getNumUnchanged() {
+		return numUnchanged;
+	}
+
+	/** @return number of chromosomes whose interval trees were reused unchanged */
+	public int getNumReusedChromosomes() {
+		return numReusedChromosomes;
+	}
+
+	/** @return <code>true</code> if any transcript was added, removed, or changed */
+	public boolean hasChanges() {
+		return !added.isEmpty() || !removed.isEmpty() || !changed.isEmpty();
+	}
+
+	/**
+	 * Write change report as tab-separated values to <code>out</code>.
+	 *
+	 * There is one line for each added, removed, and changed transcript with the columns change type
+	 * (<tt>ADDED</tt>, <tt>REMOVED</tt>, <tt>CHANGED</tt>), accession, previous accession, gene symbol, and chromosome.
+	 * Missing values are written as <tt>"."</tt>.
+	 *
+	 * @param out
+	 *            {@link PrintStream} to write the report to
+	 */
+	public void writeReport(PrintStream out) {
+		out.println("#CHANGE\tACCESSION\tPREV_ACCESSION\tGENE_SYMBOL\tCHROM");
+		for (TranscriptModel tm : added)
+			printReportLine(out, "ADDED", tm.getAccession(), ".", tm);
+		for (TranscriptModel tm : removed)
+			printReportLine(out, "REMOVED", ".", tm.getAccession(), tm);
+		for (Change change : changed)
+			printReportLine(out, "CHANGED", change.getNewTranscript().getAccession(),
+					change.getOldTranscript().getAccession(), change.getNewTranscript());
+	}
+
+	private void printReportLine(PrintStream out, String type, String accession, String prevAccession,
+			TranscriptModel tm) {
+		out.println(type + "\t" + accession + "\t" + prevAccession + "\t" + tm.getGeneSymbol() + "\t"
+				+ tm.getTXRegion().getRefDict().getContigName(tm.getChr()));
+	}
+
+	/**
+	 * A changed transcript, with its previous and new version
+	 */
+	@Immutable
+	public static final class Change {
+
+		/** the transcript from the previous data */
+		private final TranscriptModel oldTranscript;
+		/** the transcript from the patched data */
+		private final TranscriptModel newTranscript;
+
+		Change(TranscriptModel oldTranscript, TranscriptModel newTranscript) {
+			this.oldTranscript = oldTranscript;
+			this.newTranscript = newTranscript;
+		}
+
+		/** @return the transcript from the previous data */
+		public TranscriptModel getOldTranscript() {
+			return oldTranscript;
+		}
+
+		/** @return the transcript from the patched data */
+		public TranscriptModel getNewTranscript() {
+			return newTranscript;
+		}
+
+	}
+
+}
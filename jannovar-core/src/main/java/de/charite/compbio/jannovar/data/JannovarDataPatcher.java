@@ -0,0 +1,143 @@
+package de.charite.compbio.jannovar.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+
+/**
+ * Build a new {@link JannovarData} from an existing one and newly built transcripts, reusing what did not change.
+ *
+ * The transcripts are matched by accession. If there is no transcript with the same accession then a transcript with
+ * the same accession but different version (e.g., <tt>NM_000123.4</tt> instead of <tt>NM_000123.3</tt>) is used.
+ * Unchanged transcripts are taken over from the existing data (such that the patched data shares the objects with the
+ * existing one) and the interval trees of chromosomes without any added, removed, or changed transcript are reused.
+ * Only the interval trees of the affected chromosomes are rebuilt.
+ *
+ * When the {@link ReferenceDictionary} differs from the one of the existing data then no objects are reused but the
+ * change report is still computed.
+ */
+public final class JannovarDataPatcher {
+
+	/** the existing data to patch */
+	private final JannovarData base;
+
+	/**
+	 * Initialize the patcher
+	 *
+	 * @param base
+	 *            the existing {@link JannovarData} to patch
+	 */
+	public JannovarDataPatcher(JannovarData base) {
+		this.base = base;
+	}
+
+	/**
+	 * Build patched {@link JannovarData}
+	 *
+	 * @param refDict
+	 *            the {@link ReferenceDictionary} of the new transcripts
+	 * @param transcripts
+	 *            the complete list of new transcripts
+	 * @return {@link JannovarDataPatch} with the patched {@link JannovarData} and the change report
+	 */
+	public JannovarDataPatch patch(ReferenceDictionary refDict, ImmutableList<TranscriptModel> transcripts) {
+		final boolean sameRefDict = isSameRefDict(base.getRefDict(), refDict);
+
+		// Old transcripts that have not been matched yet, by accession
+		LinkedHashMap<String, TranscriptModel> unmatched = new LinkedHashMap<>(base.getTmByAccession());
+		ImmutableList.Builder<TranscriptModel> tmBuilder = ImmutableList.builder();
+		ImmutableList.Builder<TranscriptModel> addedBuilder = ImmutableList.builder();
+		ImmutableList.Builder<JannovarDataPatch.Change> changedBuilder = ImmutableList.builder();
+		HashSet<Integer> dirtyChroms = new HashSet<>();
+		int numUnchanged = 0;
+
+		// Match by accession first, keep the transcripts without an exact accession match for the second pass
+		ArrayList<TranscriptModel> noExactMatch = new ArrayList<>();
+		for (TranscriptModel tm : transcripts) {
+			TranscriptModel oldTM = unmatched.remove(tm.getAccession());
+			if (oldTM == null) {
+				noExactMatch.add(tm);
+			} else if (isSameContent(oldTM, tm)) {
+				tmBuilder.add(sameRefDict ? oldTM : tm);
+				++numUnchanged;
+			} else {
+				tmBuilder.add(tm);
+				changedBuilder.add(new JannovarDataPatch.Change(oldTM, tm));
+				dirtyChroms.add(oldTM.getChr());
+				dirtyChroms.add(tm.getChr());
+			}
+		}
+
+		// Match remaining transcripts by accession without version, if unique
+		HashMap<String, TranscriptModel> unmatchedByStem = new HashMap<>();
+		HashSet<String> ambiguousStems = new HashSet<>();
+		for (TranscriptModel oldTM : unmatched.values())
+			if (unmatchedByStem.put(stripVersion(oldTM.getAccession()), oldTM) != null)
+				ambiguousStems.add(stripVersion(oldTM.getAccession()));
+		for (TranscriptModel tm : noExactMatch) {
+			final String stem = stripVersion(tm.getAccession());
+			TranscriptModel oldTM = ambiguousStems.contains(stem) ? null : unmatchedByStem.remove(stem);
+			tmBuilder.add(tm);
+			dirtyChroms.add(tm.getChr());
+			if (oldTM == null) {
+				addedBuilder.add(tm);
+			} else {
+				unmatched.remove(oldTM.getAccession());
+				changedBuilder.add(new JannovarDataPatch.Change(oldTM, tm));
+				dirtyChroms.add(oldTM.getChr());
+			}
+		}
+
+		// All remaining old transcripts have been removed
+		for (TranscriptModel oldTM : unmatched.values())
+			dirtyChroms.add(oldTM.getChr());
+
+		// Reuse the interval trees of unaffected chromosomes
+		ImmutableMap.Builder<Integer, Chromosome> reusedBuilder = ImmutableMap.builder();
+		if (sameRefDict)
+			for (Map.Entry<Integer, Chromosome> entry : base.getChromosomes().entrySet())
+				if (!dirtyChroms.contains(entry.getKey()))
+					reusedBuilder.put(entry);
+		ImmutableMap<Integer, Chromosome> reused = reusedBuilder.build();
+
+		JannovarData data = new JannovarData(sameRefDict ? base.getRefDict() : refDict, tmBuilder.build(), reused);
+		return new JannovarDataPatch(data, addedBuilder.build(), ImmutableList.copyOf(unmatched.values()),
+				changedBuilder.build(), numUnchanged, reused.size());
+	}
+
+	/**
+	 * @return <code>true</code> if the two transcripts have the same content, including the fields not considered in
+	 *         {@link TranscriptModel#equals}
+	 */
+	private static boolean isSameContent(TranscriptModel lhs, TranscriptModel rhs) {
+		return lhs.equals(rhs) && Objects.equals(lhs.getAltGeneIDs(), rhs.getAltGeneIDs())
+				&& lhs.getTranscriptSupportLevel() == rhs.getTranscriptSupportLevel();
+	}
+
+	/** @return <code>true</code> if the two reference dictionaries have the same contigs */
+	private static boolean isSameRefDict(ReferenceDictionary lhs, ReferenceDictionary rhs) {
+		return lhs == rhs || (lhs.getContigNameToID().equals(rhs.getContigNameToID())
+				&& lhs.getContigIDToName().equals(rhs.getContigIDToName())
+				&& lhs.getContigIDToLength().equals(rhs.getContigIDToLength()));
+	}
+
+	/** @return <code>accession</code> without a trailing version suffix <tt>".\d+"</tt> */
+	private static String stripVersion(String accession) {
+		final int pos = accession.lastIndexOf('.');
+		if (pos <= 0 || pos + 1 == accession.length())
+			return accession;
+		for (int i = pos + 1; i < accession.length(); ++i)
+			if (!Character.isDigit(accession.charAt(i)))
+				return accession;
+		return accession.substring(0, pos);
+	}
+
+}
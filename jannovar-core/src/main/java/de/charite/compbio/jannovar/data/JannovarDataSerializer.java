@@ -1,29 +1,73 @@
 package de.charite.compbio.jannovar.data;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
 import de.charite.compbio.jannovar.impl.util.StringUtil;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelInterner;
 
 // NOTE(holtgrem): Part of the public interface of the Jannovar library.
 
 /**
  * Manager for serializing and deserializing {@link JannovarData} objects.
  *
+ * The file starts with {@link #MAGIC}, followed by records with the serialized transcripts and an index. Each record
+ * holds up to {@link #TRANSCRIPTS_PER_RECORD} transcripts of one contig, sorted by position, and is compressed on its
+ * own. The index holds the {@link ReferenceDictionary}, the contig, position, gene symbol, and accession of each
+ * transcript, the offsets of the records, and the transcripts of each gene of the {@link GeneIndex}. It is found
+ * through the offset in the last 8 bytes of the file. This allows {@link #load(JannovarDataFilter)} to read only the
+ * records with the selected transcripts, and loading does not need to build the {@link GeneIndex} again. Files
+ * written by older versions (one compressed serialized {@link JannovarData} object) can still be loaded.
+ *
+ * Optionally, the transcript sequences can be written to a separate {@link MappedSequenceStore} file next to the
+ * serialized data (see {@link #getSequenceFileName}) that is memory-mapped when loading. This file is opened
+ * automatically by {@link #load}.
+ *
  * @author <a href="mailto:Peter.Robinson@jax.org">Peter N Robinson</a>
  * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
  * @author <a href="mailto:max.schubach@charite.de">Max Schubach</a>
  */
 public final class JannovarDataSerializer {
 
+	/** Header at the beginning of the files, files written by older versions start with the GZIP header */
+	static final byte[] MAGIC = "JANNOVAR_SER_2\n".getBytes(StandardCharsets.US_ASCII);
+
+	/** largest number of transcripts in one record */
+	static final int TRANSCRIPTS_PER_RECORD = 64;
+
 	/** the logger object to use */
 	private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
@@ -49,47 +93,137 @@ public final class JannovarDataSerializer {
 	 *             on problems with the serialization
 	 */
 	public void save(JannovarData data) throws SerializationException {
+		save(data, false);
+	}
+
+	/**
+	 * Serialize a {@link JannovarData} object to a file, optionally writing the sequences to a separate file.
+	 *
+	 * Equal transcript values are shared before writing (see {@link TranscriptModelInterner}), so they are written only
+	 * once per record.
+	 *
+	 * @param data
+	 *            the {@link JannovarData} object to serialize
+	 * @param mapSequences
+	 *            whether to write the transcript sequences to a {@link MappedSequenceStore} file at
+	 *            {@link #getSequenceFileName} instead of the serialized data
+	 * @throws SerializationException
+	 *             on problems with the serialization
+	 */
+	public void save(JannovarData data, boolean mapSequences) throws SerializationException {
 		logger.info(StringUtil.concatenate("Serializing JannovarData to ", filename));
 		final long startTime = System.nanoTime();
 
 		if (data == null || data.getRefDict().getContigNameToID().isEmpty())
 			throw new SerializationException("Attempting to serialize empty data set");
+		final ImmutableList<TranscriptModel> tms = TranscriptModelInterner.internAll(mapSequences
+				? withMappedSequences(data) : withHeapSequences(data));
 
-		// This is waiting for Java 7 to be improved. Also see:
-		// http://stackoverflow.com/questions/4092914
-		String error = null;
-		FileOutputStream fos = null;
-		GZIPOutputStream gzos = null;
-		ObjectOutputStream oos = null;
-		try {
-			fos = new FileOutputStream(filename);
-			gzos = new GZIPOutputStream(fos);
-			oos = new ObjectOutputStream(gzos);
-			oos.writeObject(data);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+			writeRecords(out, data.getRefDict(), tms, data.getGeneIndex());
 		} catch (IOException i) {
-			error = String.format("Could not serialize data file list: %s", i.toString());
-		} finally {
-			if (oos != null)
-				try {
-					oos.close();
-					fos.close();
-				} catch (IOException e) {
-					// swallow, nothing we can do
-				}
-			if (fos != null)
-				try {
-					fos.close();
-				} catch (IOException e) {
-					// swallow, nothing we can do
-				}
-			if (error != null)
-				throw new SerializationException(error);
+			throw new SerializationException(String.format("Could not serialize data file list: %s", i.toString()));
 		}
 
 		logger.info(String.format("Serialization took %.2f sec.",
 				(System.nanoTime() - startTime) / 1000.0 / 1000.0 / 1000.0));
 	}
 
+	/**
+	 * Write the records and the index for the transcripts <code>allTMs</code> and the genes of
+	 * <code>geneIndex</code> to <code>out</code>
+	 */
+	private static void writeRecords(DataOutputStream out, ReferenceDictionary refDict,
+			ImmutableList<TranscriptModel> allTMs, GeneIndex geneIndex) throws IOException {
+		out.write(MAGIC);
+		long offset = MAGIC.length;
+
+		final HashMap<Integer, ArrayList<TranscriptModel>> tmsByChr = new HashMap<>();
+		for (TranscriptModel tm : allTMs) {
+			if (!tmsByChr.containsKey(tm.getChr()))
+				tmsByChr.put(tm.getChr(), new ArrayList<TranscriptModel>());
+			tmsByChr.get(tm.getChr()).add(tm);
+		}
+
+		final ArrayList<TranscriptModel> tms = new ArrayList<>();
+		final ArrayList<Long> recordOffsets = new ArrayList<>();
+		final ArrayList<Integer> recordFirsts = new ArrayList<>();
+		for (Integer chr : ImmutableSortedSet.copyOf(tmsByChr.keySet())) {
+			final ArrayList<TranscriptModel> chrTMs = tmsByChr.get(chr);
+			Collections.sort(chrTMs, new Comparator<TranscriptModel>() {
+				@Override
+				public int compare(TranscriptModel lhs, TranscriptModel rhs) {
+					return Integer.compare(lhs.getTXRegion().withStrand(Strand.FWD).getBeginPos(), rhs.getTXRegion()
+							.withStrand(Strand.FWD).getBeginPos());
+				}
+			});
+
+			for (int i = 0; i < chrTMs.size(); i += TRANSCRIPTS_PER_RECORD) {
+				final List<TranscriptModel> recordTMs = chrTMs.subList(i,
+						Math.min(i + TRANSCRIPTS_PER_RECORD, chrTMs.size()));
+				final byte record[] = compress(ImmutableList.copyOf(recordTMs), true);
+				recordOffsets.add(offset);
+				recordFirsts.add(tms.size());
+				out.write(record);
+				offset += record.length;
+				tms.addAll(recordTMs);
+			}
+		}
+		recordOffsets.add(offset);
+		recordFirsts.add(tms.size());
+
+		out.write(compress(new RecordIndex(refDict, tms, Longs.toArray(recordOffsets), Ints.toArray(recordFirsts),
+				geneIndex), false));
+		out.writeLong(offset);
+	}
+
+	/**
+	 * @return <code>obj</code> serialized and compressed, with {@link ReferenceDictionary} objects replaced by
+	 *         placeholders if <code>isRecord</code>
+	 */
+	private static byte[] compress(Object obj, boolean isRecord) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = isRecord ? new RecordObjectOutputStream(new GZIPOutputStream(bytes))
+				: new ObjectOutputStream(new GZIPOutputStream(bytes))) {
+			oos.writeObject(obj);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write the sequences of <code>data</code> to the sequence file
+	 *
+	 * @return transcripts of <code>data</code> backed by the new sequence file
+	 */
+	private ImmutableList<TranscriptModel> withMappedSequences(JannovarData data) throws SerializationException {
+		final File seqFile = new File(getSequenceFileName(filename));
+		logger.info(StringUtil.concatenate("Writing transcript sequences to ", seqFile.getPath()));
+		return MappedSequenceStore.write(seqFile, data.getTmByAccession().values());
+	}
+
+	/**
+	 * @return transcripts of <code>data</code>, copies keeping their sequences in the heap where this is not the case
+	 */
+	private static ImmutableList<TranscriptModel> withHeapSequences(JannovarData data) {
+		ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		for (TranscriptModel tm : data.getTmByAccession().values())
+			builder.add(tm.isSequenceStored() ? tm.withHeapSequence() : tm);
+		return builder.build();
+	}
+
+	/**
+	 * @param filename
+	 *            path to the serialized {@link JannovarData}
+	 * @return path to the {@link MappedSequenceStore} file belonging to <code>filename</code>, <tt>.ser</tt> is
+	 *         replaced by <tt>.seq</tt>
+	 */
+	public static String getSequenceFileName(String filename) {
+		if (filename.endsWith(".ser"))
+			return filename.substring(0, filename.length() - ".ser".length()) + ".seq";
+		else
+			return filename + ".seq";
+	}
+
 	/**
 	 * Deserialize a {@link JannovarData} object from a file.
 	 *
@@ -98,44 +232,310 @@ public final class JannovarDataSerializer {
 	 *             on problems with the deserialization
 	 */
 	public JannovarData load() throws SerializationException {
+		return load(new JannovarDataFilter(ImmutableList.<String> of(), ImmutableList.<String> of(),
+				ImmutableList.<String> of(), ImmutableList.<JannovarDataFilter.Region> of()));
+	}
+
+	/**
+	 * Deserialize a {@link JannovarData} object from a file, keeping only the transcripts selected by
+	 * <code>filter</code>.
+	 *
+	 * The transcripts are selected using the index of the file and only the records containing selected transcripts
+	 * are read, such that the time and memory used for loading depend on the size of the selection. Files written by
+	 * older versions are read completely and filtered afterwards.
+	 *
+	 * @param filter
+	 *            {@link JannovarDataFilter} with the transcripts to select
+	 * @return {@link JannovarData} object with the selected transcripts
+	 * @throws SerializationException
+	 *             on problems with the deserialization
+	 */
+	public JannovarData load(JannovarDataFilter filter) throws SerializationException {
 		logger.info(StringUtil.concatenate("Deserializing JannovarData from ", filename));
 		final long startTime = System.nanoTime();
 
-		JannovarData result = null;
-
-		// This is also waiting for Java 7 to be cleaned up, see above.
-		String error = null;
-		FileInputStream fileIn = null;
-		GZIPInputStream gzIn = null;
-		ObjectInputStream in = null;
-		try {
-			fileIn = new FileInputStream(filename);
-			gzIn = new GZIPInputStream(fileIn);
-			in = new ObjectInputStream(gzIn);
-			result = (JannovarData) in.readObject();
+		final JannovarData result;
+		try (RandomAccessFile raf = new RandomAccessFile(filename, "r")) {
+			if (hasMagic(raf))
+				result = loadRecords(raf, filter);
+			else
+				result = loadOldFormat(filter);
 		} catch (IOException i) {
-			error = String.format("Could not deserialize data list: %s", i.toString());
+			throw new SerializationException(String.format("Could not deserialize data list: %s", i.toString()));
 		} catch (ClassNotFoundException c) {
-			error = String.format("Could not deserialized class definition: %s", c.toString());
-		} finally {
-			try {
-				if (in != null)
-					in.close();
-			} catch (IOException e) {
-				// swallow, nothing we can do
-			}
-			try {
-				if (fileIn != null)
-					fileIn.close();
-			} catch (IOException e) {
-				// swallow, nothing we can do
-			}
-			if (error != null)
-				throw new SerializationException(error);
+			throw new SerializationException(String.format("Could not deserialized class definition: %s",
+					c.toString()));
 		}
 
 		logger.info(String.format("Deserialization took %.2f sec.",
 				(System.nanoTime() - startTime) / 1000.0 / 1000.0 / 1000.0));
 		return result;
 	}
+
+	/** @return <code>true</code> if <code>raf</code> starts with {@link #MAGIC} */
+	private static boolean hasMagic(RandomAccessFile raf) throws IOException {
+		if (raf.length() < MAGIC.length + 8)
+			return false;
+		final byte header[] = new byte[MAGIC.length];
+		raf.readFully(header);
+		return Arrays.equals(MAGIC, header);
+	}
+
+	/** Read the index of <code>raf</code> and the records with the transcripts selected by <code>filter</code> */
+	private JannovarData loadRecords(RandomAccessFile raf, JannovarDataFilter filter) throws IOException,
+			ClassNotFoundException {
+		raf.seek(raf.length() - 8);
+		final long indexOffset = raf.readLong();
+		final RecordIndex index = (RecordIndex) decompress(raf, indexOffset, raf.length() - 8, null, null);
+
+		final JannovarDataFilter.Selector selector = filter.resolve(index.refDict);
+		final HashMap<String, MappedSequenceStore> stores = new HashMap<>();
+		final ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		final ArrayList<Integer> selectedIndices = new ArrayList<>();
+		int numRecordsRead = 0;
+		int numSelected = 0;
+		for (int r = 0; r + 1 < index.recordOffsets.length; ++r) {
+			final BitSet selected = new BitSet();
+			for (int i = index.recordFirsts[r]; i < index.recordFirsts[r + 1]; ++i)
+				if (filter.isEmpty() || selector.isSelected(index.chrs[i], index.geneSymbols[i],
+						index.accessions[i], index.beginPos[i], index.endPos[i]))
+					selected.set(i - index.recordFirsts[r]);
+			if (selected.isEmpty())
+				continue;
+
+			@SuppressWarnings("unchecked")
+			final ImmutableList<TranscriptModel> tms = (ImmutableList<TranscriptModel>) decompress(raf,
+					index.recordOffsets[r], index.recordOffsets[r + 1], index.refDict, stores);
+			for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+				builder.add(tms.get(i));
+				selectedIndices.add(index.recordFirsts[r] + i);
+			}
+			numRecordsRead += 1;
+			numSelected += selected.cardinality();
+		}
+
+		if (!filter.isEmpty())
+			logger.info(String.format("Selected %d of %d transcripts, read %d of %d records", numSelected,
+					index.accessions.length, numRecordsRead, index.recordOffsets.length - 1));
+		// share equal values between the records, as when saving
+		final ImmutableList<TranscriptModel> tms = TranscriptModelInterner.internAll(builder.build());
+		final TranscriptModel tmsByIndex[] = new TranscriptModel[index.accessions.length];
+		for (int i = 0; i < tms.size(); ++i)
+			tmsByIndex[selectedIndices.get(i)] = tms.get(i);
+		return new JannovarData(index.refDict, tms, buildGeneIndex(index, tmsByIndex, filter.isEmpty()), true);
+	}
+
+	/**
+	 * Build the {@link GeneIndex} from the gene table of <code>index</code>, keeping the loaded transcripts only
+	 *
+	 * @param tmsByIndex
+	 *            the loaded transcripts by their position in <code>index</code>, <code>null</code> for the others
+	 * @param allLoaded
+	 *            whether all transcripts were loaded, such that the genes keep their order
+	 */
+	private static GeneIndex buildGeneIndex(RecordIndex index, TranscriptModel tmsByIndex[], boolean allLoaded) {
+		final ArrayList<GeneModel> genes = new ArrayList<>();
+		for (int g = 0; g + 1 < index.geneFirsts.length; ++g) {
+			final ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+			String geneSymbol = null;
+			boolean any = false;
+			for (int i = index.geneFirsts[g]; i < index.geneFirsts[g + 1]; ++i) {
+				final TranscriptModel tm = tmsByIndex[index.geneTranscripts[i]];
+				if (tm == null)
+					continue;
+				builder.add(tm);
+				geneSymbol = tm.getGeneSymbol();
+				any = true;
+			}
+			if (any)
+				genes.add(new GeneModel(geneSymbol, builder.build()));
+		}
+		// removing transcripts can change the gene regions and thus the order
+		return allLoaded ? new GeneIndex(ImmutableList.copyOf(genes)) : GeneIndex.fromGenes(genes);
+	}
+
+	/**
+	 * Read and deserialize bytes <code>[begin, end)</code> of <code>raf</code>, see {@link RecordObjectInputStream}
+	 * for <code>refDict</code> and <code>stores</code>
+	 */
+	private Object decompress(RandomAccessFile raf, long begin, long end, ReferenceDictionary refDict,
+			HashMap<String, MappedSequenceStore> stores) throws IOException, ClassNotFoundException {
+		final byte bytes[] = new byte[(int) (end - begin)];
+		raf.seek(begin);
+		raf.readFully(bytes);
+		try (ObjectInputStream in = new RecordObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)),
+				new File(filename).getAbsoluteFile().getParentFile(), refDict, stores)) {
+			return in.readObject();
+		}
+	}
+
+	/** Read the whole file written by an older version and apply <code>filter</code> afterwards */
+	private JannovarData loadOldFormat(JannovarDataFilter filter) throws IOException, ClassNotFoundException {
+		final JannovarData data;
+		try (ObjectInputStream in = new RecordObjectInputStream(new GZIPInputStream(new FileInputStream(filename)),
+				new File(filename).getAbsoluteFile().getParentFile(), null,
+				new HashMap<String, MappedSequenceStore>())) {
+			data = (JannovarData) in.readObject();
+		}
+		if (filter.isEmpty())
+			return data;
+
+		logger.info("File was written by an older version, filtering after reading all transcripts");
+		final JannovarData result = filter.apply(data);
+		logger.info(String.format("Selected %d of %d transcripts", result.getTmByAccession().size(), data
+				.getTmByAccession().size()));
+		return result;
+	}
+
+	/**
+	 * Index of the records in a file
+	 */
+	private static final class RecordIndex implements Serializable {
+
+		/** Class version (for serialization). */
+		private static final long serialVersionUID = 1L;
+
+		/** reference dictionary of the {@link JannovarData} */
+		final ReferenceDictionary refDict;
+		/** accession of each transcript, in the order of the records */
+		final String accessions[];
+		/** gene symbol of each transcript */
+		final String geneSymbols[];
+		/** contig ID of each transcript */
+		final int chrs[];
+		/** 0-based begin position of each transcript on the forward strand */
+		final int beginPos[];
+		/** 0-based end position of each transcript on the forward strand, exclusive */
+		final int endPos[];
+		/** offset of each record in the file, followed by the offset of the index */
+		final long recordOffsets[];
+		/** index of the first transcript of each record, followed by the number of transcripts */
+		final int recordFirsts[];
+		/**
+		 * position of the first transcript of each gene of the {@link GeneIndex} in {@link #geneTranscripts},
+		 * followed by its length; the genes are sorted by contig and position
+		 */
+		final int geneFirsts[];
+		/** the indices of the transcripts of the genes, one gene after another */
+		final int geneTranscripts[];
+
+		RecordIndex(ReferenceDictionary refDict, List<TranscriptModel> tms, long recordOffsets[],
+				int recordFirsts[], GeneIndex geneIndex) {
+			this.refDict = refDict;
+			this.accessions = new String[tms.size()];
+			this.geneSymbols = new String[tms.size()];
+			this.chrs = new int[tms.size()];
+			this.beginPos = new int[tms.size()];
+			this.endPos = new int[tms.size()];
+			for (int i = 0; i < tms.size(); ++i) {
+				final TranscriptModel tm = tms.get(i);
+				final GenomeInterval txRegion = tm.getTXRegion().withStrand(Strand.FWD);
+				accessions[i] = tm.getAccession();
+				geneSymbols[i] = tm.getGeneSymbol();
+				chrs[i] = tm.getChr();
+				beginPos[i] = txRegion.getBeginPos();
+				endPos[i] = txRegion.getEndPos();
+			}
+			this.recordOffsets = recordOffsets;
+			this.recordFirsts = recordFirsts;
+
+			final HashMap<String, Integer> indexByAccession = new HashMap<>();
+			for (int i = 0; i < accessions.length; ++i)
+				indexByAccession.put(accessions[i], i);
+			final ArrayList<Integer> geneFirstList = new ArrayList<>();
+			final ArrayList<Integer> geneTranscriptList = new ArrayList<>();
+			for (GeneModel gene : geneIndex.getGenes()) {
+				geneFirstList.add(geneTranscriptList.size());
+				for (TranscriptModel tm : gene.getTranscripts())
+					geneTranscriptList.add(indexByAccession.get(tm.getAccession()));
+			}
+			geneFirstList.add(geneTranscriptList.size());
+			this.geneFirsts = Ints.toArray(geneFirstList);
+			this.geneTranscripts = Ints.toArray(geneTranscriptList);
+		}
+
+	}
+
+	/**
+	 * Placeholder for the {@link ReferenceDictionary} in the records, such that it is only stored once in the index
+	 */
+	private static final class ReferenceDictionaryPlaceholder implements Serializable {
+
+		/** Class version (for serialization). */
+		private static final long serialVersionUID = 1L;
+
+		/** the only instance, written for all {@link ReferenceDictionary} objects of a record */
+		static final ReferenceDictionaryPlaceholder INSTANCE = new ReferenceDictionaryPlaceholder();
+
+	}
+
+	/**
+	 * {@link ObjectOutputStream} for records that writes a {@link ReferenceDictionaryPlaceholder} instead of the
+	 * {@link ReferenceDictionary} objects that the transcript intervals refer to
+	 */
+	private static final class RecordObjectOutputStream extends ObjectOutputStream {
+
+		RecordObjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof ReferenceDictionary)
+				return ReferenceDictionaryPlaceholder.INSTANCE;
+			return obj;
+		}
+
+	}
+
+	/**
+	 * {@link ObjectInputStream} that replaces the {@link ReferenceDictionaryPlaceholder} of the records by the
+	 * {@link ReferenceDictionary} from the index and opens the {@link MappedSequenceStore} objects read from the stream
+	 *
+	 * Only the file name of the stores is serialized, the files are opened from the directory of the serialized
+	 * {@link JannovarData}. Each file is opened once, the stores are shared between the streams using the same
+	 * <code>stores</code>.
+	 */
+	private static final class RecordObjectInputStream extends ObjectInputStream {
+
+		/** directory to open the sequence files from */
+		private final File directory;
+		/** the {@link ReferenceDictionary} to use for the placeholders, <code>null</code> when reading the index */
+		private final ReferenceDictionary refDict;
+		/** the opened sequence stores by file name */
+		private final HashMap<String, MappedSequenceStore> stores;
+
+		RecordObjectInputStream(InputStream in, File directory, ReferenceDictionary refDict,
+				HashMap<String, MappedSequenceStore> stores) throws IOException {
+			super(in);
+			this.directory = directory;
+			this.refDict = refDict;
+			this.stores = stores;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof ReferenceDictionaryPlaceholder) {
+				if (refDict == null)
+					throw new IOException("Unexpected reference dictionary placeholder");
+				return refDict;
+			}
+			if (!(obj instanceof MappedSequenceStore))
+				return obj;
+			final String fileName = ((MappedSequenceStore) obj).getFileName();
+			if (stores.containsKey(fileName))
+				return stores.get(fileName);
+			try {
+				final MappedSequenceStore store = MappedSequenceStore.open(new File(directory, fileName));
+				stores.put(fileName, store);
+				return store;
+			} catch (SerializationException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+
+	}
+
 }
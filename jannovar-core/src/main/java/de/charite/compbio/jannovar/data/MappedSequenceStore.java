@@ -0,0 +1,271 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptSequenceStore;
+
+// NOTE(holtgrem): Part of the public interface of the Jannovar library.
+
+/**
+ * Read-only store of transcript sequences in a memory-mapped file.
+ *
+ * The file consists of a short header ({@link #MAGIC}) followed by the ASCII-encoded sequences of all transcripts, one
+ * after another. {@link TranscriptModel} objects backed by a store only keep the offset and length of their sequence
+ * in the file. Because the file is mapped read-only, the operating system's page cache holds the sequences outside of
+ * the Java heap and shares them between all processes that load the same database.
+ *
+ * Only the name of the file is serialized with the {@link JannovarData}. {@link JannovarDataSerializer#load} opens the
+ * file with this name from the directory of the serialized database, stores that were deserialized in a different
+ * way cannot be accessed.
+ *
+ * Reading from the store is thread-safe.
+ */
+@Immutable
+public final class MappedSequenceStore implements TranscriptSequenceStore {
+
+	/** Header at the beginning of the sequence files */
+	static final byte[] MAGIC = "JANNOVAR_SEQ_1\n".getBytes(StandardCharsets.US_ASCII);
+
+	/** Class version (for serialization). */
+	private static final long serialVersionUID = 1L;
+
+	/** name of the sequence file, without directory */
+	private final String fileName;
+
+	/** the mapped file, <code>null</code> for deserialized objects that were not opened */
+	private final transient MappedByteBuffer buffer;
+
+	/**
+	 * Initialize object, buffer is <code>null</code> for placeholders
+	 */
+	private MappedSequenceStore(String fileName, MappedByteBuffer buffer) {
+		this.fileName = fileName;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Write the sequences of <code>transcripts</code> to <code>file</code> and open it as a store
+	 *
+	 * The file is written under a temporary name and then moved into place such that a file of the same name that is
+	 * currently mapped (e.g., when saving a database that was loaded before) stays valid.
+	 *
+	 * @param file
+	 *            path to the sequence file to write
+	 * @param transcripts
+	 *            {@link TranscriptModel}s to write the sequences of
+	 * @return {@link ImmutableList} of {@link TranscriptModel}s backed by the new store, in the order of
+	 *         <code>transcripts</code>
+	 * @throws SerializationException
+	 *             on problems writing or mapping the file or if the sequences do not fit into one mapped file
+	 */
+	public static ImmutableList<TranscriptModel> write(File file, Iterable<TranscriptModel> transcripts)
+			throws SerializationException {
+		long offset = MAGIC.length;
+		final ImmutableList<TranscriptModel> tms = ImmutableList.copyOf(transcripts);
+		final long offsets[] = new long[tms.size()];
+		// identical sequences (e.g., of alternative locus copies) are written only once
+		final HashMap<String, Long> seqOffsets = new HashMap<>();
+		final File tmpFile = new File(file.getPath() + ".tmp");
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+			out.write(MAGIC);
+			for (int i = 0; i < tms.size(); ++i) {
+				final String seqString = tms.get(i).getSequence();
+				final Long seqOffset = seqOffsets.get(seqString);
+				if (seqOffset != null) {
+					offsets[i] = seqOffset;
+					continue;
+				}
+				final byte seq[] = seqString.getBytes(StandardCharsets.US_ASCII);
+				out.write(seq);
+				offsets[i] = offset;
+				seqOffsets.put(seqString, offset);
+				offset += seq.length;
+			}
+		} catch (IOException e) {
+			throw new SerializationException("Could not write sequence file " + tmpFile + ": " + e.toString());
+		}
+		// the rename does not replace existing files on all platforms, try again after removing the target
+		if (!tmpFile.renameTo(file) && (!file.delete() || !tmpFile.renameTo(file)))
+			throw new SerializationException("Could not move " + tmpFile + " to " + file);
+
+		final MappedSequenceStore store = open(file);
+		ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		for (int i = 0; i < tms.size(); ++i)
+			builder.add(tms.get(i).withSequenceStore(store, offsets[i]));
+		return builder.build();
+	}
+
+	/**
+	 * Open and map an existing sequence file
+	 *
+	 * @param file
+	 *            path to the sequence file
+	 * @return {@link MappedSequenceStore} for the file
+	 * @throws SerializationException
+	 *             on problems mapping the file or if it is no sequence file
+	 */
+	public static MappedSequenceStore open(File file) throws SerializationException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			if (raf.length() > Integer.MAX_VALUE)
+				throw new SerializationException("Sequence file " + file + " is too large for mapping");
+			final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+			if (!hasMagic(buffer))
+				throw new SerializationException("File " + file + " is not a Jannovar sequence file");
+			return new MappedSequenceStore(file.getName(), buffer);
+		} catch (IOException e) {
+			throw new SerializationException("Could not map sequence file " + file + ": " + e.toString());
+		}
+	}
+
+	/** @return <code>true</code> if <code>buffer</code> starts with {@link #MAGIC} */
+	private static boolean hasMagic(MappedByteBuffer buffer) {
+		if (buffer.limit() < MAGIC.length)
+			return false;
+		for (int i = 0; i < MAGIC.length; ++i)
+			if (buffer.get(i) != MAGIC[i])
+				return false;
+		return true;
+	}
+
+	/** @return name of the sequence file, without directory */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/** @return <code>true</code> if the file is mapped and sequences can be read */
+	@Override
+	public boolean isOpen() {
+		return buffer != null;
+	}
+
+	/**
+	 * Read sequence from the store
+	 *
+	 * @param offset
+	 *            offset of the first character in the file
+	 * @param length
+	 *            number of characters to read
+	 * @return the sequence as a {@link String}
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	@Override
+	public String getSequence(long offset, int length) {
+		checkOpen();
+		// use absolute reads only, such that the shared buffer's position is never touched
+		final int begin = (int) offset;
+		final char chars[] = new char[length];
+		for (int i = 0; i < length; ++i)
+			chars[i] = (char) buffer.get(begin + i);
+		return new String(chars);
+	}
+
+	/**
+	 * Compute hash code of sequence without decoding it
+	 *
+	 * @param offset
+	 *            offset of the first character in the file
+	 * @param length
+	 *            number of characters
+	 * @return the same value as <code>getSequence(offset, length).hashCode()</code>
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	@Override
+	public int getSequenceHashCode(long offset, int length) {
+		checkOpen();
+		final int begin = (int) offset;
+		int result = 0;
+		for (int i = 0; i < length; ++i)
+			result = 31 * result + (char) buffer.get(begin + i);
+		return result;
+	}
+
+	/**
+	 * Compare sequence with <code>other</code> without decoding it
+	 *
+	 * @param offset
+	 *            offset of the first character in the file
+	 * @param length
+	 *            number of characters
+	 * @param other
+	 *            the sequence to compare with
+	 * @return the same value as <code>getSequence(offset, length).equals(other)</code>
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	@Override
+	public boolean sequenceEquals(long offset, int length, String other) {
+		checkOpen();
+		if (other.length() != length)
+			return false;
+		final int begin = (int) offset;
+		for (int i = 0; i < length; ++i)
+			if ((char) buffer.get(begin + i) != other.charAt(i))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Compare sequence with a sequence of <code>otherStore</code>, without decoding them if <code>otherStore</code> is
+	 * a {@link MappedSequenceStore}
+	 *
+	 * @param offset
+	 *            offset of the first character in the file
+	 * @param length
+	 *            number of characters
+	 * @param otherStore
+	 *            the store with the sequence to compare with
+	 * @param otherOffset
+	 *            offset of the first character of the other sequence in <code>otherStore</code>
+	 * @return the same value as
+	 *         <code>getSequence(offset, length).equals(otherStore.getSequence(otherOffset, length))</code>
+	 * @throws IllegalStateException
+	 *             if one of the stores is not open
+	 */
+	@Override
+	public boolean sequenceEquals(long offset, int length, TranscriptSequenceStore otherStore, long otherOffset) {
+		checkOpen();
+		if (!(otherStore instanceof MappedSequenceStore))
+			return otherStore.sequenceEquals(otherOffset, length, getSequence(offset, length));
+		final MappedSequenceStore otherMapped = (MappedSequenceStore) otherStore;
+		otherMapped.checkOpen();
+		if (otherMapped == this && otherOffset == offset)
+			return true; // shared sequence
+		final int begin = (int) offset;
+		final int otherBegin = (int) otherOffset;
+		for (int i = 0; i < length; ++i)
+			if (buffer.get(begin + i) != otherMapped.buffer.get(otherBegin + i))
+				return false;
+		return true;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	private void checkOpen() {
+		if (buffer == null)
+			throw new IllegalStateException("Sequence file " + fileName
+					+ " is not open, load the database using JannovarDataSerializer");
+	}
+
+	@Override
+	public String toString() {
+		return "MappedSequenceStore [fileName=" + fileName + ", open=" + isOpen() + "]";
+	}
+
+}
@@ -2,6 +2,7 @@ package de.charite.compbio.jannovar.data;
 
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Map.Entry;
 
 import com.google.common.collect.ImmutableMap;
@@ -55,6 +56,18 @@ public class ReferenceDictionary implements Serializable {
 	/** stores a mapping from numeric chromosomeID/contigID to chromosome/contig length */
 	private final ImmutableMap<Integer, Integer> contigLength;
 
+	/**
+	 * dense table from numeric contig ID to length, <code>-1</code> for unknown IDs, <code>null</code> if the IDs are
+	 * too sparse for a table; rebuilt on deserialization through {@link #readResolve}
+	 */
+	private final transient int[] contigLengthTable;
+
+	/** dense table from numeric contig ID to primary name, same layout as {@link #contigLengthTable} */
+	private final transient String[] contigNameTable;
+
+	/** largest numeric contig ID for which dense tables are built, regardless of the number of contigs */
+	private static final int MIN_DENSE_TABLE_SIZE = 1024;
+
 	/**
 	 * Initialize the object with the given values.
 	 *
@@ -70,6 +83,35 @@ public class ReferenceDictionary implements Serializable {
 		this.contigID = contigID;
 		this.contigName = contigName;
 		this.contigLength = contigLength;
+
+		// Build dense tables if the IDs are non-negative and not too sparse
+		int maxID = -1;
+		boolean negative = false;
+		for (Integer id : contigName.keySet()) {
+			maxID = Math.max(maxID, id);
+			negative = negative || (id < 0);
+		}
+		for (Integer id : contigLength.keySet()) {
+			maxID = Math.max(maxID, id);
+			negative = negative || (id < 0);
+		}
+		if (!negative && maxID < Math.max(MIN_DENSE_TABLE_SIZE, 4 * (contigName.size() + contigLength.size()))) {
+			this.contigLengthTable = new int[maxID + 1];
+			this.contigNameTable = new String[maxID + 1];
+			Arrays.fill(contigLengthTable, -1);
+			for (Entry<Integer, Integer> entry : contigLength.entrySet())
+				contigLengthTable[entry.getKey()] = entry.getValue();
+			for (Entry<Integer, String> entry : contigName.entrySet())
+				contigNameTable[entry.getKey()] = entry.getValue();
+		} else {
+			this.contigLengthTable = null;
+			this.contigNameTable = null;
+		}
+	}
+
+	/** Rebuild the dense lookup tables after deserialization */
+	private Object readResolve() {
+		return new ReferenceDictionary(contigID, contigName, contigLength);
 	}
 
 	/** @return map from contig name to contig id */
@@ -87,6 +129,54 @@ public class ReferenceDictionary implements Serializable {
 		return contigLength;
 	}
 
+	/**
+	 * Unboxed lookup of the numeric contig ID for a name; see {@link ContigNameInterner} for repeated lookups of the
+	 * same names
+	 *
+	 * @param name
+	 *            contig name, e.g., <code>"chr1"</code> or <code>"1"</code>
+	 * @return numeric contig ID, <code>-1</code> if the name is unknown
+	 */
+	public int getContigID(String name) {
+		final Integer id = contigID.get(name);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Table-based lookup of the primary contig name
+	 *
+	 * @param id
+	 *            numeric contig ID
+	 * @return primary name of the contig, <code>null</code> if the ID is unknown
+	 */
+	public String getContigName(int id) {
+		if (contigNameTable != null)
+			return (id >= 0 && id < contigNameTable.length) ? contigNameTable[id] : null;
+		return contigName.get(id);
+	}
+
+	/**
+	 * Table-based lookup of the contig length
+	 *
+	 * @param id
+	 *            numeric contig ID
+	 * @return length of the contig
+	 * @throws IllegalArgumentException
+	 *             if there is no length for the ID
+	 */
+	public int getContigLength(int id) {
+		final int length;
+		if (contigLengthTable != null) {
+			length = (id >= 0 && id < contigLengthTable.length) ? contigLengthTable[id] : -1;
+		} else {
+			final Integer boxed = contigLength.get(id);
+			length = (boxed == null) ? -1 : boxed;
+		}
+		if (length == -1)
+			throw new IllegalArgumentException("Unknown contig ID: " + id);
+		return length;
+	}
+
 	/**
 	 * Print dictionary to <code>System.err</code> for debugging purposes.
 	 *
@@ -0,0 +1,139 @@
+package de.charite.compbio.jannovar.datasource;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Checksums of downloaded files from a manifest file.
+ *
+ * The manifest uses the format of the <tt>md5sum</tt>/<tt>sha256sum</tt> tools, e.g., the <tt>md5checksums.txt</tt>
+ * files on the NCBI FTP server: one line per file with the hexadecimal checksum, white space, and the file name. Only
+ * the last path component of the file name is used and a leading <tt>'*'</tt> (binary mode marker) is ignored. The
+ * hash algorithm is derived from the length of the checksum (MD5, SHA-1, or SHA-256).
+ */
+final class ChecksumManifest {
+
+	/** mapping from file name to lower-case hexadecimal checksum */
+	private final ImmutableMap<String, String> checksums;
+
+	/**
+	 * Load manifest from file
+	 *
+	 * @param file
+	 *            path to the manifest file
+	 * @throws FileDownloadException
+	 *             on problems reading the manifest file
+	 */
+	ChecksumManifest(File file) throws FileDownloadException {
+		HashMap<String, String> map = new HashMap<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				final String[] arr = line.split("\\s+", 2);
+				if (arr.length != 2)
+					throw new FileDownloadException("Invalid line in checksum manifest " + file + ": " + line);
+				String fileName = arr[1].startsWith("*") ? arr[1].substring(1) : arr[1];
+				fileName = new File(fileName).getName();
+				map.put(fileName, arr[0].toLowerCase());
+			}
+		} catch (IOException e) {
+			throw new FileDownloadException("Could not read checksum manifest " + file, e);
+		}
+		this.checksums = ImmutableMap.copyOf(map);
+	}
+
+	/** @return mapping from file name to lower-case hexadecimal checksum */
+	public ImmutableMap<String, String> getChecksums() {
+		return checksums;
+	}
+
+	/**
+	 * @param file
+	 *            the file to check
+	 * @return <code>true</code> if the manifest has a checksum for <code>file</code>
+	 */
+	public boolean hasChecksum(File file) {
+		return checksums.containsKey(file.getName());
+	}
+
+	/**
+	 * Check the checksum of <code>file</code> against the manifest
+	 *
+	 * @param file
+	 *            the file to check, looked up in the manifest by its name
+	 * @return <code>true</code> if the checksums match or the manifest has no checksum for <code>file</code>
+	 * @throws FileDownloadException
+	 *             on problems reading <code>file</code>
+	 */
+	public boolean verify(File file) throws FileDownloadException {
+		final String expected = checksums.get(file.getName());
+		if (expected == null)
+			return true;
+		return expected.equals(computeChecksum(file, algorithmForLength(expected.length())));
+	}
+
+	/**
+	 * @return name of the {@link MessageDigest} algorithm for hexadecimal checksums of the given length
+	 * @throws FileDownloadException
+	 *             if there is no algorithm for checksums of the given length
+	 */
+	private static String algorithmForLength(int length) throws FileDownloadException {
+		switch (length) {
+		case 32:
+			return "MD5";
+		case 40:
+			return "SHA-1";
+		case 64:
+			return "SHA-256";
+		default:
+			throw new FileDownloadException("Unknown checksum type with " + length + " characters");
+		}
+	}
+
+	/**
+	 * @param file
+	 *            the file to compute the checksum for
+	 * @param algorithm
+	 *            the name of the {@link MessageDigest} algorithm to use
+	 * @return lower-case hexadecimal checksum of <code>file</code>
+	 * @throws FileDownloadException
+	 *             on problems reading <code>file</code>
+	 */
+	static String computeChecksum(File file, String algorithm) throws FileDownloadException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new FileDownloadException("Checksum algorithm " + algorithm + " not available", e);
+		}
+
+		try (InputStream in = new FileInputStream(file)) {
+			byte buffer[] = new byte[128 * 1024];
+			int readCount;
+			while ((readCount = in.read(buffer)) > 0)
+				digest.update(buffer, 0, readCount);
+		} catch (IOException e) {
+			throw new FileDownloadException("Could not read " + file + " for computing the checksum", e);
+		}
+
+		StringBuilder result = new StringBuilder();
+		for (byte b : digest.digest())
+			result.append(String.format("%02x", b));
+		return result.toString();
+	}
+
+}
@@ -21,6 +21,12 @@ public class DatasourceOptions {
 	/** whether to print progress bars to stderr or not */
 	private boolean printProgressBars = false;
 
+	/** number of files to download in parallel */
+	private int downloadThreads = 1;
+
+	/** number of connections to use for downloading one file */
+	private int connectionsPerFile = 1;
+
 	/**
 	 * Initialize with default settings.
 	 * 
@@ -76,4 +82,24 @@ public class DatasourceOptions {
 		this.printProgressBars = printProgressBars;
 	}
 
+	/** @return number of files to download in parallel */
+	public int getDownloadThreads() {
+		return downloadThreads;
+	}
+
+	/** Set number of files to download in parallel */
+	public void setDownloadThreads(int downloadThreads) {
+		this.downloadThreads = downloadThreads;
+	}
+
+	/** @return number of connections to use for downloading one file */
+	public int getConnectionsPerFile() {
+		return connectionsPerFile;
+	}
+
+	/** Set number of connections to use for downloading one file */
+	public void setConnectionsPerFile(int connectionsPerFile) {
+		this.connectionsPerFile = connectionsPerFile;
+	}
+
 }
@@ -6,17 +6,29 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.net.SocketException;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPHTTPClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import de.charite.compbio.jannovar.impl.util.ProgressBar;
 
 /**
@@ -25,6 +37,11 @@ import de.charite.compbio.jannovar.impl.util.ProgressBar;
  * The implementation of FTP downloads is more complex since we need passive FTP transfer through firewalls. This is not
  * possible when just opening a stream through an {@link URL} object with Java's builtin features.
  *
+ * Files are first written to a file with the suffix {@link #PART_SUFFIX} next to the destination that is renamed to the
+ * destination once the download is complete. When a partial file is found, the download is resumed using HTTP range
+ * requests or the FTP <tt>REST</tt> command. Large files can be downloaded over multiple connections in chunks if the
+ * server supports range requests or <tt>REST</tt>, see {@link Options#connectionsPerFile}.
+ *
  * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
  */
 final class FileDownloader {
@@ -32,6 +49,12 @@ final class FileDownloader {
 	/** the logger object to use */
 	private static final Logger LOGGER = LoggerFactory.getLogger(FileDownloader.class);
 
+	/** suffix for partial downloads */
+	static final String PART_SUFFIX = ".part";
+
+	/** size of the buffer for copying */
+	private static final int BUFFER_SIZE = 128 * 1024;
+
 	public static class ProxyOptions {
 		public String host = null;
 		public int port = -1;
@@ -47,6 +70,10 @@ final class FileDownloader {
 		public ProxyOptions http = new ProxyOptions();
 		public ProxyOptions https = new ProxyOptions();
 		public ProxyOptions ftp = new ProxyOptions();
+		/** number of connections to use for downloading one file */
+		public int connectionsPerFile = 1;
+		/** smallest size of a chunk when downloading one file over multiple connections */
+		public long minChunkSize = 32L * 1024 * 1024;
 	}
 
 	/** configuration for the downloader */
@@ -61,6 +88,8 @@ final class FileDownloader {
 	 * This method downloads a file to the specified local file path. If the file already exists, it emits a warning
 	 * message and does nothing.
 	 *
+	 * An existing partial download of <code>dest</code> is resumed.
+	 *
 	 * @param src
 	 *            {@link URL} with file to download
 	 * @param dest
@@ -77,14 +106,54 @@ final class FileDownloader {
 			dest.getParentFile().mkdirs();
 		}
 
-		if (src.getProtocol().equals("ftp") && options.ftp.host != null)
-			return copyURLToFileWithFTP(src, dest);
+		final File partFile = new File(dest.getPath() + PART_SUFFIX);
+		if (partFile.exists())
+			LOGGER.info("Resuming download of {} after {} bytes", new Object[] { dest.getName(), partFile.length() });
+
+		if (src.getProtocol().equals("ftp"))
+			copyURLToFileWithFTP(src, partFile);
 		else
-			return copyURLToFileThroughURL(src, dest);
+			copyURLToFileThroughURL(src, partFile);
+
+		if (!partFile.renameTo(dest))
+			throw new FileDownloadException("ERROR: could not rename " + partFile + " to " + dest);
+		return true;
+	}
+
+	/**
+	 * Copy contents of an FTP URL to a file using {@link FTPClient}, in passive mode and through the FTP proxy if
+	 * configured.
+	 *
+	 * Partial downloads are resumed using the <tt>REST</tt> command. Large files are downloaded over multiple
+	 * connections in chunks if the server announces support for <tt>REST</tt>, see {@link Options#connectionsPerFile}.
+	 */
+	private void copyURLToFileWithFTP(URL src, File dest) throws FileDownloadException {
+		try {
+			final RemoteFileInfo info = queryFTPFileInfo(src);
+			final int numChunks = getNumChunks(info, dest);
+			final Progress progress = new Progress(info.size);
+			if (numChunks > 1)
+				downloadChunked(src, dest, info.size, numChunks, progress, this::downloadFTPRange);
+			else
+				downloadFTPRange(src, dest, 0, info.size, true, progress);
+			progress.finish();
+		} catch (IOException e) {
+			// the partial file is kept for resuming the download later on
+			throw new FileDownloadException("ERROR: problem downloading file: " + e.getMessage(), e);
+		}
 	}
 
-	private boolean copyURLToFileWithFTP(URL src, File dest) throws FileDownloadException {
-		final FTPClient ftp = new FTPClient();
+	/**
+	 * @return {@link FTPClient} for <code>src</code>, logged in anonymously, in passive and binary mode, and in the
+	 *         directory of the file
+	 */
+	private FTPClient connectFTP(URL src) throws IOException {
+		final FTPClient ftp;
+		if (options.ftp.host != null)
+			ftp = new FTPHTTPClient(options.ftp.host, (options.ftp.port == -1) ? 80 : options.ftp.port,
+					options.ftp.user, options.ftp.password);
+		else
+			ftp = new FTPClient();
 		ftp.enterLocalPassiveMode(); // passive mode for firewalls
 
 		try {
@@ -94,169 +163,349 @@ final class FileDownloader {
 				ftp.connect(src.getHost());
 			if (!ftp.login("anonymous", "anonymous@example.com"))
 				throw new IOException("Could not login with anonymous:anonymous@example.com");
-			if (!ftp.isConnected())
-				LOGGER.error("Weird, not connected!");
-		} catch (SocketException e) {
-			throw new FileDownloadException("ERROR: problem connecting when downloading file.", e);
+			if (!ftp.setFileType(FTP.BINARY_FILE_TYPE))
+				throw new IOException("Could not use binary transfer");
+			final String parentDir = new File(src.getPath()).getParent().substring(1);
+			if (!ftp.changeWorkingDirectory(parentDir))
+				throw new FileNotFoundException("Could not change directory to " + parentDir);
 		} catch (IOException e) {
-			throw new FileDownloadException("ERROR: problem connecting when downloading file.", e);
+			closeQuietly(ftp);
+			throw e;
 		}
+		return ftp;
+	}
+
+	/** @return {@link RemoteFileInfo} for <code>src</code>, with range support if the server supports <tt>REST</tt> */
+	private RemoteFileInfo queryFTPFileInfo(URL src) throws IOException {
+		final FTPClient ftp = connectFTP(src);
 		try {
-			ftp.setFileType(FTP.BINARY_FILE_TYPE); // binary file transfer
-		} catch (IOException e) {
-			try {
-				ftp.logout();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
-			}
-			try {
-				ftp.disconnect();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
-			}
-			throw new FileDownloadException("ERROR: could not use binary transfer.", e);
-		}
-		InputStream in = null;
-		OutputStream out = null;
-		try {
-			final String parentDir = new File(src.getPath()).getParent().substring(1);
 			final String fileName = new File(src.getPath()).getName();
-			if (!ftp.changeWorkingDirectory(parentDir))
-				throw new FileNotFoundException("Could not change directory to " + parentDir);
-			// Try to get file size.
-			FTPFile[] files = ftp.listFiles(fileName);
 			long fileSize = -1;
-			for (int i = 0; i < files.length; ++i)
-				if (files[i].getName().equals(fileName))
-					fileSize = files[i].getSize();
-			ftp.pwd();
-			ProgressBar pb = null;
-			if (fileSize != -1)
-				pb = new ProgressBar(0, fileSize, options.printProgressBar);
-			else
-				LOGGER.info("(server did not tell us the file size, no progress bar)");
-			// Download file.
-			in = ftp.retrieveFileStream(fileName);
+			for (FTPFile file : ftp.listFiles(fileName))
+				if (file.getName().equals(fileName))
+					fileSize = file.getSize();
+			return new RemoteFileInfo(fileSize, ftp.hasFeature("REST"));
+		} finally {
+			closeQuietly(ftp);
+		}
+	}
+
+	/**
+	 * Download bytes <code>[begin, end)</code> of <code>src</code> to <code>dest</code> over FTP, resuming after the
+	 * bytes already in <code>dest</code>, see {@link #downloadRange}.
+	 */
+	private void downloadFTPRange(URL src, File dest, long begin, long end, boolean wholeFile, Progress progress)
+			throws IOException {
+		long done = dest.exists() ? dest.length() : 0;
+		if (end != -1 && begin + done > end)
+			done = 0; // remote file got shorter, restart
+		else if (end != -1 && begin + done == end) {
+			progress.add(done); // already complete
+			return;
+		}
+
+		final String fileName = new File(src.getPath()).getName();
+		final FTPClient ftp = connectFTP(src);
+		try {
+			if (begin + done > 0)
+				ftp.setRestartOffset(begin + done);
+			InputStream in = ftp.retrieveFileStream(fileName);
+			if (in == null && begin + done > 0 && wholeFile) {
+				LOGGER.info("Server does not support resuming the download of {}, restarting", src);
+				done = 0;
+				ftp.setRestartOffset(0);
+				in = ftp.retrieveFileStream(fileName);
+			} else if (in == null && !wholeFile) {
+				throw new IOException("Server does not support resuming downloads for " + src);
+			}
 			if (in == null)
 				throw new FileNotFoundException("Could not open connection for file " + fileName);
-			out = new FileOutputStream(dest);
-			BufferedInputStream inBf = new BufferedInputStream(in);
-			byte buffer[] = new byte[128 * 1024];
-			int readCount;
-			long pos = 0;
-			if (pb != null)
-				pb.print(pos);
 
-			while ((readCount = inBf.read(buffer)) > 0) {
-				out.write(buffer, 0, readCount);
-				pos += readCount;
-				if (pb != null)
-					pb.print(pos);
-			}
-			in.close();
-			out.close();
-			if (pb != null && pos != pb.getMax())
-				pb.print(fileSize);
-			// if (!ftp.completePendingCommand())
-			// throw new IOException("Could not finish download!");
-
-		} catch (FileNotFoundException e) {
-			dest.delete();
-			try {
-				ftp.logout();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
-			}
-			try {
-				ftp.disconnect();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
+			// FTP has no end of range, stop reading once the chunk is complete
+			progress.add(done);
+			final long remaining = wholeFile ? -1 : end - begin - done;
+			try (InputStream bufIn = new BufferedInputStream(in);
+					OutputStream out = new FileOutputStream(dest, done > 0)) {
+				copy(bufIn, out, progress, remaining);
 			}
-			throw new FileDownloadException("ERROR: problem downloading file.", e);
-		} catch (IOException e) {
-			dest.delete();
-			try {
-				ftp.logout();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
-			}
-			try {
-				ftp.disconnect();
-			} catch (IOException e1) {
-				// swallow, nothing we can do about it
-			}
-			throw new FileDownloadException("ERROR: problem downloading file.", e);
+			// a chunk is checked by its length below, the whole file by the server's reply as its size may be unknown
+			if (wholeFile && !ftp.completePendingCommand())
+				throw new IOException("Transfer of " + src + " failed: " + ftp.getReplyString().trim());
 		} finally {
-			if (in != null) {
-				try {
-					in.close();
-				} catch (IOException e) {
-					// swallow, nothing we can do
-				}
-			}
-			if (out != null) {
-				try {
-					out.close();
-				} catch (IOException e) {
-					// swallow, nothing we can do
-				}
-			}
-			// if (ftp != null) {
-			// try {
-			// ftp.completePendingCommand();
-			// } catch (IOException e) {
-			// // swallow, nothing we can do
-			// }
-			// }
+			closeQuietly(ftp);
+		}
+
+		if (end != -1 && dest.length() != end - begin)
+			throw new IOException("Incomplete download of " + src + ", expected " + (end - begin) + " bytes but got "
+					+ dest.length());
+	}
+
+	/** Logout and disconnect <code>ftp</code>, ignoring any errors */
+	private static void closeQuietly(FTPClient ftp) {
+		try {
+			ftp.logout();
+		} catch (IOException e1) {
+			// swallow, nothing we can do about it
+		}
+		try {
+			ftp.disconnect();
+		} catch (IOException e1) {
+			// swallow, nothing we can do about it
 		}
-		return false;
 	}
 
 	/**
 	 * Copy contents of a URL to a file using the {@link URL} class.
 	 *
-	 * This works for the HTTP and the HTTPS protocol and for FTP through a proxy. For plain FTP, we need to use the
-	 * passive mode.
+	 * This is used for all protocols except FTP, for which we need to use the passive mode. Resuming and chunked
+	 * downloads are only possible for HTTP and HTTPS.
 	 */
-	private boolean copyURLToFileThroughURL(URL src, File dest) throws FileDownloadException {
+	private void copyURLToFileThroughURL(URL src, File dest) throws FileDownloadException {
 		setProxyProperties();
 
-		// actually copy the file
-		BufferedInputStream in = null;
-		FileOutputStream out = null;
 		try {
-			URLConnection connection = src.openConnection();
-			final int fileSize = connection.getContentLength();
-			in = new BufferedInputStream(connection.getInputStream());
-			out = new FileOutputStream(dest);
-
-			ProgressBar pb = null;
-			if (fileSize != -1)
-				pb = new ProgressBar(0, fileSize, options.printProgressBar);
+			if (!src.getProtocol().equals("http") && !src.getProtocol().equals("https")) {
+				copyStream(src, dest);
+				return;
+			}
+
+			// Get file size and whether the server supports range requests, using chunks if possible and the
+			// download has not been started over a single connection before
+			final RemoteFileInfo info = queryRemoteFileInfo(src);
+			final int numChunks = getNumChunks(info, dest);
+			final Progress progress = new Progress(info.size);
+			if (numChunks > 1)
+				downloadChunked(src, dest, info.size, numChunks, progress, this::downloadRange);
 			else
+				downloadRange(src, dest, 0, info.size, true, progress);
+			progress.finish();
+		} catch (IOException e) {
+			throw new FileDownloadException("ERROR: Problem downloading file: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return number of chunks to download <code>dest</code> in, <code>1</code> if the server does not support range
+	 *         requests, the size is unknown, or the download has been started over a single connection before
+	 */
+	private int getNumChunks(RemoteFileInfo info, File dest) {
+		if (!info.acceptsRanges || info.size == -1 || dest.exists())
+			return 1;
+		return (int) Math.max(1, Math.min(options.connectionsPerFile, info.size / Math.max(1, options.minChunkSize)));
+	}
+
+	/**
+	 * Size of a remote file and whether the server supports range requests
+	 */
+	private static final class RemoteFileInfo {
+		/** file size, <code>-1</code> if unknown */
+		final long size;
+		/** whether the server announced support for range requests */
+		final boolean acceptsRanges;
+
+		RemoteFileInfo(long size, boolean acceptsRanges) {
+			this.size = size;
+			this.acceptsRanges = acceptsRanges;
+		}
+	}
+
+	/** @return {@link RemoteFileInfo} for <code>src</code>, obtained with a HEAD request */
+	private RemoteFileInfo queryRemoteFileInfo(URL src) throws IOException {
+		final HttpURLConnection conn = (HttpURLConnection) src.openConnection();
+		try {
+			conn.setRequestMethod("HEAD");
+			if (conn.getResponseCode() != HttpURLConnection.HTTP_OK)
+				return new RemoteFileInfo(-1, false); // e.g., HEAD not supported, just try GET later
+			return new RemoteFileInfo(conn.getContentLengthLong(),
+					"bytes".equals(conn.getHeaderField("Accept-Ranges")));
+		} finally {
+			conn.disconnect();
+		}
+	}
+
+	/**
+	 * Download bytes <code>[begin, end)</code> of <code>src</code> to <code>dest</code> over HTTP, resuming after the
+	 * bytes already in <code>dest</code>.
+	 *
+	 * @param end
+	 *            end of the range, <code>-1</code> for the end of the file
+	 * @param wholeFile
+	 *            whether the range is the whole file, the download is restarted if the server does not support range
+	 *            requests
+	 */
+	private void downloadRange(URL src, File dest, long begin, long end, boolean wholeFile, Progress progress)
+			throws IOException {
+		long done = dest.exists() ? dest.length() : 0;
+		if (end != -1 && begin + done > end)
+			done = 0; // remote file got shorter, restart
+		else if (end != -1 && begin + done == end) {
+			progress.add(done); // already complete
+			return;
+		}
+
+		final HttpURLConnection conn = (HttpURLConnection) src.openConnection();
+		try {
+			if (begin + done > 0 || !wholeFile)
+				conn.setRequestProperty("Range", "bytes=" + (begin + done) + "-" + (end == -1 ? "" : (end - 1)));
+			final int status = conn.getResponseCode();
+			if (status == HttpURLConnection.HTTP_OK && done > 0 && wholeFile) {
+				LOGGER.info("Server does not support resuming the download of {}, restarting", src);
+				done = 0;
+			} else if (status == HttpURLConnection.HTTP_OK && !wholeFile) {
+				throw new IOException("Server does not support range requests for " + src);
+			} else if (status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_PARTIAL) {
+				throw new IOException("Unexpected HTTP status " + status + " for " + src);
+			}
+
+			progress.add(done);
+			try (InputStream in = new BufferedInputStream(conn.getInputStream());
+					OutputStream out = new FileOutputStream(dest, done > 0)) {
+				copy(in, out, progress);
+			}
+		} finally {
+			conn.disconnect();
+		}
+
+		if (end != -1 && dest.length() != end - begin)
+			throw new IOException("Incomplete download of " + src + ", expected " + (end - begin) + " bytes but got "
+					+ dest.length());
+	}
+
+	/**
+	 * Download of a byte range of a remote file, as {@link #downloadRange} and {@link #downloadFTPRange}
+	 */
+	private interface RangeDownload {
+		void download(URL src, File dest, long begin, long end, boolean wholeFile, Progress progress)
+				throws IOException;
+	}
+
+	/**
+	 * Download <code>src</code> in <code>numChunks</code> chunks in parallel, each into its own resumable file using
+	 * <code>rangeDownload</code>, and concatenate them to <code>dest</code>.
+	 */
+	private void downloadChunked(URL src, File dest, long size, int numChunks, Progress progress,
+			RangeDownload rangeDownload) throws IOException {
+		LOGGER.info("Downloading {} over {} connections", new Object[] { src, numChunks });
+		final long chunkSize = (size + numChunks - 1) / numChunks;
+
+		// Chunk file names contain the byte range so chunks are only resumed with the same layout
+		final List<File> chunkFiles = new ArrayList<>();
+		for (int i = 0; i < numChunks; ++i) {
+			final long begin = i * chunkSize;
+			final long end = Math.min(size, begin + chunkSize);
+			chunkFiles.add(new File(dest.getPath() + "." + begin + "-" + end));
+		}
+		final File[] staleFiles = dest.getParentFile().listFiles(
+				(dir, name) -> name.startsWith(dest.getName() + ".") && !chunkFiles.contains(new File(dir, name)));
+		if (staleFiles != null)
+			for (File file : staleFiles)
+				file.delete();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(numChunks,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("download-chunk-%d").build());
+		try {
+			final List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < numChunks; ++i) {
+				final long begin = i * chunkSize;
+				final long end = Math.min(size, begin + chunkSize);
+				final File chunkFile = chunkFiles.get(i);
+				futures.add(executor.submit(() -> {
+					rangeDownload.download(src, chunkFile, begin, end, false, progress);
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures)
+				future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException("Problem downloading chunk", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while downloading " + src);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		try (OutputStream out = new FileOutputStream(dest)) {
+			for (File chunkFile : chunkFiles)
+				Files.copy(chunkFile.toPath(), out);
+		}
+		for (File chunkFile : chunkFiles)
+			chunkFile.delete();
+	}
+
+	/**
+	 * Download <code>src</code> through {@link URLConnection} without resuming, for protocols other than HTTP, HTTPS,
+	 * and FTP
+	 */
+	private void copyStream(URL src, File dest) throws IOException {
+		final URLConnection connection = src.openConnection();
+		final Progress progress = new Progress(connection.getContentLengthLong());
+		try (InputStream in = new BufferedInputStream(connection.getInputStream());
+				OutputStream out = new FileOutputStream(dest)) {
+			copy(in, out, progress);
+		}
+		progress.finish();
+	}
+
+	/** Copy all of <code>in</code> to <code>out</code>, updating <code>progress</code> */
+	private static void copy(InputStream in, OutputStream out, Progress progress) throws IOException {
+		copy(in, out, progress, -1);
+	}
+
+	/**
+	 * Copy <code>maxCount</code> bytes of <code>in</code> to <code>out</code> (all for <code>-1</code>), updating
+	 * <code>progress</code>
+	 */
+	private static void copy(InputStream in, OutputStream out, Progress progress, long maxCount) throws IOException {
+		byte buffer[] = new byte[BUFFER_SIZE];
+		long remaining = (maxCount == -1) ? Long.MAX_VALUE : maxCount;
+		int readCount;
+		while (remaining > 0 && (readCount = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+			out.write(buffer, 0, readCount);
+			progress.add(readCount);
+			remaining -= readCount;
+		}
+	}
+
+	/**
+	 * Thread-safe progress display for one file, shared by the connections of chunked downloads
+	 */
+	private final class Progress {
+
+		/** the progress bar to print to, <code>null</code> if not printing or the size is unknown */
+		private final ProgressBar pb;
+		/** number of bytes downloaded */
+		private final AtomicLong pos = new AtomicLong();
+
+		Progress(long fileSize) {
+			if (!options.printProgressBar)
+				this.pb = null;
+			else if (fileSize == -1) {
 				LOGGER.info("(server did not tell us the file size, no progress bar)");
+				this.pb = null;
+			} else {
+				this.pb = new ProgressBar(0, fileSize, true);
+				this.pb.print(0);
+			}
+		}
 
-			// Download file.
-			byte buffer[] = new byte[128 * 1024];
-			int readCount;
-			long pos = 0;
+		/** Add <code>count</code> bytes to the progress */
+		void add(long count) {
+			final long value = pos.addAndGet(count);
 			if (pb != null)
-				pb.print(pos);
+				synchronized (this) {
+					pb.print(value);
+				}
+		}
 
-			while ((readCount = in.read(buffer)) > 0) {
-				out.write(buffer, 0, readCount);
-				pos += readCount;
-				if (pb != null)
-					pb.print(pos);
-			}
-			in.close();
-			out.close();
-			if (pb != null && pos != pb.getMax())
-				pb.print(fileSize);
-		} catch (IOException e) {
-			throw new FileDownloadException("ERROR: Problem downloading file: " + e.getMessage());
+		/** Mark download as complete */
+		synchronized void finish() {
+			if (pb != null && pos.get() != pb.getMax())
+				pb.print(pb.getMax());
 		}
-		return true;
+
 	}
 
 	/**
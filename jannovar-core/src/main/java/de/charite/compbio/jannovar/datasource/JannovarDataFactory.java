@@ -8,6 +8,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 
 import org.ini4j.Profile.Section;
@@ -15,8 +21,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataPatch;
+import de.charite.compbio.jannovar.data.JannovarDataPatcher;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
 import de.charite.compbio.jannovar.datasource.FileDownloader.ProxyOptions;
 import de.charite.compbio.jannovar.impl.parse.ReferenceDictParser;
@@ -73,43 +82,179 @@ public abstract class JannovarDataFactory {
 	public final JannovarData build(String downloadDir, boolean printProgressBars)
 			throws InvalidDataSourceException, TranscriptParseException, FileDownloadException {
 		String targetDir = PathUtil.join(downloadDir, dataSource.getName());
+		downloadFiles(targetDir, printProgressBars);
 
-		FileDownloader downloader = new FileDownloader(buildOptions(printProgressBars));
+		ReferenceDictionary refDict = parseReferenceDictionary(targetDir);
+		LOGGER.info("Parsing transcripts...");
+		ImmutableList<TranscriptModel> transcripts = parseTranscripts(refDict, targetDir);
+
+		return new JannovarData(refDict, transcripts);
+	}
+
+	/**
+	 * Build {@link JannovarData} by patching an existing one, reusing unchanged transcripts and interval trees.
+	 *
+	 * The input files are downloaded and parsed as for {@link #build}, the result is then compared with
+	 * <code>base</code> using {@link JannovarDataPatcher}.
+	 *
+	 * @param downloadDir
+	 *            path of directory to download files to
+	 * @param printProgressBars
+	 *            whether or not to print progress bars
+	 * @param base
+	 *            the existing {@link JannovarData} to patch
+	 * @return {@link JannovarDataPatch} with the patched {@link JannovarData} and the change report
+	 * @throws InvalidDataSourceException
+	 *             on problems with the data source or data source file
+	 * @throws TranscriptParseException
+	 *             on problems with processing the transcript and reference dictionary data
+	 * @throws FileDownloadException
+	 *             on problems while downloading files.
+	 */
+	public final JannovarDataPatch buildPatch(String downloadDir, boolean printProgressBars, JannovarData base)
+			throws InvalidDataSourceException, TranscriptParseException, FileDownloadException {
+		String targetDir = PathUtil.join(downloadDir, dataSource.getName());
+		downloadFiles(targetDir, printProgressBars);
+
+		ReferenceDictionary refDict = parseReferenceDictionary(targetDir);
+		LOGGER.info("Parsing transcripts...");
+		ImmutableList<TranscriptModel> transcripts = parseTranscripts(refDict, targetDir);
+
+		LOGGER.info("Comparing transcripts with existing database...");
+		JannovarDataPatch patch = new JannovarDataPatcher(base).patch(refDict, transcripts);
+		LOGGER.info("{} transcripts added, {} removed, {} changed, {} unchanged; reused {} of {} chromosomes",
+				new Object[] { patch.getAdded().size(), patch.getRemoved().size(), patch.getChanged().size(),
+						patch.getNumUnchanged(), patch.getNumReusedChromosomes(),
+						patch.getData().getChromosomes().size() });
+		return patch;
+	}
+
+	/**
+	 * Download all files of {@link #dataSource} into <code>targetDir</code>, in parallel if configured.
+	 *
+	 * @throws FileDownloadException
+	 *             on problems while downloading files.
+	 */
+	private void downloadFiles(String targetDir, boolean printProgressBars) throws FileDownloadException {
+		// Progress bars of parallel downloads would garble each other
+		final int numThreads = Math.max(1, options.getDownloadThreads());
+		FileDownloader downloader = new FileDownloader(buildOptions(printProgressBars && numThreads == 1));
 
 		// Download files.
 		LOGGER.info("Downloading data...");
+		final ChecksumManifest manifest = loadChecksumManifest(downloader, targetDir);
+		if (numThreads == 1) {
+			for (String url : dataSource.getDownloadURLs())
+				downloadFile(downloader, manifest, url, targetDir);
+		} else {
+			final ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("download-%d").build());
+			try {
+				final List<Future<Void>> futures = new ArrayList<>();
+				for (String url : dataSource.getDownloadURLs())
+					futures.add(executor.submit(() -> {
+						downloadFile(downloader, manifest, url, targetDir);
+						return null;
+					}));
+				for (Future<Void> future : futures)
+					future.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof FileDownloadException)
+					throw (FileDownloadException) e.getCause();
+				throw new FileDownloadException("Problem downloading file", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new FileDownloadException("Interrupted while downloading", e);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+	}
+
+	/**
+	 * Parse files for building the {@link ReferenceDictionary}.
+	 *
+	 * @throws TranscriptParseException
+	 *             on problems with processing the reference dictionary data
+	 */
+	private ReferenceDictionary parseReferenceDictionary(String targetDir) throws TranscriptParseException {
+		LOGGER.info("Building ReferenceDictionary...");
+		final String chromInfoPath = PathUtil.join(targetDir, dataSource.getFileName("chromInfo"));
+		final String chrToAccessionsPath = PathUtil.join(targetDir, dataSource.getFileName("chrToAccessions"));
+		ReferenceDictParser dictParser = new ReferenceDictParser(chromInfoPath, chrToAccessionsPath, iniSection);
+		return dictParser.parse();
+	}
+
+	/**
+	 * Download file from <code>url</code> into <code>targetDir</code>, if not present yet, and check it.
+	 *
+	 * The file is checked against <code>manifest</code> if given. An existing file with wrong checksum (e.g., from an
+	 * interrupted download with an older version) is downloaded again.
+	 *
+	 * @throws FileDownloadException
+	 *             on problems with downloading or checking the file
+	 */
+	private void downloadFile(FileDownloader downloader, ChecksumManifest manifest, String url, String targetDir)
+			throws FileDownloadException {
+		LOGGER.info("Downloading {}", url);
+		final File dest;
 		try {
-			for (String url : dataSource.getDownloadURLs()) {
-				LOGGER.info("Downloading {}", url);
-				URL src = new URL(url);
-				String fileName = new File(src.getPath()).getName();
-				File dest = new File(PathUtil.join(targetDir, fileName));
-				downloader.copyURLToFile(src, dest);
+			URL src = new URL(url);
+			dest = new File(PathUtil.join(targetDir, new File(src.getPath()).getName()));
+			final boolean downloaded = downloader.copyURLToFile(src, dest);
 
-				if (dest.getName().endsWith(".gz")) {
-					checkGZ(dest);
-					LOGGER.info("Downloaded file {} looks like a valid gzip'ed file", new Object[] { dest.getName() });
-				}
+			if (manifest != null && !manifest.verify(dest)) {
+				if (downloaded)
+					throw new FileDownloadException("Checksum of downloaded file " + dest.getAbsolutePath()
+							+ " does not match the checksum manifest");
+				LOGGER.info("Checksum of existing file {} does not match, downloading again", dest.getName());
+				if (!dest.delete())
+					throw new FileDownloadException("Could not delete file " + dest.getAbsolutePath());
+				downloader.copyURLToFile(src, dest);
+				if (!manifest.verify(dest))
+					throw new FileDownloadException("Checksum of downloaded file " + dest.getAbsolutePath()
+							+ " does not match the checksum manifest");
 			}
+			if (manifest != null && manifest.hasChecksum(dest))
+				LOGGER.info("Checksum of file {} is correct", dest.getName());
 		} catch (MalformedURLException e) {
 			throw new FileDownloadException("Invalid URL.", e);
 		}
 
-		// Parse files for building ReferenceDictionary objects.
-		LOGGER.info("Building ReferenceDictionary...");
-		final String chromInfoPath = PathUtil.join(downloadDir, dataSource.getName(),
-				dataSource.getFileName("chromInfo"));
-		final String chrToAccessionsPath = PathUtil.join(downloadDir, dataSource.getName(),
-				dataSource.getFileName("chrToAccessions"));
-		ReferenceDictParser dictParser = new ReferenceDictParser(chromInfoPath, chrToAccessionsPath, iniSection);
-		ReferenceDictionary refDict = dictParser.parse();
-		// refDict.print(System.err);
+		if (dest.getName().endsWith(".gz")) {
+			checkGZ(dest);
+			LOGGER.info("Downloaded file {} looks like a valid gzip'ed file", new Object[] { dest.getName() });
+		}
+	}
 
-		// Parse transcript files.
-		LOGGER.info("Parsing transcripts...");
-		ImmutableList<TranscriptModel> transcripts = parseTranscripts(refDict, targetDir);
+	/**
+	 * Download and load checksum manifest for the files of the data source, if configured with the key
+	 * <code>checksums</code> in {@link #iniSection}.
+	 *
+	 * @return {@link ChecksumManifest} or <code>null</code> if no manifest is configured
+	 * @throws FileDownloadException
+	 *             on problems with downloading or reading the manifest
+	 */
+	private ChecksumManifest loadChecksumManifest(FileDownloader downloader, String targetDir)
+			throws FileDownloadException {
+		final String url = iniSection.fetch("checksums");
+		if (url == null || url.equals(""))
+			return null;
 
-		return new JannovarData(refDict, transcripts);
+		LOGGER.info("Downloading checksum manifest {}", url);
+		try {
+			URL src = new URL(url);
+			File dest = new File(PathUtil.join(targetDir, new File(src.getPath()).getName()));
+			// the manifest changes with the data files, so an existing copy is never reused or resumed
+			for (File file : new File[] { dest, new File(dest.getPath() + FileDownloader.PART_SUFFIX) })
+				if (file.exists() && !file.delete())
+					throw new FileDownloadException("Could not remove old checksum manifest " + file);
+			downloader.copyURLToFile(src, dest);
+			return new ChecksumManifest(dest);
+		} catch (MalformedURLException e) {
+			throw new FileDownloadException("Invalid URL.", e);
+		}
 	}
 
 	/**
@@ -144,6 +289,7 @@ public abstract class JannovarDataFactory {
 
 		// Get proxy settings from options.
 		result.printProgressBar = printProgressBars;
+		result.connectionsPerFile = options.getConnectionsPerFile();
 		updateProxyOptions(result.http, options.getHTTPProxy());
 		updateProxyOptions(result.https, options.getHTTPSProxy());
 		updateProxyOptions(result.ftp, options.getFTPProxy());
@@ -7,11 +7,11 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 
 import de.charite.compbio.jannovar.Immutable;
 import de.charite.compbio.jannovar.JannovarException;
+import de.charite.compbio.jannovar.impl.util.FieldSplitter;
 
 // TODO(holtgrewe): test me
 
@@ -35,11 +35,29 @@ public class HGNCParser {
 	}
 
 	/** @return entry in the given index or the empty string */
-	private static String getField(String[] arr, int idx) {
-		if (idx >= arr.length)
+	private static String getField(FieldSplitter arr, int idx) {
+		if (idx >= arr.size() || arr.length(idx) == 0)
 			return "";
 		else
-			return arr[idx];
+			return arr.get(idx);
+	}
+
+	/** @return pipe-separated values of the quoted entry at the given index or the entry itself */
+	private static ImmutableList<String> getListField(FieldSplitter arr, FieldSplitter values, int idx) {
+		if (idx >= arr.size())
+			return ImmutableList.of("");
+		final int beginPos = arr.getBegin(idx);
+		final int endPos = arr.getEnd(idx);
+		final String line = arr.getLine();
+		if (endPos - beginPos >= 2 && line.charAt(beginPos) == '"' && line.charAt(endPos - 1) == '"') {
+			ImmutableList.Builder<String> builder = new ImmutableList.Builder<String>();
+			final int n = values.split(line, beginPos + 1, endPos - 1);
+			for (int i = 0; i < n; ++i)
+				builder.add(values.get(i));
+			return builder.build();
+		} else {
+			return ImmutableList.of(getField(arr, idx));
+		}
 	}
 
 	/**
@@ -51,6 +69,8 @@ public class HGNCParser {
 		ImmutableList.Builder<HGNCRecord> result = new ImmutableList.Builder<HGNCRecord>();
 
 		Map<String, Integer> header = null;
+		final FieldSplitter arr = new FieldSplitter('\t');
+		final FieldSplitter values = new FieldSplitter('|');
 
 		try (BufferedReader br = new BufferedReader(new FileReader(path))) {
 			String line;
@@ -65,21 +85,21 @@ public class HGNCParser {
 						header.put(s, i++);
 				} else {
 					// parse fields
-					final String[] arr = line.split("\t");
+					arr.split(line);
 					final String hgncID = getField(arr, header.get("hgnc_id"));
 					final String symbol = getField(arr, header.get("symbol"));
 					final String name = getField(arr, header.get("name"));
-					final ImmutableList<String> aliasSymbols = splitField(getField(arr, header.get("alias_symbol")));
-					final ImmutableList<String> prevSymbols = splitField(getField(arr, header.get("prev_symbol")));
+					final ImmutableList<String> aliasSymbols = getListField(arr, values, header.get("alias_symbol"));
+					final ImmutableList<String> prevSymbols = getListField(arr, values, header.get("prev_symbol"));
 					final String entrezID = getField(arr, header.get("entrez_id"));
 					final String ensemblGeneID = getField(arr, header.get("ensembl_gene_id"));
 					final String vegaID = getField(arr, header.get("vega_id"));
 					final String ucscID = getField(arr, header.get("ucsc_id"));
 					final String enaID = getField(arr, header.get("ena"));
 					final String refseqAccession = getField(arr, header.get("refseq_accession"));
-					final ImmutableList<String> ccdsIDs = splitField(getField(arr, header.get("ccds_id")));
-					final ImmutableList<String> uniprotIDs = splitField(getField(arr, header.get("uniprot_ids")));
-					final ImmutableList<String> pubmedIDs = splitField(getField(arr, header.get("pubmed_id")));
+					final ImmutableList<String> ccdsIDs = getListField(arr, values, header.get("ccds_id"));
+					final ImmutableList<String> uniprotIDs = getListField(arr, values, header.get("uniprot_ids"));
+					final ImmutableList<String> pubmedIDs = getListField(arr, values, header.get("pubmed_id"));
 					final String mgdID = getField(arr, header.get("mgd_id"));
 					final String rgdID = getField(arr, header.get("rgd_id"));
 					final String cosmicID = getField(arr, header.get("cosmic"));
@@ -99,13 +119,4 @@ public class HGNCParser {
 		return result.build();
 	}
 
-	private static ImmutableList<String> splitField(String f) {
-		if (f.startsWith("\"") && f.endsWith("\"")) {
-			f = f.substring(1, f.length() - 1);
-			return ImmutableList.copyOf(Splitter.on('|').split(f));
-		} else {
-			return ImmutableList.of(f);
-		}
-	}
-
 }
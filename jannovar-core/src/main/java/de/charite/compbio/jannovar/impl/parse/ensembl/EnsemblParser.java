@@ -189,8 +189,9 @@ public class EnsemblParser implements TranscriptParser {
 		// Factorize the records by the transcript ID
 		final HashMap<String, ArrayList<FeatureRecord>> recordsForTX = new HashMap<>();
 		for (FeatureRecord record : records) {
-			final String txID = (record.getAttributes().get("transcript_id") != null)
-					? record.getAttributes().get("transcript_id") : record.getAttributes().get("transcript_name");
+			String txID = record.getAttribute("transcript_id");
+			if (txID == null)
+				txID = record.getAttribute("transcript_name");
 			if (txID == null)
 				continue; // skip, no transcript ID
 			if (!recordsForTX.containsKey(txID))
@@ -204,9 +205,9 @@ public class EnsemblParser implements TranscriptParser {
 			final List<FeatureRecord> featureRecords = txEntry.getValue();
 
 			final FeatureRecord first = featureRecords.get(0);
-			final String geneName = first.getAttributes().get("gene_name");
-			final String geneID = first.getAttributes().get("gene_id");
-			final String txID = first.getAttributes().get("transcript_id");
+			final String geneName = first.getAttribute("gene_name");
+			final String geneID = first.getAttribute("gene_id");
+			final String txID = first.getAttribute("transcript_id");
 
 			final TranscriptModelBuilder builder = new TranscriptModelBuilder();
 
@@ -297,7 +298,7 @@ public class EnsemblParser implements TranscriptParser {
 				LOGGER.debug("Loaded GFF record {}", new Object[] { record });
 				numRecords += 1;
 
-				final String geneID = record.getAttributes().get("gene_id");
+				final String geneID = record.getAttribute("gene_id");
 				if (!result.containsKey(geneID))
 					result.put(geneID, Lists.newArrayList(record));
 				else
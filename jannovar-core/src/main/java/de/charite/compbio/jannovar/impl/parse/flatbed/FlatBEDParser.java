@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableList;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
 import de.charite.compbio.jannovar.impl.parse.TranscriptParseException;
 import de.charite.compbio.jannovar.impl.parse.TranscriptParser;
+import de.charite.compbio.jannovar.impl.util.FieldSplitter;
 import de.charite.compbio.jannovar.impl.util.PathUtil;
 import de.charite.compbio.jannovar.reference.GenomeInterval;
 import de.charite.compbio.jannovar.reference.Strand;
@@ -102,26 +103,28 @@ public class FlatBEDParser implements TranscriptParser {
 		ArrayList<TranscriptModelBuilder> result = new ArrayList<>();
 
 		try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+			final FieldSplitter arr = new FieldSplitter('\t');
 			String line;
 			while ((line = br.readLine()) != null) {
-				String[] arr = line.trim().split("\t");
-				if (!arr[5].equals("+") && !arr[5].equals("-"))
-					throw new RuntimeException("Invalid strand value " + arr[5]);
-
-				Strand strand = (arr[5] == "+") ? Strand.FWD : Strand.REV;
-				int chr = refDict.getContigNameToID().get(arr[0]);
-				int beginPos = Integer.parseInt(arr[1]);
-				int endPos = Integer.parseInt(arr[2]);
+				arr.split(line.trim());
+				if (!arr.fieldEquals(5, "+") && !arr.fieldEquals(5, "-"))
+					throw new RuntimeException("Invalid strand value " + arr.get(5));
+
+				Strand strand = arr.fieldEquals(5, "+") ? Strand.FWD : Strand.REV;
+				int chr = refDict.getContigNameToID().get(arr.get(0));
+				int beginPos = arr.getInt(1);
+				int endPos = arr.getInt(2);
 				GenomeInterval itv = new GenomeInterval(refDict, Strand.FWD, chr, beginPos, endPos).withStrand(strand);
 
+				final String name = arr.get(3);
 				TranscriptModelBuilder builder = new TranscriptModelBuilder();
 				builder.setStrand(strand);
-				builder.setAccession(arr[3]);
-				builder.setGeneSymbol(arr[3]);
+				builder.setAccession(name);
+				builder.setGeneSymbol(name);
 				builder.setTXRegion(itv);
 				builder.setCDSRegion(itv);
 				builder.addExonRegion(itv);
-				builder.setGeneID(arr[3]);
+				builder.setGeneID(name);
 				builder.setTranscriptSupportLevel(-1);
 
 				result.add(builder);
@@ -10,6 +10,9 @@ import com.google.common.collect.ImmutableSortedMap;
  * Immutable class for describing a record from a GFF or GTF file.
  * 
  * When comparing, features on the forward strand come before features on the reverse strand.
+ *
+ * Records created by a {@link FeatureRecordParser} keep the attributes field of the line and decode it only when the
+ * attributes are requested. {@link #getAttribute} decodes the value of a single attribute only.
  * 
  * @author <a href="mailto:manuel.holtgrewe@bihealth.de">Manuel Holtgrewe</a>
  */
@@ -47,9 +50,15 @@ public final class FeatureRecord implements Comparable<FeatureRecord> {
 	/** Record's phase, 0, 1, or 2 */
 	private final int phase;
 
-	/** Record's attributes */
+	/** Record's attributes, <code>null</code> if {@link #rawAttributes} has not been decoded yet */
 	private ImmutableMap<String, String> attributes;
 
+	/** Attributes field from the parsed line, <code>null</code> if {@link #attributes} was given */
+	private final String rawAttributes;
+
+	/** Parser for decoding {@link #rawAttributes} */
+	private final FeatureRecordParser attributeParser;
+
 	/**
 	 * Initialize the <code>GFFRecord</code>
 	 */
@@ -64,12 +73,46 @@ public final class FeatureRecord implements Comparable<FeatureRecord> {
 		this.strand = strand;
 		this.phase = phase;
 		this.attributes = ImmutableMap.copyOf(attributes);
+		this.rawAttributes = null;
+		this.attributeParser = null;
+	}
+
+	/**
+	 * Initialize the <code>GFFRecord</code> with attributes that are decoded on request
+	 */
+	FeatureRecord(String seqID, String source, String type, int begin, int end, String score, Strand strand,
+			int phase, String rawAttributes, FeatureRecordParser attributeParser) {
+		this.seqID = seqID;
+		this.source = source;
+		this.type = type;
+		this.begin = begin;
+		this.end = end;
+		this.score = score;
+		this.strand = strand;
+		this.phase = phase;
+		this.attributes = null;
+		this.rawAttributes = rawAttributes;
+		this.attributeParser = attributeParser;
 	}
 
 	public ImmutableMap<String, String> getAttributes() {
+		if (attributes == null)
+			attributes = ImmutableMap.copyOf(attributeParser.parseAttributes(rawAttributes));
 		return attributes;
 	}
 
+	/**
+	 * @param key
+	 *            the key of the attribute
+	 * @return value of the attribute <code>key</code>, <code>null</code> if there is no such attribute
+	 */
+	public String getAttribute(String key) {
+		if (attributes != null)
+			return attributes.get(key);
+		else
+			return attributeParser.parseAttribute(rawAttributes, key);
+	}
+
 	public void setAttributes(ImmutableMap<String, String> attributes) {
 		this.attributes = attributes;
 	}
@@ -110,14 +153,14 @@ public final class FeatureRecord implements Comparable<FeatureRecord> {
 	public String toString() {
 		return "FeatureRecord [seqID=" + seqID + ", source=" + source + ", type=" + type + ", begin=" + begin + ", end="
 				+ end + ", score=" + score + ", strand=" + strand + ", phase=" + phase + ", attributes="
-				+ ImmutableSortedMap.copyOf(attributes) + "]";
+				+ ImmutableSortedMap.copyOf(getAttributes()) + "]";
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((attributes == null) ? 0 : attributes.hashCode());
+		result = prime * result + getAttributes().hashCode();
 		result = prime * result + begin;
 		result = prime * result + end;
 		result = prime * result + phase;
@@ -138,10 +181,7 @@ public final class FeatureRecord implements Comparable<FeatureRecord> {
 		if (getClass() != obj.getClass())
 			return false;
 		FeatureRecord other = (FeatureRecord) obj;
-		if (attributes == null) {
-			if (other.attributes != null)
-				return false;
-		} else if (!attributes.equals(other.attributes))
+		if (!getAttributes().equals(other.getAttributes()))
 			return false;
 		if (begin != other.begin)
 			return false;
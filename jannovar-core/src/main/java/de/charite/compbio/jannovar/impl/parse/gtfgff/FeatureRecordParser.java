@@ -5,6 +5,8 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.charite.compbio.jannovar.impl.util.FieldSplitter;
+
 /**
  * Abstract base class for GTF/GFF record parsers.
  * 
@@ -14,40 +16,60 @@ public abstract class FeatureRecordParser {
 
 	protected static final Logger LOGGER = LoggerFactory.getLogger(GFFRecordParser.class);
 
+	/** Splitter for the tab-separated fields, reused for all lines */
+	private final FieldSplitter fields = new FieldSplitter('\t');
+
 	/**
 	 * Parse the line and return the corresponding {@link FeatureRecord}
+	 *
+	 * The attributes are not parsed here but by the {@link FeatureRecord} when they are requested.
 	 */
 	public FeatureRecord parseLine(String line) {
 		LOGGER.debug("Parsing GFF line\t{}", new Object[] { line });
-	
-		String[] arr = line.trim().split("\\t");
-		if (arr.length != 9)
+
+		final FieldSplitter arr = fields;
+		if (arr.split(line.trim()) != 9)
 			throw new RuntimeException("Wrong number of fields in GFF file!");
-	
-		final String chrom = arr[0];
-		final String source = arr[1];
-		final String type = arr[2];
-		final int beginPos = Integer.parseInt(arr[3]) - 1;
-		final int endPos = Integer.parseInt(arr[4]);
-		final String score = arr[5];
-		FeatureRecord.Strand strand = arr[6].equals("+") ? FeatureRecord.Strand.FORWARD : FeatureRecord.Strand.REVERSE;
-	
+
+		final String chrom = arr.get(0);
+		final String source = arr.get(1);
+		final String type = arr.get(2);
+		final int beginPos = arr.getInt(3) - 1;
+		final int endPos = arr.getInt(4);
+		final String score = arr.get(5);
+		FeatureRecord.Strand strand = arr.fieldEquals(6, "+") ? FeatureRecord.Strand.FORWARD
+				: FeatureRecord.Strand.REVERSE;
+
 		int phase = 0;
 		try {
-			if (!arr[7].equals("."))
-				phase = Integer.parseInt(arr[7]);
+			if (!arr.fieldEquals(7, "."))
+				phase = arr.getInt(7);
 		} catch (NumberFormatException e) {
-			LOGGER.warn("Invalid phase {}", new Object[] { arr[7] });
+			LOGGER.warn("Invalid phase {}", new Object[] { arr.get(7) });
 		}
 		if (phase < 0 || phase > 3)
 			phase = 0;
-	
+
 		FeatureRecord result = new FeatureRecord(chrom, source, type, beginPos, endPos, score, strand, phase,
-				parseAttributes(arr[8]));
+				arr.get(8), this);
 		LOGGER.debug("Resulting record is {}", new Object[] { result });
 		return result;
 	}
 
+	/**
+	 * @param string
+	 *            the attributes field of a line
+	 * @return map with all attributes
+	 */
 	protected abstract Map<String, String> parseAttributes(String string);
 
-}
\ No newline at end of file
+	/**
+	 * @param string
+	 *            the attributes field of a line
+	 * @param key
+	 *            the key of the attribute to parse
+	 * @return value of the attribute <code>key</code>, <code>null</code> if there is no such attribute
+	 */
+	protected abstract String parseAttribute(String string, String key);
+
+}
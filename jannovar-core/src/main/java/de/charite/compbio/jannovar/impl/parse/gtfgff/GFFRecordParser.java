@@ -33,4 +33,44 @@ public class GFFRecordParser extends FeatureRecordParser {
 		return result;
 	}
 
+	/**
+	 * Parse value of GFF attribute <code>key</code> without splitting the other attributes
+	 */
+	@Override
+	protected String parseAttribute(String string, String key) {
+		String result = null;
+		final int len = string.length();
+		int pos = 0;
+		while (pos <= len) {
+			int end = string.indexOf(';', pos);
+			if (end == -1)
+				end = len;
+			final int eqPos = string.indexOf('=', pos);
+			if (eqPos != -1 && eqPos < end) {
+				final int keyBegin = skipWhitespace(string, pos, eqPos);
+				final int keyEnd = trimWhitespace(string, keyBegin, eqPos);
+				if (keyEnd - keyBegin == key.length() && string.regionMatches(keyBegin, key, 0, key.length())) {
+					final int valueBegin = skipWhitespace(string, eqPos + 1, end);
+					result = string.substring(valueBegin, trimWhitespace(string, valueBegin, end));
+				}
+			}
+			pos = end + 1;
+		}
+		return result;
+	}
+
+	/** @return first position in <code>[beginPos, endPos)</code> that is no whitespace, or <code>endPos</code> */
+	private static int skipWhitespace(String string, int beginPos, int endPos) {
+		while (beginPos < endPos && Character.isWhitespace(string.charAt(beginPos)))
+			++beginPos;
+		return beginPos;
+	}
+
+	/** @return end position of <code>[beginPos, endPos)</code> after removing trailing whitespace */
+	private static int trimWhitespace(String string, int beginPos, int endPos) {
+		while (endPos > beginPos && Character.isWhitespace(string.charAt(endPos - 1)))
+			--endPos;
+		return endPos;
+	}
+
 }
@@ -23,12 +23,40 @@ public class GTFRecordParser extends FeatureRecordParser {
 	@Override
 	protected Map<String, String> parseAttributes(String string) {
 		Map<String, String> result = new HashMap<>();
+		scanAttributes(string, null, result);
+		return result;
+	}
+
+	/**
+	 * Parse value of GTF attribute <code>key</code>
+	 */
+	@Override
+	protected String parseAttribute(String string, String key) {
+		Map<String, String> result = new HashMap<>();
+		scanAttributes(string, key, result);
+		return result.get(key);
+	}
 
+	/**
+	 * Scan GTF attributes and put them into <code>result</code>
+	 *
+	 * @param string
+	 *            the attributes field of the GTF line
+	 * @param onlyKey
+	 *            if not <code>null</code>, only the value for this key is decoded and put into <code>result</code>
+	 * @param result
+	 *            map to put the attributes into
+	 */
+	private static void scanAttributes(String string, String onlyKey, Map<String, String> result) {
 		StringBuilder key = new StringBuilder();
 		StringBuilder value = new StringBuilder();
 		State state = State.INITIAL;
+		// whether the value of the current key is to be decoded
+		boolean wanted = false;
 
-		for (char c : string.toCharArray()) {
+		final int len = string.length();
+		for (int i = 0; i < len; ++i) {
+			final char c = string.charAt(i);
 			switch (state) {
 			case INITIAL:
 				if (Character.isWhitespace(c)) {
@@ -41,6 +69,7 @@ public class GTFRecordParser extends FeatureRecordParser {
 			case KEY:
 				if (Character.isWhitespace(c)) {
 					state = State.VALUE;
+					wanted = (onlyKey == null || onlyKey.contentEquals(key));
 				} else {
 					key.append(c);
 				}
@@ -49,11 +78,12 @@ public class GTFRecordParser extends FeatureRecordParser {
 				if (c == '"') {
 					state = State.VALUE_QUOTED;
 				} else if (c == ';') {
-					result.put(key.toString(), value.toString());
+					if (wanted)
+						result.put(key.toString(), value.toString());
 					key.setLength(0);
 					value.setLength(0);
 					state = State.INITIAL;
-				} else {
+				} else if (wanted) {
 					value.append(c);
 				}
 				break;
@@ -62,12 +92,14 @@ public class GTFRecordParser extends FeatureRecordParser {
 					state = State.VALUE_QUOTED_ESCAPED;
 				} else if (c == '"') {
 					state = State.VALUE;
-				} else {
+				} else if (wanted) {
 					value.append(c);
 				}
 				break;
 			case VALUE_QUOTED_ESCAPED:
-				if (c == '"') {
+				if (!wanted) {
+					break;
+				} else if (c == '"') {
 					value.append(c);
 				} else {
 					value.append('"');
@@ -76,10 +108,8 @@ public class GTFRecordParser extends FeatureRecordParser {
 			}
 		}
 
-		if (key.length() > 0)
+		if (key.length() > 0 && (onlyKey == null || onlyKey.contentEquals(key)))
 			result.put(key.toString(), value.toString());
-
-		return result;
 	}
 
-}
\ No newline at end of file
+}
@@ -204,15 +204,16 @@ public class RefSeqParser implements TranscriptParser {
 			// We will later assign exons and CDS features to tx level features, but exons can also be part of a gene
 			// only
 			if (TX_LEVEL_FEATURE_TYPES.contains(record.getType()) || "gene".equals(record.getType())) {
-				mrnaRecords.put(record.getAttributes().get("ID"), record);
-				recordsForMRNA.put(record.getAttributes().get("ID"), new ArrayList<FeatureRecord>());
+				final String id = record.getAttribute("ID");
+				mrnaRecords.put(id, record);
+				recordsForMRNA.put(id, new ArrayList<FeatureRecord>());
 			}
 		}
 
 		// Factorize the GFFRecords by mRNA
 		for (FeatureRecord record : records) {
 			if (record.getType().equals("exon") || record.getType().equals("CDS")) {
-				for (String parent : Splitter.on(',').split(record.getAttributes().get("Parent"))) {
+				for (String parent : Splitter.on(',').split(record.getAttribute("Parent"))) {
 					if (recordsForMRNA.get(parent) != null)
 						recordsForMRNA.get(parent).add(record);
 				}
@@ -231,8 +232,8 @@ public class RefSeqParser implements TranscriptParser {
 			final Strand strand = (mrnaRecord.getStrand() == FeatureRecord.Strand.FORWARD) ? Strand.FWD : Strand.REV;
 			builder.setStrand(strand);
 			builder.setAccession(mrnaID);
-			builder.setGeneSymbol(geneRecord.getAttributes().get("Name"));
-			final String mrnaName = mrnaRecord.getAttributes().get("Name");
+			builder.setGeneSymbol(geneRecord.getAttribute("Name"));
+			final String mrnaName = mrnaRecord.getAttribute("Name");
 			builder.setSequence(mrnaName);
 			parseGeneID(builder, geneRecord);
 
@@ -302,9 +303,10 @@ public class RefSeqParser implements TranscriptParser {
 	 *            {@link FeatureRecord} with the gene information
 	 */
 	private void parseGeneID(TranscriptModelBuilder builder, FeatureRecord geneRecord) {
-		if (!geneRecord.getAttributes().containsKey("Dbxref"))
+		final String dbxref = geneRecord.getAttribute("Dbxref");
+		if (dbxref == null)
 			return;
-		for (String token : Splitter.on(',').split(geneRecord.getAttributes().get("Dbxref"))) {
+		for (String token : Splitter.on(',').split(dbxref)) {
 			List<String> keyValue = Splitter.on(':').limit(2).splitToList(token);
 			if (keyValue.size() != 2)
 				continue;
@@ -342,7 +344,7 @@ public class RefSeqParser implements TranscriptParser {
 			FeatureRecord record;
 			while ((record = parser.next()) != null) {
 				LOGGER.debug("Loaded GFF record {}", new Object[] { record });
-				final String id = record.getAttributes().get("ID");
+				final String id = record.getAttribute("ID");
 				numRecords += 1;
 				if ("gene".equals(record.getType())) {
 					LOGGER.debug("-> new gene {}", new Object[] { id });
@@ -350,7 +352,7 @@ public class RefSeqParser implements TranscriptParser {
 					assert !result.containsKey(id);
 					result.put(id, Lists.newArrayList(record));
 				} else {
-					final String parent = record.getAttributes().get("Parent");
+					final String parent = record.getAttribute("Parent");
 					if (parent == null)
 						continue; // ignore
 					final String top = featureToGene.get(parent);
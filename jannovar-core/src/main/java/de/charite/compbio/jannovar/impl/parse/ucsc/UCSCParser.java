@@ -27,6 +27,7 @@ import de.charite.compbio.jannovar.hgnc.AltGeneIDType;
 import de.charite.compbio.jannovar.impl.parse.TranscriptParseException;
 import de.charite.compbio.jannovar.impl.parse.TranscriptParser;
 import de.charite.compbio.jannovar.impl.parse.TranscriptSupportLevelsSetterFromLengths;
+import de.charite.compbio.jannovar.impl.util.FieldSplitter;
 import de.charite.compbio.jannovar.impl.util.PathUtil;
 import de.charite.compbio.jannovar.reference.GenomeInterval;
 import de.charite.compbio.jannovar.reference.PositionType;
@@ -109,6 +110,12 @@ public class UCSCParser implements TranscriptParser {
 	 */
 	private HashMap<String, TranscriptModelBuilder> knownGeneMap;
 
+	/** Splitter for the tab-separated fields of the parsed files, reused for all lines */
+	private final FieldSplitter fields = new FieldSplitter('\t');
+
+	/** Splitter for the comma-separated exon begin and end positions, reused for all lines */
+	private final FieldSplitter exonFields = new FieldSplitter(',');
+
 	/**
 	 * @param refDict
 	 *            path to {@link ReferenceDictionary} to use for name/id and id/length mapping.
@@ -222,40 +229,39 @@ public class UCSCParser implements TranscriptParser {
 	 */
 	public TranscriptModelBuilder parseTranscriptModelFromLine(String line) throws TranscriptParseException {
 		TranscriptModelBuilder tib = new TranscriptModelBuilder();
-		String A[] = line.split("\t");
-		if (A.length != NFIELDS) {
+		final FieldSplitter A = fields;
+		if (A.split(line) != NFIELDS) {
 			String error = String.format(
 					"Malformed line in UCSC knownGene.txt file:\n%s\nExpected %d fields but there were %d", line,
-					NFIELDS, A.length);
+					NFIELDS, A.size());
 			throw new TranscriptParseException(error);
 		}
 		/* Field 0 has the accession number, e.g., uc010nxr.1. */
-		tib.setAccession(A[0]);
+		tib.setAccession(A.get(0));
 		tib.setGeneSymbol(tib.getAccession()); // will be replaced when parsing
 												// geneXref file.
-		Integer chrID = refDict.getContigNameToID().get(A[1]);
+		Integer chrID = refDict.getContigNameToID().get(A.get(1));
 		if (chrID == null) // scaffolds such as chrUn_gl000243 cause Exception
 							// to be thrown.
-			throw new TranscriptParseException("Could not parse chromosome field: " + A[1]);
+			throw new TranscriptParseException("Could not parse chromosome field: " + A.get(1));
 
-		char strandC = A[2].charAt(0);
-		if (strandC != '+' && strandC != '-') {
-			throw new TranscriptParseException("Malformed strand: " + A[2]);
+		if (A.length(2) == 0 || (A.charAt(2, 0) != '+' && A.charAt(2, 0) != '-')) {
+			throw new TranscriptParseException("Malformed strand: " + A.get(2));
 		}
-		Strand strand = (strandC == '+') ? Strand.FWD : Strand.REV;
+		Strand strand = (A.charAt(2, 0) == '+') ? Strand.FWD : Strand.REV;
 		tib.setStrand(strand);
 
 		int txStart, txEnd;
 		try {
-			txStart = Integer.parseInt(A[3]) + 1; // +1 to convert to one-based
-													// fully closed numbering
+			txStart = A.getInt(3) + 1; // +1 to convert to one-based
+										// fully closed numbering
 		} catch (NumberFormatException e) {
-			throw new TranscriptParseException("Could not parse txStart:" + A[3]);
+			throw new TranscriptParseException("Could not parse txStart:" + A.get(3));
 		}
 		try {
-			txEnd = Integer.parseInt(A[4]);
+			txEnd = A.getInt(4);
 		} catch (NumberFormatException e) {
-			throw new TranscriptParseException("Could not parse txEnd:" + A[4]);
+			throw new TranscriptParseException("Could not parse txEnd:" + A.get(4));
 		}
 		tib.setTXRegion(
 				new GenomeInterval(refDict, Strand.FWD, chrID.intValue(), txStart, txEnd, PositionType.ONE_BASED)
@@ -263,59 +269,60 @@ public class UCSCParser implements TranscriptParser {
 
 		int cdsStart, cdsEnd;
 		try {
-			cdsStart = Integer.parseInt(A[5]) + 1;// +1 to convert to one-based
-													// fully closed numbering
+			cdsStart = A.getInt(5) + 1;// +1 to convert to one-based
+										// fully closed numbering
 		} catch (NumberFormatException e) {
-			throw new TranscriptParseException("Could not parse cdsStart:" + A[5]);
+			throw new TranscriptParseException("Could not parse cdsStart:" + A.get(5));
 		}
 		try {
-			cdsEnd = Integer.parseInt(A[6]);
+			cdsEnd = A.getInt(6);
 		} catch (NumberFormatException e) {
-			throw new TranscriptParseException("Could not parse cdsEnd:" + A[6]);
+			throw new TranscriptParseException("Could not parse cdsEnd:" + A.get(6));
 		}
 		tib.setCDSRegion(
 				new GenomeInterval(refDict, Strand.FWD, chrID.intValue(), cdsStart, cdsEnd, PositionType.ONE_BASED)
 						.withStrand(strand));
 
 		// Get number of exons.
-		short exonCount;
+		int exonCount;
 		try {
-			exonCount = Short.parseShort(A[7]);
+			exonCount = A.getInt(7);
 		} catch (NumberFormatException e) {
-			throw new TranscriptParseException("Could not parse exonCount:" + A[7]);
+			throw new TranscriptParseException("Could not parse exonCount:" + A.get(7));
 		}
+		if (exonCount < 0 || exonCount > Short.MAX_VALUE)
+			throw new TranscriptParseException("Could not parse exonCount:" + A.get(7));
 
 		/* Now parse the exon ends and starts */
 		int[] exonStarts = new int[exonCount];
 		/** End positions of each of the exons of this transcript */
 		int[] exonEnds = new int[exonCount];
-		String starts = A[8];
-		String ends = A[9];
-		String B[] = starts.split(",");
-		if (B.length != exonCount) {
+		final FieldSplitter B = exonFields;
+		if (B.split(line, A.getBegin(8), A.getEnd(8)) != exonCount) {
 			String error = String.format("[UCSCKGParser] Malformed exonStarts list: found %d but I expected %d exons",
-					B.length, exonCount);
+					B.size(), exonCount);
 			error = String.format("%s. This should never happen, the knownGene.txt file may be corrupted", error);
 			throw new TranscriptParseException(error);
 		}
 		for (int i = 0; i < exonCount; ++i) {
 			try {
-				exonStarts[i] = Integer.parseInt(B[i]) + 1; // Change 0-based to
-															// 1-based numbering
+				exonStarts[i] = B.getInt(i) + 1; // Change 0-based to
+													// 1-based numbering
 			} catch (NumberFormatException e) {
 				String error = String.format("[UCSCKGParser] Malformed exon start at position %d of line %s", i,
-						starts);
+						A.get(8));
 				error = String.format("%s. This should never happen, the knownGene.txt file may be corrupted", error);
 				throw new TranscriptParseException(error);
 			}
 		}
 		// Now do the ends.
-		B = ends.split(",");
+		B.split(line, A.getBegin(9), A.getEnd(9));
 		for (int i = 0; i < exonCount; ++i) {
 			try {
-				exonEnds[i] = Integer.parseInt(B[i]);
-			} catch (NumberFormatException e) {
-				String error = String.format("[UCSCKGParser] Malformed exon end at position %d of line %s", i, ends);
+				exonEnds[i] = B.getInt(i);
+			} catch (NumberFormatException | IndexOutOfBoundsException e) {
+				String error = String.format("[UCSCKGParser] Malformed exon end at position %d of line %s", i,
+						A.get(9));
 				error = String.format("%s. This should never happen, the knownGene.txt file may be corrupted", error);
 				throw new TranscriptParseException(error);
 			}
@@ -389,13 +396,13 @@ public class UCSCParser implements TranscriptParser {
 			int notFoundID = 0;
 
 			while ((line = br.readLine()) != null) {
-				String A[] = line.split("\t");
-				if (A.length != 2) {
+				fields.split(line);
+				if (fields.size() != 2) {
 					String msg = String.format("Bad format for UCSC KnownToLocusLink.txt file: %s. "
-							+ "Got %d fields instead of the expected 2.", line, A.length);
+							+ "Got %d fields instead of the expected 2.", line, fields.size());
 					throw new TranscriptParseException(msg);
 				}
-				String id = A[0];
+				String id = fields.get(0);
 				TranscriptModelBuilder tbi = this.knownGeneMap.get(id);
 				if (tbi == null) {
 					/**
@@ -405,7 +412,7 @@ public class UCSCParser implements TranscriptParser {
 					continue;
 				}
 				foundID++;
-				tbi.setGeneID(A[1]);
+				tbi.setGeneID(fields.get(1));
 			}
 			br.close();
 			LOGGER.info("knownToLocusLink contained ids for {} knownGenes (no ids available for {})", foundID,
@@ -443,13 +450,13 @@ public class UCSCParser implements TranscriptParser {
 			int notFoundID = 0;
 
 			while ((line = br.readLine()) != null) {
-				String A[] = line.split("\t");
-				if (A.length != 6) {
+				fields.split(line);
+				if (fields.size() != 6) {
 					String msg = String.format("Bad format for UCSC knownCanonicalPath.txt file: %s. "
-							+ "Got %d fields instead of the expected 6.", line, A.length);
+							+ "Got %d fields instead of the expected 6.", line, fields.size());
 					throw new TranscriptParseException(msg);
 				}
-				final String primaryTranscriptID = A[5];
+				final String primaryTranscriptID = fields.get(5);
 				TranscriptModelBuilder tbi = this.knownGeneMap.get(primaryTranscriptID);
 				if (tbi != null)
 					tbi.setTranscriptSupportLevel(TranscriptSupportLevels.UCSC_CANONICAL);
@@ -481,15 +488,15 @@ public class UCSCParser implements TranscriptParser {
 			int foundSequence = 0;
 
 			while ((line = br.readLine()) != null) {
-				String A[] = line.split("\t");
-				if (A.length != 2) {
+				fields.split(line);
+				if (fields.size() != 2) {
 					String msg = String.format("Bad format for UCSC KnownToLocusLink.txt file: %s. "
-							+ "Got %d fields instead of the expected 2.", line, A.length);
+							+ "Got %d fields instead of the expected 2.", line, fields.size());
 					throw new TranscriptParseException(msg);
 				}
 
-				String id = A[0];
-				String seq = A[1].toUpperCase();
+				String id = fields.get(0);
+				String seq = fields.get(1).toUpperCase();
 				TranscriptModelBuilder tbi = this.knownGeneMap.get(id);
 				if (tbi == null) {
 					/**
@@ -554,14 +561,14 @@ public class UCSCParser implements TranscriptParser {
 			while ((line = br.readLine()) != null) {
 				if (line.startsWith("#"))
 					continue; /* Skip comment line */
-				String A[] = line.split("\t");
-				if (A.length < 8) {
+				fields.split(line);
+				if (fields.size() < 8) {
 					err = String.format("Error, malformed ucsc xref line: %s\nExpected 8 fields but got %d", line,
-							A.length);
+							fields.size());
 					throw new TranscriptParseException(err);
 				}
-				String transcriptID = A[0];
-				String geneSymbol = A[4];
+				String transcriptID = fields.get(0);
+				String geneSymbol = fields.get(4);
 				TranscriptModelBuilder tbi = this.knownGeneMap.get(transcriptID);
 				if (tbi == null) {
 					/**
@@ -21,7 +21,8 @@ public final class DNAUtils {
 		if (sq.isEmpty())
 			return sq; // deletion, insertion do not need rc
 
-		StringBuffer sb = new StringBuffer();
+		final char[] buffer = new char[sq.length()];
+		int len = 0;
 		for (int i = sq.length() - 1; i >= 0; i--) {
 			char c = sq.charAt(i);
 			char match = 0;
@@ -43,9 +44,48 @@ public final class DNAUtils {
 				break;
 			}
 			if (match > 0)
-				sb.append(match);
+				buffer[len++] = match;
+		}
+		return new String(buffer, 0, len);
+	}
+
+	/**
+	 * Check whether <code>lhs</code> is the reverse complement of <code>rhs</code> without building the reverse
+	 * complement string.
+	 *
+	 * Characters other than <code>A</code>, <code>C</code>, <code>G</code>, and <code>T</code> are compared as they
+	 * are.
+	 *
+	 * @param lhs
+	 *            first upper-case DNA string
+	 * @param rhs
+	 *            second upper-case DNA string
+	 * @return <code>true</code> if <code>lhs</code> is the reverse complement of <code>rhs</code>
+	 */
+	public static boolean isReverseComplement(String lhs, String rhs) {
+		final int len = lhs.length();
+		if (len != rhs.length())
+			return false;
+		for (int i = 0; i < len; ++i)
+			if (lhs.charAt(i) != complement(rhs.charAt(len - i - 1)))
+				return false;
+		return true;
+	}
+
+	/** @return complement of <code>c</code>, <code>c</code> if not in <code>"ACGT"</code> */
+	private static char complement(char c) {
+		switch (c) {
+		case 'A':
+			return 'T';
+		case 'C':
+			return 'G';
+		case 'G':
+			return 'C';
+		case 'T':
+			return 'A';
+		default:
+			return c;
 		}
-		return sb.toString();
 	}
 
 }
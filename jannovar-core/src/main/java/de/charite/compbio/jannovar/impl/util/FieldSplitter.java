@@ -0,0 +1,176 @@
+package de.charite.compbio.jannovar.impl.util;
+
+import java.util.Arrays;
+
+/**
+ * Splitting of lines into fields at a delimiter character without creating substrings for each field.
+ *
+ * After calling {@link #split}, only the begin and end positions of the fields are stored. Fields are converted to
+ * {@link String}s or integers on request only, integers are parsed in place. Objects of this class are meant to be
+ * reused for all lines of a file and are thus not thread-safe.
+ */
+public final class FieldSplitter {
+
+	/** the delimiter between fields */
+	private final char delimiter;
+
+	/** the last line that was split */
+	private String line = "";
+
+	/** begin positions of the fields in {@link #line} */
+	private int[] begins = new int[16];
+
+	/** end positions of the fields in {@link #line} */
+	private int[] ends = new int[16];
+
+	/** number of fields */
+	private int size = 0;
+
+	/**
+	 * Initialize splitter
+	 *
+	 * @param delimiter
+	 *            the character between fields
+	 */
+	public FieldSplitter(char delimiter) {
+		this.delimiter = delimiter;
+	}
+
+	/**
+	 * Split <code>line</code> into fields
+	 *
+	 * @param line
+	 *            the line to split
+	 * @return number of fields
+	 */
+	public int split(String line) {
+		return split(line, 0, line.length());
+	}
+
+	/**
+	 * Split the range <code>[beginPos, endPos)</code> of <code>line</code> into fields
+	 *
+	 * As in {@link String#split}, empty fields at the end are removed if the range contains the delimiter.
+	 *
+	 * @param line
+	 *            the line to split
+	 * @param beginPos
+	 *            begin position of the range in <code>line</code>
+	 * @param endPos
+	 *            end position of the range in <code>line</code>
+	 * @return number of fields
+	 */
+	public int split(String line, int beginPos, int endPos) {
+		this.line = line;
+		this.size = 0;
+		int fieldBegin = beginPos;
+		for (int i = beginPos; i < endPos; ++i) {
+			if (line.charAt(i) == delimiter) {
+				add(fieldBegin, i);
+				fieldBegin = i + 1;
+			}
+		}
+		add(fieldBegin, endPos);
+		if (size > 1)
+			while (size > 0 && begins[size - 1] == ends[size - 1])
+				--size;
+		return size;
+	}
+
+	/** Append field <code>[beginPos, endPos)</code> */
+	private void add(int beginPos, int endPos) {
+		if (size == begins.length) {
+			begins = Arrays.copyOf(begins, 2 * size);
+			ends = Arrays.copyOf(ends, 2 * size);
+		}
+		begins[size] = beginPos;
+		ends[size] = endPos;
+		++size;
+	}
+
+	/** @return the last line that was split */
+	public String getLine() {
+		return line;
+	}
+
+	/** @return number of fields */
+	public int size() {
+		return size;
+	}
+
+	/** @return begin position of field <code>i</code> in {@link #getLine} */
+	public int getBegin(int i) {
+		checkIndex(i);
+		return begins[i];
+	}
+
+	/** @return end position of field <code>i</code> in {@link #getLine} */
+	public int getEnd(int i) {
+		checkIndex(i);
+		return ends[i];
+	}
+
+	/** @return length of field <code>i</code> */
+	public int length(int i) {
+		checkIndex(i);
+		return ends[i] - begins[i];
+	}
+
+	/** @return character <code>pos</code> of field <code>i</code> */
+	public char charAt(int i, int pos) {
+		if (pos < 0 || pos >= length(i))
+			throw new IndexOutOfBoundsException("Position " + pos + " is not in field " + i + " of length " + length(i));
+		return line.charAt(begins[i] + pos);
+	}
+
+	/** @return field <code>i</code> as a {@link String} */
+	public String get(int i) {
+		checkIndex(i);
+		return line.substring(begins[i], ends[i]);
+	}
+
+	/** @return whether field <code>i</code> equals <code>s</code> */
+	public boolean fieldEquals(int i, String s) {
+		return length(i) == s.length() && line.regionMatches(begins[i], s, 0, s.length());
+	}
+
+	/**
+	 * Parse field <code>i</code> as a decimal integer with optional sign, without creating a {@link String}
+	 *
+	 * @return the value of field <code>i</code>
+	 * @throws NumberFormatException
+	 *             if the field is no valid integer
+	 */
+	public int getInt(int i) {
+		checkIndex(i);
+		int pos = begins[i];
+		final int end = ends[i];
+		boolean negative = false;
+		if (pos < end && (line.charAt(pos) == '-' || line.charAt(pos) == '+'))
+			negative = (line.charAt(pos++) == '-');
+		if (pos == end)
+			throw new NumberFormatException("For input string: \"" + get(i) + "\"");
+
+		long result = 0;
+		for (; pos < end; ++pos) {
+			final int digit = line.charAt(pos) - '0';
+			if (digit < 0 || digit > 9)
+				throw new NumberFormatException("For input string: \"" + get(i) + "\"");
+			result = 10 * result + digit;
+			if (result > (long) Integer.MAX_VALUE + 1)
+				throw new NumberFormatException("For input string: \"" + get(i) + "\"");
+		}
+		if (negative)
+			result = -result;
+		if (result > Integer.MAX_VALUE)
+			throw new NumberFormatException("For input string: \"" + get(i) + "\"");
+		return (int) result;
+	}
+
+	/** @throws IndexOutOfBoundsException if <code>i</code> is no valid field index */
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException("Field " + i + " does not exist, line has " + size + " fields");
+	}
+
+}
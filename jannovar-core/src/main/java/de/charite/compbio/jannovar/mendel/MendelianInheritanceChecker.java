@@ -1,24 +1,22 @@
 package de.charite.compbio.jannovar.mendel;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 
 import de.charite.compbio.jannovar.Immutable;
-import de.charite.compbio.jannovar.mendel.impl.AbstractMendelianChecker;
-import de.charite.compbio.jannovar.mendel.impl.MendelianCheckerAD;
-import de.charite.compbio.jannovar.mendel.impl.MendelianCheckerAR;
-import de.charite.compbio.jannovar.mendel.impl.MendelianCheckerXD;
-import de.charite.compbio.jannovar.mendel.impl.MendelianCheckerXR;
+import de.charite.compbio.jannovar.mendel.impl.MendelianCompatibilityEvaluator;
 import de.charite.compbio.jannovar.pedigree.Pedigree;
-import de.charite.compbio.jannovar.pedigree.PedigreeQueryDecorator;
 
 /**
  * Facade class for checking lists of {@link GenotypeCalls} for compatibility with mendelian inheritance
- * 
+ *
+ * All modes of inheritance are evaluated together by a {@link MendelianCompatibilityEvaluator}, classifying each
+ * genotype call only once.
+ *
  * @author <a href="mailto:manuel.holtgrewe@bihealth.de">Manuel Holtgrewe</a>
  */
 @Immutable
@@ -26,32 +24,23 @@ public final class MendelianInheritanceChecker {
 
 	/** Pedigree to use for mendelian inheritance checking */
 	final private Pedigree pedigree;
-	/** Helper for querying a pedigree */
-	final private PedigreeQueryDecorator queryPed;
-	/** Mendelian compatibility checker for each mode of inheritance */
-	final private ImmutableMap<ModeOfInheritance, AbstractMendelianChecker> checkers;
+	/** Combined mendelian compatibility evaluation for all modes of inheritance */
+	final private MendelianCompatibilityEvaluator evaluator;
 
 	/**
 	 * Construct checker with the pedigree to use
-	 * 
+	 *
 	 * @param pedigree
 	 *            The pedigree to use for the mendelian inheritance checking
 	 */
 	public MendelianInheritanceChecker(Pedigree pedigree) {
 		this.pedigree = pedigree;
-		this.queryPed = new PedigreeQueryDecorator(pedigree);
-
-		ImmutableMap.Builder<ModeOfInheritance, AbstractMendelianChecker> builder = new ImmutableMap.Builder<>();
-		builder.put(ModeOfInheritance.AUTOSOMAL_DOMINANT, new MendelianCheckerAD(this));
-		builder.put(ModeOfInheritance.AUTOSOMAL_RECESSIVE, new MendelianCheckerAR(this));
-		builder.put(ModeOfInheritance.X_DOMINANT, new MendelianCheckerXD(this));
-		builder.put(ModeOfInheritance.X_RECESSIVE, new MendelianCheckerXR(this));
-		this.checkers = builder.build();
+		this.evaluator = new MendelianCompatibilityEvaluator(pedigree);
 	}
 
 	/**
 	 * Perform checking for compatible mode of inheritance
-	 * 
+	 *
 	 * @param calls
 	 *            {@link Collection} of {@link GenotypeCalls} objects to perform the mode of inheritance check for
 	 * @return {@link Map} that, for each {@link ModeOfInheritance}, contains the {@link Collection} of compatible
@@ -61,36 +50,52 @@ public final class MendelianInheritanceChecker {
 	 */
 	public ImmutableMap<ModeOfInheritance, ImmutableList<GenotypeCalls>> checkMendelianInheritance(
 			Collection<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		final ImmutableList<GenotypeCalls> callList = ImmutableList.copyOf(calls);
+		final int[] masks = evaluator.evaluate(callList);
+
 		ImmutableMap.Builder<ModeOfInheritance, ImmutableList<GenotypeCalls>> builder = new ImmutableMap.Builder<>();
-		for (ModeOfInheritance mode : ModeOfInheritance.values())
-			if (mode != ModeOfInheritance.ANY)
-				builder.put(mode, filterCompatibleRecords(calls, mode));
-			else
-				builder.put(mode, ImmutableList.copyOf(calls));
+		for (ModeOfInheritance mode : ModeOfInheritance.values()) {
+			if (mode == ModeOfInheritance.ANY) {
+				builder.put(mode, callList);
+				continue;
+			}
+			ImmutableList.Builder<GenotypeCalls> listBuilder = new ImmutableList.Builder<>();
+			for (int i = 0; i < masks.length; ++i)
+				if (mode.isSetIn(masks[i]))
+					listBuilder.add(callList.get(i));
+			builder.put(mode, listBuilder.build());
+		}
 		return builder.build();
 	}
 
 	/**
-	 * Filters records in <code>calls</code> for compatibility with <code>mode</code>
-	 * 
+	 * Perform checking for compatible modes of inheritance, returning a compact bit mask for each entry
+	 *
 	 * @param calls
-	 *            List of {@link GenotypeCalls} to filter
-	 * @param mode
-	 *            {@link ModeOfInheritance} to check for
-	 * @return List of {@link GenotypeCalls} from <code>calls</code> that are compatible with <code>mode</code>
+	 *            {@link List} of {@link GenotypeCalls} objects to perform the mode of inheritance check for
+	 * @return array with one bit mask of compatible modes for each entry of <code>calls</code>, to be queried with
+	 *         {@link ModeOfInheritance#isSetIn(int)}
 	 * @throws IncompatiblePedigreeException
 	 *             if the individuals in <code>calls</code> do not fit to the pedigree
 	 */
-	private ImmutableList<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls,
-			ModeOfInheritance mode) throws IncompatiblePedigreeException {
-		// Check for compatibility of calls with pedigree
-		if (!calls.stream().allMatch(c -> isCompatibleWithPedigree(c)))
-			throw new IncompatiblePedigreeException("GenotypeCalls not compatible with pedigree");
-		// Filter down to the compatible records
-		if (mode == ModeOfInheritance.ANY)
-			return ImmutableList.copyOf(calls);
-		else
-			return checkers.get(mode).filterCompatibleRecords(calls);
+	public int[] computeCompatibleModeMasks(List<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		return evaluator.evaluate(calls);
+	}
+
+	/**
+	 * Perform checking for compatible modes of inheritance on genotypes that have already been classified
+	 *
+	 * @param chromTypes
+	 *            the {@link ChromosomeType} of each record
+	 * @param states
+	 *            for each record, the state code of each pedigree member as computed by
+	 *            {@link MendelianCompatibilityEvaluator#classify} or {@link MendelianCompatibilityEvaluator#classifyGT},
+	 *            in the order of {@link Pedigree#getMembers()}
+	 * @return array with one bit mask of compatible modes for each record, to be queried with
+	 *         {@link ModeOfInheritance#isSetIn(int)}
+	 */
+	public int[] computeCompatibleModeMasks(ChromosomeType[] chromTypes, byte[][] states) {
+		return evaluator.evaluateStates(chromTypes, states);
 	}
 
 	/** @return {@link Pedigree} to use */
@@ -98,11 +103,4 @@ public final class MendelianInheritanceChecker {
 		return pedigree;
 	}
 
-	/**
-	 * @return <code>true</code> if <code>call</code> is compatible with this pedigree
-	 */
-	private boolean isCompatibleWithPedigree(GenotypeCalls calls) {
-		return pedigree.getNames().containsAll(calls.getSampleNames());
-	}
-
 }
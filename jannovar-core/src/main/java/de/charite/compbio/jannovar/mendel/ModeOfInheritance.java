@@ -34,4 +34,18 @@ public enum ModeOfInheritance {
 		}
 	}
 
+	/** @return bit for this ModeOfInheritance in compatibility bit masks */
+	public int getBitMask() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * @param mask
+	 *            bit mask of compatible modes, as built from {@link #getBitMask()}
+	 * @return <code>true</code> if the bit of this ModeOfInheritance is set in <code>mask</code>
+	 */
+	public boolean isSetIn(int mask) {
+		return (mask & getBitMask()) != 0;
+	}
+
 }
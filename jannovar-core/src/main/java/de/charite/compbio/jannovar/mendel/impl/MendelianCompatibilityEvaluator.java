@@ -0,0 +1,635 @@
+package de.charite.compbio.jannovar.mendel.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.mendel.ChromosomeType;
+import de.charite.compbio.jannovar.mendel.Genotype;
+import de.charite.compbio.jannovar.mendel.GenotypeCalls;
+import de.charite.compbio.jannovar.mendel.IncompatiblePedigreeException;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.pedigree.Disease;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.pedigree.PedigreeQueryDecorator;
+import de.charite.compbio.jannovar.pedigree.Person;
+import de.charite.compbio.jannovar.pedigree.Sex;
+
+/**
+ * Combined evaluation of all modes of inheritance for a list of {@link GenotypeCalls}
+ *
+ * Each {@link Genotype} is classified exactly once into a state code (a combination of the <code>STATE_*</code> flags),
+ * stored in one <code>byte</code> per pedigree member. The compatibility with autosomal dominant, autosomal recessive
+ * (homozygous and compound heterozygous), X dominant, and X recessive inheritance is then derived from these codes.
+ * The result is a bit mask for each {@link GenotypeCalls} object, see {@link ModeOfInheritance#getBitMask()}.
+ *
+ * <h2>Compatibility Check</h2>
+ *
+ * In short, the following rules are applied:
+ *
+ * <ul>
+ * <li><b>AD</b>: all affected individuals must be heterozygous and no unaffected individual may carry the variant.</li>
+ * <li><b>AR (hom.)</b>: all affected individuals must be homozygous alt, unaffected parents of affected individuals
+ * must be heterozygous and no unaffected individual may be homozygous alt.</li>
+ * <li><b>AR (comp. het.)</b>: pairs of variants that are inherited from different parents in trios around affected
+ * individuals and are not present in the same way in unaffected individuals.</li>
+ * <li><b>XD</b>: as AD, but hemizygous (hom. alt.) calls are allowed for non-female affected individuals.</li>
+ * <li><b>XR</b>: all affected individuals must be homozygous (or hemizygous), mothers of affected females must be
+ * carriers and unaffected individuals may not be homozygous (or hemizygous). Compound heterozygous X-recessive
+ * inheritance is only considered for singleton pedigrees of non-male individuals.</li>
+ * </ul>
+ *
+ * The mapping from the sample names of the {@link GenotypeCalls} to the pedigree members is precomputed for calls
+ * with the samples in the order of {@link Pedigree#getMembers()}, as built when restricting the calls to the
+ * pedigree, and only resolved for each call otherwise.
+ */
+@Immutable
+public final class MendelianCompatibilityEvaluator {
+
+	/** State flag for hom. ref. genotypes, may be combined with {@link #STATE_HET} for half-calls */
+	public static final byte STATE_HOM_REF = 1;
+	/** State flag for het. genotypes */
+	public static final byte STATE_HET = 2;
+	/** State flag for hom. alt. genotypes, may be combined with {@link #STATE_HET} for half-calls */
+	public static final byte STATE_HOM_ALT = 4;
+	/** State flag for not observed genotypes (all no-call) */
+	public static final byte STATE_NOT_OBSERVED = 8;
+
+	/** Bit for autosomal dominant compatibility */
+	private static final int AD = ModeOfInheritance.AUTOSOMAL_DOMINANT.getBitMask();
+	/** Bit for autosomal recessive compatibility */
+	private static final int AR = ModeOfInheritance.AUTOSOMAL_RECESSIVE.getBitMask();
+	/** Bit for X dominant compatibility */
+	private static final int XD = ModeOfInheritance.X_DOMINANT.getBitMask();
+	/** Bit for X recessive compatibility */
+	private static final int XR = ModeOfInheritance.X_RECESSIVE.getBitMask();
+	/** Bit for any mode, set for all calls */
+	private static final int ANY = ModeOfInheritance.ANY.getBitMask();
+
+	/** Pedigree to evaluate for */
+	private final Pedigree pedigree;
+	/** Number of members in {@link #pedigree} */
+	private final int nMembers;
+	/** Mapping from member name to index in {@link Pedigree#getMembers()} */
+	private final ImmutableMap<String, Integer> memberIdx;
+	/** Whether the member with the given index is affected */
+	private final boolean[] affected;
+	/** Whether the member with the given index is unaffected */
+	private final boolean[] unaffected;
+	/** Sex of the member with the given index */
+	private final Sex[] sex;
+	/** Index of father of the given member, <code>-1</code> if none */
+	private final int[] father;
+	/** Index of mother of the given member, <code>-1</code> if none */
+	private final int[] mother;
+	/** Indices of the unaffected siblings (same mother and father) of the given member */
+	private final int[][] unaffectedSiblings;
+	/** Whether the given member is an unaffected parent of an affected individual */
+	private final boolean[] unaffectedParentOfAffected;
+	/** Whether the given member is a parent of an affected female */
+	private final boolean[] parentOfAffectedFemale;
+
+	/** Mapping for calls with the samples in the order of {@link Pedigree#getMembers()} */
+	private final SampleMapping memberMapping;
+
+	/**
+	 * Construct evaluator and precompute the pedigree structure
+	 *
+	 * @param pedigree
+	 *            The {@link Pedigree} to use for evaluating
+	 */
+	public MendelianCompatibilityEvaluator(Pedigree pedigree) {
+		this.pedigree = pedigree;
+		final ImmutableList<Person> members = pedigree.getMembers();
+		this.nMembers = members.size();
+
+		ImmutableMap.Builder<String, Integer> idxBuilder = new ImmutableMap.Builder<>();
+		for (int i = 0; i < nMembers; ++i)
+			idxBuilder.put(members.get(i).getName(), i);
+		this.memberIdx = idxBuilder.build();
+		final int[] identity = new int[nMembers];
+		for (int i = 0; i < nMembers; ++i)
+			identity[i] = i;
+		this.memberMapping = new SampleMapping(pedigree.getNames(), identity);
+
+		this.affected = new boolean[nMembers];
+		this.unaffected = new boolean[nMembers];
+		this.sex = new Sex[nMembers];
+		this.father = new int[nMembers];
+		this.mother = new int[nMembers];
+		this.unaffectedParentOfAffected = new boolean[nMembers];
+		this.parentOfAffectedFemale = new boolean[nMembers];
+		for (int i = 0; i < nMembers; ++i) {
+			final Person p = members.get(i);
+			affected[i] = (p.getDisease() == Disease.AFFECTED);
+			unaffected[i] = (p.getDisease() == Disease.UNAFFECTED);
+			sex[i] = p.getSex();
+			father[i] = indexOf(p.getFather());
+			mother[i] = indexOf(p.getMother());
+		}
+		for (int i = 0; i < nMembers; ++i) {
+			if (!affected[i])
+				continue;
+			for (int parent : new int[] { father[i], mother[i] })
+				if (parent != -1) {
+					if (unaffected[parent])
+						unaffectedParentOfAffected[parent] = true;
+					if (sex[i] == Sex.FEMALE)
+						parentOfAffectedFemale[parent] = true;
+				}
+		}
+
+		final ImmutableMap<Person, ImmutableList<Person>> siblings = new PedigreeQueryDecorator(pedigree)
+				.buildSiblings();
+		this.unaffectedSiblings = new int[nMembers][];
+		for (int i = 0; i < nMembers; ++i) {
+			final ImmutableList<Person> sibs = siblings.get(members.get(i));
+			unaffectedSiblings[i] = (sibs == null) ? new int[0]
+					: sibs.stream().filter(s -> s.getDisease() == Disease.UNAFFECTED).mapToInt(this::indexOf)
+							.filter(x -> x != -1).toArray();
+		}
+	}
+
+	/** @return index of <code>person</code> in the pedigree, <code>-1</code> if <code>null</code> or not a member */
+	private int indexOf(Person person) {
+		if (person == null)
+			return -1;
+		final Integer idx = memberIdx.get(person.getName());
+		return (idx == null) ? -1 : idx;
+	}
+
+	/** @return the {@link Pedigree} used for the evaluation */
+	public Pedigree getPedigree() {
+		return pedigree;
+	}
+
+	/**
+	 * Compute compatible modes of inheritance for each of the given {@link GenotypeCalls}
+	 *
+	 * @param calls
+	 *            {@link List} of {@link GenotypeCalls} to evaluate, the calls are considered to be in the same gene,
+	 *            e.g., for compound heterozygous inheritance
+	 * @return array with one bit mask for each entry in <code>calls</code>, with the bits from
+	 *         {@link ModeOfInheritance#getBitMask()} set for compatible modes; {@link ModeOfInheritance#ANY} is always
+	 *         set
+	 * @throws IncompatiblePedigreeException
+	 *             if the individuals in <code>calls</code> do not fit to the pedigree
+	 */
+	public int[] evaluate(List<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		final int nCalls = calls.size();
+		final ChromosomeType[] chromTypes = new ChromosomeType[nCalls];
+		final byte[][] states = new byte[nCalls][];
+		for (int i = 0; i < nCalls; ++i) {
+			chromTypes[i] = calls.get(i).getChromType();
+			states[i] = buildStates(calls.get(i));
+		}
+		return evaluateStates(chromTypes, states);
+	}
+
+	/**
+	 * Compute compatible modes of inheritance for records whose genotypes have already been classified
+	 *
+	 * This allows callers to classify the genotypes directly from their input (e.g., the GT strings of a VCF line)
+	 * without building {@link GenotypeCalls} objects.
+	 *
+	 * @param chromTypes
+	 *            the {@link ChromosomeType} of each record
+	 * @param states
+	 *            for each record, the state code (see {@link #classify(Genotype)}) of each pedigree member, in the order
+	 *            of {@link Pedigree#getMembers()}
+	 * @return array with one bit mask for each record, as for {@link #evaluate(List)}
+	 */
+	public int[] evaluateStates(ChromosomeType[] chromTypes, byte[][] states) {
+		final int nCalls = states.length;
+		final int[] result = new int[nCalls];
+
+		// Single pass: evaluate the per-record modes
+		int nAutosomal = 0;
+		int nX = 0;
+		for (int i = 0; i < nCalls; ++i) {
+			final byte[] s = states[i];
+			result[i] = ANY;
+
+			if (chromTypes[i] == ChromosomeType.AUTOSOMAL) {
+				nAutosomal += 1;
+				if (isCompatibleAD(s))
+					result[i] |= AD;
+				if (isCompatibleARHom(s))
+					result[i] |= AR;
+			} else if (chromTypes[i] == ChromosomeType.X_CHROMOSOMAL) {
+				nX += 1;
+				if (isCompatibleXD(s))
+					result[i] |= XD;
+				if (isCompatibleXRHom(s))
+					result[i] |= XR;
+			}
+		}
+
+		// Compound heterozygous inheritance needs pairs of records
+		if (nAutosomal > 1) {
+			if (nMembers == 1)
+				markCompoundHetSingleton(chromTypes, states, ChromosomeType.AUTOSOMAL, AR, result);
+			else
+				markCompoundHetFamily(chromTypes, states, AR, result);
+		}
+		if (nX > 1 && nMembers == 1 && sex[0] != Sex.MALE)
+			markCompoundHetSingleton(chromTypes, states, ChromosomeType.X_CHROMOSOMAL, XR, result);
+
+		return result;
+	}
+
+	/**
+	 * Classify the genotypes of <code>gc</code> for each pedigree member
+	 *
+	 * @return array with the state code for each pedigree member, members without genotype are not observed
+	 * @throws IncompatiblePedigreeException
+	 *             if the individuals in <code>gc</code> do not fit to the pedigree
+	 */
+	private byte[] buildStates(GenotypeCalls gc) throws IncompatiblePedigreeException {
+		final int[] idx = getSampleMapping(gc.getSampleNames()).memberIdx;
+		final byte[] result = new byte[nMembers];
+		Arrays.fill(result, STATE_NOT_OBSERVED);
+		Iterator<Genotype> it = gc.getSampleToGenotype().values().iterator();
+		for (int i = 0; i < idx.length; ++i)
+			result[idx[i]] = classify(it.next());
+		return result;
+	}
+
+	/**
+	 * Compute state code of a {@link Genotype}, consistent with the <code>Genotype.is*()</code> functions
+	 *
+	 * @param gt
+	 *            {@link Genotype} to classify
+	 * @return combination of <code>STATE_*</code> flags
+	 */
+	public static byte classify(Genotype gt) {
+		final ImmutableList<Integer> alleles = gt.getAlleleNumbers();
+		final int ploidy = alleles.size();
+		final int[] buffer = new int[ploidy];
+		for (int i = 0; i < ploidy; ++i)
+			buffer[i] = alleles.get(i);
+		return classify(buffer, ploidy);
+	}
+
+	/**
+	 * Compute state code of a genotype given as a VCF GT string, without any allocation
+	 *
+	 * @param str
+	 *            the string that contains the GT value, e.g., a VCF line
+	 * @param begin
+	 *            begin position of the GT value in <code>str</code>
+	 * @param end
+	 *            end position of the GT value in <code>str</code>
+	 * @param buffer
+	 *            buffer for the allele numbers, genotypes with a higher ploidy than its length are not observed
+	 * @return combination of <code>STATE_*</code> flags, consistent with {@link #classify(Genotype)}
+	 */
+	public static byte classifyGT(CharSequence str, int begin, int end, int[] buffer) {
+		int ploidy = 0;
+		int pos = begin;
+		while (pos < end) {
+			if (ploidy == buffer.length)
+				return STATE_NOT_OBSERVED;
+			int allele = Genotype.NO_CALL;
+			if (str.charAt(pos) == '.') {
+				pos += 1;
+			} else {
+				final int start = pos;
+				allele = 0;
+				while (pos < end && str.charAt(pos) >= '0' && str.charAt(pos) <= '9')
+					allele = allele * 10 + (str.charAt(pos++) - '0');
+				if (pos == start)
+					return STATE_NOT_OBSERVED; // malformed
+			}
+			buffer[ploidy++] = allele;
+			if (pos < end) {
+				if (str.charAt(pos) != '/' && str.charAt(pos) != '|')
+					return STATE_NOT_OBSERVED; // malformed
+				pos += 1;
+			}
+		}
+		return classify(buffer, ploidy);
+	}
+
+	/**
+	 * Compute state code for the first <code>ploidy</code> allele numbers in <code>alleles</code>
+	 *
+	 * @param alleles
+	 *            allele numbers, {@link Genotype#NO_CALL} for no-calls
+	 * @param ploidy
+	 *            number of alleles to consider
+	 * @return combination of <code>STATE_*</code> flags, consistent with {@link #classify(Genotype)}
+	 */
+	public static byte classify(int[] alleles, int ploidy) {
+		boolean observed = false;
+		boolean anyRef = false;
+		boolean allRefOrNoCall = true;
+		boolean sameAlt = true;
+		int alt = Genotype.NO_CALL;
+		for (int i = 0; i < ploidy; ++i) {
+			final int a = alleles[i];
+			if (a == Genotype.NO_CALL)
+				continue;
+			observed = true;
+			if (a == Genotype.REF_CALL) {
+				anyRef = true;
+			} else {
+				allRefOrNoCall = false;
+				if (alt == Genotype.NO_CALL)
+					alt = a;
+				else if (alt != a)
+					sameAlt = false;
+			}
+		}
+		if (!observed)
+			return STATE_NOT_OBSERVED;
+
+		byte result = 0;
+		if (allRefOrNoCall)
+			result |= STATE_HOM_REF;
+		if (ploidy == 2 && alleles[0] != alleles[1])
+			result |= STATE_HET;
+		if (!anyRef && sameAlt)
+			result |= STATE_HOM_ALT;
+		return result;
+	}
+
+	/**
+	 * @return {@link SampleMapping} for <code>sampleNames</code>, the precomputed {@link #memberMapping} if the names
+	 *         are the pedigree members in order
+	 * @throws IncompatiblePedigreeException
+	 *             if a sample is not in the pedigree
+	 */
+	private SampleMapping getSampleMapping(ImmutableList<String> sampleNames) throws IncompatiblePedigreeException {
+		if (memberMapping.sampleNames.equals(sampleNames))
+			return memberMapping;
+
+		final int[] idx = new int[sampleNames.size()];
+		for (int i = 0; i < idx.length; ++i) {
+			final Integer x = memberIdx.get(sampleNames.get(i));
+			if (x == null)
+				throw new IncompatiblePedigreeException("GenotypeCalls not compatible with pedigree");
+			idx[i] = x;
+		}
+		return new SampleMapping(sampleNames, idx);
+	}
+
+	private static boolean is(byte state, byte flags) {
+		return (state & flags) != 0;
+	}
+
+	/** @return whether the states are compatible with autosomal dominant inheritance */
+	private boolean isCompatibleAD(byte[] s) {
+		if (nMembers == 1)
+			return is(s[0], STATE_HET);
+
+		int numAffectedWithHet = 0;
+		for (int i = 0; i < nMembers; ++i) {
+			if (affected[i]) {
+				if (is(s[i], (byte) (STATE_HOM_REF | STATE_HOM_ALT)))
+					return false;
+				else if (is(s[i], STATE_HET))
+					numAffectedWithHet++;
+			} else if (unaffected[i]) {
+				if (is(s[i], (byte) (STATE_HET | STATE_HOM_ALT)))
+					return false;
+			}
+		}
+		return (numAffectedWithHet > 0);
+	}
+
+	/** @return whether the states are compatible with autosomal recessive homozygous inheritance */
+	private boolean isCompatibleARHom(byte[] s) {
+		if (nMembers == 1)
+			return is(s[0], STATE_HOM_ALT);
+
+		int numHomozygousAlt = 0;
+		for (int i = 0; i < nMembers; ++i) {
+			if (affected[i]) {
+				if (is(s[i], (byte) (STATE_HOM_REF | STATE_HET)))
+					return false;
+				else if (is(s[i], STATE_HOM_ALT))
+					numHomozygousAlt += 1;
+			} else if (unaffected[i] && is(s[i], STATE_HOM_ALT)) {
+				return false;
+			}
+			if (unaffectedParentOfAffected[i] && is(s[i], (byte) (STATE_HOM_REF | STATE_HOM_ALT)))
+				return false;
+		}
+		return (numHomozygousAlt > 0);
+	}
+
+	/** @return whether the states are compatible with X dominant inheritance */
+	private boolean isCompatibleXD(byte[] s) {
+		if (nMembers == 1) {
+			if (sex[0] == Sex.FEMALE)
+				return is(s[0], STATE_HET);
+			else
+				return is(s[0], (byte) (STATE_HET | STATE_HOM_ALT));
+		}
+
+		int numAffectedWithVar = 0;
+		for (int i = 0; i < nMembers; ++i) {
+			final boolean female = (sex[i] == Sex.FEMALE);
+			if (affected[i]) {
+				// We do not allow hom. alternative for females to have the same behaviour as AD for females, but
+				// allow heterozygous in the case of mis-calls in the one X copy in males or unknown sex
+				if (is(s[i], STATE_HOM_REF) || (female && is(s[i], STATE_HOM_ALT)))
+					return false;
+				else if (is(s[i], female ? STATE_HET : (byte) (STATE_HET | STATE_HOM_ALT)))
+					numAffectedWithVar++;
+			} else if (unaffected[i]) {
+				if (is(s[i], (byte) (STATE_HET | STATE_HOM_ALT)))
+					return false;
+			}
+		}
+		return (numAffectedWithVar > 0);
+	}
+
+	/** @return whether the states are compatible with X recessive homozygous inheritance */
+	private boolean isCompatibleXRHom(byte[] s) {
+		if (nMembers == 1)
+			return is(s[0], STATE_HOM_ALT) || (sex[0] != Sex.FEMALE && is(s[0], STATE_HET));
+
+		int numVar = 0;
+		for (int i = 0; i < nMembers; ++i) {
+			final boolean female = (sex[i] == Sex.FEMALE);
+			if (affected[i]) {
+				// A female must not have it heterozygous, for a male we consider het. a mis-call (alt instead of het)
+				if (is(s[i], STATE_HOM_REF) || (female && is(s[i], STATE_HET)))
+					return false;
+				else if (is(s[i], female ? STATE_HOM_ALT : (byte) (STATE_HOM_ALT | STATE_HET)))
+					numVar += 1;
+			}
+			if (parentOfAffectedFemale[i]) {
+				// Father must be affected, mother must be carrier
+				if (sex[i] == Sex.MALE && unaffected[i])
+					return false;
+				if (female && is(s[i], (byte) (STATE_HOM_ALT | STATE_HOM_REF)))
+					return false;
+			}
+			if (unaffected[i]) {
+				// Strict handling, males cannot be called heterozygous (will be seen as a homozygous mutation)
+				if (sex[i] == Sex.MALE && is(s[i], (byte) (STATE_HET | STATE_HOM_ALT)))
+					return false;
+				else if (is(s[i], STATE_HOM_ALT))
+					return false;
+			}
+		}
+		return (numVar > 0);
+	}
+
+	/**
+	 * Mark records on <code>chromType</code> as compound heterozygous for a single individual, requiring at least two
+	 * heterozygous calls
+	 */
+	private void markCompoundHetSingleton(ChromosomeType[] chromTypes, byte[][] states, ChromosomeType chromType,
+			int bit, int[] result) {
+		int numHet = 0;
+		for (int i = 0; i < states.length; ++i)
+			if (chromTypes[i] == chromType && is(states[i][0], STATE_HET))
+				numHet += 1;
+		if (numHet < 2)
+			return;
+		for (int i = 0; i < states.length; ++i)
+			if (chromTypes[i] == chromType && is(states[i][0], STATE_HET))
+				result[i] |= bit;
+	}
+
+	/**
+	 * Mark autosomal records that are compatible with compound heterozygous inheritance in the family
+	 *
+	 * For each affected individual with at least one parent, the records are split into candidates for paternal and
+	 * maternal inheritance and each pair of candidates is checked against the trios around all affected individuals and
+	 * against all unaffected individuals.
+	 */
+	private void markCompoundHetFamily(ChromosomeType[] chromTypes, byte[][] states, int bit, int[] result) {
+		final int nCalls = states.length;
+		final int[] paternal = new int[nCalls];
+		final int[] maternal = new int[nCalls];
+
+		for (int p = 0; p < nMembers; ++p) {
+			if (!affected[p] || (father[p] == -1 && mother[p] == -1))
+				continue;
+			final int f = father[p];
+			final int m = mother[p];
+
+			// Collect candidates towards the paternal side (heterozygous or not observed in child and father, not
+			// hom_alt or het in mother) and vice versa for the maternal side
+			int nPaternal = 0;
+			int nMaternal = 0;
+			for (int i = 0; i < nCalls; ++i) {
+				if (chromTypes[i] != ChromosomeType.AUTOSOMAL)
+					continue;
+				final byte[] s = states[i];
+				if (!is(s[p], (byte) (STATE_HET | STATE_NOT_OBSERVED)))
+					continue;
+				if ((f == -1 || is(s[f], (byte) (STATE_HET | STATE_NOT_OBSERVED)))
+						&& (m == -1 || is(s[m], (byte) (STATE_NOT_OBSERVED | STATE_HOM_REF))))
+					paternal[nPaternal++] = i;
+				if ((m == -1 || is(s[m], (byte) (STATE_HET | STATE_NOT_OBSERVED)))
+						&& (f == -1 || is(s[f], (byte) (STATE_NOT_OBSERVED | STATE_HOM_REF))))
+					maternal[nMaternal++] = i;
+			}
+
+			// Combine compatible paternal and maternal heterozygous variants
+			for (int a = 0; a < nPaternal; ++a) {
+				final int pat = paternal[a];
+				if (isNotObservedInTrio(states[pat], p))
+					continue;
+				for (int b = 0; b < nMaternal; ++b) {
+					final int mat = maternal[b];
+					if (pat == mat || isNotObservedInTrio(states[mat], p))
+						continue;
+					if ((result[pat] & result[mat] & bit) != 0)
+						continue; // both already marked
+					if (isCompatibleWithTriosAroundAffected(states[pat], states[mat])
+							&& isCompatibleWithUnaffected(states[pat], states[mat])) {
+						result[pat] |= bit;
+						result[mat] |= bit;
+					}
+				}
+			}
+		}
+	}
+
+	/** @return whether the record is not observed in <code>p</code> and its parents */
+	private boolean isNotObservedInTrio(byte[] s, int p) {
+		return is(s[p], STATE_NOT_OBSERVED) && (father[p] == -1 || is(s[father[p]], STATE_NOT_OBSERVED))
+				&& (mother[p] == -1 || is(s[mother[p]], STATE_NOT_OBSERVED));
+	}
+
+	private boolean isCompatibleWithTriosAroundAffected(byte[] pat, byte[] mat) {
+		for (int p = 0; p < nMembers; ++p)
+			if (affected[p]) {
+				// We have to check this for paternal,maternal and vice versa. Paternal maternal inheritance can be
+				// different for other parents in the pedigree.
+				if (!isCompatibleWithTrioAroundAffected(p, pat, mat)
+						&& !isCompatibleWithTrioAroundAffected(p, mat, pat))
+					return false;
+			}
+		return true;
+	}
+
+	private boolean isCompatibleWithTrioAroundAffected(int p, byte[] pat, byte[] mat) {
+		final byte hom = (byte) (STATE_HOM_ALT | STATE_HOM_REF);
+		// None of the genotypes from the paternal or maternal call lists may be homozygous in the index
+		if (is(pat[p], hom) || is(mat[p], hom))
+			return false;
+		// The paternal variant may not be homozygous in the father of p, if any, same for maternal variant and mother
+		if (father[p] != -1 && is(pat[father[p]], hom))
+			return false;
+		if (mother[p] != -1 && is(mat[mother[p]], hom))
+			return false;
+		// None of the unaffected siblings may have the same genotypes as p
+		for (int sib : unaffectedSiblings[p])
+			if (is(pat[sib], STATE_HET) && is(mat[sib], STATE_HET))
+				return false;
+		return true;
+	}
+
+	private boolean isCompatibleWithUnaffected(byte[] pat, byte[] mat) {
+		for (int p = 0; p < nMembers; ++p) {
+			if (!unaffected[p])
+				continue;
+			// None of the genotypes from the paternal or maternal call lists may be homozygous in the unaffected
+			if (is(pat[p], STATE_HOM_ALT) || is(mat[p], STATE_HOM_ALT))
+				return false;
+
+			// If mat and pat variant are heterozygous in an unaffected, check if they are on the same allele or not
+			final int f = father[p];
+			final int m = mother[p];
+			if (is(pat[p], STATE_HET) && is(mat[p], STATE_HET) && f != -1 && m != -1) {
+				if (is(pat[f], STATE_HET) && is(pat[m], STATE_HOM_REF) && is(mat[f], STATE_HOM_REF)
+						&& is(mat[m], STATE_HET))
+					return false;
+				if (is(pat[f], STATE_HOM_REF) && is(pat[m], STATE_HET) && is(mat[f], STATE_HET)
+						&& is(mat[m], STATE_HOM_REF))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mapping from the sample names of {@link GenotypeCalls} to the pedigree member indices
+	 */
+	private static final class SampleMapping {
+
+		/** The sample names of the {@link GenotypeCalls} */
+		final ImmutableList<String> sampleNames;
+		/** The member index for each sample */
+		final int[] memberIdx;
+
+		SampleMapping(ImmutableList<String> sampleNames, int[] memberIdx) {
+			this.sampleNames = sampleNames;
+			this.memberIdx = memberIdx;
+		}
+
+	}
+
+}
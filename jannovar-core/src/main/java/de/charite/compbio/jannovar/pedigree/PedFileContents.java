@@ -1,5 +1,7 @@
 package de.charite.compbio.jannovar.pedigree;
 
+import java.util.LinkedHashSet;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
@@ -47,4 +49,12 @@ public class PedFileContents {
 		return nameToPerson;
 	}
 
+	/** @return names of the pedigrees in the PED file, in the order of their first occurence */
+	public ImmutableList<String> getPedigreeNames() {
+		LinkedHashSet<String> names = new LinkedHashSet<String>();
+		for (PedPerson p : individuals)
+			names.add(p.getPedigree());
+		return ImmutableList.copyOf(names);
+	}
+
 }
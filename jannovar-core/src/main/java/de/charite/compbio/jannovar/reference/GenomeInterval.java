@@ -75,10 +75,8 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 			this.beginPos = other.beginPos;
 			this.endPos = other.endPos;
 		} else {
-			int beginPos = refDict.getContigIDToLength().get(other.chr) - other.beginPos;
-			int endPos = refDict.getContigIDToLength().get(other.chr) - other.endPos;
-			this.endPos = beginPos;
-			this.beginPos = endPos;
+			this.beginPos = StrandCoordinates.flipBoundary(refDict, other.chr, other.endPos);
+			this.endPos = StrandCoordinates.flipBoundary(refDict, other.chr, other.beginPos);
 		}
 	}
 
@@ -137,16 +135,42 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 		return this.endPos - this.beginPos;
 	}
 
+	/**
+	 * @return position of <code>pos</code> on the strand of <code>this</code>, without creating a new object
+	 */
+	private int posOnStrand(GenomePosition pos) {
+		if (pos.getStrand() == strand)
+			return pos.getPos();
+		return StrandCoordinates.flipPos(refDict, pos.getChr(), pos.getPos());
+	}
+
+	/**
+	 * @return begin position of <code>other</code> on the strand of <code>this</code>, without creating a new object
+	 */
+	private int otherBeginPos(GenomeInterval other) {
+		if (other.strand == strand)
+			return other.beginPos;
+		return StrandCoordinates.flipBoundary(refDict, other.chr, other.endPos);
+	}
+
+	/**
+	 * @return end position of <code>other</code> on the strand of <code>this</code>, without creating a new object
+	 */
+	private int otherEndPos(GenomeInterval other) {
+		if (other.strand == strand)
+			return other.endPos;
+		return StrandCoordinates.flipBoundary(refDict, other.chr, other.beginPos);
+	}
+
 	/**
 	 * @return GenomeInterval with intersection of <code>this</code> and <code>other</code>
 	 */
 	public GenomeInterval intersection(GenomeInterval other) {
 		if (chr != other.chr)
 			return new GenomeInterval(refDict, strand, chr, beginPos, beginPos, PositionType.ZERO_BASED);
-		other = other.withStrand(strand);
 
-		int beginPos = Math.max(this.beginPos, other.beginPos);
-		int endPos = Math.min(this.endPos, other.endPos);
+		int beginPos = Math.max(this.beginPos, otherBeginPos(other));
+		int endPos = Math.min(this.endPos, otherEndPos(other));
 		if (endPos < beginPos)
 			beginPos = endPos;
 
@@ -161,10 +185,9 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public GenomeInterval union(GenomeInterval other) {
 		if (chr != other.chr)
 			return new GenomeInterval(refDict, strand, chr, beginPos, beginPos, PositionType.ZERO_BASED);
-		other = other.withStrand(strand);
 
-		int beginPos = Math.min(this.beginPos, other.beginPos);
-		int endPos = Math.max(this.endPos, other.endPos);
+		int beginPos = Math.min(this.beginPos, otherBeginPos(other));
+		int endPos = Math.max(this.endPos, otherEndPos(other));
 		if (endPos < beginPos)
 			beginPos = endPos;
 
@@ -179,9 +202,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public boolean isLeftOf(GenomePosition pos) {
 		if (chr != pos.getChr())
 			return false; // wrong chromosome
-		if (pos.getStrand() != strand)
-			pos = pos.withStrand(strand); // ensure that we are on the correct strand
-		return (pos.getPos() >= endPos);
+		return (posOnStrand(pos) >= endPos);
 	}
 
 	/**
@@ -192,9 +213,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public boolean isRightOf(GenomePosition pos) {
 		if (chr != pos.getChr())
 			return false; // wrong chromosome
-		if (pos.getStrand() != strand)
-			pos = pos.withStrand(strand); // ensure that we are on the correct strand
-		return (pos.getPos() < beginPos);
+		return (posOnStrand(pos) < beginPos);
 	}
 
 	/**
@@ -205,9 +224,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public boolean isLeftOfGap(GenomePosition pos) {
 		if (chr != pos.getChr())
 			return false; // wrong chromosome
-		if (pos.getStrand() != strand)
-			pos = pos.withStrand(strand); // ensure that we are on the correct strand
-		return (pos.getPos() >= endPos);
+		return (posOnStrand(pos) >= endPos);
 	}
 
 	/**
@@ -218,9 +235,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public boolean isRightOfGap(GenomePosition pos) {
 		if (chr != pos.getChr())
 			return false; // wrong chromosome
-		if (pos.getStrand() != strand)
-			pos = pos.withStrand(strand); // ensure that we are on the correct strand
-		return (pos.getPos() <= beginPos);
+		return (posOnStrand(pos) <= beginPos);
 	}
 
 	/**
@@ -231,9 +246,8 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 	public boolean contains(GenomePosition pos) {
 		if (chr != pos.getChr())
 			return false; // wrong chromosome
-		if (pos.getStrand() != strand)
-			pos = pos.withStrand(strand); // ensure that we are on the correct strand
-		return (pos.getPos() >= beginPos && pos.getPos() < endPos);
+		final int p = posOnStrand(pos); // ensure that we are on the correct strand
+		return (p >= beginPos && p < endPos);
 	}
 
 	/**
@@ -245,9 +259,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 		// TODO(holtgrem): Test this.
 		if (chr != other.chr)
 			return false; // wrong chromosome
-		if (other.strand != strand)
-			other = other.withStrand(strand); // ensure that we are on the correct strand
-		return (other.beginPos >= beginPos && other.endPos <= endPos);
+		return (otherBeginPos(other) >= beginPos && otherEndPos(other) <= endPos);
 	}
 
 	/**
@@ -275,8 +287,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 		// TODO(holtgrem): add test for this
 		if (chr != other.chr)
 			return false;
-		other = other.withStrand(strand);
-		return (other.beginPos < endPos && beginPos < other.endPos);
+		return (otherBeginPos(other) < endPos && beginPos < otherEndPos(other));
 	}
 
 	/*
@@ -289,7 +300,7 @@ public final class GenomeInterval implements Serializable, Comparable<GenomeInte
 		if (strand.isReverse())
 			return withStrand(Strand.FWD).toString();
 
-		return StringUtil.concatenate(refDict.getContigIDToName().get(chr), ":g.", beginPos + 1, "_", endPos);
+		return StringUtil.concatenate(refDict.getContigName(chr), ":g.", beginPos + 1, "_", endPos);
 	}
 
 	/*
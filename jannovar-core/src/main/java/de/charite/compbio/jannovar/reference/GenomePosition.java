@@ -78,7 +78,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 		if (strand == other.strand)
 			this.pos = other.pos;
 		else
-			this.pos = refDict.getContigIDToLength().get(other.chr) - other.pos - 1;
+			this.pos = StrandCoordinates.flipPos(refDict, other.chr, other.pos);
 	}
 
 	/** @return reference dictionary to use for coordinate translation */
@@ -106,13 +106,20 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 		return new GenomePosition(this, strand);
 	}
 
+	/**
+	 * @return position of <code>other</code> on the strand of <code>this</code>, without creating a new object
+	 */
+	private int posOnStrand(GenomePosition other) {
+		if (other.strand == strand)
+			return other.pos;
+		return StrandCoordinates.flipPos(refDict, other.chr, other.pos);
+	}
+
 	/**
 	 * @return <tt>true</tt> if this position is left of the other (on this strand).
 	 */
 	public boolean isLt(GenomePosition other) {
-		if (other.strand != strand)
-			other = other.withStrand(strand);
-		return (pos < other.pos);
+		return (pos < posOnStrand(other));
 	}
 
 	/**
@@ -121,9 +128,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public boolean isLeq(GenomePosition other) {
 		if (other.chr != chr)
 			return false;
-		if (other.strand != strand)
-			other = other.withStrand(strand);
-		return (pos <= other.pos);
+		return (pos <= posOnStrand(other));
 	}
 
 	/**
@@ -132,9 +137,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public boolean isGt(GenomePosition other) {
 		if (other.chr != chr)
 			return false;
-		if (other.strand != strand)
-			other = other.withStrand(strand);
-		return (pos > other.pos);
+		return (pos > posOnStrand(other));
 	}
 
 	/**
@@ -143,9 +146,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public boolean isGeq(GenomePosition other) {
 		if (other.chr != chr)
 			return false;
-		if (other.strand != strand)
-			other = other.withStrand(strand);
-		return (pos >= other.pos);
+		return (pos >= posOnStrand(other));
 	}
 
 	/**
@@ -154,9 +155,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public boolean isEq(GenomePosition other) {
 		if (other.chr != chr)
 			return false;
-		if (other.strand != strand)
-			other = other.withStrand(strand);
-		return (pos == other.pos);
+		return (pos == posOnStrand(other));
 	}
 
 	/**
@@ -170,9 +169,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public int differenceTo(GenomePosition pos) {
 		if (chr != pos.chr)
 			throw new InvalidCoordinateException("Coordinates are on different chromosomes " + this + " vs. " + pos);
-		if (pos.strand != strand)
-			pos = pos.withStrand(strand);
-		return (this.pos - pos.pos);
+		return (this.pos - posOnStrand(pos));
 	}
 
 	/**
@@ -186,16 +183,22 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 	public int differenceTo(GenomeInterval itv) {
 		if (chr != itv.getChr())
 			throw new InvalidCoordinateException("Coordinates are on different chromosomes " + this + " vs. " + itv);
-		if (itv.getStrand() != strand)
-			itv = itv.withStrand(strand);
 
-		if (itv.contains(this))
+		// Compute interval boundaries on this strand, without creating new objects
+		int beginPos = itv.getBeginPos();
+		int endPos = itv.getEndPos();
+		if (itv.getStrand() != strand) {
+			beginPos = StrandCoordinates.flipBoundary(refDict, chr, itv.getEndPos());
+			endPos = StrandCoordinates.flipBoundary(refDict, chr, itv.getBeginPos());
+		}
+
+		if (pos >= beginPos && pos < endPos)
 			return 0;
 
-		int a = differenceTo(itv.getGenomeBeginPos());
-		if (itv.length() == 0)
+		int a = pos - beginPos;
+		if (endPos == beginPos)
 			return a;
-		int b = differenceTo(itv.getGenomeEndPos().shifted(-1));
+		int b = pos - (endPos - 1);
 		if (Math.abs(a) < Math.abs(b))
 			return a;
 		else
@@ -226,7 +229,7 @@ public final class GenomePosition implements Serializable, Comparable<GenomePosi
 		if (strand.isReverse())
 			return withStrand(Strand.FWD).toString();
 
-		return StringUtil.concatenate(refDict.getContigIDToName().get(chr), ":g.", pos + 1);
+		return StringUtil.concatenate(refDict.getContigName(chr), ":g.", pos + 1);
 	}
 
 	/*
@@ -32,6 +32,11 @@ public final class GenomeVariant implements VariantDescription {
 	private final String ref;
 	/** nucleic acid alternative string */
 	private final String alt;
+	/**
+	 * this variant on the other strand, created lazily by {@link #withStrand} as the annotation of each transcript on
+	 * the other strand needs it; benign data race as for {@link String#hashCode}
+	 */
+	private GenomeVariant otherStrand = null;
 
 	/**
 	 * Construct object given the position, reference, and alternative nucleic acid string.
@@ -83,14 +88,13 @@ public final class GenomeVariant implements VariantDescription {
 			this.alt = DNAUtils.reverseComplement(corr.alt);
 		}
 
-		int delta = 0;
-		if (strand != pos.getStrand() && ref.length() == 0)
-			delta = -1;
-		else if (strand != pos.getStrand() /* && ref.length() != 0 */)
-			delta = ref.length() - 1;
-
-		this.pos = new GenomePosition(pos.getRefDict(), pos.getStrand(), pos.getChr(), corr.position,
-				PositionType.ZERO_BASED).shifted(delta).withStrand(strand);
+		// Shift and transform position arithmetically, creating only the resulting object
+		int newPos = corr.position;
+		if (strand != pos.getStrand()) {
+			final int delta = (ref.length() == 0) ? -1 : ref.length() - 1;
+			newPos = StrandCoordinates.flipPos(pos.getRefDict(), pos.getChr(), newPos + delta);
+		}
+		this.pos = new GenomePosition(pos.getRefDict(), strand, pos.getChr(), newPos);
 	}
 
 	/**
@@ -115,7 +119,7 @@ public final class GenomeVariant implements VariantDescription {
 
 	@Override
 	public String getChrName() {
-		return this.pos.getRefDict().getContigIDToName().get(this.pos.getChr());
+		return this.pos.getRefDict().getContigName(this.pos.getChr());
 	}
 
 	public GenomePosition getGenomePos() {
@@ -154,7 +158,9 @@ public final class GenomeVariant implements VariantDescription {
 		if (strand == other.pos.getStrand()) {
 			this.pos = other.pos;
 		} else {
-			this.pos = other.pos.shifted(this.ref.length() - 1).withStrand(strand);
+			final GenomePosition otherPos = other.pos;
+			this.pos = new GenomePosition(otherPos.getRefDict(), strand, otherPos.getChr(), StrandCoordinates
+					.flipPos(otherPos.getRefDict(), otherPos.getChr(), otherPos.getPos() + this.ref.length() - 1));
 		}
 	}
 
@@ -177,10 +183,18 @@ public final class GenomeVariant implements VariantDescription {
 	}
 
 	/**
-	 * @return the GenomeChange on the given strand
+	 * @return the GenomeChange on the given strand, <code>this</code> if already on <code>strand</code>
 	 */
 	public GenomeVariant withStrand(Strand strand) {
-		return new GenomeVariant(this, strand);
+		if (strand == pos.getStrand())
+			return this;
+		GenomeVariant result = otherStrand;
+		if (result == null) {
+			result = new GenomeVariant(this, strand);
+			result.otherStrand = this;
+			otherStrand = result;
+		}
+		return result;
 	}
 
 	/**
@@ -0,0 +1,38 @@
+package de.charite.compbio.jannovar.reference;
+
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+
+/**
+ * Static helpers for transforming zero-based coordinates to the other strand.
+ *
+ * The transformations are pure arithmetic on the contig length from the {@link ReferenceDictionary}, so
+ * {@link GenomePosition}, {@link GenomeInterval}, and {@link GenomeVariant} can compare and convert coordinates across
+ * strands without creating temporary objects.
+ */
+final class StrandCoordinates {
+
+	/** Utility class, no instantiation */
+	private StrandCoordinates() {
+	}
+
+	/**
+	 * Transform zero-based position <code>pos</code> pointing to a base to the other strand, see
+	 * {@link GenomePosition#withStrand}
+	 *
+	 * @return position on the other strand
+	 */
+	static int flipPos(ReferenceDictionary refDict, int chr, int pos) {
+		return refDict.getContigLength(chr) - pos - 1;
+	}
+
+	/**
+	 * Transform zero-based interval boundary <code>pos</code> pointing to a gap to the other strand, see
+	 * {@link GenomeInterval#withStrand}
+	 *
+	 * @return boundary on the other strand
+	 */
+	static int flipBoundary(ReferenceDictionary refDict, int chr, int pos) {
+		return refDict.getContigLength(chr) - pos;
+	}
+
+}
@@ -8,6 +8,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 
 import de.charite.compbio.jannovar.Immutable;
+import de.charite.compbio.jannovar.impl.util.Translator;
 
 /**
  * The information representing a transcript model.
@@ -42,9 +43,39 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 	/** Genomic intervals with the exons, order is dictated by strand of transcript. */
 	private final ImmutableList<GenomeInterval> exonRegions;
 
-	/** cDNA sequence of the spliced RNA of this known gene transcript. */
+	/**
+	 * cDNA sequence of the spliced RNA of this known gene transcript, <code>null</code> if the sequence is kept in
+	 * {@link #sequenceStore}.
+	 */
 	private final String sequence;
 
+	/** store with the sequence outside of the Java heap, <code>null</code> if {@link #sequence} is used */
+	private final TranscriptSequenceStore sequenceStore;
+
+	/** offset of the sequence in {@link #sequenceStore} */
+	private final long sequenceOffset;
+
+	/** length of the sequence in {@link #sequenceStore} */
+	private final int sequenceLength;
+
+	/**
+	 * cached hash code of the sequence in {@link #sequenceStore}, computed on first use as {@link String#hashCode}
+	 * does, <code>0</code> if not computed yet
+	 */
+	private transient int sequenceHashCode;
+
+	/** 0-based begin position of the CDS in the transcript sequence, only valid if {@link #translation} is set */
+	private final int cdsTxBeginPos;
+
+	/** 0-based end position of the CDS in the transcript sequence, only valid if {@link #translation} is set */
+	private final int cdsTxEndPos;
+
+	/**
+	 * Translation of the transcript sequence starting at the CDS, precomputed when building the database,
+	 * <code>null</code> if not precomputed (non-coding transcripts and older databases).
+	 */
+	private final String translation;
+
 	/**
 	 * The gene ID, from Ensembl (<code>"ENS[MUS]*G0+([0-9]+)"</code>), Entrez ("<code>ENTREZ([0-9]+)</code>
 	 * "), RefSeq ("<code>gene([0-9]+)</code>").
@@ -86,18 +117,110 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 	public TranscriptModel(String accession, String geneSymbol, GenomeInterval txRegion, GenomeInterval cdsRegion,
 			ImmutableList<GenomeInterval> exonRegions, String sequence, String geneID, int transcriptSupportLevel,
 			Map<String, String> altGeneIDs) {
+		this(accession, geneSymbol, txRegion, cdsRegion, exonRegions, sequence, null, 0, 0, 0, 0, null, geneID,
+				transcriptSupportLevel, altGeneIDs);
+	}
+
+	/**
+	 * Initialize the TranscriptInfo object from the given parameters, with either <code>sequence</code> or
+	 * <code>sequenceStore</code> set.
+	 */
+	private TranscriptModel(String accession, String geneSymbol, GenomeInterval txRegion, GenomeInterval cdsRegion,
+			ImmutableList<GenomeInterval> exonRegions, String sequence, TranscriptSequenceStore sequenceStore,
+			long sequenceOffset, int sequenceLength, int cdsTxBeginPos, int cdsTxEndPos, String translation,
+			String geneID, int transcriptSupportLevel, Map<String, String> altGeneIDs) {
 		this.accession = accession;
 		this.geneSymbol = geneSymbol;
 		this.txRegion = txRegion;
 		this.cdsRegion = cdsRegion;
 		this.exonRegions = exonRegions;
 		this.sequence = sequence;
+		this.sequenceStore = sequenceStore;
+		this.sequenceOffset = sequenceOffset;
+		this.sequenceLength = sequenceLength;
+		this.cdsTxBeginPos = cdsTxBeginPos;
+		this.cdsTxEndPos = cdsTxEndPos;
+		this.translation = translation;
 		this.geneID = geneID;
 		this.transcriptSupportLevel = transcriptSupportLevel;
 		this.altGeneIDs = ImmutableSortedMap.copyOf(altGeneIDs);
 		checkForConsistency();
 	}
 
+	/**
+	 * @param store
+	 *            the {@link TranscriptSequenceStore} that the sequence of this transcript has been written to
+	 * @param offset
+	 *            offset of the sequence in <code>store</code>
+	 * @return copy of this transcript that reads its sequence from <code>store</code>
+	 */
+	public TranscriptModel withSequenceStore(TranscriptSequenceStore store, long offset) {
+		return new TranscriptModel(accession, geneSymbol, txRegion, cdsRegion, exonRegions, null, store, offset,
+				getSequenceLength(), cdsTxBeginPos, cdsTxEndPos, translation, geneID, transcriptSupportLevel,
+				altGeneIDs);
+	}
+
+	/**
+	 * @return copy of this transcript that keeps its sequence in the Java heap, <code>this</code> if it already does
+	 */
+	public TranscriptModel withHeapSequence() {
+		if (sequenceStore == null)
+			return this;
+		return new TranscriptModel(accession, geneSymbol, txRegion, cdsRegion, exonRegions, getSequence(), null, 0,
+				0, cdsTxBeginPos, cdsTxEndPos, translation, geneID, transcriptSupportLevel, altGeneIDs);
+	}
+
+	/**
+	 * Precompute the CDS begin and end positions in the transcript sequence and the translation of the transcript
+	 * sequence starting at the CDS, such that annotation does not have to compute them for each variant
+	 *
+	 * @return copy of this transcript with the precomputed values, <code>this</code> if they have already been
+	 *         computed, the transcript is non-coding, or the CDS cannot be projected onto the transcript sequence
+	 */
+	public TranscriptModel withPrecomputedTranslation() {
+		if (translation != null || !isCoding() || (sequence == null && sequenceStore == null))
+			return this;
+
+		final int beginPos;
+		try {
+			beginPos = new TranscriptProjectionDecorator(this).genomeToTranscriptPos(cdsRegion.getGenomeBeginPos())
+					.getPos();
+		} catch (ProjectionException e) {
+			return this; // inconsistent transcript, leave to annotation
+		}
+		final int endPos = beginPos + cdsTranscriptLength();
+		if (endPos > getSequenceLength())
+			return this; // sequence too short, leave to annotation
+
+		final String aaSeq = Translator.getTranslator().translateDNA(getSequence(beginPos, getSequenceLength()));
+		return new TranscriptModel(accession, geneSymbol, txRegion, cdsRegion, exonRegions, sequence, sequenceStore,
+				sequenceOffset, sequenceLength, beginPos, endPos, aaSeq, geneID, transcriptSupportLevel, altGeneIDs);
+	}
+
+	/**
+	 * @param interner
+	 *            the {@link TranscriptModelInterner} with the shared values
+	 * @return copy of this transcript using the shared values of <code>interner</code>, <code>this</code> if it
+	 *         already does
+	 */
+	TranscriptModel withInternedValues(TranscriptModelInterner interner) {
+		final String sharedGeneSymbol = interner.internString(geneSymbol);
+		final GenomeInterval sharedTXRegion = interner.internInterval(txRegion);
+		final GenomeInterval sharedCDSRegion = interner.internInterval(cdsRegion);
+		final ImmutableList<GenomeInterval> sharedExonRegions = interner.internExonRegions(exonRegions);
+		final String sharedSequence = interner.internString(sequence);
+		final String sharedTranslation = interner.internString(translation);
+		final String sharedGeneID = interner.internString(geneID);
+		final ImmutableSortedMap<String, String> sharedAltGeneIDs = interner.internAltGeneIDs(altGeneIDs);
+		if (sharedGeneSymbol == geneSymbol && sharedTXRegion == txRegion && sharedCDSRegion == cdsRegion
+				&& sharedExonRegions == exonRegions && sharedSequence == sequence && sharedTranslation == translation
+				&& sharedGeneID == geneID && sharedAltGeneIDs == altGeneIDs)
+			return this;
+		return new TranscriptModel(accession, sharedGeneSymbol, sharedTXRegion, sharedCDSRegion, sharedExonRegions,
+				sharedSequence, sequenceStore, sequenceOffset, sequenceLength, cdsTxBeginPos, cdsTxEndPos,
+				sharedTranslation, sharedGeneID, transcriptSupportLevel, sharedAltGeneIDs);
+	}
+
 	/** @return accession number */
 	public String getAccession() {
 		return accession;
@@ -123,9 +246,91 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 		return exonRegions;
 	}
 
-	/** @return mDNA sequence of the spliced RNA of this known gene transcript. */
+	/**
+	 * Note that the sequence is decoded on each call if it is kept in a {@link TranscriptSequenceStore}, prefer
+	 * {@link #getSequence(int, int)} and {@link #getSequenceLength()} for accessing parts of it.
+	 *
+	 * @return mDNA sequence of the spliced RNA of this known gene transcript.
+	 */
 	public String getSequence() {
-		return sequence;
+		if (sequenceStore == null)
+			return sequence;
+		else
+			return sequenceStore.getSequence(sequenceOffset, sequenceLength);
+	}
+
+	/**
+	 * @param beginPos
+	 *            0-based begin position in the transcript sequence
+	 * @param endPos
+	 *            0-based end position in the transcript sequence, exclusive
+	 * @return part of the sequence, as <code>getSequence().substring(beginPos, endPos)</code>
+	 * @throws IndexOutOfBoundsException
+	 *             if the positions are not valid
+	 */
+	public String getSequence(int beginPos, int endPos) {
+		if (sequenceStore == null)
+			return sequence.substring(beginPos, endPos);
+		if (beginPos < 0 || endPos > sequenceLength || beginPos > endPos)
+			throw new StringIndexOutOfBoundsException("Invalid range [" + beginPos + ", " + endPos
+					+ ") for sequence of length " + sequenceLength);
+		return sequenceStore.getSequence(sequenceOffset + beginPos, endPos - beginPos);
+	}
+
+	/** @return length of the mDNA sequence, as <code>getSequence().length()</code> */
+	public int getSequenceLength() {
+		if (sequenceStore == null)
+			return sequence.length();
+		else
+			return sequenceLength;
+	}
+
+	/**
+	 * @return <code>true</code> if the CDS positions in the transcript and the translation starting at the CDS have
+	 *         been precomputed, see {@link #withPrecomputedTranslation()}
+	 */
+	public boolean isTranslationPrecomputed() {
+		return (translation != null);
+	}
+
+	/**
+	 * @return 0-based begin position of the CDS in the transcript sequence, <code>-1</code> if not precomputed
+	 */
+	public int getCDSTxBeginPos() {
+		return (translation != null) ? cdsTxBeginPos : -1;
+	}
+
+	/**
+	 * @return 0-based end position of the CDS in the transcript sequence (exclusive), <code>-1</code> if not
+	 *         precomputed
+	 */
+	public int getCDSTxEndPos() {
+		return (translation != null) ? cdsTxEndPos : -1;
+	}
+
+	/**
+	 * The translation continues after the stop codon up to the end of the transcript sequence, as needed for
+	 * computing the effects of frameshifts and stop-loss variants.
+	 *
+	 * @return translation of the transcript sequence starting at the CDS, <code>null</code> if not precomputed
+	 */
+	public String getTranslationStartingAtCDS() {
+		return translation;
+	}
+
+	/**
+	 * @return reference protein sequence (translation of the CDS, including the stop codon as <code>'*'</code>),
+	 *         <code>null</code> if not precomputed
+	 */
+	public String getProteinSequence() {
+		if (translation == null)
+			return null;
+		return translation.substring(0, Math.min(translation.length(), (cdsTxEndPos - cdsTxBeginPos) / 3));
+	}
+
+	/** @return <code>true</code> if the sequence is kept in a {@link TranscriptSequenceStore} */
+	public boolean isSequenceStored() {
+		return (sequenceStore != null);
 	}
 
 	/**
@@ -230,7 +435,7 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 		result = prime * result + ((exonRegions == null) ? 0 : exonRegions.hashCode());
 		result = prime * result + ((geneID == null) ? 0 : geneID.hashCode());
 		result = prime * result + ((geneSymbol == null) ? 0 : geneSymbol.hashCode());
-		result = prime * result + ((sequence == null) ? 0 : sequence.hashCode());
+		result = prime * result + getSequenceHashCode();
 		result = prime * result + transcriptSupportLevel;
 		result = prime * result + ((txRegion == null) ? 0 : txRegion.hashCode());
 		return result;
@@ -270,10 +475,7 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 				return false;
 		} else if (!geneSymbol.equals(other.geneSymbol))
 			return false;
-		if (sequence == null) {
-			if (other.sequence != null)
-				return false;
-		} else if (!sequence.equals(other.sequence))
+		if (!sequenceEquals(other))
 			return false;
 		if (transcriptSupportLevel != other.transcriptSupportLevel)
 			return false;
@@ -285,6 +487,38 @@ public final class TranscriptModel implements Serializable, Comparable<Transcrip
 		return true;
 	}
 
+	/**
+	 * @return hash code of the sequence as <code>getSequence().hashCode()</code>, without decoding sequences kept in
+	 *         {@link #sequenceStore}
+	 */
+	private int getSequenceHashCode() {
+		if (sequenceStore == null)
+			return (sequence == null) ? 0 : sequence.hashCode();
+		int result = sequenceHashCode;
+		if (result == 0) // racy but benign, as in String
+			sequenceHashCode = result = sequenceStore.getSequenceHashCode(sequenceOffset, sequenceLength);
+		return result;
+	}
+
+	/**
+	 * @return whether the sequences are equal as <code>getSequence().equals(other.getSequence())</code>, without
+	 *         decoding sequences kept in a {@link TranscriptSequenceStore}
+	 */
+	private boolean sequenceEquals(TranscriptModel other) {
+		if (sequenceStore == null && other.sequenceStore == null)
+			return (sequence == null) ? (other.sequence == null) : sequence.equals(other.sequence);
+		else if (sequenceStore == null)
+			return sequence != null && other.sequenceStore.sequenceEquals(other.sequenceOffset, other.sequenceLength,
+					sequence);
+		else if (other.sequenceStore == null)
+			return other.sequence != null && sequenceStore.sequenceEquals(sequenceOffset, sequenceLength,
+					other.sequence);
+		else
+			return sequenceLength == other.sequenceLength && (getSequenceHashCode() == other.getSequenceHashCode())
+					&& sequenceStore.sequenceEquals(sequenceOffset, sequenceLength, other.sequenceStore,
+							other.sequenceOffset);
+	}
+
 	public int compareTo(TranscriptModel o) {
 		int result = -1;
 		if (geneID != null && o.geneID != null) {
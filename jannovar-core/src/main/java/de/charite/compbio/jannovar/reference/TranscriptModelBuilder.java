@@ -93,9 +93,10 @@ public class TranscriptModelBuilder {
 			}
 		}
 
-		// Create new TranscriptInfo object.
+		// Create new TranscriptInfo object, precomputing the reference translation for the annotation.
 		return new TranscriptModel(accession, geneSymbol, txRegion.withStrand(strand), cdsRegion.withStrand(strand),
-				ImmutableList.copyOf(builder.build()), sequence, geneID, transcriptSupportLevel, altGeneIDs);
+				ImmutableList.copyOf(builder.build()), sequence, geneID, transcriptSupportLevel, altGeneIDs)
+						.withPrecomputedTranslation();
 	}
 
 	/**
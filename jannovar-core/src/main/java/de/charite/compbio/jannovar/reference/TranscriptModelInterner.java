@@ -0,0 +1,127 @@
+package de.charite.compbio.jannovar.reference;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+
+/**
+ * Replaces equal values of {@link TranscriptModel}s by shared instances
+ *
+ * The isoforms of a gene have equal gene symbols, gene IDs, and alternative gene IDs and often equal exons, copies of
+ * a transcript on alternative loci or pseudo-autosomal regions have equal sequences and translations. Sharing one
+ * instance of each value (sequences are found by their content hash) considerably reduces the heap used by a loaded
+ * database. As Java serialization writes shared objects only once, the serialized file gets smaller as well and the
+ * sharing is kept when loading it.
+ *
+ * Transcripts that already use the shared values are returned unchanged, so interning the transcripts of a database
+ * that has been interned before yields the same instances. Objects of this class are not thread-safe.
+ */
+public final class TranscriptModelInterner {
+
+	/** shared gene symbols, gene IDs, sequences, and translations */
+	private final HashMap<String, String> strings = new HashMap<>();
+	/** shared alternative gene ID maps */
+	private final HashMap<ImmutableSortedMap<String, String>, ImmutableSortedMap<String, String>> altGeneIDs;
+	/** shared intervals, by strand as {@link GenomeInterval#equals} compares intervals on different strands */
+	private final EnumMap<Strand, HashMap<GenomeInterval, GenomeInterval>> intervals;
+	/** shared exon lists, by strand */
+	private final EnumMap<Strand, HashMap<ImmutableList<GenomeInterval>, ImmutableList<GenomeInterval>>> exonLists;
+
+	public TranscriptModelInterner() {
+		this.altGeneIDs = new HashMap<>();
+		this.intervals = new EnumMap<>(Strand.class);
+		this.exonLists = new EnumMap<>(Strand.class);
+		for (Strand strand : Strand.values()) {
+			intervals.put(strand, new HashMap<>());
+			exonLists.put(strand, new HashMap<>());
+		}
+	}
+
+	/**
+	 * Intern all values of <code>transcripts</code> with a new {@link TranscriptModelInterner}
+	 *
+	 * @param transcripts
+	 *            the {@link TranscriptModel}s to intern
+	 * @return {@link ImmutableList} with the interned {@link TranscriptModel}s, in the order of
+	 *         <code>transcripts</code>
+	 */
+	public static ImmutableList<TranscriptModel> internAll(Iterable<TranscriptModel> transcripts) {
+		final TranscriptModelInterner interner = new TranscriptModelInterner();
+		ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		for (TranscriptModel tm : transcripts)
+			builder.add(interner.intern(tm));
+		return builder.build();
+	}
+
+	/**
+	 * @param transcript
+	 *            the {@link TranscriptModel} to intern
+	 * @return copy of <code>transcript</code> using the shared values, <code>transcript</code> if it already does
+	 */
+	public TranscriptModel intern(TranscriptModel transcript) {
+		return transcript.withInternedValues(this);
+	}
+
+	/** @return shared instance equal to <code>value</code>, <code>null</code> for <code>null</code> */
+	String internString(String value) {
+		if (value == null)
+			return null;
+		final String shared = strings.putIfAbsent(value, value);
+		return (shared == null) ? value : shared;
+	}
+
+	/** @return shared instance equal to <code>value</code>, with shared keys and values */
+	ImmutableSortedMap<String, String> internAltGeneIDs(ImmutableSortedMap<String, String> value) {
+		final ImmutableSortedMap<String, String> shared = altGeneIDs.get(value);
+		if (shared != null)
+			return shared;
+
+		ImmutableSortedMap.Builder<String, String> builder = ImmutableSortedMap.naturalOrder();
+		boolean changed = false;
+		for (Map.Entry<String, String> entry : value.entrySet()) {
+			final String sharedKey = internString(entry.getKey());
+			final String sharedValue = internString(entry.getValue());
+			changed = changed || (sharedKey != entry.getKey()) || (sharedValue != entry.getValue());
+			builder.put(sharedKey, sharedValue);
+		}
+		final ImmutableSortedMap<String, String> result = changed ? builder.build() : value;
+		altGeneIDs.put(result, result);
+		return result;
+	}
+
+	/** @return shared instance equal to <code>value</code> on the same strand and reference */
+	GenomeInterval internInterval(GenomeInterval value) {
+		if (value == null)
+			return null;
+		final GenomeInterval shared = intervals.get(value.getStrand()).putIfAbsent(value, value);
+		return (shared == null || shared.getRefDict() != value.getRefDict()) ? value : shared;
+	}
+
+	/** @return shared instance equal to <code>value</code> on the same strand and reference, with shared intervals */
+	ImmutableList<GenomeInterval> internExonRegions(ImmutableList<GenomeInterval> value) {
+		if (value == null || value.isEmpty())
+			return value;
+		final HashMap<ImmutableList<GenomeInterval>, ImmutableList<GenomeInterval>> lists = exonLists
+				.get(value.get(0).getStrand());
+		final ImmutableList<GenomeInterval> shared = lists.get(value);
+		if (shared != null && shared.get(0).getRefDict() == value.get(0).getRefDict())
+			return shared;
+		else if (shared != null)
+			return value;
+
+		ImmutableList.Builder<GenomeInterval> builder = new ImmutableList.Builder<GenomeInterval>();
+		boolean changed = false;
+		for (GenomeInterval region : value) {
+			final GenomeInterval sharedRegion = internInterval(region);
+			changed = changed || (sharedRegion != region);
+			builder.add(sharedRegion);
+		}
+		final ImmutableList<GenomeInterval> result = changed ? builder.build() : value;
+		lists.put(result, result);
+		return result;
+	}
+
+}
@@ -39,10 +39,12 @@ public final class TranscriptProjectionDecorator {
 	 * @return the CDS transcript string
 	 */
 	public String getCDSTranscript() {
+		if (transcript.isTranslationPrecomputed())
+			return transcript.getSequence(transcript.getCDSTxBeginPos(), transcript.getCDSTxEndPos());
 		try {
 			TranscriptPosition tBeginPos = genomeToTranscriptPos(transcript.getCDSRegion().getGenomeBeginPos());
 			TranscriptPosition tEndPos = genomeToTranscriptPos(transcript.getCDSRegion().getGenomeEndPos());
-			return transcript.getSequence().substring(tBeginPos.getPos(), tEndPos.getPos());
+			return transcript.getSequence(tBeginPos.getPos(), tEndPos.getPos());
 		} catch (ProjectionException e) {
 			throw new Error("Bug: CDS begin/end must be translatable into transcript positions");
 		}
@@ -52,9 +54,11 @@ public final class TranscriptProjectionDecorator {
 	 * @return the CDS transcript string extended to the right for the full transcript
 	 */
 	public String getTranscriptStartingAtCDS() {
+		if (transcript.isTranslationPrecomputed())
+			return transcript.getSequence(transcript.getCDSTxBeginPos(), transcript.getSequenceLength());
 		try {
 			TranscriptPosition tBeginPos = genomeToTranscriptPos(transcript.getCDSRegion().getGenomeBeginPos());
-			return transcript.getSequence().substring(tBeginPos.getPos(), transcript.getSequence().length());
+			return transcript.getSequence(tBeginPos.getPos(), transcript.getSequenceLength());
 		} catch (ProjectionException e) {
 			throw new Error("Bug: CDS begin must be translatable into transcript positions");
 		}
@@ -247,11 +251,10 @@ public final class TranscriptProjectionDecorator {
 		if (transcript.getTXRegion().isLeftOf(pos) || transcript.getTXRegion().isRightOf(pos))
 			return INVALID_EXON_ID;
 
-		// find exon containing pos or return null
-		GenomeInterval posBase = new GenomeInterval(pos, 1); // region of referenced base
+		// find exon containing the base referenced by pos or return null
 		int i = 0;
 		for (GenomeInterval region : transcript.getExonRegions()) {
-			if (region.contains(posBase))
+			if (region.contains(pos))
 				return i;
 			++i;
 		}
@@ -70,6 +70,19 @@ public final class TranscriptSequenceDecorator {
 					transcriptNTs.substring(2));
 	}
 
+	/**
+	 * @param txPos
+	 *            transcript position of the change
+	 * @param cdsPos
+	 *            CDS position of the change
+	 * @return <code>true</code> if {@link #getCodonAt} can return the codon at the given position, such that callers
+	 *         can check this without catching an {@link InvalidCodonException}
+	 */
+	public boolean hasCodonAt(TranscriptPosition txPos, CDSPosition cdsPos) {
+		final int codonStart = txPos.getPos() - cdsPos.getPos() % 3; // codon start in transcript string
+		return (codonStart + 3 < transcript.getSequenceLength());
+	}
+
 	/**
 	 * Returns the codon (String of length 3) for a change at a given position
 	 *
@@ -84,10 +97,10 @@ public final class TranscriptSequenceDecorator {
 	public String getCodonAt(TranscriptPosition txPos, CDSPosition cdsPos) throws InvalidCodonException {
 		int frameShift = cdsPos.getPos() % 3;
 		int codonStart = txPos.getPos() - frameShift; // codon start in transcript string
-		if (transcript.getSequence().length() <= codonStart + 3)
+		if (!hasCodonAt(txPos, cdsPos))
 			throw new InvalidCodonException("Could not access codon " + codonStart + " - " + (codonStart + 3)
-					+ ", transcript sequence length is " + transcript.getSequence().length());
-		return transcript.getSequence().substring(codonStart, codonStart + 3);
+					+ ", transcript sequence length is " + transcript.getSequenceLength());
+		return transcript.getSequence(codonStart, codonStart + 3);
 	}
 
 	/**
@@ -109,9 +122,9 @@ public final class TranscriptSequenceDecorator {
 		int frameShift = cdsPos.getPos() % 3;
 		int codonStart = txPos.getPos() - frameShift; // codon start in transcript string
 		int endPos = codonStart + 3 * count;
-		if (endPos > transcript.getSequence().length())
-			endPos = transcript.getSequence().length();
-		return transcript.getSequence().substring(codonStart, endPos);
+		if (endPos > transcript.getSequenceLength())
+			endPos = transcript.getSequenceLength();
+		return transcript.getSequence(codonStart, endPos);
 	}
 
 	/**
@@ -125,7 +138,7 @@ public final class TranscriptSequenceDecorator {
 	 * @return the codon affected by a change at the given position
 	 */
 	public String getCodonsStartingFrom(TranscriptPosition txPos, CDSPosition cdsPos) {
-		return getCodonsStartingFrom(txPos, cdsPos, transcript.getSequence().length());
+		return getCodonsStartingFrom(txPos, cdsPos, transcript.getSequenceLength());
 	}
 
 }
@@ -0,0 +1,75 @@
+package de.charite.compbio.jannovar.reference;
+
+import java.io.Serializable;
+
+/**
+ * Storage of transcript sequences outside of {@link TranscriptModel} objects, e.g., in a memory-mapped file.
+ *
+ * A {@link TranscriptModel} backed by a store only keeps the offset and length of its sequence in the store, see
+ * {@link TranscriptModel#withSequenceStore}. All methods must be thread-safe.
+ */
+public interface TranscriptSequenceStore extends Serializable {
+
+	/** @return <code>true</code> if sequences can be read from the store */
+	public boolean isOpen();
+
+	/**
+	 * Read sequence from the store
+	 *
+	 * @param offset
+	 *            offset of the first character in the store
+	 * @param length
+	 *            number of characters to read
+	 * @return the sequence as a {@link String}
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	public String getSequence(long offset, int length);
+
+	/**
+	 * Compute hash code of sequence without decoding it
+	 *
+	 * @param offset
+	 *            offset of the first character in the store
+	 * @param length
+	 *            number of characters
+	 * @return the same value as <code>getSequence(offset, length).hashCode()</code>
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	public int getSequenceHashCode(long offset, int length);
+
+	/**
+	 * Compare sequence with <code>other</code> without decoding it
+	 *
+	 * @param offset
+	 *            offset of the first character in the store
+	 * @param length
+	 *            number of characters
+	 * @param other
+	 *            the sequence to compare with
+	 * @return the same value as <code>getSequence(offset, length).equals(other)</code>
+	 * @throws IllegalStateException
+	 *             if the store is not open
+	 */
+	public boolean sequenceEquals(long offset, int length, String other);
+
+	/**
+	 * Compare sequence with a sequence of <code>otherStore</code>
+	 *
+	 * @param offset
+	 *            offset of the first character in the store
+	 * @param length
+	 *            number of characters
+	 * @param otherStore
+	 *            the store with the sequence to compare with
+	 * @param otherOffset
+	 *            offset of the first character of the other sequence in <code>otherStore</code>
+	 * @return the same value as
+	 *         <code>getSequence(offset, length).equals(otherStore.getSequence(otherOffset, length))</code>
+	 * @throws IllegalStateException
+	 *             if one of the stores is not open
+	 */
+	public boolean sequenceEquals(long offset, int length, TranscriptSequenceStore otherStore, long otherOffset);
+
+}
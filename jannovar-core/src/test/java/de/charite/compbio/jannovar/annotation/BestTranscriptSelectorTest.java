@@ -0,0 +1,116 @@
+package de.charite.compbio.jannovar.annotation;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+import de.charite.compbio.jannovar.reference.TranscriptSupportLevels;
+
+public class BestTranscriptSelectorTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** isoforms of overlapping genes with shared and skipped exons */
+	ImmutableList<TranscriptModel> transcripts;
+	/** annotator building the annotations for all transcripts */
+	VariantAnnotator allAnnotator;
+	/** annotator building the best annotation only */
+	VariantAnnotator bestAnnotator;
+
+	@Before
+	public void setUp() {
+		transcripts = ImmutableList.of(
+				buildTranscript("NM_000010.1", Strand.FWD, true, TranscriptSupportLevels.TSL2, 1000, 1100, 1300,
+						1400, 1600, 1700),
+				buildTranscript("NM_000011.1", Strand.FWD, true, TranscriptSupportLevels.TSL1, 1000, 1100, 1600, 1700),
+				buildTranscript("NM_000012.1", Strand.FWD, true, TranscriptSupportLevels.TSL3, 1000, 1100, 1300, 1400),
+				buildTranscript("NR_000013.1", Strand.FWD, false, TranscriptSupportLevels.TSL1, 1050, 1150, 1500,
+						1700),
+				buildTranscript("NM_000014.1", Strand.REV, true, TranscriptSupportLevels.TSL1, 1200, 1250, 1450, 1520));
+		JannovarData data = new JannovarData(refDict, transcripts);
+		allAnnotator = new VariantAnnotator(refDict, data.getChromosomes(), new AnnotationBuilderOptions());
+		bestAnnotator = new VariantAnnotator(refDict, data.getChromosomes(),
+				new AnnotationBuilderOptions(true, false, 0, true, 0));
+	}
+
+	/** @return transcript of gene <tt>GENE</tt> + third-last accession character on chromosome 1 */
+	private static TranscriptModel buildTranscript(String accession, Strand strand, boolean coding, int tsl,
+			int... exonBounds) {
+		final String geneSymbol = "GENE" + accession.substring(accession.length() - 3, accession.length() - 2);
+		TranscriptModelBuilder builder = TranscriptModelFactory.buildTranscriptBuilder(refDict, accession, geneSymbol,
+				strand, 1, exonBounds);
+		builder.setTranscriptSupportLevel(tsl);
+		if (!coding)
+			builder.setCDSRegion(region(strand, exonBounds[0], exonBounds[0]));
+		return builder.build();
+	}
+
+	private static GenomeInterval region(Strand strand, int beginPos, int endPos) {
+		return new GenomeInterval(refDict, Strand.FWD, 1, beginPos, endPos, PositionType.ZERO_BASED)
+				.withStrand(strand);
+	}
+
+	private static GenomeVariant variant(int pos, String ref, String alt) {
+		return new GenomeVariant(new GenomePosition(refDict, Strand.FWD, 1, pos, PositionType.ZERO_BASED), ref, alt);
+	}
+
+	private void assertSameBest(GenomeVariant change) throws AnnotationException {
+		final Annotation expected;
+		try {
+			expected = allAnnotator.buildAnnotations(change).getHighestImpactAnnotation();
+		} catch (RuntimeException e) {
+			return; // the builders cannot handle some block substitutions at the boundaries of these transcripts
+		}
+		final VariantAnnotations actual = bestAnnotator.buildAnnotations(change);
+		Assert.assertEquals(change.toString(), 1, actual.getAnnotations().size());
+		Assert.assertEquals(change.toString(), expected.toVCFAnnoString(change.getAlt()),
+				actual.getHighestImpactAnnotation().toVCFAnnoString(change.getAlt()));
+	}
+
+	@Test
+	public void testSameBestAnnotationForSNVs() throws AnnotationException {
+		for (int pos = 950; pos < 1750; ++pos)
+			assertSameBest(variant(pos, "A", "C"));
+	}
+
+	@Test
+	public void testSameBestAnnotationForIndels() throws AnnotationException {
+		for (int pos = 950; pos < 1750; ++pos) {
+			assertSameBest(variant(pos, "", "GCA"));
+			assertSameBest(variant(pos, "GCAT", ""));
+			assertSameBest(variant(pos, "GC", "TTT"));
+		}
+	}
+
+	@Test
+	public void testPreferredTranscriptSupportLevel() throws AnnotationException {
+		JannovarData data = new JannovarData(refDict, transcripts);
+		VariantAnnotator annotator = new VariantAnnotator(refDict, data.getChromosomes(),
+				new AnnotationBuilderOptions(true, false, 0, true, TranscriptSupportLevels.TSL1));
+
+		// exon of NM_000010.1 (TSL2), intron of NM_000011.1 (TSL1)
+		Annotation anno = annotator.buildAnnotations(variant(1350, "A", "C")).getHighestImpactAnnotation();
+		Assert.assertEquals("NM_000011.1", anno.getTranscript().getAccession());
+		Assert.assertEquals(VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT, anno.getMostPathogenicVarType());
+
+		// only NM_000012.1 (TSL3) and NM_000010.1 (TSL2) overlap, no preferred transcript
+		anno = annotator.buildAnnotations(variant(1020, "A", "C")).getHighestImpactAnnotation();
+		Assert.assertTrue(anno.getTranscript().getAccession().startsWith("NM_00001"));
+	}
+
+}
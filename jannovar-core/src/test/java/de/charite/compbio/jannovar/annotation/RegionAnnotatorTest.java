@@ -0,0 +1,122 @@
+package de.charite.compbio.jannovar.annotation;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.charite.compbio.jannovar.annotation.RegionOverlap.Feature;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class RegionAnnotatorTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** forward strand transcript with exons [1000, 1100) and [1900, 2000), CDS [1050, 1950) */
+	TranscriptModel tx1;
+	/** reverse strand transcript with exons [3000, 3100) and [3500, 3600), all coding */
+	TranscriptModel tx2;
+	/** the annotator to test */
+	RegionAnnotator annotator;
+
+	@Before
+	public void setUp() {
+		TranscriptModelBuilder builder = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000001.1",
+				"GENE", Strand.FWD, 1, 1000, 1100, 1900, 2000);
+		builder.setCDSRegion(region(1, 1050, 1950));
+		tx1 = builder.build();
+		tx2 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000002.1", "GENE", Strand.REV, 1, 3000, 3100,
+				3500, 3600).build();
+		JannovarData data = new JannovarData(refDict, ImmutableList.of(tx1, tx2));
+		annotator = new RegionAnnotator(refDict, data.getChromosomes());
+	}
+
+	private static GenomeInterval region(int chr, int beginPos, int endPos) {
+		return new GenomeInterval(refDict, Strand.FWD, chr, beginPos, endPos, PositionType.ZERO_BASED);
+	}
+
+	@Test
+	public void testExonWithUTR() throws AnnotationException {
+		RegionAnnotations annos = annotator.annotate(region(1, 1040, 1060));
+
+		Assert.assertEquals(1, annos.getOverlaps().size());
+		RegionOverlap overlap = annos.getOverlaps().get(0);
+		Assert.assertSame(tx1, overlap.getTranscript());
+		Assert.assertEquals(ImmutableSet.of(Feature.EXON, Feature.CDS, Feature.FIVE_PRIME_UTR), overlap.getFeatures());
+		Assert.assertEquals(ImmutableList.of(1), overlap.getExonNumbers());
+		Assert.assertEquals(20, overlap.getExonicBases());
+		Assert.assertEquals(10, overlap.getCDSBases());
+	}
+
+	@Test
+	public void testSpliceDonor() throws AnnotationException {
+		RegionOverlap overlap = annotator.annotate(region(1, 1100, 1102)).getOverlaps().get(0);
+
+		Assert.assertEquals(ImmutableSet.of(Feature.INTRON, Feature.SPLICE_DONOR_SITE, Feature.SPLICE_REGION),
+				overlap.getFeatures());
+		Assert.assertTrue(overlap.getExonNumbers().isEmpty());
+		Assert.assertEquals(0, overlap.getCDSBases());
+	}
+
+	@Test
+	public void testReverseStrand() throws AnnotationException {
+		RegionOverlap first = annotator.annotate(region(1, 3100, 3102)).getOverlaps().get(0);
+		Assert.assertSame(tx2, first.getTranscript());
+		Assert.assertEquals(ImmutableSet.of(Feature.INTRON, Feature.SPLICE_ACCEPTOR_SITE, Feature.SPLICE_REGION),
+				first.getFeatures());
+
+		RegionOverlap second = annotator.annotate(region(1, 3590, 3610)).getOverlaps().get(0);
+		Assert.assertEquals(ImmutableSet.of(Feature.EXON, Feature.CDS), second.getFeatures());
+		Assert.assertEquals(ImmutableList.of(1), second.getExonNumbers());
+		Assert.assertEquals(10, second.getCDSBases());
+	}
+
+	@Test
+	public void testSweep() throws AnnotationException {
+		Assert.assertFalse(annotator.annotate(region(1, 500, 600)).hasOverlaps());
+
+		RegionOverlap whole = annotator.annotate(region(1, 900, 2100)).getOverlaps().get(0);
+		Assert.assertEquals(ImmutableList.of(1, 2), whole.getExonNumbers());
+		Assert.assertEquals(1.0, whole.getCDSCoverage(), 1e-9);
+
+		RegionAnnotations both = annotator.annotate(region(1, 1950, 3050));
+		Assert.assertEquals(2, both.getOverlaps().size());
+		Assert.assertSame(tx1, both.getOverlaps().get(0).getTranscript());
+		Assert.assertEquals(ImmutableSet.of(Feature.EXON, Feature.THREE_PRIME_UTR), both.getOverlaps().get(0)
+				.getFeatures());
+		Assert.assertSame(tx2, both.getOverlaps().get(1).getTranscript());
+		Assert.assertEquals(ImmutableList.of(2), both.getOverlaps().get(1).getExonNumbers());
+
+		// nested in previous region, tx2 is still active but does not overlap
+		RegionAnnotations nested = annotator.annotate(region(1, 1960, 1970));
+		Assert.assertEquals(1, nested.getOverlaps().size());
+		Assert.assertSame(tx1, nested.getOverlaps().get(0).getTranscript());
+
+		Assert.assertFalse(annotator.annotate(region(2, 1000, 2000)).hasOverlaps());
+	}
+
+	@Test(expected = AnnotationException.class)
+	public void testUnsortedBeginPositions() throws AnnotationException {
+		annotator.annotate(region(1, 2000, 2100));
+		annotator.annotate(region(1, 1000, 1100));
+	}
+
+	@Test(expected = AnnotationException.class)
+	public void testUnsortedChromosomes() throws AnnotationException {
+		annotator.annotate(region(1, 2000, 2100));
+		annotator.annotate(region(2, 1000, 1100));
+		annotator.annotate(region(1, 3000, 3100));
+	}
+
+}
@@ -0,0 +1,104 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class SortedVariantAnnotatorTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** interval tree based annotator to compare against */
+	VariantAnnotator treeAnnotator;
+	/** the annotator to test */
+	SortedVariantAnnotator sortedAnnotator;
+
+	@Before
+	public void setUp() {
+		TranscriptModelBuilder nonCoding = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NR_000005.1",
+				"GENE5", Strand.FWD, 1, 7600, 7800);
+		nonCoding.setCDSRegion(region(7600, 7600));
+		ImmutableList<TranscriptModel> transcripts = ImmutableList.of(
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000001.1", "GENE1", Strand.FWD, 1, 1000, 1099, 1200, 1302)
+						.build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000002.1", "GENE2", Strand.FWD, 1, 1050, 1302).build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000003.1", "GENE3", Strand.REV, 1, 5000, 5300).build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000004.1", "GENE4", Strand.FWD, 1, 7500, 7800).build(),
+				nonCoding.build());
+		JannovarData data = new JannovarData(refDict, transcripts);
+		treeAnnotator = new VariantAnnotator(refDict, data.getChromosomes(), new AnnotationBuilderOptions());
+		sortedAnnotator = new SortedVariantAnnotator(refDict, data.getChromosomes(), new AnnotationBuilderOptions());
+	}
+
+	private static GenomeInterval region(int beginPos, int endPos) {
+		return new GenomeInterval(refDict, Strand.FWD, 1, beginPos, endPos, PositionType.ZERO_BASED);
+	}
+
+	private static GenomeVariant variant(int chr, int pos, String ref, String alt) {
+		return new GenomeVariant(new GenomePosition(refDict, Strand.FWD, chr, pos, PositionType.ZERO_BASED), ref, alt);
+	}
+
+	private static List<String> annoStrings(VariantAnnotations annos) {
+		List<String> result = new ArrayList<>();
+		for (Annotation anno : annos.getAnnotations())
+			result.add(anno.toVCFAnnoString(annos.getGenomeVariant().getAlt()));
+		return result;
+	}
+
+	@Test
+	public void testSameAnnotationsAsVariantAnnotator() throws AnnotationException {
+		List<GenomeVariant> variants = new ArrayList<>();
+		for (int pos = 0; pos < 9000; pos += 37) {
+			// multi-allelic site, the deletion begins right of the SNV after normalization
+			variants.add(variant(1, pos, "ACG", "A"));
+			variants.add(variant(1, pos, "A", "C"));
+			variants.add(variant(1, pos + 5, "A", "ATT"));
+		}
+		// transcripts NM_000004.1 and NR_000005.1 both end at this position
+		variants.add(variant(1, 7800, "A", "C"));
+		variants.add(variant(1, 7801, "A", "C"));
+		variants.add(variant(2, 1000, "A", "C"));
+		variants.add(variant(1, 1100, "A", "C"));
+
+		int numWithAnnotations = 0;
+		for (GenomeVariant change : variants) {
+			final VariantAnnotations expected = treeAnnotator.buildAnnotations(change);
+			final VariantAnnotations actual = sortedAnnotator.buildAnnotations(change);
+			Assert.assertEquals(change.toString(), annoStrings(expected), annoStrings(actual));
+			if (actual.hasAnnotation())
+				++numWithAnnotations;
+		}
+		Assert.assertTrue(numWithAnnotations > 0);
+		Assert.assertTrue(sortedAnnotator.getNumTreeQueries() > 0);
+		Assert.assertTrue(sortedAnnotator.getNumTreeQueries() < variants.size() / 2);
+	}
+
+	@Test
+	public void testSymbolicAllele() throws AnnotationException {
+		Assert.assertFalse(sortedAnnotator.buildAnnotations(variant(1, 1100, "A", "<DEL>")).hasAnnotation());
+	}
+
+}
@@ -0,0 +1,83 @@
+package de.charite.compbio.jannovar.annotation;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+
+public class VariantAnnotationsTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	GenomeVariant change;
+	Annotation intronic;
+	Annotation missense1;
+	Annotation missense2;
+	Annotation empty;
+
+	@Before
+	public void setUp() {
+		change = new GenomeVariant(new GenomePosition(refDict, Strand.FWD, 1, 1500, PositionType.ZERO_BASED), "A", "C");
+		intronic = buildAnnotation("NM_000001.1", VariantEffect.CODING_TRANSCRIPT_INTRON_VARIANT,
+				VariantEffect.SPLICE_REGION_VARIANT);
+		missense1 = buildAnnotation("NM_000003.1", VariantEffect.MISSENSE_VARIANT, VariantEffect.SPLICE_REGION_VARIANT);
+		missense2 = buildAnnotation("NM_000002.1", VariantEffect.MISSENSE_VARIANT);
+		empty = new Annotation(ImmutableList.of(AnnotationMessage.ERROR_PROBLEM_DURING_ANNOTATION));
+	}
+
+	private Annotation buildAnnotation(String accession, VariantEffect... effects) {
+		TranscriptModelBuilder builder = new TranscriptModelBuilder();
+		builder.setAccession(accession);
+		builder.setGeneSymbol("GENE");
+		builder.setStrand(Strand.FWD);
+		GenomeInterval region = new GenomeInterval(refDict, Strand.FWD, 1, 1000, 2000, PositionType.ZERO_BASED);
+		builder.setTXRegion(region);
+		builder.setCDSRegion(region);
+		builder.addExonRegion(region);
+		builder.setSequence("ACGT");
+		TranscriptModel tm = builder.build();
+		return new Annotation(tm, change, ImmutableList.copyOf(effects), null, null, null, null);
+	}
+
+	@Test
+	public void testHighestImpactAnnotationWithoutSorting() {
+		VariantAnnotations annos = new VariantAnnotations(change, ImmutableList.of(empty, intronic, missense1,
+				missense2));
+		Assert.assertSame(missense2, annos.getHighestImpactAnnotation());
+		Assert.assertEquals(VariantEffect.MISSENSE_VARIANT, annos.getHighestImpactEffect());
+		Assert.assertEquals(ImmutableList.of(missense2, missense1, intronic, empty), annos.getAnnotations());
+		Assert.assertSame(missense2, annos.getHighestImpactAnnotation());
+	}
+
+	@Test
+	public void testHighestImpactAnnotationOfEmptyList() {
+		VariantAnnotations annos = VariantAnnotations.buildEmptyList(change);
+		Assert.assertFalse(annos.hasAnnotation());
+		Assert.assertNull(annos.getHighestImpactAnnotation());
+		Assert.assertEquals(VariantEffect.SEQUENCE_VARIANT, annos.getHighestImpactEffect());
+	}
+
+	@Test
+	public void testEffectMask() {
+		Assert.assertEquals(VariantEffect.MISSENSE_VARIANT.getMask() | VariantEffect.SPLICE_REGION_VARIANT.getMask(),
+				missense1.getEffectMask());
+		Assert.assertEquals(PutativeImpact.MODERATE, missense1.getPutativeImpact());
+		Assert.assertEquals(VariantEffect.MISSENSE_VARIANT, missense1.getEffects().first());
+		Assert.assertNull(empty.getMostPathogenicVarType());
+		Assert.assertNull(empty.getPutativeImpact());
+		Assert.assertTrue(empty.getEffects().isEmpty());
+	}
+
+}
@@ -0,0 +1,119 @@
+package de.charite.compbio.jannovar.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class VariantAnnotatorTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** database with the test transcripts */
+	JannovarData data;
+	/** the annotator to test */
+	VariantAnnotator annotator;
+
+	@Before
+	public void setUp() {
+		TranscriptModelBuilder nonCoding = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NR_000005.1",
+				"GENE5", Strand.FWD, 1, 7600, 7800);
+		nonCoding.setCDSRegion(region(7600, 7600));
+		ImmutableList<TranscriptModel> transcripts = ImmutableList.of(
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000001.1", "GENE1", Strand.FWD, 1, 1000, 1099, 1200, 1302)
+						.build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000002.1", "GENE2", Strand.FWD, 1, 1050, 1302).build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000003.1", "GENE3", Strand.REV, 1, 5000, 5300).build(),
+				TranscriptModelFactory
+						.buildTranscriptBuilder(refDict, "NM_000004.1", "GENE4", Strand.FWD, 1, 7500, 7800).build(),
+				nonCoding.build());
+		data = new JannovarData(refDict, transcripts);
+		annotator = new VariantAnnotator(refDict, data.getChromosomes(), new AnnotationBuilderOptions());
+	}
+
+	private static GenomeInterval region(int beginPos, int endPos) {
+		return new GenomeInterval(refDict, Strand.FWD, 1, beginPos, endPos, PositionType.ZERO_BASED);
+	}
+
+	private static GenomeVariant variant(int chr, int pos, String ref, String alt) {
+		return new GenomeVariant(new GenomePosition(refDict, Strand.FWD, chr, pos, PositionType.ZERO_BASED), ref, alt);
+	}
+
+	private static List<String> annoStrings(VariantAnnotations annos) {
+		List<String> result = new ArrayList<>();
+		for (Annotation anno : annos.getAnnotations())
+			result.add(anno.toVCFAnnoString(annos.getGenomeVariant().getAlt()));
+		return result;
+	}
+
+	@Test
+	public void testBatchSameAnnotationsAsSingle() throws AnnotationException {
+		for (int pos = 0; pos < 9000; pos += 37) {
+			// block of a multi-allelic site and a nearby record, the deletion begins right of the SNV after
+			// normalization
+			List<GenomeVariant> block = ImmutableList.of(variant(1, pos, "ACG", "A"), variant(1, pos, "A", "C"),
+					variant(1, pos, "A", "<DEL>"), variant(1, pos + 5, "A", "ATT"), variant(1, pos + 60, "A", "T"));
+			final ImmutableList<VariantAnnotations> actual = annotator.buildAnnotations(block);
+			Assert.assertEquals(block.size(), actual.size());
+			for (int i = 0; i < block.size(); ++i)
+				Assert.assertEquals(block.get(i).toString(), annoStrings(annotator.buildAnnotations(block.get(i))),
+						annoStrings(actual.get(i)));
+		}
+	}
+
+	@Test
+	public void testBatchMultipleChromosomes() throws AnnotationException {
+		List<GenomeVariant> block = ImmutableList.of(variant(1, 1100, "A", "C"), variant(2, 1100, "A", "C"),
+				variant(1, 7800, "A", "C"));
+		final ImmutableList<VariantAnnotations> actual = annotator.buildAnnotations(block);
+		Assert.assertEquals(3, actual.size());
+		Assert.assertEquals(2, actual.get(0).getAnnotations().size());
+		Assert.assertFalse(actual.get(1).hasAnnotation());
+		for (int i = 0; i < block.size(); ++i)
+			Assert.assertEquals(annoStrings(annotator.buildAnnotations(block.get(i))), annoStrings(actual.get(i)));
+	}
+
+	@Test
+	public void testUnknownChromosome() throws AnnotationException {
+		final VariantAnnotator chr1Annotator = new VariantAnnotator(refDict,
+				ImmutableMap.of(1, data.getChromosomes().get(1)), new AnnotationBuilderOptions());
+		final AnnotationMessageCounter counter = new AnnotationMessageCounter();
+
+		counter.incrementErrors(chr1Annotator.buildAnnotations(variant(2, 1100, "A", "C")));
+		final ImmutableList<VariantAnnotations> annos = chr1Annotator
+				.buildAnnotations(ImmutableList.of(variant(1, 1100, "A", "C"), variant(2, 1100, "A", "C")));
+		for (VariantAnnotations alleleAnnos : annos)
+			counter.incrementErrors(alleleAnnos);
+		counter.incrementErrors(chr1Annotator.buildStructuralVariantAnnotations(variant(2, 1100, "A", "<DEL>"),
+				new GenomeInterval(refDict, Strand.FWD, 2, 1100, 5000, PositionType.ZERO_BASED),
+				StructuralVariantType.DEL));
+
+		Assert.assertEquals(ImmutableList.of(), annos.get(0).getHighestImpactAnnotation().getMessages().asList());
+		Assert.assertEquals(ImmutableList.of(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND),
+				annos.get(1).getHighestImpactAnnotation().getMessages().asList());
+		Assert.assertEquals(ImmutableMap.of(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND, 3L), counter.getCounts());
+	}
+
+}
@@ -5,7 +5,11 @@ import org.junit.Test;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableSortedSet;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 /**
  * Unit tests for {@link VariantEffect}s.
@@ -26,4 +30,33 @@ public class VariantEffectTest {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  public void impactTableMatchesImpactRanges() {
+    for (VariantEffect variantEffect : VariantEffect.values()) {
+      final PutativeImpact expected;
+      if (variantEffect.ordinal() <= VariantEffect._SMALLEST_HIGH_IMPACT.ordinal())
+        expected = PutativeImpact.HIGH;
+      else if (variantEffect.ordinal() <= VariantEffect._SMALLEST_MODERATE_IMPACT.ordinal())
+        expected = PutativeImpact.MODERATE;
+      else if (variantEffect.ordinal() <= VariantEffect._SMALLEST_LOW_IMPACT.ordinal())
+        expected = PutativeImpact.LOW;
+      else
+        expected = PutativeImpact.MODIFIER;
+      assertEquals(expected, variantEffect.getImpact());
+    }
+  }
+
+  @Test
+  public void masksRoundTrip() {
+    ImmutableSortedSet<VariantEffect> effects = ImmutableSortedSet.of(VariantEffect.SEQUENCE_VARIANT,
+        VariantEffect.MISSENSE_VARIANT, VariantEffect.SPLICE_REGION_VARIANT);
+    final long mask = VariantEffect.toMask(effects);
+    assertEquals(effects, VariantEffect.fromMask(mask));
+    assertEquals(VariantEffect.MISSENSE_VARIANT, VariantEffect.mostPathogenic(mask));
+    assertEquals(PutativeImpact.MODERATE, VariantEffect.highestImpact(mask));
+    assertEquals(ImmutableSortedSet.of(), VariantEffect.fromMask(0));
+    assertNull(VariantEffect.mostPathogenic(0));
+    assertNull(VariantEffect.highestImpact(0));
+  }
+
+}
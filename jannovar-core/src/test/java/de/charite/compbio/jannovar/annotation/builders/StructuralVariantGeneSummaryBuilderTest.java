@@ -0,0 +1,119 @@
+package de.charite.compbio.jannovar.annotation.builders;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.annotation.Annotation;
+import de.charite.compbio.jannovar.annotation.AnnotationMessage;
+import de.charite.compbio.jannovar.annotation.StructuralVariantType;
+import de.charite.compbio.jannovar.annotation.VariantEffect;
+import de.charite.compbio.jannovar.annotation.builders.StructuralVariantGeneSummaryBuilder.GeneOverlapType;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.GenomePosition;
+import de.charite.compbio.jannovar.reference.GenomeVariant;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class StructuralVariantGeneSummaryBuilderTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** transcript with exons [1000, 1100) and [1900, 2000) */
+	TranscriptModel tx1;
+	/** second transcript of the gene of tx1, with exon [1000, 2000) */
+	TranscriptModel tx1b;
+	/** transcript with exons [5000, 5100) and [5900, 6000) */
+	TranscriptModel tx2;
+
+	@Before
+	public void setUp() {
+		tx1 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000001.1", "GENE1", Strand.FWD, 1, 1000,
+				1100, 1900, 2000).build();
+		tx1b = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000011.1", "GENE1", Strand.FWD, 1, 1000,
+				2000).build();
+		tx2 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000002.1", "GENE2", Strand.FWD, 1, 5000,
+				5100, 5900, 6000).build();
+	}
+
+	private static GenomeVariant symbolicVariant(int pos, String alt) {
+		return new GenomeVariant(new GenomePosition(refDict, Strand.FWD, 1, pos, PositionType.ZERO_BASED), "N", alt);
+	}
+
+	private static GenomeInterval region(int beginPos, int endPos) {
+		return new GenomeInterval(refDict, Strand.FWD, 1, beginPos, endPos, PositionType.ZERO_BASED);
+	}
+
+	@Test
+	public void testClassify() {
+		StructuralVariantGeneSummaryBuilder contained = new StructuralVariantGeneSummaryBuilder(
+				symbolicVariant(499, "<DEL>"), region(500, 3000), StructuralVariantType.DEL, ImmutableList.of(tx1), 0);
+		Assert.assertEquals(GeneOverlapType.CONTAINED, contained.classify(tx1));
+
+		StructuralVariantGeneSummaryBuilder exon = new StructuralVariantGeneSummaryBuilder(
+				symbolicVariant(1049, "<INV>"), region(1050, 3000), StructuralVariantType.INV, ImmutableList.of(tx1),
+				0);
+		Assert.assertEquals(GeneOverlapType.BREAKPOINT_IN_EXON, exon.classify(tx1));
+
+		StructuralVariantGeneSummaryBuilder intron = new StructuralVariantGeneSummaryBuilder(
+				symbolicVariant(1199, "<DUP>"), region(1200, 1800), StructuralVariantType.DUP, ImmutableList.of(tx1),
+				0);
+		Assert.assertEquals(GeneOverlapType.BREAKPOINT_IN_INTRON, intron.classify(tx1));
+	}
+
+	@Test
+	public void testOneAnnotationPerGene() {
+		// breakpoint in the intron of tx1 but in the exon of tx1b, other breakpoint after tx2
+		ImmutableList<Annotation> annos = new StructuralVariantGeneSummaryBuilder(symbolicVariant(1199, "<DEL>"),
+				region(1200, 7000), StructuralVariantType.DEL, ImmutableList.of(tx1, tx1b, tx2), 0).build();
+
+		Assert.assertEquals(2, annos.size());
+		Assert.assertSame(tx1b, annos.get(0).getTranscript());
+		Assert.assertEquals(ImmutableList.of(VariantEffect.EXON_LOSS_VARIANT, VariantEffect.STRUCTURAL_VARIANT),
+				annos.get(0).getEffects().asList());
+		Assert.assertSame(tx2, annos.get(1).getTranscript());
+		Assert.assertEquals(ImmutableList.of(VariantEffect.TRANSCRIPT_ABLATION, VariantEffect.STRUCTURAL_VARIANT),
+				annos.get(1).getEffects().asList());
+		Assert.assertTrue(annos.get(1).getMessages().isEmpty());
+		Assert.assertEquals("g.1201_7000del", annos.get(1).getGenomicNTChangeStr());
+	}
+
+	@Test
+	public void testMaxGenes() {
+		ImmutableList<Annotation> annos = new StructuralVariantGeneSummaryBuilder(symbolicVariant(1049, "<DEL>"),
+				region(1050, 7000), StructuralVariantType.DEL, ImmutableList.of(tx1, tx2), 1).build();
+
+		Assert.assertEquals(1, annos.size());
+		Assert.assertSame(tx2, annos.get(0).getTranscript());
+		Assert.assertEquals(ImmutableList.of(AnnotationMessage.INFO_TRUNCATED_ANNOTATIONS),
+				annos.get(0).getMessages().asList());
+	}
+
+	@Test
+	public void testIntergenic() {
+		ImmutableList<Annotation> annos = new StructuralVariantGeneSummaryBuilder(symbolicVariant(9999, "<DUP>"),
+				region(10000, 20000), StructuralVariantType.DUP, ImmutableList.<TranscriptModel> of(), 0).build();
+
+		Assert.assertEquals(1, annos.size());
+		Assert.assertNull(annos.get(0).getTranscript());
+		Assert.assertTrue(annos.get(0).getEffects().contains(VariantEffect.INTERGENIC_VARIANT));
+		Assert.assertEquals("g.10001_20000dup", annos.get(0).getGenomicNTChangeStr());
+	}
+
+	@Test
+	public void testStructuralVariantType() {
+		Assert.assertEquals(StructuralVariantType.DEL, StructuralVariantType.fromSymbolicAllele("<DEL>"));
+		Assert.assertEquals(StructuralVariantType.DUP, StructuralVariantType.fromSymbolicAllele("<DUP:TANDEM>"));
+		Assert.assertNull(StructuralVariantType.fromSymbolicAllele("<BND>"));
+		Assert.assertNull(StructuralVariantType.fromSymbolicAllele("A"));
+		Assert.assertEquals(StructuralVariantType.INS, StructuralVariantType.fromAlleleLengths(1, 2000));
+	}
+
+}
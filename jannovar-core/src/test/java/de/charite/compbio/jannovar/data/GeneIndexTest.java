@@ -0,0 +1,97 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class GeneIndexTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	JannovarData data;
+
+	@Before
+	public void setUp() {
+		// GENE1 has two overlapping transcripts and a distant one on the reverse strand
+		TranscriptModel tx1 = buildTranscript("NM_000001.1", "GENE1", "1", Strand.FWD, 1, 1000, 2000);
+		TranscriptModel tx2 = buildTranscript("NM_000002.1", "GENE1", "1", Strand.FWD, 1, 1500, 3000);
+		TranscriptModel tx3 = buildTranscript("NM_000003.1", "GENE1", "1", Strand.REV, 1, 50000, 51000);
+		// GENE2 lies within GENE1 and on another chromosome
+		TranscriptModel tx4 = buildTranscript("NM_000004.1", "GENE2", "2", Strand.FWD, 1, 1200, 1300);
+		TranscriptModel tx5 = buildTranscript("NM_000005.1", "GENE2", "2", Strand.FWD, 2, 1000, 2000);
+		data = new JannovarData(refDict, ImmutableList.of(tx1, tx2, tx3, tx4, tx5));
+	}
+
+	/** @return single-exon transcript of the gene with <code>geneID</code> */
+	private static TranscriptModel buildTranscript(String accession, String geneSymbol, String geneID, Strand strand,
+			int chr, int begin, int end) {
+		TranscriptModelBuilder builder = TranscriptModelFactory.buildTranscriptBuilder(refDict, accession, geneSymbol,
+				strand, chr, begin, end);
+		builder.setGeneID(geneID);
+		return builder.build();
+	}
+
+	@Test
+	public void testClustering() {
+		ImmutableList<GeneModel> genes = data.getGeneIndex().getGenes();
+		Assert.assertEquals(4, genes.size());
+
+		Assert.assertEquals("GENE1", genes.get(0).getGeneSymbol());
+		Assert.assertEquals("1", genes.get(0).getGeneID());
+		Assert.assertEquals(new GenomeInterval(refDict, Strand.FWD, 1, 1000, 3000), genes.get(0).getRegion());
+		Assert.assertEquals(2, genes.get(0).getTranscripts().size());
+		Assert.assertSame(data.getTmByAccession().get("NM_000001.1"), genes.get(0).getTranscripts().get(0));
+
+		Assert.assertEquals("GENE2", genes.get(1).getGeneSymbol());
+		Assert.assertEquals(new GenomeInterval(refDict, Strand.FWD, 1, 1200, 1300), genes.get(1).getRegion());
+
+		Assert.assertEquals("GENE1", genes.get(2).getGeneSymbol());
+		Assert.assertEquals(new GenomeInterval(refDict, Strand.FWD, 1, 50000, 51000), genes.get(2).getRegion());
+		Assert.assertNotEquals(genes.get(0), genes.get(2));
+
+		Assert.assertEquals(2, genes.get(3).getChr());
+		Assert.assertEquals(2, data.getGeneIndex().getGenesBySymbol().get("GENE2").size());
+	}
+
+	@Test
+	public void testIntervalTrees() {
+		IntervalArray<GeneModel> iTree = data.getGeneIndex().getGeneIntervalTrees().get(1);
+		Assert.assertEquals(3, iTree.size());
+		ImmutableList<GeneModel> overlapping = iTree.findOverlappingWithInterval(1250, 1260).getEntries();
+		Assert.assertEquals(2, overlapping.size());
+		Assert.assertTrue(iTree.findOverlappingWithInterval(10000, 20000).getEntries().isEmpty());
+		Assert.assertNull(data.getGeneIndex().getGeneIntervalTrees().get(3));
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		final File serFile = new File(tmpFolder.getRoot(), "test.ser");
+		new JannovarDataSerializer(serFile.getPath()).save(data);
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+
+		Assert.assertEquals(data.getGeneIndex().getGenes(), loaded.getGeneIndex().getGenes());
+		// the transcripts of the genes are the transcripts of the database
+		GeneModel gene = loaded.getGeneIndex().getGenesBySymbol().get("GENE1").iterator().next();
+		Assert.assertSame(loaded.getTmByAccession().get(gene.getTranscripts().get(0).getAccession()),
+				gene.getTranscripts().get(0));
+	}
+
+}
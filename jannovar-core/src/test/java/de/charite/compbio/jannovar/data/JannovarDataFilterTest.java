@@ -0,0 +1,78 @@
+package de.charite.compbio.jannovar.data;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class JannovarDataFilterTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	JannovarData data;
+
+	@Before
+	public void setUp() {
+		TranscriptModel tx1 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000001.1", "GENE1",
+				Strand.FWD, 1, 1000, 2000).build();
+		TranscriptModel tx2 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000002.2", "GENE2",
+				Strand.FWD, 1, 5000, 6000).build();
+		TranscriptModel tx3 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000003.1", "GENE3",
+				Strand.FWD, 2, 1000, 2000).build();
+		TranscriptModel tx4 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_000004.1", "GENE3",
+				Strand.FWD, 3, 1000, 2000).build();
+		data = new JannovarData(refDict, ImmutableList.of(tx1, tx2, tx3, tx4));
+	}
+
+	private static JannovarDataFilter buildFilter(ImmutableList<String> contigs, ImmutableList<String> genes,
+			ImmutableList<String> accessions, ImmutableList<JannovarDataFilter.Region> regions) {
+		return new JannovarDataFilter(contigs, genes, accessions, regions);
+	}
+
+	private static ImmutableSortedSet<String> accessions(JannovarData data) {
+		return ImmutableSortedSet.copyOf(data.getTmByAccession().keySet());
+	}
+
+	@Test
+	public void testEmptyFilter() {
+		JannovarDataFilter filter = buildFilter(ImmutableList.<String> of(), ImmutableList.<String> of(),
+				ImmutableList.<String> of(), ImmutableList.<JannovarDataFilter.Region> of());
+		Assert.assertTrue(filter.isEmpty());
+		Assert.assertSame(data, filter.apply(data));
+	}
+
+	@Test
+	public void testContigs() {
+		JannovarData result = buildFilter(ImmutableList.of("chr2", "unknown"), ImmutableList.<String> of(),
+				ImmutableList.<String> of(), ImmutableList.<JannovarDataFilter.Region> of()).apply(data);
+		Assert.assertEquals(ImmutableSortedSet.of("NM_000003.1"), accessions(result));
+		Assert.assertEquals(1, result.getChromosomes().get(2).getTMIntervalTree().size());
+		Assert.assertEquals(0, result.getChromosomes().get(1).getTMIntervalTree().size());
+	}
+
+	@Test
+	public void testGenesAndAccessions() {
+		JannovarData result = buildFilter(ImmutableList.<String> of(), ImmutableList.of("GENE3"),
+				ImmutableList.of("NM_000002"), ImmutableList.<JannovarDataFilter.Region> of()).apply(data);
+		Assert.assertEquals(ImmutableSortedSet.of("NM_000002.2", "NM_000003.1", "NM_000004.1"), accessions(result));
+		Assert.assertEquals(2, result.getTmByGeneSymbol().get("GENE3").size());
+	}
+
+	@Test
+	public void testRegions() {
+		JannovarData result = buildFilter(ImmutableList.<String> of(), ImmutableList.<String> of(),
+				ImmutableList.<String> of(), ImmutableList.of(new JannovarDataFilter.Region("1", 100, 1000),
+						new JannovarDataFilter.Region("1", 1999, 2500), new JannovarDataFilter.Region("chr3", 0, 1000),
+						new JannovarDataFilter.Region("1", 6000, 7000))).apply(data);
+		Assert.assertEquals(ImmutableSortedSet.of("NM_000001.1"), accessions(result));
+	}
+
+}
@@ -0,0 +1,87 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class JannovarDataPatcherTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	TranscriptModel tx1;
+	TranscriptModel tx2;
+	TranscriptModel tx3;
+	JannovarData base;
+
+	@Before
+	public void setUp() {
+		tx1 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000001.1", "GENE1", 1, 1000, "ACGTACGTAC");
+		tx2 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000002.1", "GENE2", 1, 5000, "ACGTACGTAC");
+		tx3 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000003.1", "GENE3", 2, 1000, "ACGTACGTAC");
+		base = new JannovarData(refDict, ImmutableList.of(tx1, tx2, tx3));
+	}
+
+	@Test
+	public void testNoChanges() {
+		TranscriptModel tx1Copy = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000001.1", "GENE1", 1,
+				1000, "ACGTACGTAC");
+		JannovarDataPatch patch = new JannovarDataPatcher(base).patch(refDict, ImmutableList.of(tx1Copy, tx2, tx3));
+
+		Assert.assertFalse(patch.hasChanges());
+		Assert.assertEquals(3, patch.getNumUnchanged());
+		Assert.assertEquals(base.getChromosomes().size(), patch.getNumReusedChromosomes());
+		Assert.assertSame(tx1, patch.getData().getTmByAccession().get("NM_000001.1"));
+		Assert.assertSame(base.getChromosomes().get(1), patch.getData().getChromosomes().get(1));
+	}
+
+	@Test
+	public void testChangedTranscriptRebuildsOnlyItsChromosome() {
+		TranscriptModel tx3New = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000003.1", "GENE3", 2,
+				1000, "ACGTACGTAA");
+		JannovarDataPatch patch = new JannovarDataPatcher(base).patch(refDict, ImmutableList.of(tx1, tx2, tx3New));
+
+		Assert.assertTrue(patch.hasChanges());
+		Assert.assertEquals(1, patch.getChanged().size());
+		Assert.assertSame(tx3, patch.getChanged().get(0).getOldTranscript());
+		Assert.assertSame(tx3New, patch.getChanged().get(0).getNewTranscript());
+		Assert.assertEquals(base.getChromosomes().size() - 1, patch.getNumReusedChromosomes());
+		Assert.assertSame(base.getChromosomes().get(1), patch.getData().getChromosomes().get(1));
+		Assert.assertNotSame(base.getChromosomes().get(2), patch.getData().getChromosomes().get(2));
+		Assert.assertSame(tx3New, patch.getData().getChromosomes().get(2).getTMIntervalTree().getIntervals().get(0)
+				.getValue());
+	}
+
+	@Test
+	public void testAddedRemovedAndNewVersion() {
+		TranscriptModel tx2New = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000002.2", "GENE2", 1,
+				5000, "ACGTACGTAC");
+		TranscriptModel tx4 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000004.1", "GENE4", 3, 1000,
+				"ACGTACGTAC");
+		JannovarDataPatch patch = new JannovarDataPatcher(base).patch(refDict, ImmutableList.of(tx2New, tx3, tx4));
+
+		Assert.assertEquals(ImmutableList.of(tx4), patch.getAdded());
+		Assert.assertEquals(ImmutableList.of(tx1), patch.getRemoved());
+		Assert.assertEquals(1, patch.getChanged().size());
+		Assert.assertEquals("NM_000002.1", patch.getChanged().get(0).getOldTranscript().getAccession());
+		Assert.assertEquals(1, patch.getNumUnchanged());
+		Assert.assertEquals(3, patch.getData().getTmByAccession().size());
+		Assert.assertEquals(1, patch.getData().getChromosomes().get(1).getTMIntervalTree().size());
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		patch.writeReport(new PrintStream(bos));
+		Assert.assertEquals("#CHANGE\tACCESSION\tPREV_ACCESSION\tGENE_SYMBOL\tCHROM\n"
+				+ "ADDED\tNM_000004.1\t.\tGENE4\t3\n" + "REMOVED\t.\tNM_000001.1\tGENE1\t1\n"
+				+ "CHANGED\tNM_000002.2\tNM_000002.1\tGENE2\t1\n", bos.toString());
+	}
+
+}
@@ -0,0 +1,129 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.Strand;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+
+public class JannovarDataSerializerTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	/** number of transcripts on chr1, spanning multiple records */
+	static final int NUM_CHR1_TRANSCRIPTS = 2 * JannovarDataSerializer.TRANSCRIPTS_PER_RECORD + 10;
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	JannovarData data;
+	File serFile;
+
+	@Before
+	public void setUp() {
+		ImmutableList.Builder<TranscriptModel> builder = new ImmutableList.Builder<TranscriptModel>();
+		// add in reverse order of positions to check the sorting of the records
+		for (int i = NUM_CHR1_TRANSCRIPTS - 1; i >= 0; --i)
+			builder.add(TranscriptModelFactory.buildTranscriptBuilder(refDict, String.format("NM_%06d.1", i),
+					"GENE" + i, (i % 2 == 0) ? Strand.FWD : Strand.REV, 1, 1000 * i, 1000 * i + 300).build());
+		builder.add(TranscriptModelFactory.buildTranscriptBuilder(refDict, "NR_000001.1", "OTHER", Strand.FWD, 2,
+				1000, 2000).build());
+		data = new JannovarData(refDict, builder.build());
+		serFile = new File(tmpFolder.getRoot(), "test.ser");
+	}
+
+	private static JannovarDataFilter buildFilter(ImmutableList<String> genes,
+			ImmutableList<JannovarDataFilter.Region> regions) {
+		return new JannovarDataFilter(ImmutableList.<String> of(), genes, ImmutableList.<String> of(), regions);
+	}
+
+	private static ImmutableSortedSet<String> accessions(JannovarData data) {
+		return ImmutableSortedSet.copyOf(data.getTmByAccession().keySet());
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		new JannovarDataSerializer(serFile.getPath()).save(data);
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+
+		Assert.assertEquals(accessions(data), accessions(loaded));
+		for (TranscriptModel tm : data.getTmByAccession().values())
+			Assert.assertEquals(tm, loaded.getTmByAccession().get(tm.getAccession()));
+		// the records share the reference dictionary of the index
+		for (TranscriptModel tm : loaded.getTmByAccession().values())
+			Assert.assertSame(loaded.getRefDict(), tm.getTXRegion().getRefDict());
+		Assert.assertEquals(NUM_CHR1_TRANSCRIPTS, loaded.getChromosomes().get(1).getTMIntervalTree().size());
+		Assert.assertEquals(data.getRefDict().getContigNameToID(), loaded.getRefDict().getContigNameToID());
+	}
+
+	@Test
+	public void testLoadWithFilter() throws Exception {
+		new JannovarDataSerializer(serFile.getPath()).save(data);
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load(buildFilter(ImmutableList.of(
+				"GENE3", "GENE130", "OTHER"), ImmutableList.of(new JannovarDataFilter.Region("1", 70100, 70200))));
+
+		Assert.assertEquals(ImmutableSortedSet.of("NM_000003.1", "NM_000070.1", "NM_000130.1", "NR_000001.1"),
+				accessions(loaded));
+		Assert.assertEquals(data.getTmByAccession().get("NM_000003.1"), loaded.getTmByAccession().get("NM_000003.1"));
+		Assert.assertEquals(data.getTmByAccession().get("NM_000130.1"), loaded.getTmByAccession().get("NM_000130.1"));
+		Assert.assertEquals(3, loaded.getChromosomes().get(1).getTMIntervalTree().size());
+		Assert.assertEquals(4, loaded.getGeneIndex().getGenes().size());
+	}
+
+	@Test
+	public void testGeneIndexStored() throws Exception {
+		// gene with two transcripts too far apart for GeneIndex.build(), must be kept as stored
+		TranscriptModel tx1 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_100001.1", "SPLIT",
+				Strand.FWD, 3, 1000, 2000).build();
+		TranscriptModel tx2 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_100002.1", "SPLIT",
+				Strand.FWD, 3, 500000, 501000).build();
+		TranscriptModel tx3 = TranscriptModelFactory.buildTranscriptBuilder(refDict, "NM_100003.1", "OTHER",
+				Strand.FWD, 3, 3000, 4000).build();
+		ImmutableList<TranscriptModel> tms = ImmutableList.of(tx1, tx2, tx3);
+		GeneIndex geneIndex = GeneIndex.fromGenes(ImmutableList.of(new GeneModel("SPLIT", ImmutableList.of(tx1,
+				tx2)), new GeneModel("OTHER", ImmutableList.of(tx3))));
+		new JannovarDataSerializer(serFile.getPath()).save(new JannovarData(refDict, tms, geneIndex, false));
+
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+		Assert.assertEquals(geneIndex.getGenes(), loaded.getGeneIndex().getGenes());
+		Assert.assertEquals(1, loaded.getGeneIndex().getGenesBySymbol().get("SPLIT").size());
+		Assert.assertSame(loaded.getTmByAccession().get("NM_100002.1"), loaded.getGeneIndex().getGenesBySymbol()
+				.get("SPLIT").iterator().next().getTranscripts().get(1));
+
+		// the genes only keep the selected transcripts
+		loaded = new JannovarDataSerializer(serFile.getPath()).load(new JannovarDataFilter(
+				ImmutableList.<String> of(), ImmutableList.<String> of(), ImmutableList.of("NM_100002",
+						"NM_100003"), ImmutableList.<JannovarDataFilter.Region> of()));
+		Assert.assertEquals(2, loaded.getGeneIndex().getGenes().size());
+		Assert.assertEquals("OTHER", loaded.getGeneIndex().getGenes().get(0).getGeneSymbol());
+		Assert.assertEquals(ImmutableList.of(loaded.getTmByAccession().get("NM_100002.1")), loaded.getGeneIndex()
+				.getGenesBySymbol().get("SPLIT").iterator().next().getTranscripts());
+	}
+
+	@Test
+	public void testLoadWithFilterFromOldFormat() throws Exception {
+		try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new FileOutputStream(serFile)))) {
+			out.writeObject(data);
+		}
+
+		Assert.assertEquals(accessions(data), accessions(new JannovarDataSerializer(serFile.getPath()).load()));
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load(buildFilter(ImmutableList.of(
+				"GENE3", "OTHER"), ImmutableList.<JannovarDataFilter.Region> of()));
+		Assert.assertEquals(ImmutableSortedSet.of("NM_000003.1", "NR_000001.1"), accessions(loaded));
+	}
+
+}
@@ -0,0 +1,134 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.reference.CDSPosition;
+import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
+import de.charite.compbio.jannovar.reference.PositionType;
+import de.charite.compbio.jannovar.reference.TranscriptModel;
+import de.charite.compbio.jannovar.reference.TranscriptModelFactory;
+import de.charite.compbio.jannovar.reference.TranscriptPosition;
+import de.charite.compbio.jannovar.reference.TranscriptSequenceDecorator;
+
+public class MappedSequenceStoreTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	TranscriptModel tx1;
+	TranscriptModel tx2;
+	JannovarData data;
+
+	@Before
+	public void setUp() {
+		tx1 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000001.1", "GENE1", 1, 1000,
+				"ATGGCCAAATAG");
+		tx2 = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000002.1", "GENE2", 2, 5000,
+				"ATGCCCGGGTTTTGA");
+		data = new JannovarData(refDict, ImmutableList.of(tx1, tx2));
+	}
+
+	@Test
+	public void testSaveAndLoadWithMappedSequences() throws Exception {
+		final File serFile = new File(tmpFolder.getRoot(), "test.ser");
+		new JannovarDataSerializer(serFile.getPath()).save(data, true);
+		Assert.assertTrue(new File(tmpFolder.getRoot(), "test.seq").exists());
+		Assert.assertFalse(new File(tmpFolder.getRoot(), "test.seq.tmp").exists());
+
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+		TranscriptModel loaded1 = loaded.getTmByAccession().get("NM_000001.1");
+		TranscriptModel loaded2 = loaded.getTmByAccession().get("NM_000002.1");
+		Assert.assertTrue(loaded1.isSequenceStored());
+		Assert.assertTrue(loaded2.isSequenceStored());
+		Assert.assertEquals(tx1, loaded1);
+		Assert.assertEquals(tx2, loaded2);
+		Assert.assertEquals(tx2.hashCode(), loaded2.hashCode());
+
+		Assert.assertEquals("ATGCCCGGGTTTTGA", loaded2.getSequence());
+		Assert.assertEquals(15, loaded2.getSequenceLength());
+		Assert.assertEquals("CCC", loaded2.getSequence(3, 6));
+		Assert.assertEquals("GGG", new TranscriptSequenceDecorator(loaded2).getCodonAt(
+				new TranscriptPosition(loaded2, 6, PositionType.ZERO_BASED), new CDSPosition(loaded2, 6,
+						PositionType.ZERO_BASED)));
+	}
+
+	@Test
+	public void testSaveMappedDataWithHeapSequences() throws Exception {
+		final File serFile = new File(tmpFolder.getRoot(), "test.ser");
+		new JannovarDataSerializer(serFile.getPath()).save(data, true);
+		JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+
+		// saving again without mapping must not depend on the old sequence file
+		final File serFile2 = new File(tmpFolder.getRoot(), "test2.ser");
+		new JannovarDataSerializer(serFile2.getPath()).save(loaded);
+		Assert.assertTrue(new File(tmpFolder.getRoot(), "test.seq").delete());
+		JannovarData loaded2 = new JannovarDataSerializer(serFile2.getPath()).load();
+		Assert.assertFalse(loaded2.getTmByAccession().get("NM_000001.1").isSequenceStored());
+		Assert.assertEquals(tx1, loaded2.getTmByAccession().get("NM_000001.1"));
+	}
+
+	@Test
+	public void testOutOfBoundsAccess() throws Exception {
+		ImmutableList<TranscriptModel> tms = MappedSequenceStore.write(tmpFolder.newFile("test.seq"),
+				ImmutableList.of(tx1));
+		try {
+			tms.get(0).getSequence(10, 13);
+			Assert.fail("expected exception");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testIdenticalSequencesWrittenOnce() throws Exception {
+		final TranscriptModel copy = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000003.1", "GENE1",
+				3, 1000, "ATGGCCAAATAG");
+		final File seqFile = tmpFolder.newFile("test.seq");
+		ImmutableList<TranscriptModel> tms = MappedSequenceStore.write(seqFile, ImmutableList.of(tx1, tx2, copy));
+		Assert.assertEquals(MappedSequenceStore.write(tmpFolder.newFile("test2.seq"), ImmutableList.of(tx1, tx2))
+				.size() + 1, tms.size());
+		Assert.assertEquals(new File(tmpFolder.getRoot(), "test2.seq").length(), seqFile.length());
+		Assert.assertEquals("ATGGCCAAATAG", tms.get(2).getSequence());
+		Assert.assertEquals("CCC", tms.get(1).getSequence(3, 6));
+	}
+
+	@Test
+	public void testEqualsAndHashCodeWithoutDecoding() throws Exception {
+		final TranscriptModel other = TranscriptModelFactory.buildSingleExonTranscript(refDict, "NM_000002.1", "GENE2",
+				2, 5000, "ATGCCCGGGTTTTAA");
+		ImmutableList<TranscriptModel> tms = MappedSequenceStore.write(tmpFolder.newFile("test.seq"),
+				ImmutableList.of(tx1, tx2));
+		ImmutableList<TranscriptModel> tms2 = MappedSequenceStore.write(tmpFolder.newFile("test2.seq"),
+				ImmutableList.of(tx2, other));
+
+		final MappedSequenceStore store = MappedSequenceStore.open(new File(tmpFolder.getRoot(), "test.seq"));
+		Assert.assertEquals(tx2.getSequence().hashCode(), store.getSequenceHashCode(MappedSequenceStore.MAGIC.length
+				+ tx1.getSequenceLength(), tx2.getSequenceLength()));
+
+		// stored and heap sequences, in the same or in different stores
+		Assert.assertEquals(tx2, tms.get(1));
+		Assert.assertEquals(tms.get(1), tx2);
+		Assert.assertEquals(tx2.hashCode(), tms.get(1).hashCode());
+		Assert.assertEquals(tms.get(1), tms2.get(0));
+		Assert.assertNotEquals(tms.get(0), tms.get(1));
+		Assert.assertNotEquals(tms2.get(0), tms2.get(1));
+		Assert.assertNotEquals(tms2.get(1), tx2);
+	}
+
+	@Test(expected = SerializationException.class)
+	public void testOpenInvalidFile() throws Exception {
+		MappedSequenceStore.open(tmpFolder.newFile("empty.seq"));
+	}
+
+}
@@ -0,0 +1,107 @@
+package de.charite.compbio.jannovar.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReferenceDictionaryTest {
+
+	ReferenceDictionary refDict;
+
+	@Before
+	public void setUp() {
+		ReferenceDictionaryBuilder builder = new ReferenceDictionaryBuilder();
+		builder.putContigID("1", 1);
+		builder.putContigID("chr1", 1);
+		builder.putContigName(1, "1");
+		builder.putContigLength(1, 249250621);
+		builder.putContigID("X", 23);
+		builder.putContigID("chrX", 23);
+		builder.putContigName(23, "X");
+		builder.putContigLength(23, 155270560);
+		refDict = builder.build();
+	}
+
+	@Test
+	public void testDenseLookup() {
+		Assert.assertEquals(1, refDict.getContigID("chr1"));
+		Assert.assertEquals(23, refDict.getContigID("X"));
+		Assert.assertEquals(-1, refDict.getContigID("chrUn"));
+
+		Assert.assertEquals("1", refDict.getContigName(1));
+		Assert.assertEquals("X", refDict.getContigName(23));
+		Assert.assertNull(refDict.getContigName(2));
+		Assert.assertNull(refDict.getContigName(-1));
+		Assert.assertNull(refDict.getContigName(1000));
+
+		Assert.assertEquals(249250621, refDict.getContigLength(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDenseLookupUnknownLength() {
+		refDict.getContigLength(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDenseLookupLengthOutOfTable() {
+		refDict.getContigLength(1000);
+	}
+
+	@Test
+	public void testSparseLookup() {
+		ReferenceDictionaryBuilder builder = new ReferenceDictionaryBuilder();
+		builder.putContigID("sparse", 1000000);
+		builder.putContigName(1000000, "sparse");
+		builder.putContigLength(1000000, 100);
+		ReferenceDictionary sparseDict = builder.build();
+
+		Assert.assertEquals(1000000, sparseDict.getContigID("sparse"));
+		Assert.assertEquals("sparse", sparseDict.getContigName(1000000));
+		Assert.assertEquals(100, sparseDict.getContigLength(1000000));
+		Assert.assertNull(sparseDict.getContigName(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSparseLookupUnknownLength() {
+		ReferenceDictionaryBuilder builder = new ReferenceDictionaryBuilder();
+		builder.putContigID("sparse", 1000000);
+		builder.putContigLength(1000000, 100);
+		builder.build().getContigLength(1);
+	}
+
+	@Test
+	public void testLookupAfterSerialization() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+			oos.writeObject(refDict);
+		}
+		ReferenceDictionary copy;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+			copy = (ReferenceDictionary) ois.readObject();
+		}
+
+		Assert.assertEquals(refDict.getContigNameToID(), copy.getContigNameToID());
+		Assert.assertEquals("X", copy.getContigName(23));
+		Assert.assertEquals(155270560, copy.getContigLength(23));
+	}
+
+	@Test
+	public void testInterner() {
+		ContigNameInterner interner = new ContigNameInterner(refDict);
+
+		Assert.assertEquals(1, interner.getContigID("chr1"));
+		Assert.assertEquals(1, interner.getContigID("chr1"));
+		Assert.assertEquals(1, interner.getContigID(new String("chr1")));
+		Assert.assertEquals(23, interner.getContigID("chrX"));
+		Assert.assertEquals(-1, interner.getContigID("chrUn"));
+		Assert.assertEquals(-1, interner.getContigID("chrUn"));
+		Assert.assertEquals(1, interner.getContigID("1"));
+	}
+
+}
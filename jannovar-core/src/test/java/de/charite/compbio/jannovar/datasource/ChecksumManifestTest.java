@@ -0,0 +1,72 @@
+package de.charite.compbio.jannovar.datasource;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class ChecksumManifestTest {
+
+	File tmpDir;
+	File dataFile;
+	File manifestFile;
+
+	@Before
+	public void setUp() throws IOException {
+		tmpDir = Files.createTempDir();
+		dataFile = new File(tmpDir, "data.txt");
+		Files.write("Hello World!\n", dataFile, Charsets.UTF_8);
+		manifestFile = new File(tmpDir, "md5checksums.txt");
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : tmpDir.listFiles())
+			file.delete();
+		tmpDir.delete();
+	}
+
+	@Test
+	public void testVerifyMD5() throws IOException, FileDownloadException {
+		Files.write("8ddd8be4b179a529afa5f2ffae4b9858  ./data.txt\nd41d8cd98f00b204e9800998ecf8427e  ./other.txt\n",
+				manifestFile, Charsets.UTF_8);
+		ChecksumManifest manifest = new ChecksumManifest(manifestFile);
+
+		Assert.assertEquals(2, manifest.getChecksums().size());
+		Assert.assertTrue(manifest.hasChecksum(dataFile));
+		Assert.assertTrue(manifest.verify(dataFile));
+	}
+
+	@Test
+	public void testVerifySHA256() throws IOException, FileDownloadException {
+		Files.write("03ba204e50d126e4674c005e04d82e84c21366780af1f43bd54a37816b6ab340 *data.txt\n", manifestFile,
+				Charsets.UTF_8);
+		ChecksumManifest manifest = new ChecksumManifest(manifestFile);
+
+		Assert.assertTrue(manifest.verify(dataFile));
+	}
+
+	@Test
+	public void testMismatch() throws IOException, FileDownloadException {
+		Files.write("d41d8cd98f00b204e9800998ecf8427e  data.txt\n", manifestFile, Charsets.UTF_8);
+		ChecksumManifest manifest = new ChecksumManifest(manifestFile);
+
+		Assert.assertFalse(manifest.verify(dataFile));
+	}
+
+	@Test
+	public void testNotInManifest() throws IOException, FileDownloadException {
+		Files.write("d41d8cd98f00b204e9800998ecf8427e  other.txt\n", manifestFile, Charsets.UTF_8);
+		ChecksumManifest manifest = new ChecksumManifest(manifestFile);
+
+		Assert.assertFalse(manifest.hasChecksum(dataFile));
+		Assert.assertTrue(manifest.verify(dataFile));
+	}
+
+}
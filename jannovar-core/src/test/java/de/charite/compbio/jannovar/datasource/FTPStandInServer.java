@@ -0,0 +1,167 @@
+package de.charite.compbio.jannovar.datasource;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Minimal FTP server for testing {@link FileDownloader}, serving one file in passive mode with support for
+ * <tt>REST</tt>
+ */
+final class FTPStandInServer implements Closeable {
+
+	/** name of the file served */
+	private final String fileName;
+	/** contents of the file served */
+	private final byte[] data;
+	/** whether the size of the file is listed, <code>LIST</code> returns no entry otherwise */
+	volatile boolean listSize = true;
+	/** if not <code>-1</code>, transfers stop at this offset and are reported as aborted */
+	volatile int truncateAt = -1;
+	/** commands received on all control connections */
+	final List<String> commands = new CopyOnWriteArrayList<>();
+	/** socket for the control connections */
+	private final ServerSocket serverSocket;
+
+	FTPStandInServer(String fileName, byte[] data) throws IOException {
+		this.fileName = fileName;
+		this.data = data;
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+		final Thread thread = new Thread(this::acceptConnections);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** @return port of the control connection */
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+
+	/** Serve each control connection in its own thread */
+	private void acceptConnections() {
+		while (!serverSocket.isClosed()) {
+			try {
+				final Socket socket = serverSocket.accept();
+				final Thread thread = new Thread(() -> serve(socket));
+				thread.setDaemon(true);
+				thread.start();
+			} catch (IOException e) {
+				return; // server closed
+			}
+		}
+	}
+
+	/** Handle the commands of one control connection */
+	private void serve(Socket socket) {
+		try (Socket control = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(control.getInputStream(),
+						StandardCharsets.US_ASCII));
+				Writer out = new OutputStreamWriter(control.getOutputStream(), StandardCharsets.US_ASCII)) {
+			ServerSocket passive = null;
+			long restOffset = 0;
+			reply(out, "220 FTP stand-in ready");
+			String line;
+			while ((line = in.readLine()) != null) {
+				commands.add(line);
+				final int spacePos = line.indexOf(' ');
+				final String command = (spacePos == -1 ? line : line.substring(0, spacePos)).toUpperCase();
+				final String arg = (spacePos == -1) ? "" : line.substring(spacePos + 1);
+				switch (command) {
+				case "USER":
+					reply(out, "331 Password required");
+					break;
+				case "PASS":
+					reply(out, "230 Logged in");
+					break;
+				case "TYPE":
+					reply(out, "200 Type set");
+					break;
+				case "CWD":
+					reply(out, "250 Directory changed");
+					break;
+				case "SYST":
+					reply(out, "215 UNIX Type: L8");
+					break;
+				case "FEAT":
+					reply(out, "211-Features:\r\n REST STREAM\r\n211 End");
+					break;
+				case "PASV":
+					passive = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+					final int port = passive.getLocalPort();
+					reply(out, "227 Entering Passive Mode (127,0,0,1," + (port / 256) + "," + (port % 256) + ")");
+					break;
+				case "REST":
+					restOffset = Long.parseLong(arg);
+					reply(out, "350 Restarting at " + restOffset);
+					break;
+				case "LIST":
+					final String entry = listSize ? "-rw-r--r--    1 ftp      ftp      " + data.length
+							+ " Jan 01  2015 " + fileName + "\r\n" : "";
+					final byte[] listing = entry.getBytes(StandardCharsets.US_ASCII);
+					transfer(out, passive, listing, 0, listing.length, false);
+					passive = null;
+					break;
+				case "RETR":
+					if (!arg.equals(fileName)) {
+						reply(out, "550 File not found");
+					} else {
+						final boolean truncated = truncateAt != -1;
+						transfer(out, passive, data, (int) restOffset, truncated ? truncateAt : data.length,
+								truncated);
+					}
+					passive = null;
+					restOffset = 0;
+					break;
+				case "QUIT":
+					reply(out, "221 Goodbye");
+					return;
+				default:
+					reply(out, "502 Command not implemented");
+				}
+			}
+		} catch (IOException e) {
+			// client went away
+		}
+	}
+
+	/** Send <code>bytes[begin, end)</code> over the passive data connection and report the result */
+	private void transfer(Writer out, ServerSocket passive, byte[] bytes, int begin, int end, boolean truncated)
+			throws IOException {
+		if (passive == null) {
+			reply(out, "425 Use PASV first");
+			return;
+		}
+		reply(out, "150 Opening BINARY mode data connection");
+		boolean complete = true;
+		try (ServerSocket dataServer = passive;
+				Socket dataSocket = dataServer.accept();
+				OutputStream dataOut = dataSocket.getOutputStream()) {
+			dataOut.write(bytes, begin, Math.max(0, end - begin));
+		} catch (IOException e) {
+			complete = false; // client closed the connection early
+		}
+		reply(out, (complete && !truncated) ? "226 Transfer complete" : "426 Connection closed; transfer aborted");
+	}
+
+	/** Write the reply <code>text</code> on the control connection */
+	private static void reply(Writer out, String text) throws IOException {
+		out.write(text + "\r\n");
+		out.flush();
+	}
+
+}
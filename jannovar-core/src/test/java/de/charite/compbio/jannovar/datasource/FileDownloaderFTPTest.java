@@ -0,0 +1,133 @@
+package de.charite.compbio.jannovar.datasource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+
+/**
+ * Tests for {@link FileDownloader} against a local {@link FTPStandInServer}
+ */
+public class FileDownloaderFTPTest {
+
+	/** contents of the file served */
+	byte[] data;
+	/** local FTP server */
+	FTPStandInServer server;
+	/** URL of the file on the server */
+	URL url;
+	/** temporary directory to download to */
+	File tmpDir;
+
+	@Before
+	public void setUp() throws IOException {
+		data = new byte[100000];
+		new Random(42).nextBytes(data);
+		server = new FTPStandInServer("file.bin", data);
+		url = new URL("ftp://127.0.0.1:" + server.getPort() + "/pub/file.bin");
+		tmpDir = Files.createTempDir();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.close();
+		for (File file : tmpDir.listFiles())
+			file.delete();
+		tmpDir.delete();
+	}
+
+	/** @return the commands received by the server that start with <code>prefix</code> */
+	private List<String> commands(String prefix) {
+		List<String> result = new ArrayList<>();
+		for (String command : server.commands)
+			if (command.startsWith(prefix))
+				result.add(command);
+		return result;
+	}
+
+	@Test
+	public void testDownload() throws FileDownloadException, IOException {
+		File dest = new File(tmpDir, "file.bin");
+		Assert.assertTrue(new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertFalse(new File(tmpDir, "file.bin" + FileDownloader.PART_SUFFIX).exists());
+		Assert.assertEquals(ImmutableList.of("CWD pub"), commands("CWD"));
+		Assert.assertEquals(ImmutableList.of("RETR file.bin"), commands("RETR"));
+		Assert.assertTrue(commands("REST").isEmpty());
+	}
+
+	@Test
+	public void testResumePartialDownload() throws FileDownloadException, IOException {
+		File dest = new File(tmpDir, "file.bin");
+		Files.write(Arrays.copyOf(data, 12345), new File(tmpDir, "file.bin" + FileDownloader.PART_SUFFIX));
+
+		Assert.assertTrue(new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(ImmutableList.of("REST 12345"), commands("REST"));
+	}
+
+	@Test
+	public void testChunkedDownload() throws FileDownloadException, IOException {
+		FileDownloader.Options options = new FileDownloader.Options();
+		options.connectionsPerFile = 4;
+		options.minChunkSize = 1000;
+		File dest = new File(tmpDir, "file.bin");
+
+		Assert.assertTrue(new FileDownloader(options).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(4, commands("RETR").size());
+		Assert.assertEquals(ImmutableSet.of("REST 25000", "REST 50000", "REST 75000"), ImmutableSet.copyOf(
+				commands("REST")));
+		Assert.assertEquals(1, tmpDir.listFiles().length);
+	}
+
+	@Test
+	public void testResumeChunkedDownload() throws FileDownloadException, IOException {
+		FileDownloader.Options options = new FileDownloader.Options();
+		options.connectionsPerFile = 2;
+		options.minChunkSize = 1000;
+		File dest = new File(tmpDir, "file.bin");
+		// first chunk complete, second one partially downloaded
+		Files.write(Arrays.copyOfRange(data, 0, 50000), new File(tmpDir, "file.bin.part.0-50000"));
+		Files.write(Arrays.copyOfRange(data, 50000, 60000), new File(tmpDir, "file.bin.part.50000-100000"));
+
+		Assert.assertTrue(new FileDownloader(options).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(ImmutableList.of("REST 60000"), commands("REST"));
+		Assert.assertEquals(1, commands("RETR").size());
+	}
+
+	@Test
+	public void testTruncatedTransferOfUnknownSize() throws IOException {
+		server.listSize = false;
+		server.truncateAt = 40000;
+		File dest = new File(tmpDir, "file.bin");
+
+		try {
+			new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest);
+			Assert.fail("truncated transfer was accepted");
+		} catch (FileDownloadException e) {
+			// expected
+		}
+
+		Assert.assertFalse(dest.exists());
+		Assert.assertEquals(40000, new File(tmpDir, "file.bin" + FileDownloader.PART_SUFFIX).length());
+	}
+
+}
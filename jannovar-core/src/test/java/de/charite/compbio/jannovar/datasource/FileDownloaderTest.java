@@ -0,0 +1,153 @@
+package de.charite.compbio.jannovar.datasource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.Files;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for {@link FileDownloader} against a local HTTP server that supports range requests
+ */
+public class FileDownloaderTest {
+
+	/** contents of the file served */
+	byte[] data;
+	/** values of the Range headers of the GET requests, "-" for none */
+	List<String> ranges;
+	/** local HTTP server */
+	HttpServer server;
+	/** URL of the file on the server */
+	URL url;
+	/** temporary directory to download to */
+	File tmpDir;
+
+	@Before
+	public void setUp() throws IOException {
+		data = new byte[100000];
+		new Random(42).nextBytes(data);
+		ranges = new CopyOnWriteArrayList<>();
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/file.bin", this::handle);
+		server.start();
+		url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/file.bin");
+
+		tmpDir = Files.createTempDir();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		for (File file : tmpDir.listFiles())
+			file.delete();
+		tmpDir.delete();
+	}
+
+	/** Serve {@link #data}, supporting single byte ranges */
+	private void handle(HttpExchange exchange) throws IOException {
+		exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+		if (exchange.getRequestMethod().equals("HEAD")) {
+			exchange.getResponseHeaders().add("Content-Length", Integer.toString(data.length));
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+			return;
+		}
+
+		final String range = exchange.getRequestHeaders().getFirst("Range");
+		ranges.add(range == null ? "-" : range);
+		int begin = 0;
+		int end = data.length;
+		int status = 200;
+		if (range != null) {
+			final String[] arr = range.substring("bytes=".length()).split("-", -1);
+			begin = Integer.parseInt(arr[0]);
+			if (!arr[1].isEmpty())
+				end = Integer.parseInt(arr[1]) + 1;
+			status = 206;
+			exchange.getResponseHeaders().add("Content-Range", "bytes " + begin + "-" + (end - 1) + "/" + data.length);
+		}
+		exchange.sendResponseHeaders(status, end - begin);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(data, begin, end - begin);
+		}
+	}
+
+	@Test
+	public void testDownload() throws FileDownloadException, IOException {
+		File dest = new File(tmpDir, "file.bin");
+		Assert.assertTrue(new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertFalse(new File(tmpDir, "file.bin" + FileDownloader.PART_SUFFIX).exists());
+		Assert.assertEquals(Collections.singletonList("-"), ranges);
+	}
+
+	@Test
+	public void testExistingFileIsKept() throws FileDownloadException, IOException {
+		File dest = new File(tmpDir, "file.bin");
+		Files.write(new byte[] { 1, 2, 3 }, dest);
+
+		Assert.assertFalse(new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest));
+		Assert.assertEquals(3, dest.length());
+		Assert.assertTrue(ranges.isEmpty());
+	}
+
+	@Test
+	public void testResumePartialDownload() throws FileDownloadException, IOException {
+		File dest = new File(tmpDir, "file.bin");
+		Files.write(Arrays.copyOf(data, 12345), new File(tmpDir, "file.bin" + FileDownloader.PART_SUFFIX));
+
+		Assert.assertTrue(new FileDownloader(new FileDownloader.Options()).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(Collections.singletonList("bytes=12345-99999"), ranges);
+	}
+
+	@Test
+	public void testChunkedDownload() throws FileDownloadException, IOException {
+		FileDownloader.Options options = new FileDownloader.Options();
+		options.connectionsPerFile = 4;
+		options.minChunkSize = 1000;
+		File dest = new File(tmpDir, "file.bin");
+
+		Assert.assertTrue(new FileDownloader(options).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(4, ranges.size());
+		Assert.assertTrue(ranges.contains("bytes=0-24999"));
+		Assert.assertTrue(ranges.contains("bytes=75000-99999"));
+		Assert.assertEquals(1, tmpDir.listFiles().length);
+	}
+
+	@Test
+	public void testResumeChunkedDownload() throws FileDownloadException, IOException {
+		FileDownloader.Options options = new FileDownloader.Options();
+		options.connectionsPerFile = 2;
+		options.minChunkSize = 1000;
+		File dest = new File(tmpDir, "file.bin");
+		// first chunk complete, second one partially downloaded
+		Files.write(Arrays.copyOfRange(data, 0, 50000), new File(tmpDir, "file.bin.part.0-50000"));
+		Files.write(Arrays.copyOfRange(data, 50000, 60000), new File(tmpDir, "file.bin.part.50000-100000"));
+
+		Assert.assertTrue(new FileDownloader(options).copyURLToFile(url, dest));
+
+		Assert.assertArrayEquals(data, Files.toByteArray(dest));
+		Assert.assertEquals(Collections.singletonList("bytes=60000-99999"), ranges);
+	}
+
+}
@@ -28,4 +28,19 @@ public class GFFRecordParserTest {
 				record.toString());
 	}
 
+	@Test
+	public void testGetAttribute() {
+		FeatureRecordParser parser = new GFFRecordParser();
+		FeatureRecord record = parser.parseLine(
+				"1\tRefSeq\tgene\t1\t100\t.\t-\t.\tID=gene0; Dbxref=GeneID:100287102,HGNC:HGNC:37102 ;Name=DDX11L1");
+
+		Assert.assertEquals("gene0", record.getAttribute("ID"));
+		Assert.assertEquals("GeneID:100287102,HGNC:HGNC:37102", record.getAttribute("Dbxref"));
+		Assert.assertEquals("DDX11L1", record.getAttribute("Name"));
+		Assert.assertNull(record.getAttribute("Parent"));
+		Assert.assertNull(record.getAttribute("Na"));
+		Assert.assertEquals(FeatureRecord.Strand.REVERSE, record.getStrand());
+		Assert.assertEquals(3, record.getAttributes().size());
+	}
+
 }
@@ -28,4 +28,16 @@ public class GTFRecordParserTest {
 				record.toString());
 	}
 
+	@Test
+	public void testGetAttribute() {
+		FeatureRecordParser parser = new GTFRecordParser();
+		FeatureRecord record = parser.parseLine(line);
+
+		Assert.assertEquals("ENST00000296271", record.getAttribute("transcript_id"));
+		Assert.assertEquals("RHO", record.getAttribute("gene_name"));
+		Assert.assertEquals("ENSE00001079597", record.getAttribute("exon_id"));
+		Assert.assertNull(record.getAttribute("gene"));
+		Assert.assertEquals(record.getAttributes().get("gene_id"), record.getAttribute("gene_id"));
+	}
+
 }
@@ -0,0 +1,63 @@
+package de.charite.compbio.jannovar.impl.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldSplitterTest {
+
+	@Test
+	public void testSplit() {
+		FieldSplitter splitter = new FieldSplitter('\t');
+		Assert.assertEquals(4, splitter.split("chr1\t\t100\tname"));
+		Assert.assertEquals("chr1", splitter.get(0));
+		Assert.assertEquals("", splitter.get(1));
+		Assert.assertEquals(100, splitter.getInt(2));
+		Assert.assertTrue(splitter.fieldEquals(3, "name"));
+		Assert.assertFalse(splitter.fieldEquals(3, "nam"));
+		Assert.assertEquals('a', splitter.charAt(3, 1));
+	}
+
+	@Test
+	public void testSplitLikeStringSplit() {
+		FieldSplitter splitter = new FieldSplitter(',');
+		for (String s : new String[] { "", ",", "a", "a,", "a,,", ",a", "1,2,3,", "a,,b" })
+			Assert.assertEquals(s, s.split(",").length, splitter.split(s));
+	}
+
+	@Test
+	public void testSplitRange() {
+		FieldSplitter splitter = new FieldSplitter(',');
+		final String line = "x\t10,20,30,\ty";
+		Assert.assertEquals(3, splitter.split(line, 2, 11));
+		Assert.assertEquals(10, splitter.getInt(0));
+		Assert.assertEquals(30, splitter.getInt(2));
+		Assert.assertEquals(8, splitter.getBegin(2));
+		Assert.assertEquals(10, splitter.getEnd(2));
+	}
+
+	@Test
+	public void testGetInt() {
+		FieldSplitter splitter = new FieldSplitter(' ');
+		splitter.split("-5 +7 2147483647 -2147483648 2147483648 1a -");
+		Assert.assertEquals(-5, splitter.getInt(0));
+		Assert.assertEquals(7, splitter.getInt(1));
+		Assert.assertEquals(Integer.MAX_VALUE, splitter.getInt(2));
+		Assert.assertEquals(Integer.MIN_VALUE, splitter.getInt(3));
+		for (int i = 4; i < 7; ++i) {
+			try {
+				splitter.getInt(i);
+				Assert.fail("expected exception for " + splitter.get(i));
+			} catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testInvalidIndex() {
+		FieldSplitter splitter = new FieldSplitter('\t');
+		splitter.split("a\tb");
+		splitter.get(2);
+	}
+
+}
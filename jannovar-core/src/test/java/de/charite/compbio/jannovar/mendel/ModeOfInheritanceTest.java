@@ -12,4 +12,14 @@ public class ModeOfInheritanceTest {
 		Assert.assertEquals(5, ModeOfInheritance.values().length);
 	}
 
+	@Test
+	public void testBitMask() {
+		int mask = ModeOfInheritance.AUTOSOMAL_DOMINANT.getBitMask() | ModeOfInheritance.X_RECESSIVE.getBitMask();
+		Assert.assertTrue(ModeOfInheritance.AUTOSOMAL_DOMINANT.isSetIn(mask));
+		Assert.assertFalse(ModeOfInheritance.AUTOSOMAL_RECESSIVE.isSetIn(mask));
+		Assert.assertTrue(ModeOfInheritance.X_RECESSIVE.isSetIn(mask));
+		Assert.assertFalse(ModeOfInheritance.X_DOMINANT.isSetIn(mask));
+		Assert.assertFalse(ModeOfInheritance.ANY.isSetIn(mask));
+	}
+
 }
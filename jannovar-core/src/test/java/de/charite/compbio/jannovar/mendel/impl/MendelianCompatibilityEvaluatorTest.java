@@ -0,0 +1,140 @@
+package de.charite.compbio.jannovar.mendel.impl;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.charite.compbio.jannovar.mendel.ChromosomeType;
+import de.charite.compbio.jannovar.mendel.Genotype;
+import de.charite.compbio.jannovar.mendel.GenotypeCalls;
+import de.charite.compbio.jannovar.mendel.IncompatiblePedigreeException;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.pedigree.Disease;
+import de.charite.compbio.jannovar.pedigree.PedFileContents;
+import de.charite.compbio.jannovar.pedigree.PedPerson;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.pedigree.Sex;
+
+public class MendelianCompatibilityEvaluatorTest {
+
+	MendelianCompatibilityEvaluator evaluator;
+
+	final Genotype ref = new Genotype(ImmutableList.of(0, 0));
+	final Genotype het = new Genotype(ImmutableList.of(0, 1));
+	final Genotype alt = new Genotype(ImmutableList.of(1, 1));
+
+	@Before
+	public void setUp() throws Exception {
+		ImmutableList.Builder<PedPerson> individuals = new ImmutableList.Builder<PedPerson>();
+		individuals.add(new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED)); // father
+		individuals.add(new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED)); // mother
+		individuals.add(new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED)); // son
+		PedFileContents pedFileContents = new PedFileContents(new ImmutableList.Builder<String>().build(),
+				individuals.build());
+		this.evaluator = new MendelianCompatibilityEvaluator(new Pedigree(pedFileContents, "ped"));
+	}
+
+	private GenotypeCalls buildCalls(ChromosomeType chromType, Genotype father, Genotype mother, Genotype son) {
+		return new GenotypeCalls(chromType, ImmutableMap.of("I.1", father, "I.2", mother, "II.1", son).entrySet());
+	}
+
+	@Test
+	public void testClassify() {
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_REF, MendelianCompatibilityEvaluator.classify(ref));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HET, MendelianCompatibilityEvaluator.classify(het));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_ALT, MendelianCompatibilityEvaluator.classify(alt));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED,
+				MendelianCompatibilityEvaluator.classify(new Genotype(ImmutableList.of(-1, -1))));
+		// half-calls are considered both het. and hom.
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_REF | MendelianCompatibilityEvaluator.STATE_HET,
+				MendelianCompatibilityEvaluator.classify(new Genotype(ImmutableList.of(0, -1))));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_ALT | MendelianCompatibilityEvaluator.STATE_HET,
+				MendelianCompatibilityEvaluator.classify(new Genotype(ImmutableList.of(1, -1))));
+	}
+
+	@Test
+	public void testEvaluateMasks() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = ImmutableList.of(buildCalls(ChromosomeType.AUTOSOMAL, ref, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, het, het, alt), buildCalls(ChromosomeType.AUTOSOMAL, het, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, ref, het, het), buildCalls(ChromosomeType.X_CHROMOSOMAL, ref, het, alt));
+		int[] masks = evaluator.evaluate(calls);
+
+		Assert.assertEquals(5, masks.length);
+		final int any = ModeOfInheritance.ANY.getBitMask();
+		final int ad = ModeOfInheritance.AUTOSOMAL_DOMINANT.getBitMask();
+		final int ar = ModeOfInheritance.AUTOSOMAL_RECESSIVE.getBitMask();
+		final int xr = ModeOfInheritance.X_RECESSIVE.getBitMask();
+		Assert.assertEquals(any | ad, masks[0]);
+		Assert.assertEquals(any | ar, masks[1]);
+		Assert.assertEquals(any | ar, masks[2]);
+		Assert.assertEquals(any | ar, masks[3]);
+		Assert.assertEquals(any | xr, masks[4]);
+	}
+
+	private byte classifyGT(String gt) {
+		return MendelianCompatibilityEvaluator.classifyGT("x\t" + gt + ":30", 2, 2 + gt.length(), new int[4]);
+	}
+
+	@Test
+	public void testClassifyGT() {
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_REF, classifyGT("0/0"));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HET, classifyGT("0|1"));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HET, classifyGT("1/12"));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_ALT, classifyGT("12/12"));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_ALT, classifyGT("1"));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED, classifyGT("./."));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED, classifyGT("."));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED, classifyGT(""));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_REF | MendelianCompatibilityEvaluator.STATE_HET,
+				classifyGT("0/."));
+		Assert.assertEquals(MendelianCompatibilityEvaluator.STATE_HOM_ALT | MendelianCompatibilityEvaluator.STATE_HET,
+				classifyGT(".|1"));
+	}
+
+	@Test
+	public void testEvaluateStates() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = ImmutableList.of(buildCalls(ChromosomeType.AUTOSOMAL, ref, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, het, het, alt), buildCalls(ChromosomeType.AUTOSOMAL, het, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, ref, het, het), buildCalls(ChromosomeType.X_CHROMOSOMAL, ref, het, alt));
+		ChromosomeType[] chromTypes = new ChromosomeType[calls.size()];
+		byte[][] states = new byte[calls.size()][];
+		for (int i = 0; i < calls.size(); ++i) {
+			chromTypes[i] = calls.get(i).getChromType();
+			states[i] = new byte[3];
+			for (int j = 0; j < 3; ++j)
+				states[i][j] = MendelianCompatibilityEvaluator
+						.classify(calls.get(i).getGenotypeForSample(ImmutableList.of("I.1", "I.2", "II.1").get(j)));
+		}
+
+		Assert.assertArrayEquals(evaluator.evaluate(calls), evaluator.evaluateStates(chromTypes, states));
+	}
+
+	@Test
+	public void testSampleOrder() throws IncompatiblePedigreeException {
+		// calls in pedigree order use the precomputed mapping, the other orders are mapped per call
+		List<GenotypeCalls> calls = ImmutableList.of(buildCalls(ChromosomeType.AUTOSOMAL, ref, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, het, ref, het),
+				buildCalls(ChromosomeType.AUTOSOMAL, ref, het, het));
+		List<GenotypeCalls> reordered = ImmutableList.of(
+				new GenotypeCalls(ChromosomeType.AUTOSOMAL, ImmutableMap.of("II.1", het, "I.2", ref, "I.1", ref)
+						.entrySet()),
+				new GenotypeCalls(ChromosomeType.AUTOSOMAL, ImmutableMap.of("II.1", het, "I.2", ref, "I.1", het)
+						.entrySet()),
+				new GenotypeCalls(ChromosomeType.AUTOSOMAL, ImmutableMap.of("II.1", het, "I.2", het, "I.1", ref)
+						.entrySet()));
+		Assert.assertArrayEquals(evaluator.evaluate(calls), evaluator.evaluate(reordered));
+		Assert.assertArrayEquals(evaluator.evaluate(calls), evaluator.evaluate(calls));
+	}
+
+	@Test(expected = IncompatiblePedigreeException.class)
+	public void testIncompatiblePedigree() throws IncompatiblePedigreeException {
+		evaluator.evaluate(ImmutableList.of(new GenotypeCalls(ChromosomeType.AUTOSOMAL,
+				ImmutableMap.of("I.1", ref, "unknown", het).entrySet())));
+	}
+
+}
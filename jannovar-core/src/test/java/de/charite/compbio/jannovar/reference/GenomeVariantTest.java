@@ -164,4 +164,16 @@ public class GenomeVariantTest {
 		Assert.assertTrue(expectedInterval.equals(genomeInterval));
 		Assert.assertEquals(expectedInterval, genomeInterval);
 	}
+
+	@Test
+	public void testWithStrandRoundTrip() {
+		GenomeVariant change = new GenomeVariant(this.genomePosOneBasedForward, "AAA", "C");
+		GenomeVariant revChange = change.withStrand(Strand.REV);
+		Assert.assertEquals(new GenomeVariant(change, Strand.REV), revChange);
+		Assert.assertEquals("TTT", revChange.getRef());
+		Assert.assertEquals("G", revChange.getAlt());
+		Assert.assertSame(revChange, change.withStrand(Strand.REV));
+		Assert.assertSame(change, revChange.withStrand(Strand.FWD));
+		Assert.assertSame(change, change.withStrand(Strand.FWD));
+	}
 }
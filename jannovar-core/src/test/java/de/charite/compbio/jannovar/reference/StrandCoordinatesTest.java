@@ -0,0 +1,31 @@
+package de.charite.compbio.jannovar.reference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+
+public class StrandCoordinatesTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	@Test
+	public void testFlipPosEqualsGenomePosition() {
+		GenomePosition pos = new GenomePosition(refDict, Strand.FWD, 1, 1000, PositionType.ZERO_BASED);
+
+		Assert.assertEquals(pos.withStrand(Strand.REV).getPos(), StrandCoordinates.flipPos(refDict, 1, pos.getPos()));
+		Assert.assertEquals(pos.getPos(),
+				StrandCoordinates.flipPos(refDict, 1, StrandCoordinates.flipPos(refDict, 1, pos.getPos())));
+	}
+
+	@Test
+	public void testFlipBoundaryEqualsGenomeInterval() {
+		GenomeInterval itv = new GenomeInterval(refDict, Strand.FWD, 1, 1000, 1100, PositionType.ZERO_BASED);
+		GenomeInterval revItv = itv.withStrand(Strand.REV);
+
+		Assert.assertEquals(revItv.getBeginPos(), StrandCoordinates.flipBoundary(refDict, 1, itv.getEndPos()));
+		Assert.assertEquals(revItv.getEndPos(), StrandCoordinates.flipBoundary(refDict, 1, itv.getBeginPos()));
+	}
+
+}
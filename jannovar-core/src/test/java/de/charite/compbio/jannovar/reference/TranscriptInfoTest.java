@@ -4,7 +4,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
+
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.impl.util.Translator;
 import de.charite.compbio.jannovar.reference.HG19RefDictBuilder;
 import de.charite.compbio.jannovar.reference.TranscriptModel;
 import de.charite.compbio.jannovar.reference.TranscriptModelBuilder;
@@ -52,4 +55,38 @@ public class TranscriptInfoTest {
 		Assert.assertEquals(info, infoReverse);
 	}
 
+	@Test
+	public void testPrecomputedTranslation() {
+		builderReverse.setSequence(Strings.repeat("ACGTTGCAA", 100).substring(0, 898));
+		TranscriptModel info = builderReverse.build();
+		Assert.assertTrue(info.isTranslationPrecomputed());
+
+		// same transcript without precomputed translation
+		TranscriptModel plain = new TranscriptModel(info.getAccession(), info.getGeneSymbol(), info.getTXRegion(),
+				info.getCDSRegion(), info.getExonRegions(), info.getSequence(), info.getGeneID(),
+				info.getTranscriptSupportLevel());
+		Assert.assertFalse(plain.isTranslationPrecomputed());
+		Assert.assertEquals(-1, plain.getCDSTxBeginPos());
+		Assert.assertEquals(plain, info);
+
+		TranscriptProjectionDecorator projector = new TranscriptProjectionDecorator(plain);
+		final String cdsSeq = projector.getCDSTranscript();
+		Assert.assertEquals(cdsSeq, new TranscriptProjectionDecorator(info).getCDSTranscript());
+		Assert.assertEquals(projector.getTranscriptStartingAtCDS(),
+				new TranscriptProjectionDecorator(info).getTranscriptStartingAtCDS());
+		Assert.assertEquals(cdsSeq.length(), info.getCDSTxEndPos() - info.getCDSTxBeginPos());
+		Assert.assertEquals(Translator.getTranslator().translateDNA(projector.getTranscriptStartingAtCDS()),
+				info.getTranslationStartingAtCDS());
+		Assert.assertEquals(Translator.getTranslator().translateDNA(cdsSeq), info.getProteinSequence());
+	}
+
+	@Test
+	public void testNoPrecomputedTranslationForNonCoding() {
+		builderForward.setSequence(Strings.repeat("A", 2759));
+		TranscriptModel info = builderForward.build();
+		Assert.assertFalse(info.isTranslationPrecomputed());
+		Assert.assertNull(info.getTranslationStartingAtCDS());
+		Assert.assertNull(info.getProteinSequence());
+	}
+
 }
@@ -1,5 +1,7 @@
 package de.charite.compbio.jannovar.reference;
 
+import com.google.common.base.Strings;
+
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
 
 /**
@@ -43,4 +45,72 @@ public class TranscriptModelFactory {
 
 		return result;
 	}
+
+	/**
+	 * Helper function to set up a synthetic coding transcript, for tests that build their own databases.
+	 *
+	 * The transcript and CDS span all exons, and the sequence is an ORF (start codon, <tt>GCT</tt> codons, stop codon)
+	 * of the total exon length rounded down to full codons. The returned builder can be used for changing these
+	 * defaults before building the {@link TranscriptModel}.
+	 *
+	 * @param refDict
+	 *            reference dictionary
+	 * @param accession
+	 *            transcript accession
+	 * @param geneSymbol
+	 *            gene symbol
+	 * @param strand
+	 *            transcript strand
+	 * @param chr
+	 *            numeric chromosome ID
+	 * @param exonBounds
+	 *            zero-based begin and end positions of the exons on the forward strand, in ascending order
+	 */
+	public static TranscriptModelBuilder buildTranscriptBuilder(ReferenceDictionary refDict, String accession,
+			String geneSymbol, Strand strand, int chr, int... exonBounds) {
+		TranscriptModelBuilder result = new TranscriptModelBuilder();
+		result.setAccession(accession);
+		result.setGeneSymbol(geneSymbol);
+		result.setStrand(strand);
+
+		GenomeInterval txRegion = new GenomeInterval(refDict, Strand.FWD, chr, exonBounds[0],
+				exonBounds[exonBounds.length - 1], PositionType.ZERO_BASED);
+		result.setTXRegion(txRegion);
+		result.setCDSRegion(txRegion);
+
+		int length = 0;
+		for (int i = 0; i < exonBounds.length; i += 2) {
+			result.addExonRegion(new GenomeInterval(refDict, Strand.FWD, chr, exonBounds[i], exonBounds[i + 1],
+					PositionType.ZERO_BASED));
+			length += exonBounds[i + 1] - exonBounds[i];
+		}
+		result.setSequence("ATG" + Strings.repeat("GCT", Math.max(length / 3 - 2, 0)) + "TAA");
+
+		return result;
+	}
+
+	/**
+	 * Helper function to build a synthetic forward strand transcript with one exon, see
+	 * {@link #buildTranscriptBuilder}.
+	 *
+	 * @param refDict
+	 *            reference dictionary
+	 * @param accession
+	 *            transcript accession
+	 * @param geneSymbol
+	 *            gene symbol
+	 * @param chr
+	 *            numeric chromosome ID
+	 * @param begin
+	 *            zero-based begin position of the exon
+	 * @param sequence
+	 *            transcript sequence, also determines the exon length
+	 */
+	public static TranscriptModel buildSingleExonTranscript(ReferenceDictionary refDict, String accession,
+			String geneSymbol, int chr, int begin, String sequence) {
+		TranscriptModelBuilder result = buildTranscriptBuilder(refDict, accession, geneSymbol, Strand.FWD, chr, begin,
+				begin + sequence.length());
+		result.setSequence(sequence);
+		return result.build();
+	}
 }
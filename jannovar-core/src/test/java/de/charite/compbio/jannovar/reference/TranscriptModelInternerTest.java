@@ -0,0 +1,98 @@
+package de.charite.compbio.jannovar.reference;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataSerializer;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+
+public class TranscriptModelInternerTest {
+
+	/** this test uses this static hg19 reference dictionary */
+	static final ReferenceDictionary refDict = HG19RefDictBuilder.build();
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	/** @return transcript with its own instances of all values */
+	private static TranscriptModel buildTranscript(String accession, Strand strand, int chr, int... exonBounds) {
+		TranscriptModelBuilder builder = TranscriptModelFactory.buildTranscriptBuilder(refDict, accession,
+				new String("GENE1"), strand, chr, exonBounds);
+		builder.setGeneID(new String("HGNC:1"));
+		builder.getAltGeneIDs().put(new String("ENTREZ_ID"), new String("1"));
+		builder.setSequence(new String(builder.getSequence()));
+		return builder.build();
+	}
+
+	@Test
+	public void testSharedValues() {
+		final TranscriptModel tx1 = buildTranscript("NM_000001.1", Strand.FWD, 1, 1000, 1009, 1100, 1106);
+		final TranscriptModel tx2 = buildTranscript("NM_000002.1", Strand.FWD, 1, 1000, 1009, 1100, 1106);
+		final TranscriptModel tx3 = buildTranscript("NM_000001.1", Strand.FWD, 24, 1000, 1009, 1100, 1106);
+
+		final ImmutableList<TranscriptModel> interned = TranscriptModelInterner.internAll(ImmutableList.of(tx1, tx2,
+				tx3));
+		Assert.assertEquals(tx1, interned.get(0));
+		Assert.assertEquals(tx2, interned.get(1));
+		Assert.assertSame(interned.get(0).getGeneSymbol(), interned.get(1).getGeneSymbol());
+		Assert.assertSame(interned.get(0).getGeneID(), interned.get(1).getGeneID());
+		Assert.assertSame(interned.get(0).getAltGeneIDs(), interned.get(1).getAltGeneIDs());
+		Assert.assertSame(interned.get(0).getExonRegions(), interned.get(1).getExonRegions());
+		Assert.assertSame(interned.get(0).getSequence(), interned.get(1).getSequence());
+		Assert.assertSame(interned.get(0).getTranslationStartingAtCDS(), interned.get(1)
+				.getTranslationStartingAtCDS());
+
+		// copy on other chromosome shares sequence and gene values but not the exons
+		Assert.assertEquals(tx3, interned.get(2));
+		Assert.assertSame(interned.get(0).getSequence(), interned.get(2).getSequence());
+		Assert.assertSame(interned.get(0).getAltGeneIDs(), interned.get(2).getAltGeneIDs());
+		Assert.assertEquals(24, interned.get(2).getExonRegions().get(0).getChr());
+
+		// interning again yields the same instances
+		final ImmutableList<TranscriptModel> again = TranscriptModelInterner.internAll(interned);
+		for (int i = 0; i < interned.size(); ++i)
+			Assert.assertSame(interned.get(i), again.get(i));
+	}
+
+	@Test
+	public void testStrandsNotMixed() {
+		final TranscriptModel fwd = buildTranscript("NM_000001.1", Strand.FWD, 1, 1000, 1015);
+		final TranscriptModel rev = buildTranscript("NM_000002.1", Strand.REV, 1, 1000, 1015);
+
+		final ImmutableList<TranscriptModel> interned = TranscriptModelInterner.internAll(ImmutableList.of(fwd,
+				rev));
+		Assert.assertEquals(Strand.REV, interned.get(1).getTXRegion().getStrand());
+		Assert.assertEquals(Strand.REV, interned.get(1).getExonRegions().get(0).getStrand());
+		Assert.assertEquals(rev, interned.get(1));
+	}
+
+	@Test
+	public void testSharedAfterLoading() throws Exception {
+		final JannovarData data = new JannovarData(refDict, ImmutableList.of(
+				buildTranscript("NM_000001.1", Strand.FWD, 1, 1000, 1015),
+				buildTranscript("NM_000002.1", Strand.FWD, 24, 1000, 1015))).withInternedTranscripts();
+		final TranscriptModel tx1 = data.getTmByAccession().get("NM_000001.1");
+		final TranscriptModel tx2 = data.getTmByAccession().get("NM_000002.1");
+		Assert.assertSame(tx1.getSequence(), tx2.getSequence());
+		Assert.assertSame(tx1, data.getChromosomes().get(1).getTMIntervalTree().getIntervals().get(0).getValue());
+
+		final File serFile = new File(tmpFolder.getRoot(), "test.ser");
+		new JannovarDataSerializer(serFile.getPath()).save(data);
+		final JannovarData loaded = new JannovarDataSerializer(serFile.getPath()).load();
+		final TranscriptModel loaded1 = loaded.getTmByAccession().get("NM_000001.1");
+		final TranscriptModel loaded2 = loaded.getTmByAccession().get("NM_000002.1");
+		Assert.assertEquals(tx1, loaded1);
+		Assert.assertSame(loaded1.getSequence(), loaded2.getSequence());
+		Assert.assertSame(loaded1.getGeneSymbol(), loaded2.getGeneSymbol());
+		Assert.assertSame(loaded1, loaded.getChromosomes().get(1).getTMIntervalTree().getIntervals().get(0)
+				.getValue());
+	}
+
+}
@@ -29,7 +29,7 @@ public class GenomeRegionSequenceExtractor {
 	 */
 	public String load(GenomeInterval region) {
 		region = region.withStrand(Strand.FWD);
-		String contigName = region.getRefDict().getContigIDToName().get(region.getChr());
+		String contigName = region.getRefDict().getContigName(region.getChr());
 		ReferenceSequence seq = indexedFile.getSubsequenceAt(contigName, region.getBeginPos() + 1, region.getEndPos());
 		return new String(seq.getBases());
 	}
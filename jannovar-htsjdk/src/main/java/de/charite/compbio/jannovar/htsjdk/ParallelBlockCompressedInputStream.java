@@ -0,0 +1,243 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+
+/**
+ * {@link InputStream} reading BGZF (blocked GZIP) files that inflates the blocks ahead of the reader on a thread pool.
+ *
+ * When data is requested, the compressed blocks are read from the underlying stream until
+ * {@link #getMaxPendingBlocks} blocks are pending and are inflated in parallel, the inflated blocks are then returned
+ * in file order. The thread calling {@link #read} only reads the compressed data.
+ *
+ * Objects of this class must only be used from one thread.
+ */
+public final class ParallelBlockCompressedInputStream extends InputStream {
+
+	/** the stream to read the compressed blocks from */
+	private final InputStream in;
+	/** thread pool for inflating the blocks, <code>null</code> for inflating in the calling thread */
+	private final ExecutorService executor;
+	/** maximal number of blocks that are read ahead */
+	private final int maxPendingBlocks;
+
+	/** blocks that are read and inflated or waiting to be returned, in file order */
+	private final ArrayDeque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+	/** {@link Inflater}s that are currently unused */
+	private final ConcurrentLinkedQueue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+	/** whether the end of {@link #in} has been reached */
+	private boolean endOfInput = false;
+
+	/** the current inflated block */
+	private byte[] buffer = new byte[0];
+	/** read position in {@link #buffer} */
+	private int bufferPos = 0;
+
+	/**
+	 * Initialize the stream
+	 *
+	 * @param in
+	 *            the {@link InputStream} with the BGZF data, closed on {@link #close}
+	 * @param numThreads
+	 *            number of threads to use for inflating, 1 for inflating in the calling thread
+	 * @throws IllegalArgumentException
+	 *             on invalid thread count
+	 */
+	public ParallelBlockCompressedInputStream(InputStream in, int numThreads) {
+		if (numThreads < 1)
+			throw new IllegalArgumentException("Invalid number of threads " + numThreads);
+		this.in = in;
+		if (numThreads > 1)
+			this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+				Thread thread = new Thread(r, "bgzf-inflation");
+				thread.setDaemon(true);
+				return thread;
+			});
+		else
+			this.executor = null;
+		this.maxPendingBlocks = 4 * numThreads;
+	}
+
+	/** @return maximal number of blocks that are read ahead */
+	public int getMaxPendingBlocks() {
+		return maxPendingBlocks;
+	}
+
+	/**
+	 * @param header
+	 *            the first bytes of a file, at least {@link BlockCompressedStreamConstants#BLOCK_HEADER_LENGTH}
+	 * @param length
+	 *            number of valid bytes in <code>header</code>
+	 * @return whether <code>header</code> starts with a BGZF block header
+	 */
+	public static boolean isBlockCompressed(byte[] header, int length) {
+		return length >= BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH
+				&& header[0] == (byte) BlockCompressedStreamConstants.GZIP_ID1
+				&& header[1] == (byte) BlockCompressedStreamConstants.GZIP_ID2
+				&& (header[3] & BlockCompressedStreamConstants.GZIP_FLG) != 0
+				&& readShort(header, 10) == BlockCompressedStreamConstants.GZIP_XLEN
+				&& header[12] == BlockCompressedStreamConstants.BGZF_ID1
+				&& header[13] == BlockCompressedStreamConstants.BGZF_ID2;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (bufferPos == buffer.length && !nextBlock())
+			return -1;
+		return buffer[bufferPos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0)
+			return 0;
+		if (bufferPos == buffer.length && !nextBlock())
+			return -1;
+		final int count = Math.min(len, buffer.length - bufferPos);
+		System.arraycopy(buffer, bufferPos, b, off, count);
+		bufferPos += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return buffer.length - bufferPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (executor != null)
+			executor.shutdownNow();
+		pendingBlocks.clear();
+		for (Inflater inflater : inflaters)
+			inflater.end();
+		inflaters.clear();
+		in.close();
+	}
+
+	/**
+	 * Make the next non-empty block the current one
+	 *
+	 * @return <code>false</code> if the end of the data has been reached
+	 */
+	private boolean nextBlock() throws IOException {
+		while (true) {
+			while (!endOfInput && pendingBlocks.size() < maxPendingBlocks)
+				readBlock();
+			if (pendingBlocks.isEmpty())
+				return false;
+
+			try {
+				buffer = pendingBlocks.poll().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while inflating BGZF block");
+			} catch (ExecutionException e) {
+				throw new IOException("Problem inflating BGZF block", e.getCause());
+			}
+			bufferPos = 0;
+			if (buffer.length > 0)
+				return true;
+		}
+	}
+
+	/** Read the next compressed block and submit it for inflation */
+	private void readBlock() throws IOException {
+		final int headerLength = BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+		final byte[] header = new byte[headerLength];
+		final int headerCount = readFully(header, 0, headerLength);
+		if (headerCount == 0) {
+			endOfInput = true;
+			return;
+		} else if (headerCount < headerLength || !isBlockCompressed(header, headerCount)) {
+			throw new IOException("Invalid BGZF block header");
+		}
+
+		final int blockLength = readShort(header, 16) + 1;
+		if (blockLength < headerLength + BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH)
+			throw new IOException("Invalid BGZF block size " + blockLength);
+		final byte[] block = new byte[blockLength];
+		System.arraycopy(header, 0, block, 0, headerLength);
+		if (readFully(block, headerLength, blockLength - headerLength) < blockLength - headerLength)
+			throw new EOFException("Unexpected end of BGZF file");
+
+		if (executor == null) {
+			final byte[] data = inflateBlock(block);
+			pendingBlocks.add(CompletableFuture.completedFuture(data));
+		} else {
+			pendingBlocks.add(executor.submit(() -> inflateBlock(block)));
+		}
+	}
+
+	/** @return number of bytes read into <code>b</code>, less than <code>len</code> only at the end of the input */
+	private int readFully(byte[] b, int off, int len) throws IOException {
+		int count = 0;
+		while (count < len) {
+			final int result = in.read(b, off + count, len - count);
+			if (result == -1)
+				break;
+			count += result;
+		}
+		return count;
+	}
+
+	/** @return inflated data of the complete BGZF block <code>block</code> */
+	private byte[] inflateBlock(byte[] block) throws IOException {
+		final int headerLength = BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+		final int footerLength = BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+		final int footerPos = block.length - footerLength;
+		final byte[] data = new byte[readInt(block, footerPos + 4)];
+
+		Inflater inflater = inflaters.poll();
+		if (inflater == null)
+			inflater = new Inflater(true);
+		try {
+			inflater.reset();
+			inflater.setInput(block, headerLength, footerPos - headerLength);
+			int count = 0;
+			while (count < data.length) {
+				final int result = inflater.inflate(data, count, data.length - count);
+				if (result == 0 && (inflater.finished() || inflater.needsInput()))
+					break;
+				count += result;
+			}
+			if (count != data.length)
+				throw new IOException("BGZF block has wrong uncompressed size");
+		} catch (DataFormatException e) {
+			throw new IOException("Problem inflating BGZF block", e);
+		} finally {
+			inflaters.add(inflater);
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length);
+		if ((int) crc.getValue() != readInt(block, footerPos))
+			throw new IOException("CRC mismatch in BGZF block");
+		return data;
+	}
+
+	/** @return little-endian unsigned 16 bit value */
+	private static int readShort(byte[] buf, int pos) {
+		return (buf[pos] & 0xff) | ((buf[pos + 1] & 0xff) << 8);
+	}
+
+	/** @return little-endian 32 bit value */
+	private static int readInt(byte[] buf, int pos) {
+		return readShort(buf, pos) | (readShort(buf, pos + 2) << 16);
+	}
+
+}
@@ -0,0 +1,312 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+
+/**
+ * {@link OutputStream} writing BGZF (blocked GZIP) files that compresses the blocks on a thread pool.
+ *
+ * The written data is cut into blocks of {@link #BLOCK_SIZE} bytes that are compressed in parallel and written out in
+ * their original order, followed by the BGZF end-of-file marker block on {@link #close}. In contrast to HTSJDK's
+ * <code>BlockCompressedOutputStream</code>, {@link #flush} does not cut the current block, such that all blocks but the
+ * last one have the same uncompressed size.
+ *
+ * As the compressed size of a block is only known after it has been compressed, BGZF virtual file offsets cannot be
+ * obtained while writing. Instead, {@link #getPosition} returns the uncompressed position, which can be converted with
+ * {@link #getVirtualOffset} once all blocks before it have been written (see {@link #hasVirtualOffset}).
+ *
+ * Objects of this class must only be used from one thread.
+ */
+public final class ParallelBlockCompressedOutputStream extends OutputStream {
+
+	/**
+	 * number of uncompressed bytes per block, as in samtools, such that blocks of uncompressable data fit into the
+	 * maximal BGZF block size
+	 */
+	public static final int BLOCK_SIZE = 0xff00;
+
+	/** default compression level, as in HTSJDK */
+	public static final int DEFAULT_COMPRESSION_LEVEL = 5;
+
+	/** the stream to write the compressed blocks to */
+	private final OutputStream out;
+	/** compression level to use */
+	private final int compressionLevel;
+	/** thread pool for compressing the blocks, <code>null</code> for compressing in the calling thread */
+	private final ExecutorService executor;
+	/** maximal number of blocks that are compressed or waiting to be written */
+	private final int maxPendingBlocks;
+
+	/** blocks that are compressed or waiting to be written, in file order */
+	private final ArrayDeque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+	/** {@link Deflater}s that are currently unused */
+	private final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+
+	/** buffer for the current block */
+	private byte[] buffer = new byte[BLOCK_SIZE];
+	/** number of bytes in {@link #buffer} */
+	private int bufferSize = 0;
+	/** number of blocks that have been cut so far */
+	private long numBlocks = 0;
+
+	/** compressed begin positions of the written blocks, followed by the position after the last one */
+	private long[] blockOffsets = new long[1024];
+	/** number of blocks that have been written to {@link #out} */
+	private int numWrittenBlocks = 0;
+
+	/** whether {@link #close} has been called */
+	private boolean closed = false;
+
+	/**
+	 * Initialize the stream
+	 *
+	 * @param out
+	 *            the {@link OutputStream} to write the compressed data to, closed on {@link #close}
+	 * @param compressionLevel
+	 *            compression level between 0 and 9
+	 * @param numThreads
+	 *            number of threads to use for compression, 1 for compressing in the calling thread
+	 * @throws IllegalArgumentException
+	 *             on invalid compression level or thread count
+	 */
+	public ParallelBlockCompressedOutputStream(OutputStream out, int compressionLevel, int numThreads) {
+		if (compressionLevel < 0 || compressionLevel > 9)
+			throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+		if (numThreads < 1)
+			throw new IllegalArgumentException("Invalid number of threads " + numThreads);
+		this.out = out;
+		this.compressionLevel = compressionLevel;
+		if (numThreads > 1)
+			this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+				Thread thread = new Thread(r, "bgzf-compression");
+				thread.setDaemon(true);
+				return thread;
+			});
+		else
+			this.executor = null;
+		this.maxPendingBlocks = 4 * numThreads;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		checkOpen();
+		buffer[bufferSize++] = (byte) b;
+		if (bufferSize == BLOCK_SIZE)
+			cutBlock();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		checkOpen();
+		while (len > 0) {
+			final int count = Math.min(len, BLOCK_SIZE - bufferSize);
+			System.arraycopy(b, off, buffer, bufferSize, count);
+			bufferSize += count;
+			off += count;
+			len -= count;
+			if (bufferSize == BLOCK_SIZE)
+				cutBlock();
+		}
+	}
+
+	/**
+	 * Write out the blocks that are compressed already and flush the underlying stream
+	 *
+	 * The current, incomplete block is not written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		writeBlocks(false);
+		out.flush();
+	}
+
+	/**
+	 * Write out all blocks and the BGZF end-of-file marker and close the underlying stream
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		try {
+			if (bufferSize > 0)
+				cutBlock();
+			while (!pendingBlocks.isEmpty())
+				writeBlocks(true);
+			out.write(BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK);
+			out.close();
+		} finally {
+			closed = true;
+			if (executor != null)
+				executor.shutdownNow();
+			for (Deflater deflater : deflaters)
+				deflater.end();
+			deflaters.clear();
+		}
+	}
+
+	/** @return number of uncompressed bytes written so far */
+	public long getPosition() {
+		return numBlocks * BLOCK_SIZE + bufferSize;
+	}
+
+	/**
+	 * @param position
+	 *            uncompressed position, at most {@link #getPosition}
+	 * @return whether the blocks before the one containing <code>position</code> have been written, such that its
+	 *         virtual offset is known
+	 */
+	public boolean hasVirtualOffset(long position) {
+		return position / BLOCK_SIZE <= numWrittenBlocks;
+	}
+
+	/**
+	 * Convert uncompressed position into BGZF virtual offset
+	 *
+	 * @param position
+	 *            uncompressed position for which {@link #hasVirtualOffset} is <code>true</code>
+	 * @return BGZF virtual file offset of <code>position</code>
+	 * @throws IllegalArgumentException
+	 *             if the blocks before the one containing <code>position</code> have not been written yet
+	 */
+	public long getVirtualOffset(long position) {
+		final long block = position / BLOCK_SIZE;
+		if (block > numWrittenBlocks)
+			throw new IllegalArgumentException("Blocks before position " + position + " have not been written yet");
+		return (blockOffsets[(int) block] << 16) | (position % BLOCK_SIZE);
+	}
+
+	/** Submit the current block for compression and start a new one */
+	private void cutBlock() throws IOException {
+		final byte[] data = buffer;
+		final int size = bufferSize;
+		final Callable<byte[]> task = () -> compressBlock(data, size);
+		final FutureTask<byte[]> future = new FutureTask<>(task);
+		if (executor == null)
+			future.run();
+		else
+			executor.execute(future);
+		pendingBlocks.add(future);
+		++numBlocks;
+
+		buffer = new byte[BLOCK_SIZE];
+		bufferSize = 0;
+		writeBlocks(pendingBlocks.size() >= maxPendingBlocks);
+	}
+
+	/**
+	 * Write out the compressed blocks at the head of {@link #pendingBlocks}
+	 *
+	 * @param wait
+	 *            whether to wait for the first block to be compressed
+	 */
+	private void writeBlocks(boolean wait) throws IOException {
+		while (!pendingBlocks.isEmpty() && (wait || pendingBlocks.peek().isDone())) {
+			final byte[] block;
+			try {
+				block = pendingBlocks.poll().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while compressing BGZF block");
+			} catch (ExecutionException e) {
+				throw new IOException("Problem compressing BGZF block", e.getCause());
+			}
+			out.write(block);
+
+			if (numWrittenBlocks + 1 == blockOffsets.length)
+				blockOffsets = Arrays.copyOf(blockOffsets, 2 * blockOffsets.length);
+			blockOffsets[numWrittenBlocks + 1] = blockOffsets[numWrittenBlocks] + block.length;
+			++numWrittenBlocks;
+			wait = false;
+		}
+	}
+
+	/** @return complete BGZF block with the first <code>size</code> bytes of <code>data</code> */
+	private byte[] compressBlock(byte[] data, int size) {
+		final int headerLength = BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+		final int footerLength = BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+		final byte[] block = new byte[BlockCompressedStreamConstants.MAX_COMPRESSED_BLOCK_SIZE];
+
+		Deflater deflater = deflaters.poll();
+		if (deflater == null)
+			deflater = new Deflater(compressionLevel, true);
+		int compressedSize = deflate(deflater, data, size, block, headerLength, block.length - headerLength
+				- footerLength);
+		deflaters.add(deflater);
+		if (compressedSize == -1) {
+			// data is not compressible enough, store it
+			final Deflater noCompression = new Deflater(Deflater.NO_COMPRESSION, true);
+			compressedSize = deflate(noCompression, data, size, block, headerLength, block.length - headerLength
+					- footerLength);
+			noCompression.end();
+			if (compressedSize == -1)
+				throw new IllegalStateException("Uncompressed BGZF block does not fit into block");
+		}
+
+		final int blockLength = headerLength + compressedSize + footerLength;
+		writeHeader(block, blockLength);
+		final CRC32 crc = new CRC32();
+		crc.update(data, 0, size);
+		writeInt(block, headerLength + compressedSize, (int) crc.getValue());
+		writeInt(block, headerLength + compressedSize + 4, size);
+		return Arrays.copyOf(block, blockLength);
+	}
+
+	/** @return size of the deflated data, -1 if it does not fit into <code>len</code> bytes */
+	private static int deflate(Deflater deflater, byte[] data, int size, byte[] out, int off, int len) {
+		deflater.reset();
+		deflater.setInput(data, 0, size);
+		deflater.finish();
+		final int result = deflater.deflate(out, off, len);
+		return deflater.finished() ? result : -1;
+	}
+
+	/** Write BGZF block header for block of length <code>blockLength</code> */
+	private static void writeHeader(byte[] block, int blockLength) {
+		block[0] = (byte) BlockCompressedStreamConstants.GZIP_ID1;
+		block[1] = (byte) BlockCompressedStreamConstants.GZIP_ID2;
+		block[2] = (byte) BlockCompressedStreamConstants.GZIP_CM_DEFLATE;
+		block[3] = (byte) BlockCompressedStreamConstants.GZIP_FLG;
+		// modification time (bytes 4-7) stays zero
+		block[8] = (byte) BlockCompressedStreamConstants.GZIP_XFL;
+		block[9] = (byte) BlockCompressedStreamConstants.GZIP_OS_UNKNOWN;
+		writeShort(block, 10, BlockCompressedStreamConstants.GZIP_XLEN);
+		block[12] = (byte) BlockCompressedStreamConstants.BGZF_ID1;
+		block[13] = (byte) BlockCompressedStreamConstants.BGZF_ID2;
+		writeShort(block, 14, BlockCompressedStreamConstants.BGZF_LEN);
+		writeShort(block, 16, blockLength - 1);
+	}
+
+	/** Write little-endian 16 bit value */
+	private static void writeShort(byte[] buf, int pos, int value) {
+		buf[pos] = (byte) value;
+		buf[pos + 1] = (byte) (value >>> 8);
+	}
+
+	/** Write little-endian 32 bit value */
+	private static void writeInt(byte[] buf, int pos, int value) {
+		writeShort(buf, pos, value);
+		writeShort(buf, pos + 2, value >>> 16);
+	}
+
+	/** @throws IOException if the stream has been closed */
+	private void checkOpen() throws IOException {
+		if (closed)
+			throw new IOException("Stream has been closed");
+	}
+
+}
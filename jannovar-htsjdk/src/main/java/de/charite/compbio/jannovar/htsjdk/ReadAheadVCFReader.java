@@ -0,0 +1,312 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+import htsjdk.tribble.readers.LineIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Reader for VCF files that reads and splits the input into lines on a background thread.
+ *
+ * The header is parsed on construction. Afterwards, a background thread reads the records as raw lines and puts them
+ * into a bounded queue in batches; BGZF-compressed input is inflated on a thread pool through a
+ * {@link ParallelBlockCompressedInputStream}. The batches are taken with {@link #nextBatch} and decoded into
+ * {@link VariantContext} objects by the consumers, each using its own {@link Decoder}, such that only the records that
+ * are actually needed are decoded, on the consumers' threads. {@link #stream} provides the decoded records in file
+ * order.
+ */
+public final class ReadAheadVCFReader implements Closeable {
+
+	/** default number of lines per batch */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/** number of batches to read ahead */
+	private static final int MAX_PENDING_BATCHES = 16;
+
+	/** marker for the end of the input in {@link #batches} */
+	private static final ImmutableList<String> END_OF_INPUT = ImmutableList.of();
+
+	/** the reader for the text */
+	private final BufferedReader reader;
+	/** the header lines of the file */
+	private final ImmutableList<String> headerLines;
+	/** the parsed header */
+	private final VCFHeader header;
+	/** number of lines per batch */
+	private final int batchSize;
+
+	/** batches of record lines that have been read */
+	private final BlockingQueue<ImmutableList<String>> batches = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES);
+	/** thread reading the lines */
+	private final Thread readerThread;
+	/** problem on reading, set before {@link #END_OF_INPUT} is put into {@link #batches} */
+	private volatile Exception readerException = null;
+	/** whether {@link #END_OF_INPUT} has been taken */
+	private boolean finished = false;
+
+	/**
+	 * Open VCF file, compressed with BGZF or GZIP or uncompressed
+	 *
+	 * @param file
+	 *            the VCF file to read
+	 * @param numThreads
+	 *            number of threads for inflating BGZF-compressed files
+	 * @throws IOException
+	 *             on problems opening the file or reading its header
+	 */
+	public ReadAheadVCFReader(File file, int numThreads) throws IOException {
+		this(new FileInputStream(file), numThreads, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Read VCF data from stream, compressed with BGZF or GZIP or uncompressed
+	 *
+	 * @param in
+	 *            the {@link InputStream} to read from, closed on {@link #close}
+	 * @param numThreads
+	 *            number of threads for inflating BGZF-compressed data
+	 * @param batchSize
+	 *            number of lines per batch
+	 * @throws IOException
+	 *             on problems reading the header
+	 */
+	public ReadAheadVCFReader(InputStream in, int numThreads, int batchSize) throws IOException {
+		this.batchSize = batchSize;
+		this.reader = new BufferedReader(new InputStreamReader(openDecompressed(in, numThreads),
+				StandardCharsets.UTF_8), 1024 * 1024);
+
+		ImmutableList.Builder<String> builder = new ImmutableList.Builder<>();
+		String firstRecord = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (!line.startsWith("#")) {
+				firstRecord = line;
+				break;
+			}
+			builder.add(line);
+		}
+		this.headerLines = builder.build();
+		this.header = (VCFHeader) new VCFCodec().readActualHeader(new HeaderLineIterator(headerLines));
+
+		final String first = firstRecord;
+		this.readerThread = new Thread(() -> readLines(first), "vcf-reader");
+		this.readerThread.setDaemon(true);
+		this.readerThread.start();
+	}
+
+	/** @return <code>in</code>, wrapped for decompression depending on its first bytes */
+	private static InputStream openDecompressed(InputStream in, int numThreads) throws IOException {
+		final BufferedInputStream bufferedIn = new BufferedInputStream(in, 1024 * 1024);
+		final int headerLength = BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+		final byte[] magic = new byte[headerLength];
+		bufferedIn.mark(headerLength);
+		int count = 0;
+		while (count < headerLength) {
+			final int result = bufferedIn.read(magic, count, headerLength - count);
+			if (result == -1)
+				break;
+			count += result;
+		}
+		bufferedIn.reset();
+
+		if (ParallelBlockCompressedInputStream.isBlockCompressed(magic, count))
+			return new ParallelBlockCompressedInputStream(bufferedIn, numThreads);
+		else if (count >= 2 && magic[0] == (byte) BlockCompressedStreamConstants.GZIP_ID1
+				&& magic[1] == (byte) BlockCompressedStreamConstants.GZIP_ID2)
+			return new GZIPInputStream(bufferedIn, 64 * 1024);
+		else
+			return bufferedIn;
+	}
+
+	/** Read record lines in batches into {@link #batches}, starting with <code>firstRecord</code> */
+	private void readLines(String firstRecord) {
+		try {
+			ArrayList<String> batch = new ArrayList<>(batchSize);
+			String line = firstRecord;
+			while (line != null) {
+				if (!line.isEmpty())
+					batch.add(line);
+				if (batch.size() == batchSize) {
+					batches.put(ImmutableList.copyOf(batch));
+					batch.clear();
+				}
+				line = reader.readLine();
+			}
+			if (!batch.isEmpty())
+				batches.put(ImmutableList.copyOf(batch));
+		} catch (InterruptedException e) {
+			return; // closed
+		} catch (IOException | RuntimeException e) {
+			readerException = e;
+		}
+
+		try {
+			batches.put(END_OF_INPUT);
+		} catch (InterruptedException e) {
+			// closed
+		}
+	}
+
+	/** @return the header of the VCF file */
+	public VCFHeader getFileHeader() {
+		return header;
+	}
+
+	/**
+	 * Take the next batch of raw record lines, waiting for it if necessary
+	 *
+	 * @return the next non-empty batch of lines, an empty list at the end of the file
+	 * @throws UncheckedJannovarException
+	 *             on problems reading the file
+	 */
+	public ImmutableList<String> nextBatch() {
+		if (finished)
+			return END_OF_INPUT;
+		final ImmutableList<String> batch;
+		try {
+			batch = batches.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedJannovarException("Interrupted while reading VCF file", e);
+		}
+		if (batch == END_OF_INPUT) {
+			finished = true;
+			if (readerException != null)
+				throw new UncheckedJannovarException("Problem reading VCF file", readerException);
+		}
+		return batch;
+	}
+
+	/**
+	 * @return new {@link Decoder} for the record lines, for use in one thread
+	 */
+	public Decoder newDecoder() {
+		return new Decoder(headerLines);
+	}
+
+	/**
+	 * @return {@link Stream} of the records of the file in file order, decoded in the thread consuming the stream
+	 */
+	public Stream<VariantContext> stream() {
+		final Decoder decoder = newDecoder();
+		Iterator<VariantContext> it = new Iterator<VariantContext>() {
+			/** the current batch */
+			private ImmutableList<String> batch = END_OF_INPUT;
+			/** position in {@link #batch} */
+			private int pos = 0;
+
+			@Override
+			public boolean hasNext() {
+				if (pos == batch.size()) {
+					batch = nextBatch();
+					pos = 0;
+				}
+				return pos < batch.size();
+			}
+
+			@Override
+			public VariantContext next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return decoder.decode(batch.get(pos++));
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL),
+				false);
+	}
+
+	@Override
+	public void close() throws IOException {
+		readerThread.interrupt();
+		try {
+			readerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		reader.close();
+	}
+
+	/**
+	 * Decoding of record lines into {@link VariantContext} objects, each thread needs its own decoder
+	 */
+	public static final class Decoder {
+
+		/** the codec to use, initialized with the header of the file */
+		private final VCFCodec codec;
+
+		Decoder(ImmutableList<String> headerLines) {
+			this.codec = new VCFCodec();
+			this.codec.readActualHeader(new HeaderLineIterator(headerLines));
+		}
+
+		/**
+		 * @param line
+		 *            a record line of the file
+		 * @return the decoded {@link VariantContext}, genotypes are decoded lazily by HTSJDK
+		 */
+		public VariantContext decode(String line) {
+			return codec.decode(line);
+		}
+
+	}
+
+	/**
+	 * {@link LineIterator} over the header lines, for parsing the header with {@link VCFCodec}
+	 */
+	private static final class HeaderLineIterator implements LineIterator {
+
+		/** the header lines */
+		private final ImmutableList<String> lines;
+		/** the position of the next line */
+		private int pos = 0;
+
+		HeaderLineIterator(ImmutableList<String> lines) {
+			this.lines = lines;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pos < lines.size();
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return lines.get(pos++);
+		}
+
+		@Override
+		public String peek() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return lines.get(pos);
+		}
+
+	}
+
+}
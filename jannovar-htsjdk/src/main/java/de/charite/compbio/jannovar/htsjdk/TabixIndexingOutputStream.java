@@ -0,0 +1,174 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import htsjdk.tribble.SimpleFeature;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+
+/**
+ * {@link OutputStream} for VCF text that writes to a {@link ParallelBlockCompressedOutputStream} and builds a tabix
+ * index on the fly.
+ *
+ * The records are recognized in the written text: the contig, position, reference allele, and <code>END</code> value
+ * of each line not starting with <code>'#'</code> are passed to a {@link TabixIndexCreator} once the virtual offset of
+ * the line is known. The index is written next to the VCF file on {@link #close}. As for HTSJDK's index creation, the
+ * records must be sorted by position.
+ */
+final class TabixIndexingOutputStream extends OutputStream {
+
+	/** index of the INFO column in VCF records */
+	private static final int INFO_COLUMN = 7;
+
+	/** the stream to write the VCF text to */
+	private final ParallelBlockCompressedOutputStream out;
+	/** the index creator to pass the records to */
+	private final TabixIndexCreator indexCreator;
+	/** path to the index file to write */
+	private final File indexFile;
+
+	/** records for which the virtual offset is not known yet, in file order */
+	private final ArrayDeque<PendingRecord> pendingRecords = new ArrayDeque<>();
+
+	/** the first columns of the current line, up to and including INFO */
+	private byte[] line = new byte[1024];
+	/** number of bytes in {@link #line} */
+	private int lineLength = 0;
+	/** number of tabs in the current line so far */
+	private int numTabs = 0;
+	/** whether the next byte starts a line */
+	private boolean atLineStart = true;
+	/** whether the current line is a header line */
+	private boolean inHeader = false;
+	/** uncompressed begin position of the current line */
+	private long lineBeginPos = 0;
+	/** whether {@link #close} has been called */
+	private boolean closed = false;
+
+	/**
+	 * Initialize the stream
+	 *
+	 * @param out
+	 *            the {@link ParallelBlockCompressedOutputStream} to write to, closed on {@link #close}
+	 * @param indexCreator
+	 *            the {@link TabixIndexCreator} to pass the records to
+	 * @param indexFile
+	 *            path to the index file to write on {@link #close}
+	 */
+	TabixIndexingOutputStream(ParallelBlockCompressedOutputStream out, TabixIndexCreator indexCreator,
+			File indexFile) {
+		this.out = out;
+		this.indexCreator = indexCreator;
+		this.indexFile = indexFile;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		scan((byte) b, out.getPosition());
+		out.write(b);
+		addRecords();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// the positions of the lines must be taken before writing them out
+		final long pos = out.getPosition();
+		for (int i = 0; i < len; ++i)
+			scan(b[off + i], pos + i);
+		out.write(b, off, len);
+		addRecords();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+		addRecords();
+	}
+
+	/**
+	 * Close the compressed stream and write out the index
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		out.close();
+		addRecords();
+		if (!pendingRecords.isEmpty())
+			throw new IOException("Could not determine the offsets of all records for the tabix index");
+		final Index index = indexCreator.finalizeIndex(out.getVirtualOffset(out.getPosition()));
+		index.write(indexFile);
+	}
+
+	/** Process the next character <code>c</code> of the text, at uncompressed position <code>pos</code> */
+	private void scan(byte c, long pos) {
+		if (atLineStart) {
+			lineBeginPos = pos;
+			inHeader = (c == '#');
+			lineLength = 0;
+			numTabs = 0;
+			atLineStart = false;
+		}
+
+		if (c == '\n') {
+			if (!inHeader && lineLength > 0)
+				pendingRecords.add(parseRecord());
+			atLineStart = true;
+		} else if (!inHeader && numTabs <= INFO_COLUMN) {
+			if (c == '\t')
+				++numTabs;
+			if (lineLength == line.length)
+				line = Arrays.copyOf(line, 2 * line.length);
+			line[lineLength++] = c;
+		}
+	}
+
+	/** @return {@link PendingRecord} for the current line */
+	private PendingRecord parseRecord() {
+		final String text = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+		final String[] fields = text.split("\t", INFO_COLUMN + 2);
+		if (fields.length <= INFO_COLUMN)
+			throw new IllegalArgumentException("Invalid VCF record for tabix index: " + text);
+
+		final int pos = Integer.parseInt(fields[1]);
+		int end = pos + fields[3].length() - 1;
+		for (String entry : fields[INFO_COLUMN].split(";"))
+			if (entry.startsWith("END=")) {
+				end = Integer.parseInt(entry.substring("END=".length()));
+				break;
+			}
+		return new PendingRecord(new SimpleFeature(fields[0], pos, end), lineBeginPos);
+	}
+
+	/** Pass the records with known virtual offset to the {@link #indexCreator} */
+	private void addRecords() {
+		while (!pendingRecords.isEmpty() && out.hasVirtualOffset(pendingRecords.peek().beginPos)) {
+			final PendingRecord record = pendingRecords.poll();
+			indexCreator.addFeature(record.feature, out.getVirtualOffset(record.beginPos));
+		}
+	}
+
+	/**
+	 * A record with its uncompressed begin position
+	 */
+	private static final class PendingRecord {
+
+		/** contig and positions of the record */
+		final SimpleFeature feature;
+		/** uncompressed begin position of the record */
+		final long beginPos;
+
+		PendingRecord(SimpleFeature feature, long beginPos) {
+			this.feature = feature;
+			this.beginPos = beginPos;
+		}
+
+	}
+
+}
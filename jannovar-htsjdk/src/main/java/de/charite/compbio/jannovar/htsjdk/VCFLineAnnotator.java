@@ -0,0 +1,209 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import de.charite.compbio.jannovar.annotation.AnnotationMessageCounter;
+import de.charite.compbio.jannovar.htsjdk.VariantContextAnnotator.AnnotationResult;
+import de.charite.compbio.jannovar.htsjdk.VariantContextAnnotator.SVInfo;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFConstants;
+
+/**
+ * Annotation of raw VCF record lines without decoding them into {@link VariantContext} objects.
+ *
+ * Only <tt>CHROM</tt>, <tt>POS</tt>, <tt>REF</tt>, and <tt>ALT</tt> are parsed, <tt>INFO</tt> only for symbolic
+ * alleles when summarizing structural variants. The line is written out unchanged except for the <tt>ANN</tt> entry
+ * in the <tt>INFO</tt> column, which is replaced or appended. The <tt>FORMAT</tt> and sample columns are copied
+ * without looking at them, such that the cost of the annotation does not depend on the number of samples.
+ *
+ * The annotations are the same as the ones built by {@link VariantContextAnnotator#buildAnnotations} and
+ * {@link VariantContextAnnotator#applyAnnotations} for the decoded record.
+ */
+public final class VCFLineAnnotator {
+
+	/** index of the <tt>INFO</tt> column */
+	private static final int INFO_COLUMN = 7;
+
+	/** the annotator to use */
+	private final VariantContextAnnotator annotator;
+
+	/**
+	 * Initialize the annotator
+	 *
+	 * @param annotator
+	 *            the {@link VariantContextAnnotator} to use, with its options
+	 */
+	public VCFLineAnnotator(VariantContextAnnotator annotator) {
+		this.annotator = annotator;
+	}
+
+	/**
+	 * @return counts of the error messages of the lines annotated so far, see
+	 *         {@link VariantContextAnnotator#getErrorCounter}
+	 */
+	public AnnotationMessageCounter getErrorCounter() {
+		return annotator.getErrorCounter();
+	}
+
+	/**
+	 * @param line
+	 *            the VCF record line, without line break
+	 * @return the annotated line, without line break
+	 * @throws UncheckedJannovarException
+	 *             if the first columns of <code>line</code> are invalid
+	 */
+	public String annotateLine(String line) {
+		StringWriter writer = new StringWriter(line.length() + 256);
+		try {
+			annotateLine(line, writer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // cannot happen with StringWriter
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Write the annotated VCF record line to <code>out</code>
+	 *
+	 * @param line
+	 *            the VCF record line, without line break
+	 * @param out
+	 *            the {@link Writer} to write the annotated line to, without line break
+	 * @throws IOException
+	 *             on problems writing to <code>out</code>
+	 * @throws UncheckedJannovarException
+	 *             if the first columns of <code>line</code> are invalid
+	 */
+	public void annotateLine(String line, Writer out) throws IOException {
+		// find the begin positions of the columns up to INFO and the end of INFO, the rest is not tokenized
+		final int[] columnBegins = new int[INFO_COLUMN + 1];
+		int pos = 0;
+		for (int column = 1; column <= INFO_COLUMN; ++column) {
+			pos = line.indexOf('\t', pos);
+			if (pos == -1)
+				throw new UncheckedJannovarException("Invalid VCF record line with too few columns: " + line);
+			columnBegins[column] = ++pos;
+		}
+		int infoEnd = line.indexOf('\t', columnBegins[INFO_COLUMN]);
+		if (infoEnd == -1)
+			infoEnd = line.length();
+
+		final String annValue = buildANNValue(line, columnBegins, infoEnd);
+		if (annValue == null) {
+			out.write(line);
+			return;
+		}
+
+		// write out everything up to INFO, then the updated INFO, then the rest of the line
+		final int infoBegin = columnBegins[INFO_COLUMN];
+		out.write(line, 0, infoBegin);
+		boolean first = true;
+		if (!(infoEnd == infoBegin + 1 && line.charAt(infoBegin) == '.')) {
+			int entryBegin = infoBegin;
+			while (entryBegin < infoEnd) {
+				final int entryEnd = indexOf(line, ';', entryBegin, infoEnd);
+				if (entryEnd > entryBegin && !isANNEntry(line, entryBegin, entryEnd)) {
+					if (!first)
+						out.write(';');
+					out.write(line, entryBegin, entryEnd - entryBegin);
+					first = false;
+				}
+				entryBegin = entryEnd + 1;
+			}
+		}
+		if (!first)
+			out.write(';');
+		out.write("ANN=");
+		out.write(annValue);
+		out.write(line, infoEnd, line.length() - infoEnd);
+	}
+
+	/**
+	 * @return position of the first <code>c</code> in <code>line</code> between <code>begin</code> and
+	 *         <code>end</code>, <code>end</code> if there is none (does not scan beyond <code>end</code>, unlike
+	 *         {@link String#indexOf(int, int)})
+	 */
+	private static int indexOf(String line, char c, int begin, int end) {
+		for (int i = begin; i < end; ++i)
+			if (line.charAt(i) == c)
+				return i;
+		return end;
+	}
+
+	/** @return whether the INFO entry in <code>line</code> between <code>begin</code> and <code>end</code> is ANN */
+	private static boolean isANNEntry(String line, int begin, int end) {
+		return (end - begin == 3 || (end - begin > 3 && line.charAt(begin + 3) == '='))
+				&& line.startsWith("ANN", begin);
+	}
+
+	/** @return value of the ANN entry for the record <code>line</code>, <code>null</code> for none */
+	private String buildANNValue(String line, int[] columnBegins, int infoEnd) {
+		final String contig = line.substring(0, columnBegins[1] - 1);
+		final int pos;
+		try {
+			pos = Integer.parseInt(line.substring(columnBegins[1], columnBegins[2] - 1));
+		} catch (NumberFormatException e) {
+			throw new UncheckedJannovarException("Invalid position in VCF record line: " + line, e);
+		}
+		final String ref = upperCaseBases(line.substring(columnBegins[3], columnBegins[4] - 1));
+		final String altColumn = line.substring(columnBegins[4], columnBegins[5] - 1);
+		final ImmutableList.Builder<String> altsBuilder = ImmutableList.builder();
+		if (!VCFConstants.EMPTY_ALTERNATE_ALLELE_FIELD.equals(altColumn))
+			for (String alt : altColumn.split(","))
+				altsBuilder.add(upperCaseBases(alt));
+		final List<String> alts = altsBuilder.build();
+
+		SVInfo svInfo = SVInfo.NONE;
+		if (annotator.getOptions().isSVGeneSummary() && alts.stream().anyMatch(alt -> alt.startsWith("<")))
+			svInfo = parseSVInfo(line.substring(columnBegins[INFO_COLUMN], infoEnd), line);
+
+		final AnnotationResult result = annotator.buildAnnotationResult(contig, pos, ref, alts, svInfo);
+		if (result.isError())
+			return VariantContextAnnotator.buildErrorANNValue(ImmutableSet.of(result.getError()));
+		else
+			return annotator.buildANNValue(alts, result.getAnnotations());
+	}
+
+	/**
+	 * @return <code>allele</code> with upper-case bases, symbolic alleles are returned unchanged (as for
+	 *         {@link Allele})
+	 */
+	private static String upperCaseBases(String allele) {
+		if (Allele.wouldBeSymbolicAllele(allele.getBytes(StandardCharsets.US_ASCII)))
+			return allele;
+		return allele.toUpperCase(Locale.ROOT);
+	}
+
+	/** @return the <tt>END</tt> and <tt>SVLEN</tt> values of the INFO column <code>info</code> */
+	private static SVInfo parseSVInfo(String info, String line) {
+		int end = -1;
+		List<Integer> svLens = new ArrayList<>();
+		try {
+			for (String entry : info.split(";")) {
+				if (entry.startsWith(VCFConstants.END_KEY + "=")) {
+					end = Integer.parseInt(entry.substring(VCFConstants.END_KEY.length() + 1));
+				} else if (entry.startsWith("SVLEN=")) {
+					for (String value : entry.substring("SVLEN=".length()).split(","))
+						if (!VCFConstants.MISSING_VALUE_v4.equals(value))
+							svLens.add(Integer.parseInt(value));
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new UncheckedJannovarException("Invalid END or SVLEN in VCF record line: " + line, e);
+		}
+		return new SVInfo(end, svLens);
+	}
+
+}
@@ -12,15 +12,21 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import de.charite.compbio.jannovar.annotation.Annotation;
 import de.charite.compbio.jannovar.annotation.AnnotationMessage;
+import de.charite.compbio.jannovar.annotation.AnnotationMessageCounter;
+import de.charite.compbio.jannovar.annotation.SortedVariantAnnotator;
+import de.charite.compbio.jannovar.annotation.StructuralVariantType;
 import de.charite.compbio.jannovar.annotation.VariantAnnotations;
 import de.charite.compbio.jannovar.annotation.VariantAnnotator;
 import de.charite.compbio.jannovar.annotation.builders.AnnotationBuilderOptions;
 import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.ContigNameInterner;
 import de.charite.compbio.jannovar.data.JannovarData;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
 import de.charite.compbio.jannovar.reference.GenomePosition;
 import de.charite.compbio.jannovar.reference.GenomeVariant;
 import de.charite.compbio.jannovar.reference.PositionType;
@@ -28,6 +34,7 @@ import de.charite.compbio.jannovar.reference.Strand;
 import de.charite.compbio.jannovar.reference.TranscriptModel;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFConstants;
 
 /**
  * Helper class for generating {@link VariantAnnotations} objects from {@link VariantContext}s.
@@ -59,13 +66,38 @@ public final class VariantContextAnnotator {
 		/** whether or not to perform shifting towards the 3' end of the transcript (defaults to <code>true</code>) */
 		private final boolean nt3PrimeShifting;
 
+		/**
+		 * whether or not to summarize structural variants on the gene level and to annotate symbolic SV alleles
+		 * (defaults to <code>false</code>)
+		 */
+		private final boolean svGeneSummary;
+
+		/** maximal number of genes to report for a structural variant, <code>0</code> for no limit (default) */
+		private final int maxSVGenes;
+
+		/**
+		 * whether or not to use {@link SortedVariantAnnotator} for coordinate-sorted input, makes the
+		 * {@link VariantContextAnnotator} stateful (defaults to <code>false</code>)
+		 */
+		private final boolean sortedInput;
+
+		/**
+		 * whether or not to only build the annotation with highest priority for each allele, see
+		 * {@link AnnotationBuilderOptions#isBestTranscriptOnly} (defaults to <code>false</code>)
+		 */
+		private final boolean bestTranscriptOnly;
+
+		/**
+		 * maximal transcript support level of the preferred transcripts in best transcript mode, <code>0</code> for
+		 * considering all transcripts (default)
+		 */
+		private final int preferredTranscriptSupportLevel;
+
 		/**
 		 * Constructor
 		 */
 		public Options() {
-			oneAnnotationOnly = true;
-			escapeAnnField = true;
-			nt3PrimeShifting = true;
+			this(true, true, true);
 		}
 
 		/**
@@ -82,9 +114,98 @@ public final class VariantContextAnnotator {
 		 *            <code>true</code>)
 		 */
 		public Options(boolean oneAnnotationOnly, boolean escapeAnnField, boolean nt3PrimeShifting) {
+			this(oneAnnotationOnly, escapeAnnField, nt3PrimeShifting, false, 0);
+		}
+
+		/**
+		 * 
+		 * constructor using fields
+		 * 
+		 * @param oneAnnotationOnly
+		 *            Whether or not to trim each annotation list to the first (one with highest putative impact),
+		 *            defaults to <code>true</code>
+		 * @param escapeAnnField
+		 *            whether or not to escape values in the ANN field (defaults to <code>true</code>)
+		 * @param nt3PrimeShifting
+		 *            whether or not to perform shifting towards the 3' end of the transcript (defaults to
+		 *            <code>true</code>)
+		 * @param svGeneSummary
+		 *            whether or not to summarize structural variants on the gene level and to annotate symbolic SV
+		 *            alleles (defaults to <code>false</code>)
+		 * @param maxSVGenes
+		 *            maximal number of genes to report for a structural variant, <code>0</code> for no limit
+		 */
+		public Options(boolean oneAnnotationOnly, boolean escapeAnnField, boolean nt3PrimeShifting,
+				boolean svGeneSummary, int maxSVGenes) {
+			this(oneAnnotationOnly, escapeAnnField, nt3PrimeShifting, svGeneSummary, maxSVGenes, false);
+		}
+
+		/**
+		 * 
+		 * constructor using fields
+		 * 
+		 * @param oneAnnotationOnly
+		 *            Whether or not to trim each annotation list to the first (one with highest putative impact),
+		 *            defaults to <code>true</code>
+		 * @param escapeAnnField
+		 *            whether or not to escape values in the ANN field (defaults to <code>true</code>)
+		 * @param nt3PrimeShifting
+		 *            whether or not to perform shifting towards the 3' end of the transcript (defaults to
+		 *            <code>true</code>)
+		 * @param svGeneSummary
+		 *            whether or not to summarize structural variants on the gene level and to annotate symbolic SV
+		 *            alleles (defaults to <code>false</code>)
+		 * @param maxSVGenes
+		 *            maximal number of genes to report for a structural variant, <code>0</code> for no limit
+		 * @param sortedInput
+		 *            whether or not to use {@link SortedVariantAnnotator} for coordinate-sorted input, the
+		 *            {@link VariantContextAnnotator} must not be shared between threads then (defaults to
+		 *            <code>false</code>)
+		 */
+		public Options(boolean oneAnnotationOnly, boolean escapeAnnField, boolean nt3PrimeShifting,
+				boolean svGeneSummary, int maxSVGenes, boolean sortedInput) {
+			this(oneAnnotationOnly, escapeAnnField, nt3PrimeShifting, svGeneSummary, maxSVGenes, sortedInput, false, 0);
+		}
+
+		/**
+		 * 
+		 * constructor using fields
+		 * 
+		 * @param oneAnnotationOnly
+		 *            Whether or not to trim each annotation list to the first (one with highest putative impact),
+		 *            defaults to <code>true</code>
+		 * @param escapeAnnField
+		 *            whether or not to escape values in the ANN field (defaults to <code>true</code>)
+		 * @param nt3PrimeShifting
+		 *            whether or not to perform shifting towards the 3' end of the transcript (defaults to
+		 *            <code>true</code>)
+		 * @param svGeneSummary
+		 *            whether or not to summarize structural variants on the gene level and to annotate symbolic SV
+		 *            alleles (defaults to <code>false</code>)
+		 * @param maxSVGenes
+		 *            maximal number of genes to report for a structural variant, <code>0</code> for no limit
+		 * @param sortedInput
+		 *            whether or not to use {@link SortedVariantAnnotator} for coordinate-sorted input, the
+		 *            {@link VariantContextAnnotator} must not be shared between threads then (defaults to
+		 *            <code>false</code>)
+		 * @param bestTranscriptOnly
+		 *            whether or not to only build the annotation with highest priority for each allele, skipping the
+		 *            transcripts that cannot yield it (defaults to <code>false</code>)
+		 * @param preferredTranscriptSupportLevel
+		 *            in best transcript mode, only consider the transcripts with a support level up to this value if
+		 *            any overlap with the variant, <code>0</code> for considering all transcripts (default)
+		 */
+		public Options(boolean oneAnnotationOnly, boolean escapeAnnField, boolean nt3PrimeShifting,
+				boolean svGeneSummary, int maxSVGenes, boolean sortedInput, boolean bestTranscriptOnly,
+				int preferredTranscriptSupportLevel) {
 			this.oneAnnotationOnly = oneAnnotationOnly;
 			this.escapeAnnField = escapeAnnField;
 			this.nt3PrimeShifting = nt3PrimeShifting;
+			this.svGeneSummary = svGeneSummary;
+			this.maxSVGenes = maxSVGenes;
+			this.sortedInput = sortedInput;
+			this.bestTranscriptOnly = bestTranscriptOnly;
+			this.preferredTranscriptSupportLevel = preferredTranscriptSupportLevel;
 		}
 
 		/**
@@ -108,10 +229,48 @@ public final class VariantContextAnnotator {
 			return nt3PrimeShifting;
 		}
 
+		/**
+		 * @return summarize structural variants on the gene level and annotate symbolic SV alleles
+		 */
+		public boolean isSVGeneSummary() {
+			return svGeneSummary;
+		}
+
+		/**
+		 * @return maximal number of genes to report for a structural variant, <code>0</code> for no limit
+		 */
+		public int getMaxSVGenes() {
+			return maxSVGenes;
+		}
+
+		/**
+		 * @return use {@link SortedVariantAnnotator} for coordinate-sorted input
+		 */
+		public boolean isSortedInput() {
+			return sortedInput;
+		}
+
+		/**
+		 * @return only build the annotation with highest priority for each allele
+		 */
+		public boolean isBestTranscriptOnly() {
+			return bestTranscriptOnly;
+		}
+
+		/**
+		 * @return maximal transcript support level of the preferred transcripts in best transcript mode,
+		 *         <code>0</code> for considering all transcripts
+		 */
+		public int getPreferredTranscriptSupportLevel() {
+			return preferredTranscriptSupportLevel;
+		}
+
 	}
 
 	/** the {@link ReferenceDictionary} to use */
 	private final ReferenceDictionary refDict;
+	/** resolution of the contig names of the {@link VariantContext}s to numeric IDs in {@link #refDict} */
+	private final ContigNameInterner contigNames;
 	/** {@link Chromosome} map with the {@link TranscriptModel}s, probably from {@link JannovarData} */
 	private final ImmutableMap<Integer, Chromosome> chromosomeMap;
 	/** configuration */
@@ -119,6 +278,10 @@ public final class VariantContextAnnotator {
 
 	/** implementation of the actual variant annotation */
 	private final VariantAnnotator annotator;
+	/** sweep-based annotation for sorted input, <code>null</code> unless {@link Options#isSortedInput} */
+	private final SortedVariantAnnotator sortedAnnotator;
+	/** counts of the errors, per record for unknown contigs and per allele otherwise */
+	private final AnnotationMessageCounter errorCounter = new AnnotationMessageCounter();
 
 	/**
 	 * Construct annotator with default options.
@@ -145,10 +308,19 @@ public final class VariantContextAnnotator {
 	public VariantContextAnnotator(ReferenceDictionary refDict, ImmutableMap<Integer, Chromosome> chromosomeMap,
 			Options options) {
 		this.refDict = refDict;
+		this.contigNames = new ContigNameInterner(refDict);
 		this.chromosomeMap = chromosomeMap;
 		this.options = options;
-		this.annotator = new VariantAnnotator(refDict, chromosomeMap,
-				new AnnotationBuilderOptions(options.nt3PrimeShifting));
+		final AnnotationBuilderOptions builderOptions = new AnnotationBuilderOptions(options.nt3PrimeShifting,
+				options.svGeneSummary, options.maxSVGenes, options.bestTranscriptOnly,
+				options.preferredTranscriptSupportLevel);
+		if (options.sortedInput) {
+			this.sortedAnnotator = new SortedVariantAnnotator(refDict, chromosomeMap, builderOptions);
+			this.annotator = sortedAnnotator.getAnnotator();
+		} else {
+			this.sortedAnnotator = null;
+			this.annotator = new VariantAnnotator(refDict, chromosomeMap, builderOptions);
+		}
 	}
 
 	/**
@@ -179,6 +351,14 @@ public final class VariantContextAnnotator {
 		return annotator;
 	}
 
+	/**
+	 * @return counts of the error messages of the records annotated so far, per record for records on unknown contigs
+	 *         and per allele otherwise
+	 */
+	public AnnotationMessageCounter getErrorCounter() {
+		return errorCounter;
+	}
+
 	/**
 	 * Build a {@link GenomeVariant} from a {@link VariantContext} object.
 	 *
@@ -194,22 +374,66 @@ public final class VariantContextAnnotator {
 	 *             in the case that the reference in <code>vc</code> is not known in {@link #refDict}.
 	 */
 	public GenomeVariant buildGenomeVariant(VariantContext vc, int alleleID) throws InvalidCoordinatesException {
-		// Catch the case that vc.getChr() is not in ChromosomeMap.identifier2chromosom. This is the case
-		// for the "random" and "alternative locus" contigs etc.
-		Integer boxedInt = refDict.getContigNameToID().get(vc.getContig());
-		if (boxedInt == null)
+		final int chr = contigNames.getContigID(vc.getContig());
+		if (chr == -1)
 			throw new InvalidCoordinatesException("Unknown reference " + vc.getContig(),
 					AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
-		int chr = boxedInt.intValue();
-
-		// Build the GenomeChange object.
-		final String ref = vc.getReference().getBaseString();
 		final Allele altAllele = vc.getAlternateAllele(alleleID);
-		final String alt = altAllele.getBaseString();
-		final int pos = vc.getStart();
+		return buildGenomeVariant(chr, vc.getStart(), vc.getReference().getBaseString(), altAllele.getBaseString());
+	}
+
+	/**
+	 * Build a {@link GenomeVariant} from the columns of a VCF record.
+	 *
+	 * @param chr
+	 *            numeric ID of the contig in {@link #refDict}
+	 * @param pos
+	 *            one-based position of the record
+	 * @param ref
+	 *            reference allele
+	 * @param alt
+	 *            alternative allele
+	 * @return {@link GenomeVariant} on {@link Strand#FWD}
+	 */
+	private GenomeVariant buildGenomeVariant(int chr, int pos, String ref, String alt) {
 		return new GenomeVariant(new GenomePosition(refDict, Strand.FWD, chr, pos, PositionType.ONE_BASED), ref, alt);
 	}
 
+	/**
+	 * Build the interval affected by the symbolic structural variant allele <code>alleleID</code> of <code>vc</code>.
+	 *
+	 * The SV begins after the padding base at <tt>POS</tt>. The end is taken from the <tt>END</tt> INFO field if
+	 * present and from <tt>SVLEN</tt> otherwise. Insertions and SVs without <tt>END</tt> and <tt>SVLEN</tt> get an
+	 * empty interval.
+	 *
+	 * @param pos
+	 *            one-based position of the record
+	 * @param svInfo
+	 *            <tt>END</tt> and <tt>SVLEN</tt> of the record
+	 * @param alleleID
+	 *            numeric identifier of the allele
+	 * @param change
+	 *            {@link GenomeVariant} built for the allele
+	 * @param svType
+	 *            {@link StructuralVariantType} of the allele
+	 * @return {@link GenomeInterval} on {@link Strand#FWD}
+	 */
+	private GenomeInterval buildSVRegion(int pos, SVInfo svInfo, int alleleID, GenomeVariant change,
+			StructuralVariantType svType) {
+		final int beginPos = pos; // zero-based position after padding base
+		int endPos = beginPos;
+		if (svType != StructuralVariantType.INS) {
+			if (svInfo.end != -1) {
+				endPos = svInfo.end;
+			} else if (!svInfo.svLens.isEmpty()) {
+				final List<Integer> svLens = svInfo.svLens;
+				endPos = beginPos + Math.abs(svLens.get(Math.min(alleleID, svLens.size() - 1)));
+			}
+		}
+		endPos = Math.max(beginPos, Math.min(endPos, refDict.getContigLength(change.getChr())));
+		return new GenomeInterval(refDict, Strand.FWD, change.getChr(), beginPos, endPos, PositionType.ZERO_BASED);
+	}
+
 	/**
 	 * Put error annotation messages to a {@link VariantContext} into the ANN field in the INFO column.
 	 *
@@ -221,15 +445,22 @@ public final class VariantContextAnnotator {
 	 *            set of messages to write into the {@link VariantContext}
 	 */
 	public void putErrorAnnotation(VariantContext vc, Set<AnnotationMessage> messages) {
-		// TODO(holtgrewe): Do something more elegant way than 15 * "|", needs to be kept in sync with VCFAnnotationData
-		final String annotation = "|||||||||||||||" + Joiner.on('&').join(messages);
-
 		// If a VC builder is used before the attributes can be unmodifiable.
 		Map<String, Object> attributes = new HashMap<>(vc.getAttributes());
-		attributes.put("ANN", annotation);
+		attributes.put("ANN", buildErrorANNValue(messages));
 		vc.getCommonInfo().setAttributes(attributes);
 	}
 
+	/**
+	 * @param messages
+	 *            set of error messages
+	 * @return value of the ANN field for the error <code>messages</code>
+	 */
+	static String buildErrorANNValue(Set<AnnotationMessage> messages) {
+		// TODO(holtgrewe): Do something more elegant way than 15 * "|", needs to be kept in sync with VCFAnnotationData
+		return "|||||||||||||||" + Joiner.on('&').join(messages);
+	}
+
 	/**
 	 * Given a {@link VariantContext}, generate one {@link VariantAnnotations} for each alternative allele.
 	 *
@@ -245,25 +476,133 @@ public final class VariantContextAnnotator {
 	 *             {@link GenomeVariant} object one one of the returned {@link VariantAnnotations}s.
 	 */
 	public ImmutableList<VariantAnnotations> buildAnnotations(VariantContext vc) throws InvalidCoordinatesException {
+		final AnnotationResult result = buildAnnotationResult(vc);
+		if (result.isError())
+			throw new InvalidCoordinatesException("Unknown reference " + vc.getContig(), result.getError());
+		return result.getAnnotations();
+	}
+
+	/**
+	 * Given a {@link VariantContext}, generate one {@link VariantAnnotations} for each alternative allele, without
+	 * using exceptions for records that cannot be annotated.
+	 *
+	 * Records on contigs that are unknown in the reference dictionary (e.g., decoy contigs) yield a result with the
+	 * error {@link AnnotationMessage#ERROR_CHROMOSOME_NOT_FOUND}. Alleles that cannot be annotated get error
+	 * annotations as built by {@link #buildErrorAnnotations}. All errors are counted in {@link #getErrorCounter}.
+	 *
+	 * @param vc
+	 *            the VCF record to annotate, remains unchanged
+	 * @return {@link AnnotationResult} with one {@link VariantAnnotations} for each alternative allele or the error
+	 */
+	public AnnotationResult buildAnnotationResult(VariantContext vc) {
 		LOGGER.trace("building annotation lists for {}", new Object[] { vc });
 
+		ArrayList<String> alts = new ArrayList<>(vc.getAlternateAlleles().size());
+		for (Allele allele : vc.getAlternateAlleles())
+			alts.add(allele.getBaseString());
+		SVInfo svInfo = SVInfo.NONE;
+		if (options.svGeneSummary) {
+			final int end = vc.hasAttribute(VCFConstants.END_KEY) ? vc.getEnd() : -1;
+			final List<Integer> svLens = vc.hasAttribute("SVLEN") ? vc.getAttributeAsIntList("SVLEN", 0)
+					: ImmutableList.of();
+			svInfo = new SVInfo(end, svLens);
+		}
+		return buildAnnotationResult(vc.getContig(), vc.getStart(), vc.getReference().getBaseString(), alts, svInfo);
+	}
+
+	/**
+	 * Generate one {@link VariantAnnotations} for each alternative allele of a VCF record given by its columns, see
+	 * {@link #buildAnnotationResult(VariantContext)}.
+	 *
+	 * @param contig
+	 *            name of the contig
+	 * @param pos
+	 *            one-based position of the record
+	 * @param ref
+	 *            reference allele
+	 * @param alts
+	 *            alternative alleles
+	 * @param svInfo
+	 *            <tt>END</tt> and <tt>SVLEN</tt> of the record, only used with {@link Options#isSVGeneSummary}
+	 * @return {@link AnnotationResult} with one {@link VariantAnnotations} for each alternative allele or the error
+	 */
+	AnnotationResult buildAnnotationResult(String contig, int pos, String ref, List<String> alts, SVInfo svInfo) {
+		// Handle the case that the contig is not in the reference dictionary. This is the case for the "random" and
+		// "alternative locus" contigs etc.
+		final int chr = contigNames.getContigID(contig);
+		if (chr == -1) {
+			errorCounter.increment(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
+			return AnnotationResult.error(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND);
+		}
+
+		// Build the changes for all alleles first, such that multi-allelic records can be annotated as one block.
+		ArrayList<GenomeVariant> changes = new ArrayList<>(alts.size());
+		ArrayList<StructuralVariantType> svTypes = new ArrayList<>(alts.size());
+		for (String alt : alts) {
+			changes.add(buildGenomeVariant(chr, pos, ref, alt));
+			svTypes.add(options.svGeneSummary ? StructuralVariantType.fromSymbolicAllele(alt) : null);
+		}
+
+		// Use one transcript query for all alleles unless the sorted annotator can reuse them anyway, fall back to
+		// annotating each allele on its own for getting per-allele error annotations.
+		if (sortedAnnotator == null && changes.size() > 1 && svTypes.stream().allMatch(t -> t == null)) {
+			try {
+				final ImmutableList<VariantAnnotations> lst = annotator.buildAnnotations(changes);
+				LOGGER.trace("adding annotation lists {}", new Object[] { lst });
+				for (VariantAnnotations alleleAnnos : lst)
+					errorCounter.incrementErrors(alleleAnnos);
+				return AnnotationResult.of(lst);
+			} catch (Exception e) {
+				LOGGER.trace("annotating alleles separately after error", e);
+			}
+		}
+
 		ImmutableList.Builder<VariantAnnotations> builder = new ImmutableList.Builder<VariantAnnotations>();
-		for (int alleleID = 0; alleleID < vc.getAlternateAlleles().size(); ++alleleID) {
-			GenomeVariant change = buildGenomeVariant(vc, alleleID);
+		for (int alleleID = 0; alleleID < alts.size(); ++alleleID) {
+			final GenomeVariant change = changes.get(alleleID);
 
 			// Build AnnotationList object for this allele.
 			try {
-				final VariantAnnotations lst = annotator.buildAnnotations(change);
+				final VariantAnnotations lst;
+				final StructuralVariantType svType = svTypes.get(alleleID);
+				if (svType != null)
+					lst = annotator.buildStructuralVariantAnnotations(change,
+							buildSVRegion(pos, svInfo, alleleID, change, svType), svType);
+				else if (sortedAnnotator != null)
+					lst = sortedAnnotator.buildAnnotations(change);
+				else
+					lst = annotator.buildAnnotations(change);
 				builder.add(lst);
+				errorCounter.incrementErrors(lst);
 				LOGGER.trace("adding annotation list {}", new Object[] { lst });
 			} catch (Exception e) {
+				// only reached in the case of bugs, expected problems yield error annotations without exceptions
 				final VariantAnnotations lst = buildErrorAnnotations(change);
 				builder.add(lst);
+				errorCounter.incrementErrors(lst);
 				LOGGER.trace("adding error annotation list {}", new Object[] { lst });
 			}
 		}
 
-		return builder.build();
+		return AnnotationResult.of(builder.build());
+	}
+
+	/**
+	 * Write annotations or error from <code>result</code> to <code>vc</code>
+	 *
+	 * @param vc
+	 *            {@link VariantContext} to write the annotations to (to INFO column)
+	 * @param result
+	 *            result of {@link #buildAnnotationResult(VariantContext)} for <code>vc</code>
+	 * @return modified <code>vc</code>
+	 */
+	public VariantContext applyAnnotations(VariantContext vc, AnnotationResult result) {
+		if (result.isError()) {
+			putErrorAnnotation(vc, ImmutableSet.of(result.getError()));
+			return vc;
+		} else {
+			return applyAnnotations(vc, result.getAnnotations());
+		}
 	}
 
 	/**
@@ -276,35 +615,117 @@ public final class VariantContextAnnotator {
 	 * @return modified <code>vc</code>
 	 */
 	public VariantContext applyAnnotations(VariantContext vc, List<VariantAnnotations> annos) {
-		ArrayList<String> annotations = new ArrayList<String>();
-		for (int alleleID = 0; alleleID < vc.getAlternateAlleles().size(); ++alleleID) {
-			if (!annos.get(alleleID).getAnnotations().isEmpty()) {
-				for (Annotation ann : annos.get(alleleID).getAnnotations()) {
-					final String alt = vc.getAlternateAllele(alleleID).getBaseString();
-					annotations.add(ann.toVCFAnnoString(alt));
-					if (options.oneAnnotationOnly)
-						break;
-				}
-			}
-		}
+		ArrayList<String> alts = new ArrayList<>(vc.getAlternateAlleles().size());
+		for (Allele allele : vc.getAlternateAlleles())
+			alts.add(allele.getBaseString());
+		final String annValue = buildANNValue(alts, annos);
 
 		// If a VC builder is used before the attributes can be unmodifiable.
 		Map<String, Object> attributes = new HashMap<>(vc.getAttributes());
-		if (!annotations.isEmpty())
-			attributes.put("ANN", Joiner.on(',').join(annotations));
+		if (annValue != null)
+			attributes.put("ANN", annValue);
 		vc.getCommonInfo().setAttributes(attributes);
 
 		return vc;
 	}
 
+	/**
+	 * @param alts
+	 *            the alternative alleles
+	 * @param annos
+	 *            annotations to apply (one for each alternative allele)
+	 * @return value of the ANN field, <code>null</code> if there is no annotation
+	 */
+	String buildANNValue(List<String> alts, List<VariantAnnotations> annos) {
+		ArrayList<String> annotations = new ArrayList<String>();
+		for (int alleleID = 0; alleleID < alts.size(); ++alleleID) {
+			final VariantAnnotations alleleAnnos = annos.get(alleleID);
+			final String alt = alts.get(alleleID);
+			if (options.oneAnnotationOnly) {
+				// select the best annotation without sorting all of them
+				if (alleleAnnos.hasAnnotation())
+					annotations.add(alleleAnnos.getHighestImpactAnnotation().toVCFAnnoString(alt));
+			} else {
+				for (Annotation ann : alleleAnnos.getAnnotations())
+					annotations.add(ann.toVCFAnnoString(alt));
+			}
+		}
+		return annotations.isEmpty() ? null : Joiner.on(',').join(annotations);
+	}
+
 	/**
 	 * @param change
 	 *            {@link GenomeVariant} to build error annotation for
 	 * @return VariantAnnotations having the message set to {@link AnnotationMessage#ERROR_PROBLEM_DURING_ANNOTATION}.
 	 */
 	public VariantAnnotations buildErrorAnnotations(GenomeVariant change) {
-		return new VariantAnnotations(change,
-				ImmutableList.of(new Annotation(ImmutableList.of(AnnotationMessage.ERROR_PROBLEM_DURING_ANNOTATION))));
+		return VariantAnnotations.buildErrorList(change, AnnotationMessage.ERROR_PROBLEM_DURING_ANNOTATION);
+	}
+
+	/**
+	 * Result of annotating a VCF record, either one {@link VariantAnnotations} for each alternative allele or the
+	 * {@link AnnotationMessage} describing why the record could not be annotated at all
+	 */
+	public static final class AnnotationResult {
+
+		/** annotations for each alternative allele, <code>null</code> on error */
+		private final ImmutableList<VariantAnnotations> annotations;
+		/** the error, <code>null</code> on success */
+		private final AnnotationMessage error;
+
+		private AnnotationResult(ImmutableList<VariantAnnotations> annotations, AnnotationMessage error) {
+			this.annotations = annotations;
+			this.error = error;
+		}
+
+		static AnnotationResult of(ImmutableList<VariantAnnotations> annotations) {
+			return new AnnotationResult(annotations, null);
+		}
+
+		static AnnotationResult error(AnnotationMessage error) {
+			return new AnnotationResult(null, error);
+		}
+
+		/** @return <code>true</code> if the record could not be annotated */
+		public boolean isError() {
+			return (error != null);
+		}
+
+		/** @return annotations for each alternative allele, <code>null</code> on error */
+		public ImmutableList<VariantAnnotations> getAnnotations() {
+			return annotations;
+		}
+
+		/** @return the error, <code>null</code> on success */
+		public AnnotationMessage getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return "AnnotationResult [annotations=" + annotations + ", error=" + error + "]";
+		}
+
+	}
+
+	/**
+	 * The <tt>END</tt> and <tt>SVLEN</tt> values of a record, for the annotation of structural variants
+	 */
+	static final class SVInfo {
+
+		/** no values given */
+		static final SVInfo NONE = new SVInfo(-1, ImmutableList.of());
+
+		/** value of <tt>END</tt>, <code>-1</code> if not given */
+		final int end;
+		/** values of <tt>SVLEN</tt>, empty if not given */
+		final List<Integer> svLens;
+
+		SVInfo(int end, List<Integer> svLens) {
+			this.end = end;
+			this.svLens = svLens;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -1,18 +1,28 @@
 package de.charite.compbio.jannovar.htsjdk;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Collection;
 
 import com.google.common.collect.ImmutableList;
 
+import de.charite.compbio.jannovar.UncheckedJannovarException;
 import de.charite.compbio.jannovar.annotation.Annotation;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
 import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFConstants;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
 import htsjdk.variant.vcf.VCFHeaderLineType;
+import htsjdk.variant.vcf.VCFHeaderVersion;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
 
 /**
@@ -44,10 +54,7 @@ public final class VariantContextWriterConstructionHelper {
 
 		// construct VariantContextWriter and write out header
 		VariantContextWriter out = builder.build();
-		final VCFHeader updatedHeader = extendHeaderFields(new VCFHeader(header));
-		for (VCFHeaderLine headerLine : additionalHeaderLines)
-			updatedHeader.addMetaDataLine(headerLine);
-		out.writeHeader(updatedHeader);
+		out.writeHeader(buildOutputHeader(header, additionalHeaderLines));
 		return out;
 	}
 
@@ -91,11 +98,137 @@ public final class VariantContextWriterConstructionHelper {
 
 		// construct VariantContextWriter and write out header
 		VariantContextWriter out = builder.build();
+		out.writeHeader(buildOutputHeader(header, additionalHeaderLines));
+		return out;
+	}
+
+	/**
+	 * Return a new {@link VariantContextWriter} that uses the header from <code>reader</code> but has the header
+	 * extended header through {@link #extendHeaderFields}.
+	 *
+	 * Files with the extension <tt>.gz</tt> are written through a {@link ParallelBlockCompressedOutputStream} that
+	 * compresses the BGZF blocks on <code>numThreads</code> threads, the index is a tabix index built on the fly. Other
+	 * files are written as in {@link #openVariantContextWriter(VCFHeader, String, Collection, boolean)}.
+	 *
+	 * @param header
+	 *            the VCF header to use for the construction
+	 * @param fileName
+	 *            path to output file
+	 * @param additionalHeaderLines
+	 *            additional {@link VCFHeaderLine}s to add
+	 * @param generateIndex
+	 *            whether or not to generate an index
+	 * @param compressionLevel
+	 *            compression level between 0 and 9 for <tt>.gz</tt> files
+	 * @param numThreads
+	 *            number of threads for compressing <tt>.gz</tt> files
+	 * @return A correct writer for variantContexts
+	 * @throws UncheckedJannovarException
+	 *             if the output file cannot be opened
+	 */
+	public static VariantContextWriter openVariantContextWriter(VCFHeader header, String fileName,
+			Collection<VCFHeaderLine> additionalHeaderLines, boolean generateIndex, int compressionLevel,
+			int numThreads) {
+		if (!fileName.endsWith(".gz"))
+			return openVariantContextWriter(header, fileName, additionalHeaderLines, generateIndex);
+		return openVariantContextWriter(header,
+				openOutputStream(header, fileName, generateIndex, compressionLevel, numThreads),
+				additionalHeaderLines);
+	}
+
+	/**
+	 * Return a new {@link OutputStream} for writing VCF text to a file.
+	 *
+	 * Files with the extension <tt>.gz</tt> are written through a {@link ParallelBlockCompressedOutputStream} as in
+	 * {@link #openVariantContextWriter(VCFHeader, String, Collection, boolean, int, int)}, other files are written
+	 * uncompressed and without index.
+	 *
+	 * @param header
+	 *            the VCF header, for the sequence dictionary of the index
+	 * @param fileName
+	 *            path to output file
+	 * @param generateIndex
+	 *            whether or not to generate a tabix index for <tt>.gz</tt> files
+	 * @param compressionLevel
+	 *            compression level between 0 and 9 for <tt>.gz</tt> files
+	 * @param numThreads
+	 *            number of threads for compressing <tt>.gz</tt> files
+	 * @return buffered {@link OutputStream} to write the VCF text to
+	 * @throws UncheckedJannovarException
+	 *             if the output file cannot be opened
+	 */
+	public static OutputStream openOutputStream(VCFHeader header, String fileName, boolean generateIndex,
+			int compressionLevel, int numThreads) {
+		final FileOutputStream fileStream;
+		try {
+			fileStream = new FileOutputStream(fileName);
+		} catch (FileNotFoundException e) {
+			throw new UncheckedJannovarException("Could not open output file " + fileName, e);
+		}
+		if (!fileName.endsWith(".gz"))
+			return new BufferedOutputStream(fileStream, 1024 * 1024);
+
+		final ParallelBlockCompressedOutputStream bgzfStream = new ParallelBlockCompressedOutputStream(fileStream,
+				compressionLevel, numThreads);
+		if (!generateIndex)
+			return bgzfStream;
+
+		final TabixIndexCreator indexCreator;
+		if (header.getSequenceDictionary() == null)
+			indexCreator = new TabixIndexCreator(TabixFormat.VCF);
+		else
+			indexCreator = new TabixIndexCreator(header.getSequenceDictionary(), TabixFormat.VCF);
+		return new TabixIndexingOutputStream(bgzfStream, indexCreator, new File(fileName + ".tbi"));
+	}
+
+	/**
+	 * Write the header text for VCF output, extended through {@link #extendHeaderFields}, as HTSJDK's VCF writer does.
+	 *
+	 * @param header
+	 *            the VCF header to write
+	 * @param additionalHeaderLines
+	 *            additional {@link VCFHeaderLine}s to add
+	 * @param out
+	 *            {@link Writer} to write the header to
+	 * @throws IOException
+	 *             on problems writing to <code>out</code>
+	 */
+	public static void writeHeader(VCFHeader header, Collection<VCFHeaderLine> additionalHeaderLines, Writer out)
+			throws IOException {
+		final VCFHeader updatedHeader = buildOutputHeader(header, additionalHeaderLines);
+		out.write(VCFHeader.METADATA_INDICATOR + VCFHeaderVersion.VCF4_2.getFormatString() + "="
+				+ VCFHeaderVersion.VCF4_2.getVersionString() + "\n");
+		for (VCFHeaderLine line : updatedHeader.getMetaDataInSortedOrder()) {
+			if (VCFHeaderVersion.isFormatString(line.getKey()))
+				continue;
+			out.write(VCFHeader.METADATA_INDICATOR + line.toString() + "\n");
+		}
+
+		out.write(VCFHeader.HEADER_INDICATOR);
+		boolean first = true;
+		for (VCFHeader.HEADER_FIELDS field : updatedHeader.getHeaderFields()) {
+			if (!first)
+				out.write(VCFConstants.FIELD_SEPARATOR);
+			out.write(field.toString());
+			first = false;
+		}
+		if (updatedHeader.hasGenotypingData()) {
+			out.write(VCFConstants.FIELD_SEPARATOR + "FORMAT");
+			for (String sample : updatedHeader.getGenotypeSamples())
+				out.write(VCFConstants.FIELD_SEPARATOR + sample);
+		}
+		out.write("\n");
+	}
+
+	/**
+	 * @return copy of <code>header</code> extended through {@link #extendHeaderFields} and with
+	 *         <code>additionalHeaderLines</code>, as written by all functions of this class
+	 */
+	private static VCFHeader buildOutputHeader(VCFHeader header, Collection<VCFHeaderLine> additionalHeaderLines) {
 		final VCFHeader updatedHeader = extendHeaderFields(new VCFHeader(header));
 		for (VCFHeaderLine headerLine : additionalHeaderLines)
 			updatedHeader.addMetaDataLine(headerLine);
-		out.writeHeader(updatedHeader);
-		return out;
+		return updatedHeader;
 	}
 
 	/**
@@ -0,0 +1,182 @@
+package de.charite.compbio.jannovar.mendel.bridge;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.mendel.impl.MendelianCompatibilityEvaluator;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.pedigree.Person;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+
+/**
+ * Extraction of the genotypes of the members of a {@link Pedigree} from {@link VariantContext} objects into packed
+ * state codes
+ *
+ * The result is one <code>byte</code> per pedigree member with the state code from
+ * {@link MendelianCompatibilityEvaluator}, in the order of {@link Pedigree#getMembers()}. When the genotypes of a
+ * {@link VariantContext} read from a VCF file have not been decoded yet, only the GT subfield of the pedigree members'
+ * columns is parsed from the raw genotype block and the htsjdk {@link Genotype} objects are never created. Otherwise,
+ * the decoded genotypes are used.
+ */
+public final class PedigreeGenotypeExtractor {
+
+	/** Maximal ploidy that is considered, genotypes with higher ploidy are treated as not observed */
+	private static final int MAX_PLOIDY = 8;
+
+	/** The pedigree to extract the genotypes for */
+	private final Pedigree pedigree;
+	/** Names of the pedigree members, in the order of {@link Pedigree#getMembers()} */
+	private final ImmutableList<String> memberNames;
+	/** For each pedigree member, the column of its genotype in the VCF file, <code>-1</code> if not present */
+	private final int[] memberColumn;
+	/** For each VCF genotype column, the index of the pedigree member, <code>-1</code> if not a member */
+	private final int[] columnMember;
+	/** Largest column that has to be looked at, <code>-1</code> if none */
+	private final int lastColumn;
+
+	/**
+	 * Construct extractor
+	 *
+	 * @param pedigree
+	 *            the {@link Pedigree} to extract the genotypes for
+	 * @param vcfSampleNames
+	 *            names of the genotype columns in the VCF file, in the order of the file
+	 */
+	public PedigreeGenotypeExtractor(Pedigree pedigree, List<String> vcfSampleNames) {
+		this.pedigree = pedigree;
+
+		HashMap<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < vcfSampleNames.size(); ++i)
+			columns.put(vcfSampleNames.get(i), i);
+
+		ImmutableList.Builder<String> namesBuilder = new ImmutableList.Builder<>();
+		this.memberColumn = new int[pedigree.getNMembers()];
+		this.columnMember = new int[vcfSampleNames.size()];
+		Arrays.fill(columnMember, -1);
+		int last = -1;
+		int i = 0;
+		for (Person person : pedigree.getMembers()) {
+			namesBuilder.add(person.getName());
+			final Integer col = columns.get(person.getName());
+			memberColumn[i] = (col == null) ? -1 : col;
+			if (col != null) {
+				columnMember[col] = i;
+				last = Math.max(last, col);
+			}
+			++i;
+		}
+		this.memberNames = namesBuilder.build();
+		this.lastColumn = last;
+	}
+
+	/** @return the {@link Pedigree} to extract the genotypes for */
+	public Pedigree getPedigree() {
+		return pedigree;
+	}
+
+	/**
+	 * Extract the genotype state codes of the pedigree members from <code>vc</code>
+	 *
+	 * @param vc
+	 *            the {@link VariantContext} to extract the genotypes from
+	 * @return array with the state code of each pedigree member
+	 */
+	public byte[] extractStates(VariantContext vc) {
+		final GenotypesContext gts = vc.getGenotypes();
+		if (gts instanceof LazyGenotypesContext) {
+			final Object data = ((LazyGenotypesContext) gts).getUnparsedGenotypeData();
+			if (data instanceof String)
+				return extractFromGenotypeBlock((String) data);
+		}
+		return extractFromGenotypes(vc);
+	}
+
+	/**
+	 * Extract states from the decoded {@link Genotype} objects of <code>vc</code>
+	 */
+	private byte[] extractFromGenotypes(VariantContext vc) {
+		final byte[] result = new byte[memberColumn.length];
+		final int[] buffer = new int[MAX_PLOIDY];
+		for (int m = 0; m < memberColumn.length; ++m) {
+			final Genotype gt = (memberColumn[m] == -1) ? null : vc.getGenotype(memberNames.get(m));
+			if (gt == null || gt.getPloidy() > MAX_PLOIDY) {
+				result[m] = MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED;
+				continue;
+			}
+			int ploidy = 0;
+			for (Allele allele : gt.getAlleles())
+				buffer[ploidy++] = vc.getAlleleIndex(allele);
+			result[m] = MendelianCompatibilityEvaluator.classify(buffer, ploidy);
+		}
+		return result;
+	}
+
+	/**
+	 * Extract states from the raw VCF genotype block, starting with the FORMAT column
+	 */
+	private byte[] extractFromGenotypeBlock(String block) {
+		final byte[] result = new byte[memberColumn.length];
+		Arrays.fill(result, MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED);
+
+		// Get index of GT in the FORMAT column
+		int formatEnd = block.indexOf('\t');
+		if (formatEnd == -1)
+			return result;
+		final int gtIdx = findKey(block, 0, formatEnd, "GT");
+		if (gtIdx == -1)
+			return result;
+
+		// Parse the GT subfield of the genotype columns of the pedigree members
+		final int[] buffer = new int[MAX_PLOIDY];
+		int begin = formatEnd + 1;
+		for (int col = 0; col <= lastColumn && begin <= block.length(); ++col) {
+			int end = block.indexOf('\t', begin);
+			if (end == -1)
+				end = block.length();
+			if (columnMember[col] != -1) {
+				// Skip to GT subfield
+				int fieldBegin = begin;
+				for (int k = 0; k < gtIdx && fieldBegin != -1; ++k) {
+					fieldBegin = block.indexOf(':', fieldBegin);
+					fieldBegin = (fieldBegin == -1 || fieldBegin >= end) ? -1 : fieldBegin + 1;
+				}
+				if (fieldBegin != -1) {
+					int fieldEnd = block.indexOf(':', fieldBegin);
+					if (fieldEnd == -1 || fieldEnd > end)
+						fieldEnd = end;
+					result[columnMember[col]] = MendelianCompatibilityEvaluator.classifyGT(block, fieldBegin,
+							fieldEnd, buffer);
+				}
+			}
+			begin = end + 1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return index of <code>key</code> in the colon-separated list <code>str[begin, end)</code>, <code>-1</code> if
+	 *         not found
+	 */
+	private static int findKey(String str, int begin, int end, String key) {
+		int idx = 0;
+		while (begin <= end) {
+			int sep = str.indexOf(':', begin);
+			if (sep == -1 || sep > end)
+				sep = end;
+			if (sep - begin == key.length() && str.startsWith(key, begin))
+				return idx;
+			begin = sep + 1;
+			idx += 1;
+		}
+		return -1;
+	}
+
+}
@@ -9,6 +9,7 @@ import java.util.Map.Entry;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
 import de.charite.compbio.jannovar.mendel.ChromosomeType;
@@ -32,14 +33,58 @@ import htsjdk.variant.variantcontext.VariantContextBuilder;
  */
 public class VariantContextMendelianAnnotator {
 
+	/** Names of the X chromosome */
+	private static final ImmutableSet<String> X_NAMES = ImmutableSet.of("x", "X", "23", "chrx", "chrX", "chr23");
+	/** Names of the mitochondrial chromosome */
+	private static final ImmutableSet<String> MT_NAMES = ImmutableSet.of("m", "M", "mt", "MT", "chrm", "chrM",
+			"chrmt", "chrMT");
+
 	/** Pedigree to use for checking for Mendelian compatibility */
 	private final Pedigree pedigree;
 	/** Implementation class to usee */
 	private final MendelianInheritanceChecker mendelChecker;
+	/** Whether to only consider the genotypes of the samples in {@link #pedigree} */
+	private final boolean restrictToPedigree;
+	/** Extraction of the genotype states from the VCF genotype columns, <code>null</code> if columns are unknown */
+	private final PedigreeGenotypeExtractor gtExtractor;
 
 	public VariantContextMendelianAnnotator(Pedigree pedigree) {
+		this(pedigree, false);
+	}
+
+	/**
+	 * Construct annotator
+	 * 
+	 * @param pedigree
+	 *            {@link Pedigree} to use for checking for Mendelian compatibility
+	 * @param restrictToPedigree
+	 *            whether to only consider the genotypes of the pedigree members, ignoring all other samples in the
+	 *            {@link VariantContext} objects, e.g., when the VCF file contains multiple families
+	 */
+	public VariantContextMendelianAnnotator(Pedigree pedigree, boolean restrictToPedigree) {
 		this.pedigree = pedigree;
 		this.mendelChecker = new MendelianInheritanceChecker(this.pedigree);
+		this.restrictToPedigree = restrictToPedigree;
+		this.gtExtractor = null;
+	}
+
+	/**
+	 * Construct annotator with the genotype columns of the VCF file
+	 * 
+	 * Only the genotypes of the pedigree members are considered. Knowing the columns allows
+	 * {@link #computeCompatibleInheritanceModeMasks} to read the GT values of the pedigree members directly from the
+	 * not yet decoded genotypes of the {@link VariantContext} objects, see {@link PedigreeGenotypeExtractor}.
+	 * 
+	 * @param pedigree
+	 *            {@link Pedigree} to use for checking for Mendelian compatibility
+	 * @param vcfSampleNames
+	 *            names of the genotype columns in the VCF file, in the order of the file
+	 */
+	public VariantContextMendelianAnnotator(Pedigree pedigree, List<String> vcfSampleNames) {
+		this.pedigree = pedigree;
+		this.mendelChecker = new MendelianInheritanceChecker(this.pedigree);
+		this.restrictToPedigree = true;
+		this.gtExtractor = new PedigreeGenotypeExtractor(pedigree, vcfSampleNames);
 	}
 
 	/**
@@ -152,6 +197,36 @@ public class VariantContextMendelianAnnotator {
 		return builder.build();
 	}
 
+	/**
+	 * Compute compatible modes of inheritance for a list of {@link VariantContext} objects as bit masks
+	 * 
+	 * @param vcs
+	 *            {@link VariantContext} objects to check for compatibility
+	 * @return array with one bit mask of compatible modes for each entry of <code>vcs</code>, to be queried with
+	 *         {@link ModeOfInheritance#isSetIn(int)}
+	 * @throws CannotAnnotateMendelianInheritance
+	 *             on problems with annotating mendelian inheritance
+	 */
+	public int[] computeCompatibleInheritanceModeMasks(List<VariantContext> vcs)
+			throws CannotAnnotateMendelianInheritance {
+		if (gtExtractor != null) {
+			final ChromosomeType[] chromTypes = new ChromosomeType[vcs.size()];
+			final byte[][] states = new byte[vcs.size()][];
+			for (int i = 0; i < vcs.size(); ++i) {
+				chromTypes[i] = getChromosomeType(vcs.get(i).getContig());
+				states[i] = gtExtractor.extractStates(vcs.get(i));
+			}
+			return mendelChecker.computeCompatibleModeMasks(chromTypes, states);
+		}
+
+		try {
+			return mendelChecker.computeCompatibleModeMasks(buildGenotypeCalls(vcs));
+		} catch (IncompatiblePedigreeException e) {
+			throw new CannotAnnotateMendelianInheritance(
+					"Problem with annotating VariantContext for Mendelian inheritance.", e);
+		}
+	}
+
 	/**
 	 * Convert a {@link List} of {@link VariantContext} objects into a list of {@link GenotypeCalls} objects
 	 * 
@@ -162,28 +237,21 @@ public class VariantContextMendelianAnnotator {
 	private List<GenotypeCalls> buildGenotypeCalls(Collection<VariantContext> vcs) {
 		ArrayList<GenotypeCalls> result = new ArrayList<>();
 
-		final ImmutableList<String> xNames = ImmutableList.of("x", "X", "23", "chrx", "chrX", "chr23");
-		final ImmutableList<String> mtNames = ImmutableList.of("m", "M", "mt", "MT", "chrm", "chrM", "chrmt", "chrMT");
-
 		int i = 0 ;
 		for (VariantContext vc : vcs) {
 			GenotypeCallsBuilder builder = new GenotypeCallsBuilder();
 			builder.setPayload(i++);
+			builder.setChromType(getChromosomeType(vc.getContig()));
 
-			if (xNames.contains(vc.getContig()))
-				builder.setChromType(ChromosomeType.X_CHROMOSOMAL);
-			else if (mtNames.contains(vc.getContig()))
-				builder.setChromType(ChromosomeType.MITOCHONDRIAL);
-			else
-				builder.setChromType(ChromosomeType.AUTOSOMAL);
-
-			for (Genotype gt : vc.getGenotypes()) {
-				GenotypeBuilder gtBuilder = new GenotypeBuilder();
-				for (Allele allele : gt.getAlleles()) {
-					final int aIDX = vc.getAlleleIndex(allele);
-					gtBuilder.getAlleleNumbers().add(aIDX);
+			if (restrictToPedigree) {
+				for (String name : pedigree.getNames()) {
+					final Genotype gt = vc.getGenotype(name);
+					if (gt != null)
+						putGenotype(builder, vc, gt);
 				}
-				builder.getSampleToGenotype().put(gt.getSampleName(), gtBuilder.build());
+			} else {
+				for (Genotype gt : vc.getGenotypes())
+					putGenotype(builder, vc, gt);
 			}
 
 			result.add(builder.build());
@@ -192,4 +260,28 @@ public class VariantContextMendelianAnnotator {
 		return result;
 	}
 
+	/**
+	 * @return {@link ChromosomeType} for the contig with the given name
+	 */
+	private static ChromosomeType getChromosomeType(String contig) {
+		if (X_NAMES.contains(contig))
+			return ChromosomeType.X_CHROMOSOMAL;
+		else if (MT_NAMES.contains(contig))
+			return ChromosomeType.MITOCHONDRIAL;
+		else
+			return ChromosomeType.AUTOSOMAL;
+	}
+
+	/**
+	 * Convert {@link Genotype} <code>gt</code> from <code>vc</code> and register it in <code>builder</code>
+	 */
+	private static void putGenotype(GenotypeCallsBuilder builder, VariantContext vc, Genotype gt) {
+		GenotypeBuilder gtBuilder = new GenotypeBuilder();
+		for (Allele allele : gt.getAlleles()) {
+			final int aIDX = vc.getAlleleIndex(allele);
+			gtBuilder.getAlleleNumbers().add(aIDX);
+		}
+		builder.getSampleToGenotype().put(gt.getSampleName(), gtBuilder.build());
+	}
+
 }
@@ -14,14 +14,11 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-
 import de.charite.compbio.jannovar.UncheckedJannovarException;
-import de.charite.compbio.jannovar.data.Chromosome;
+import de.charite.compbio.jannovar.data.GeneIndex;
+import de.charite.compbio.jannovar.data.GeneModel;
 import de.charite.compbio.jannovar.data.JannovarData;
 import de.charite.compbio.jannovar.data.ReferenceDictionary;
-import de.charite.compbio.jannovar.impl.intervals.Interval;
 import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
 import de.charite.compbio.jannovar.mendel.IncompatiblePedigreeException;
 import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
@@ -31,7 +28,6 @@ import de.charite.compbio.jannovar.mendel.bridge.VariantContextMendelianAnnotato
 import de.charite.compbio.jannovar.pedigree.Pedigree;
 import de.charite.compbio.jannovar.reference.GenomeInterval;
 import de.charite.compbio.jannovar.reference.Strand;
-import de.charite.compbio.jannovar.reference.TranscriptModel;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
@@ -61,12 +57,12 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	private final ContigInfoProvider contigInfoProvider;
 
 	/** Currently active genes and variants assigned to them. */
-	HashMap<Gene, ArrayList<VariantContext>> activeGenes = new HashMap<>();
+	HashMap<GeneModel, ArrayList<VariantContext>> activeGenes = new HashMap<>();
 	/** Currently buffered variants. */
 	HashMap<VariantContext, VariantContextCounter> activeVariants = new HashMap<>();
 
-	/** List of genes, indexed by interval tree */
-	private final GeneList geneList;
+	/** Genes of the database, indexed by interval tree */
+	private final GeneIndex geneIndex;
 
 	/**
 	 * Construct processor with the path to the PED file to use
@@ -80,12 +76,36 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	 */
 	public GeneWiseMendelianAnnotationProcessor(Pedigree pedigree, JannovarData jannovarData,
 			Consumer<VariantContext> sink) {
+		this(pedigree, jannovarData, null, sink);
+	}
+
+	/**
+	 * Construct processor with the path to the PED file to use and the genotype columns of the VCF file
+	 * 
+	 * Knowing the genotype columns allows reading the GT values of the pedigree members directly from the raw VCF
+	 * genotype data without decoding all genotypes.
+	 * 
+	 * @param pedigree
+	 *            the {@link Pedigree} object to use
+	 * @param jannovarData
+	 *            {@link JannovarData} object to use for getting the genes from
+	 * @param vcfSampleNames
+	 *            names of the genotype columns in the VCF file, in the order of the file, or <code>null</code> if
+	 *            unknown
+	 * @param sink
+	 *            location to write the {@link VariantContext} to
+	 */
+	public GeneWiseMendelianAnnotationProcessor(Pedigree pedigree, JannovarData jannovarData,
+			List<String> vcfSampleNames, Consumer<VariantContext> sink) {
 		this.pedigree = pedigree;
 		this.jannovarData = jannovarData;
 		this.sink = sink;
 
-		this.geneList = buildGeneList(this.jannovarData);
-		this.annotator = new VariantContextMendelianAnnotator(this.pedigree);
+		this.geneIndex = jannovarData.getGeneIndex();
+		if (vcfSampleNames == null)
+			this.annotator = new VariantContextMendelianAnnotator(this.pedigree);
+		else
+			this.annotator = new VariantContextMendelianAnnotator(this.pedigree, vcfSampleNames);
 
 		this.contigInfoProvider = new ContigInfoProvider();
 	}
@@ -110,7 +130,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		final ReferenceDictionary refDict = jannovarData.getRefDict();
 		// The contig name may not be known to the
 		Optional<Integer> contigID = Optional.ofNullable(refDict.getContigNameToID().get(vc.getContig()));
-		Optional<IntervalArray<Gene>> iTree = contigID.map(x -> geneList.getGeneIntervalTree().get(x));
+		Optional<IntervalArray<GeneModel>> iTree = contigID.map(x -> geneIndex.getGeneIntervalTrees().get(x));
 		// Unknown contig or contig with annotation, simply write out
 		if (!iTree.isPresent()) {
 			LOGGER.trace("Unknown contig or contig without annotation in " + vc.getContig()
@@ -123,7 +143,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		// Consider this variant for each affected gene
 		Optional<GenomeInterval> changeInterval = contigID
 				.map(x -> new GenomeInterval(refDict, Strand.FWD, x, vc.getStart() - 1, vc.getEnd()));
-		Optional<IntervalArray<Gene>.QueryResult> qr = Optional.empty();
+		Optional<IntervalArray<GeneModel>.QueryResult> qr = Optional.empty();
 		if (changeInterval.isPresent()) {
 			if (changeInterval.get().length() == 0)
 				qr = iTree.map(x -> x.findOverlappingWithPoint(changeInterval.get().getBeginPos()));
@@ -136,7 +156,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 			if (qr.get().getEntries().isEmpty()) {
 				putVariantForGene(vc, null);
 			} else {
-				for (Gene gene : qr.get().getEntries())
+				for (GeneModel gene : qr.get().getEntries())
 					if (isGeneAffectedByChange(gene, vc))
 						putVariantForGene(vc, gene);
 			}
@@ -152,7 +172,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	/**
 	 * @return <code>true</code> if <code>gene</code> is affected by <code>variantContext</code>
 	 */
-	private boolean isGeneAffectedByChange(Gene gene, VariantContext vc) {
+	private boolean isGeneAffectedByChange(GeneModel gene, VariantContext vc) {
 		final ReferenceDictionary refDict = jannovarData.getRefDict();
 		final int contigID = refDict.getContigNameToID().get(vc.getContig());
 		final GenomeInterval changeInterval = new GenomeInterval(refDict, Strand.FWD, contigID, vc.getStart() - 1,
@@ -186,38 +206,13 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		new MendelVCFHeaderExtender().extendHeader(vcfHeader, prefix);
 	}
 
-	/**
-	 * Build {@link GeneList} to be used in the filter.
-	 *
-	 * @param jannovarDB
-	 *            data base to use for building gene list
-	 * @return list of genes, built from <code>jannovarDB</code>.
-	 */
-	private static GeneList buildGeneList(JannovarData jannovarDB) {
-		// create one GeneBuilder for each gene, collect all transcripts for the gene
-		HashMap<String, GeneBuilder> geneMap = new HashMap<String, GeneBuilder>();
-		for (Chromosome chrom : jannovarDB.getChromosomes().values())
-			for (Interval<TranscriptModel> itv : chrom.getTMIntervalTree().getIntervals()) {
-				TranscriptModel tm = itv.getValue();
-				if (!geneMap.containsKey(tm.getGeneSymbol()))
-					geneMap.put(tm.getGeneSymbol(), new GeneBuilder(jannovarDB.getRefDict(), tm.getGeneSymbol()));
-				geneMap.get(tm.getGeneSymbol()).addTranscriptModel(tm);
-			}
-
-		// construct GeneList from geneMap
-		ImmutableList.Builder<Gene> builder = new ImmutableList.Builder<Gene>();
-		for (GeneBuilder gene : geneMap.values())
-			builder.add(gene.build());
-		return new GeneList(builder.build());
-	}
-
 	/**
 	 * Register {@link FlaggedVariant} as active for the given gene.
 	 *
 	 * @throws UncheckedJannovarException
 	 *             on problems with annotation of the variant
 	 */
-	private void putVariantForGene(VariantContext vc, Gene gene) {
+	private void putVariantForGene(VariantContext vc, GeneModel gene) {
 		LOGGER.trace("Assigning variant {} to gene {}", new Object[] { vc, gene });
 		// Register VariantContext as active
 		activeVariants.computeIfAbsent(vc, x -> new VariantContextCounter(x, 0));
@@ -249,9 +244,9 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	 *             on problems with filtration
 	 */
 	private void markDoneGenes(int contigID, int pos) throws VariantContextFilterException {
-		ArrayList<Gene> doneGenes = new ArrayList<Gene>();
-		for (Entry<Gene, ArrayList<VariantContext>> entry : activeGenes.entrySet()) {
-			Gene gene = entry.getKey();
+		ArrayList<GeneModel> doneGenes = new ArrayList<GeneModel>();
+		for (Entry<GeneModel, ArrayList<VariantContext>> entry : activeGenes.entrySet()) {
+			GeneModel gene = entry.getKey();
 			if (gene.getRegion().getChr() != contigID)
 				doneGenes.add(gene);
 			else if (gene.getRegion().getEndPos() <= pos)
@@ -261,7 +256,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		if (doneGenes.isEmpty()) {
 			processedGene(null);
 		} else {
-			for (Gene gene : doneGenes) {
+			for (GeneModel gene : doneGenes) {
 				processedGene(gene);
 				activeGenes.remove(gene);
 			}
@@ -280,17 +275,17 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	 * @throws CannotAnnotateMendelianInheritance
 	 *             in case of problems with Mendelian inheritance annotation
 	 */
-	private void checkVariantsForGene(Gene gene)
+	private void checkVariantsForGene(GeneModel gene)
 			throws VariantContextFilterException, CannotAnnotateMendelianInheritance {
 		// Compute compatible modes for all variants in the gene
 		final ArrayList<VariantContext> variantsForGene = activeGenes.get(gene);
-		ImmutableMap<ModeOfInheritance, ImmutableList<VariantContext>> compatibleMap = annotator
-				.computeCompatibleInheritanceModes(variantsForGene);
+		final int[] masks = annotator.computeCompatibleInheritanceModeMasks(variantsForGene);
 		// Annotate the variants with new compatible modes
-		for (Entry<ModeOfInheritance, ImmutableList<VariantContext>> e : compatibleMap.entrySet()) {
-			for (VariantContext vc : e.getValue()) {
-				activeVariants.get(vc).addCompatibleMode(e.getKey());
-			}
+		for (int i = 0; i < masks.length; ++i) {
+			final VariantContextCounter counter = activeVariants.get(variantsForGene.get(i));
+			for (ModeOfInheritance mode : ModeOfInheritance.values())
+				if (mode.isSetIn(masks[i]))
+					counter.addCompatibleMode(mode);
 		}
 	}
 
@@ -298,10 +293,10 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 	 * Decrease counter for all variants located in <code>gene</code>.
 	 *
 	 * @param gene
-	 *            the {@link Gene} to mark the variants for, <code>null</code> to trigger processing variants without
-	 *            marking a gene as processed
+	 *            the {@link GeneModel} to mark the variants for, <code>null</code> to trigger processing variants
+	 *            without marking a gene as processed
 	 */
-	private void processedGene(Gene gene) throws VariantContextFilterException {
+	private void processedGene(GeneModel gene) throws VariantContextFilterException {
 		try {
 			if (gene != null)
 				checkVariantsForGene(gene);
@@ -314,14 +309,14 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		}
 
 		if (gene != null)
-			LOGGER.trace("Gene done {}", new Object[] { gene.getName() });
+			LOGGER.trace("Gene done {}", new Object[] { gene.getGeneSymbol() });
 		else
 			LOGGER.trace("Marking variants as done without any gene");
 
 		// Decrease count of variants that lie in gene (that is now ignored)
 		for (VariantContextCounter var : activeVariants.values()) {
 			if (gene != null && isGeneAffectedByChange(gene, var.getVariantContext())) {
-				LOGGER.trace("Gene {} done for variant {}", new Object[] { gene.getName(),
+				LOGGER.trace("Gene {} done for variant {}", new Object[] { gene.getGeneSymbol(),
 						var.getVariantContext().getContig() + ":" + var.getVariantContext().getStart() });
 				var.decrement();
 			}
@@ -368,7 +363,7 @@ public class GeneWiseMendelianAnnotationProcessor implements VariantContextProce
 		}
 
 		if (gene != null) {
-			LOGGER.trace("Gene {} is inactive now", new Object[] { gene.getName() });
+			LOGGER.trace("Gene {} is inactive now", new Object[] { gene.getGeneSymbol() });
 			// Mark gene as done
 			activeGenes.remove(gene);
 		}
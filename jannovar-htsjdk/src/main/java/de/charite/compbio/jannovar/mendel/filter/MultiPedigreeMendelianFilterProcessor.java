@@ -0,0 +1,482 @@
+package de.charite.compbio.jannovar.mendel.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import de.charite.compbio.jannovar.data.ContigNameInterner;
+import de.charite.compbio.jannovar.data.GeneIndex;
+import de.charite.compbio.jannovar.data.GeneModel;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.ReferenceDictionary;
+import de.charite.compbio.jannovar.impl.intervals.IntervalArray;
+import de.charite.compbio.jannovar.mendel.IncompatiblePedigreeException;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.mendel.bridge.CannotAnnotateMendelianInheritance;
+import de.charite.compbio.jannovar.mendel.bridge.MendelVCFHeaderExtender;
+import de.charite.compbio.jannovar.mendel.bridge.VariantContextMendelianAnnotator;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.reference.GenomeInterval;
+import de.charite.compbio.jannovar.reference.Strand;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFFilterHeaderLine;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+import htsjdk.variant.vcf.VCFHeaderLineType;
+import htsjdk.variant.vcf.VCFInfoHeaderLine;
+
+/**
+ * Filter {@link VariantContext} objects for compatibility with Mendelian inheritance in any of multiple families
+ *
+ * The VCF file can contain the samples of multiple families (e.g., a cohort of trios). Each {@link Pedigree} is only
+ * checked against the genotypes of its own members. The variants are grouped into gene windows once and each window is
+ * then evaluated for all families, the families being distributed over a pool of worker threads.
+ *
+ * Variants that are compatible with one of the accepted modes of inheritance in at least one family are annotated with
+ * the accepted modes compatible in any of these families and the names of these families and passed on to the sink. The other variants
+ * are either dropped or passed on with a FILTER value, depending on the {@link Options}.
+ *
+ * The variants put into the processor must be clustered by contig name and sorted by begin position. Only the variants
+ * of the currently open genes are buffered, so memory usage does not depend on the size of the input.
+ */
+public class MultiPedigreeMendelianFilterProcessor implements VariantContextProcessor {
+
+	/** The logger object to use */
+	private static final Logger LOGGER = LoggerFactory.getLogger(MultiPedigreeMendelianFilterProcessor.class);
+
+	/** Default name of the FILTER value for variants incompatible in all families */
+	public static final String DEFAULT_FILTER_NAME = "MendelIncompatible";
+
+	/**
+	 * Configuration for the {@link MultiPedigreeMendelianFilterProcessor}
+	 */
+	public static class Options {
+
+		/** Modes of inheritance that a variant has to be compatible with in at least one family */
+		private final ImmutableSet<ModeOfInheritance> acceptedModes;
+		/** Whether to pass on incompatible variants with a FILTER value instead of dropping them */
+		private final boolean tagIncompatible;
+		/** Name of the FILTER value to use for incompatible variants */
+		private final String filterName;
+		/** Prefix for the INFO fields */
+		private final String prefix;
+		/** Number of worker threads for evaluating the families */
+		private final int numThreads;
+		/** Number of finished gene windows to collect before evaluating them together */
+		private final int batchSize;
+
+		public Options(Collection<ModeOfInheritance> acceptedModes, boolean tagIncompatible, String filterName,
+				String prefix, int numThreads, int batchSize) {
+			this.acceptedModes = ImmutableSet.copyOf(acceptedModes);
+			this.tagIncompatible = tagIncompatible;
+			this.filterName = filterName;
+			this.prefix = prefix;
+			this.numThreads = numThreads;
+			this.batchSize = batchSize;
+		}
+
+		/** @return default options, accepting all modes of inheritance and dropping incompatible variants */
+		public static Options createDefaults() {
+			return new Options(ImmutableList.of(ModeOfInheritance.AUTOSOMAL_DOMINANT,
+					ModeOfInheritance.AUTOSOMAL_RECESSIVE, ModeOfInheritance.X_DOMINANT,
+					ModeOfInheritance.X_RECESSIVE), false, DEFAULT_FILTER_NAME, "", 1, 64);
+		}
+
+		public ImmutableSet<ModeOfInheritance> getAcceptedModes() {
+			return acceptedModes;
+		}
+
+		public boolean isTagIncompatible() {
+			return tagIncompatible;
+		}
+
+		public String getFilterName() {
+			return filterName;
+		}
+
+		public String getPrefix() {
+			return prefix;
+		}
+
+		public int getNumThreads() {
+			return numThreads;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		@Override
+		public String toString() {
+			return "Options [acceptedModes=" + acceptedModes + ", tagIncompatible=" + tagIncompatible
+					+ ", filterName=" + filterName + ", prefix=" + prefix + ", numThreads=" + numThreads
+					+ ", batchSize=" + batchSize + "]";
+		}
+
+	}
+
+	/** The families to check the variants for */
+	private final ImmutableList<Pedigree> pedigrees;
+	/** One annotator for each entry of {@link #pedigrees}, only looking at the genotypes of the family members */
+	private final ImmutableList<VariantContextMendelianAnnotator> annotators;
+	/** The {@link JannovarData} to use for extracting the genes from */
+	private final JannovarData jannovarData;
+	/** Configuration */
+	private final Options options;
+	/** Bit mask of the accepted modes of inheritance */
+	private final int acceptedMask;
+	/** Next step in pipeline after processing of {@link VariantContext} is complete */
+	private final Consumer<VariantContext> sink;
+	/** Thread pool for evaluating the families, <code>null</code> for evaluation in the calling thread */
+	private final ExecutorService executor;
+
+	/** Genes of the database, indexed by interval tree */
+	private final GeneIndex geneIndex;
+	/** resolution of contig names to numeric IDs */
+	private final ContigNameInterner contigNames;
+	/** Currently open genes and the variants assigned to them */
+	private final LinkedHashMap<GeneModel, ArrayList<PendingVariant>> activeGenes = new LinkedHashMap<>();
+	/** Buffered variants, in input order */
+	private final ArrayDeque<PendingVariant> pendingVariants = new ArrayDeque<>();
+	/** Groups of variants that are complete and wait for evaluation */
+	private final ArrayList<List<PendingVariant>> readyGroups = new ArrayList<>();
+
+	/**
+	 * Construct processor
+	 *
+	 * @param pedigrees
+	 *            the families to check the variants for, with disjoint members
+	 * @param jannovarData
+	 *            {@link JannovarData} object to use for getting the genes from
+	 * @param options
+	 *            configuration for the filter
+	 * @param sink
+	 *            location to write the {@link VariantContext} to
+	 */
+	public MultiPedigreeMendelianFilterProcessor(Collection<Pedigree> pedigrees, JannovarData jannovarData,
+			Options options, Consumer<VariantContext> sink) {
+		this(pedigrees, null, jannovarData, options, sink);
+	}
+
+	/**
+	 * Construct processor with the genotype columns of the VCF file
+	 *
+	 * Knowing the genotype columns allows reading the GT values of each family's members directly from the raw VCF
+	 * genotype data without decoding all genotypes.
+	 *
+	 * @param pedigrees
+	 *            the families to check the variants for, with disjoint members
+	 * @param vcfSampleNames
+	 *            names of the genotype columns in the VCF file, in the order of the file, or <code>null</code> if
+	 *            unknown
+	 * @param jannovarData
+	 *            {@link JannovarData} object to use for getting the genes from
+	 * @param options
+	 *            configuration for the filter
+	 * @param sink
+	 *            location to write the {@link VariantContext} to
+	 */
+	public MultiPedigreeMendelianFilterProcessor(Collection<Pedigree> pedigrees, List<String> vcfSampleNames,
+			JannovarData jannovarData, Options options, Consumer<VariantContext> sink) {
+		this.pedigrees = ImmutableList.copyOf(pedigrees);
+		this.jannovarData = jannovarData;
+		this.options = options;
+		this.sink = sink;
+
+		ImmutableList.Builder<VariantContextMendelianAnnotator> builder = new ImmutableList.Builder<>();
+		for (Pedigree pedigree : this.pedigrees)
+			if (vcfSampleNames == null)
+				builder.add(new VariantContextMendelianAnnotator(pedigree, true));
+			else
+				builder.add(new VariantContextMendelianAnnotator(pedigree, vcfSampleNames));
+		this.annotators = builder.build();
+
+		int mask = 0;
+		for (ModeOfInheritance mode : options.getAcceptedModes())
+			if (mode != ModeOfInheritance.ANY)
+				mask |= mode.getBitMask();
+		this.acceptedMask = mask;
+
+		this.geneIndex = jannovarData.getGeneIndex();
+		this.contigNames = new ContigNameInterner(jannovarData.getRefDict());
+
+		if (options.getNumThreads() > 1 && this.pedigrees.size() > 1)
+			this.executor = Executors.newFixedThreadPool(options.getNumThreads(),
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mendel-filter-%d").build());
+		else
+			this.executor = null;
+	}
+
+	@Override
+	public void put(VariantContext vc) throws VariantContextFilterException {
+		LOGGER.trace("Putting variant {} into multi-pedigree inheritance filter", new Object[] { vc });
+
+		final ReferenceDictionary refDict = jannovarData.getRefDict();
+		final int contigID = contigNames.getContigID(vc.getContig());
+		final IntervalArray<GeneModel> iTree = (contigID == -1) ? null
+				: geneIndex.getGeneIntervalTrees().get(contigID);
+
+		// Close all genes left of the variant, the variant cannot lie in any of them
+		if (contigID == -1)
+			closeGenes(-1, -1);
+		else
+			closeGenes(contigID, vc.getStart() - 1);
+
+		// Assign variant to the genes it affects, or consider it on its own
+		final PendingVariant pending = new PendingVariant(vc, pedigrees.size());
+		pendingVariants.add(pending);
+		if (iTree != null) {
+			final GenomeInterval changeInterval = new GenomeInterval(refDict, Strand.FWD, contigID, vc.getStart() - 1,
+					vc.getEnd());
+			final IntervalArray<GeneModel>.QueryResult qr;
+			if (changeInterval.length() == 0)
+				qr = iTree.findOverlappingWithPoint(changeInterval.getBeginPos());
+			else
+				qr = iTree.findOverlappingWithInterval(changeInterval.getBeginPos(), changeInterval.getEndPos());
+			for (GeneModel gene : qr.getEntries())
+				if (isGeneAffectedByChange(gene, changeInterval)) {
+					activeGenes.computeIfAbsent(gene, x -> new ArrayList<>()).add(pending);
+					pending.openGroups += 1;
+				}
+		}
+		if (pending.openGroups == 0) {
+			pending.openGroups = 1;
+			readyGroups.add(ImmutableList.of(pending));
+		}
+
+		if (readyGroups.size() >= options.getBatchSize())
+			processReadyGroups();
+	}
+
+	/**
+	 * @return <code>true</code> if <code>gene</code> is affected by a change in <code>changeInterval</code>, insertions
+	 *         have to lie strictly within the gene
+	 */
+	private static boolean isGeneAffectedByChange(GeneModel gene, GenomeInterval changeInterval) {
+		if (changeInterval.length() == 0)
+			return gene.getRegion().contains(changeInterval.getGenomeBeginPos())
+					&& gene.getRegion().contains(changeInterval.getGenomeBeginPos().shifted(-1));
+		else
+			return gene.getRegion().overlapsWith(changeInterval);
+	}
+
+	@Override
+	public void close() {
+		LOGGER.trace("Closing multi-pedigree inheritance filter");
+		try {
+			closeGenes(-1, -1);
+			processReadyGroups();
+		} finally {
+			if (executor != null)
+				executor.shutdownNow();
+		}
+
+		// There should be no more buffered variants or open genes
+		if (!pendingVariants.isEmpty())
+			throw new VariantContextFilterException("All variants should be written out now");
+		if (!activeGenes.isEmpty())
+			throw new VariantContextFilterException("All genes should be inactive now");
+	}
+
+	/**
+	 * Appropriately extend {@link VCFHeader} for the output of a filter with the given <code>options</code>
+	 */
+	public static void extendHeader(VCFHeader vcfHeader, Options options) {
+		new MendelVCFHeaderExtender().extendHeader(vcfHeader, options.getPrefix());
+		vcfHeader.addMetaDataLine(new VCFInfoHeaderLine(familiesKey(options.getPrefix()),
+				VCFHeaderLineCount.UNBOUNDED, VCFHeaderLineType.String,
+				"Families in which the variant is compatible with an accepted mode of inheritance ("
+						+ acceptedModesString(options) + ")"));
+		if (options.isTagIncompatible())
+			vcfHeader.addMetaDataLine(new VCFFilterHeaderLine(options.getFilterName(),
+					"Not compatible with an accepted mode of inheritance (" + acceptedModesString(options)
+							+ ") in any family"));
+	}
+
+	/** @return key of the INFO field listing the families with compatible modes */
+	public static String familiesKey(String prefix) {
+		return prefix + "INHERITANCE_FAMILIES";
+	}
+
+	/** @return comma-separated list of accepted modes of inheritance */
+	private static String acceptedModesString(Options options) {
+		ArrayList<String> names = new ArrayList<>();
+		for (ModeOfInheritance mode : options.getAcceptedModes())
+			if (mode.getAbbreviation() != null)
+				names.add(mode.getAbbreviation());
+		return String.join(", ", names);
+	}
+
+	/**
+	 * Close genes left of <code>(contigID, pos)</code> and schedule their variants for evaluation.
+	 *
+	 * @param contigID
+	 *            numeric contig ID, <code>-1</code> to close all genes
+	 * @param pos
+	 *            zero-based position on the given contig
+	 */
+	private void closeGenes(int contigID, int pos) {
+		Iterator<Entry<GeneModel, ArrayList<PendingVariant>>> it = activeGenes.entrySet().iterator();
+		while (it.hasNext()) {
+			Entry<GeneModel, ArrayList<PendingVariant>> entry = it.next();
+			final GenomeInterval region = entry.getKey().getRegion();
+			if (region.getChr() != contigID || region.getEndPos() <= pos) {
+				LOGGER.trace("Gene done {}", new Object[] { entry.getKey().getGeneSymbol() });
+				readyGroups.add(entry.getValue());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Evaluate all groups in {@link #readyGroups} for all families and write out the variants that are complete now.
+	 *
+	 * @throws VariantContextFilterException
+	 *             on problems with the evaluation
+	 */
+	private void processReadyGroups() throws VariantContextFilterException {
+		if (!readyGroups.isEmpty()) {
+			final ImmutableList<List<PendingVariant>> groups = ImmutableList.copyOf(readyGroups);
+			readyGroups.clear();
+			evaluateGroups(groups);
+			for (List<PendingVariant> group : groups)
+				for (PendingVariant pending : group)
+					pending.openGroups -= 1;
+		}
+
+		// Write out the leading variants for which all groups have been evaluated
+		while (!pendingVariants.isEmpty() && pendingVariants.peekFirst().openGroups == 0)
+			writeOut(pendingVariants.pollFirst());
+	}
+
+	/**
+	 * Evaluate <code>groups</code> for each family, sharding the families over {@link #executor} if any.
+	 */
+	private void evaluateGroups(ImmutableList<List<PendingVariant>> groups) throws VariantContextFilterException {
+		if (executor == null) {
+			for (int i = 0; i < pedigrees.size(); ++i)
+				evaluateGroupsForFamily(i, groups);
+			return;
+		}
+
+		// Each task writes the slot of its own family only, so no further synchronization is needed
+		ArrayList<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < pedigrees.size(); ++i) {
+			final int familyIdx = i;
+			tasks.add(() -> {
+				evaluateGroupsForFamily(familyIdx, groups);
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks))
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new VariantContextFilterException("Interrupted while checking Mendelian inheritance", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof VariantContextFilterException)
+				throw (VariantContextFilterException) e.getCause();
+			throw new VariantContextFilterException("Problem with checking Mendelian inheritance", e.getCause());
+		}
+	}
+
+	/**
+	 * Evaluate <code>groups</code> for the family with index <code>familyIdx</code> and record the results
+	 */
+	private void evaluateGroupsForFamily(int familyIdx, List<List<PendingVariant>> groups)
+			throws VariantContextFilterException {
+		final VariantContextMendelianAnnotator annotator = annotators.get(familyIdx);
+		for (List<PendingVariant> group : groups) {
+			ArrayList<VariantContext> vcs = new ArrayList<>(group.size());
+			for (PendingVariant pending : group)
+				vcs.add(pending.vc);
+
+			final int[] masks;
+			try {
+				masks = annotator.computeCompatibleInheritanceModeMasks(vcs);
+			} catch (CannotAnnotateMendelianInheritance e) {
+				if (e.getCause() instanceof IncompatiblePedigreeException)
+					throw new VariantContextFilterException("Cannot check Mendelian inheritance, pedigree "
+							+ pedigrees.get(familyIdx).getName() + " is incompatible to genotypes", e);
+				else
+					throw new VariantContextFilterException("Problem with checking variant for Mendelian inheritance",
+							e);
+			}
+
+			for (int i = 0; i < masks.length; ++i)
+				group.get(i).familyMasks[familyIdx] |= masks[i];
+		}
+	}
+
+	/**
+	 * Write out <code>pending</code> to {@link #sink} if compatible in any family or if incompatible variants are to be
+	 * tagged
+	 */
+	private void writeOut(PendingVariant pending) {
+		// only the accepted modes of the families that pass the filter are reported
+		int unionMask = 0;
+		ArrayList<String> families = new ArrayList<>();
+		for (int i = 0; i < pedigrees.size(); ++i) {
+			final int familyMask = pending.familyMasks[i] & acceptedMask;
+			if (familyMask != 0) {
+				unionMask |= familyMask;
+				families.add(pedigrees.get(i).getName());
+			}
+		}
+
+		if (families.isEmpty()) {
+			if (options.isTagIncompatible())
+				sink.accept(new VariantContextBuilder(pending.vc).filter(options.getFilterName()).make());
+			return;
+		}
+
+		ArrayList<String> modes = new ArrayList<>();
+		for (ModeOfInheritance mode : ModeOfInheritance.values())
+			if (mode.getAbbreviation() != null && mode.isSetIn(unionMask))
+				modes.add(mode.getAbbreviation());
+
+		VariantContextBuilder vcBuilder = new VariantContextBuilder(pending.vc);
+		vcBuilder.attribute(MendelVCFHeaderExtender.key(options.getPrefix()), modes);
+		vcBuilder.attribute(familiesKey(options.getPrefix()), families);
+		sink.accept(vcBuilder.make());
+	}
+
+	/**
+	 * A buffered variant with the compatible modes found so far
+	 */
+	private static class PendingVariant {
+
+		/** The buffered variant */
+		final VariantContext vc;
+		/** Bit masks of compatible modes, one for each family */
+		final int[] familyMasks;
+		/** Number of groups (genes or the variant on its own) that still have to be evaluated */
+		int openGroups = 0;
+
+		PendingVariant(VariantContext vc, int numFamilies) {
+			this.vc = vc;
+			this.familyMasks = new int[numFamilies];
+		}
+
+	}
+
+}
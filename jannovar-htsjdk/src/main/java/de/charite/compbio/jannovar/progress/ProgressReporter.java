@@ -25,6 +25,10 @@ public class ProgressReporter extends TimerTask {
 	private final GenomeRegionList contigs;
 	/** Current variant context */
 	private VariantContext currentVC;
+	/** Contig of the current variant */
+	private String currentContig;
+	/** Position of the current variant */
+	private int currentPos;
 	/** Number of variant contexts */
 	private int numProcessed;
 	/** Number of seconds between intervals */
@@ -45,20 +49,25 @@ public class ProgressReporter extends TimerTask {
 	}
 
 	public void print() {
-		final VariantContext vc = currentVC;
-		if (vc == null)
+		final String contig;
+		final int pos;
+		synchronized (this) {
+			contig = currentContig;
+			pos = currentPos;
+		}
+		if (contig == null)
 			return; // ignore
 
 		final long elapsed = (System.currentTimeMillis() - this.startTime) / 1000;
 		final double timeFor1MSites = elapsed / (this.numProcessed / 1000.0 / 1000.0);
-		final long basesDone = contigs.lengthUpTo(vc.getContig(), vc.getStart() - 1);
+		final long basesDone = contigs.lengthUpTo(contig, pos - 1);
 		final long basesTotal = contigs.totalLength();
 		final double percentDone = (100.0 * basesDone) / basesTotal;
 		final long estimateTotal = (long) (elapsed / (percentDone / 100.0));
 		final long estimateRemaining = estimateTotal - elapsed;
 
 		ArrayList<String> arr = new ArrayList<>();
-		arr.add(vc.getContig() + ":" + NumberFormat.getNumberInstance(Locale.US).format(vc.getStart()));
+		arr.add(contig + ":" + NumberFormat.getNumberInstance(Locale.US).format(pos));
 		arr.add(Integer.toString(this.numProcessed));
 		arr.add(String.format("%.1f", timeFor1MSites));
 		arr.add(String.format("%.1f%%", percentDone));
@@ -95,6 +104,23 @@ public class ProgressReporter extends TimerTask {
 	public synchronized void setCurrentVC(VariantContext currentVC) {
 		this.numProcessed += 1;
 		this.currentVC = currentVC;
+		this.currentContig = currentVC.getContig();
+		this.currentPos = currentVC.getStart();
+	}
+
+	/**
+	 * Set the position of the current variant for input that is not decoded into {@link VariantContext} objects
+	 *
+	 * @param contig
+	 *            contig of the current variant
+	 * @param pos
+	 *            one-based position of the current variant
+	 */
+	public synchronized void setCurrentPosition(String contig, int pos) {
+		this.numProcessed += 1;
+		this.currentVC = null;
+		this.currentContig = contig;
+		this.currentPos = pos;
 	}
 
 	public int getNumProcessed() {
@@ -0,0 +1,119 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+
+public class ParallelBlockCompressedOutputStreamTest {
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	/** @return text-like data in the first half and random bytes in the second half */
+	private static byte[] buildData(int length) {
+		Random rand = new Random(42);
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; ++i)
+			data[i] = (i < length / 2) ? (byte) "ACGT\t\n".charAt(rand.nextInt(6)) : (byte) rand.nextInt(256);
+		return data;
+	}
+
+	private static byte[] readAll(BlockCompressedInputStream in, int length) throws Exception {
+		byte[] result = new byte[length];
+		int pos = 0;
+		while (pos < length) {
+			final int count = in.read(result, pos, length - pos);
+			if (count == -1)
+				break;
+			pos += count;
+		}
+		Assert.assertEquals(length, pos);
+		Assert.assertEquals(-1, in.read());
+		return result;
+	}
+
+	private void checkRoundTrip(int numThreads) throws Exception {
+		final byte[] data = buildData(1000000);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ParallelBlockCompressedOutputStream out = new ParallelBlockCompressedOutputStream(bos, 5, numThreads);
+		Random rand = new Random(23);
+		int pos = 0;
+		while (pos < data.length) {
+			final int count = Math.min(data.length - pos, 1 + rand.nextInt(10000));
+			out.write(data, pos, count);
+			pos += count;
+		}
+		out.close();
+
+		final byte[] compressed = bos.toByteArray();
+		Assert.assertArrayEquals(data,
+				readAll(new BlockCompressedInputStream(new ByteArrayInputStream(compressed)), data.length));
+
+		// virtual offsets point to the same data
+		for (int probe : new int[] { 0, 12345, ParallelBlockCompressedOutputStream.BLOCK_SIZE, 700001 }) {
+			Assert.assertTrue(out.hasVirtualOffset(probe));
+			BlockCompressedInputStream in = new BlockCompressedInputStream(new ByteArrayInputStream(compressed));
+			in.seek(out.getVirtualOffset(probe));
+			Assert.assertEquals(data[probe] & 0xff, in.read());
+			in.close();
+		}
+	}
+
+	@Test
+	public void testRoundTripSingleThread() throws Exception {
+		checkRoundTrip(1);
+	}
+
+	@Test
+	public void testRoundTripMultipleThreads() throws Exception {
+		checkRoundTrip(4);
+	}
+
+	@Test
+	public void testTabixIndex() throws Exception {
+		final File vcfFile = new File(tmpFolder.getRoot(), "test.vcf.gz");
+		final File indexFile = new File(tmpFolder.getRoot(), "test.vcf.gz.tbi");
+		StringBuilder builder = new StringBuilder();
+		builder.append("##fileformat=VCFv4.2\n");
+		builder.append("##INFO=<ID=END,Number=1,Type=Integer,Description=\"End position\">\n");
+		builder.append("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\n");
+		for (int i = 1; i <= 20000; ++i)
+			builder.append("1\t").append(10 * i).append("\t.\tA\tC\t.\tPASS\t.\n");
+		builder.append("2\t100\t.\tA\t<DEL>\t.\tPASS\tEND=5000\n");
+
+		TabixIndexingOutputStream out = new TabixIndexingOutputStream(
+				new ParallelBlockCompressedOutputStream(new FileOutputStream(vcfFile), 5, 4),
+				new TabixIndexCreator(TabixFormat.VCF), indexFile);
+		out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+		out.close();
+		Assert.assertTrue(indexFile.exists());
+
+		try (VCFFileReader reader = new VCFFileReader(vcfFile, true)) {
+			try (CloseableIterator<VariantContext> it = reader.query("1", 150001, 150020)) {
+				Assert.assertEquals(150010, it.next().getStart());
+				Assert.assertEquals(150020, it.next().getStart());
+				Assert.assertFalse(it.hasNext());
+			}
+			try (CloseableIterator<VariantContext> it = reader.query("2", 4000, 4000)) {
+				Assert.assertEquals(100, it.next().getStart());
+				Assert.assertFalse(it.hasNext());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Resources;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+public class ReadAheadVCFReaderTest {
+
+	/** VCF text to read */
+	String vcfText;
+	/** record lines of {@link #vcfText} */
+	List<String> recordLines;
+
+	@Before
+	public void setUp() throws Exception {
+		vcfText = Resources.toString(Resources.getResource("inheritanceFilterTest.b37.vcf"), StandardCharsets.UTF_8);
+		recordLines = new ArrayList<>();
+		for (String line : vcfText.split("\n"))
+			if (!line.startsWith("#"))
+				recordLines.add(line);
+	}
+
+	private void checkRecords(byte[] data, int numThreads) throws Exception {
+		try (ReadAheadVCFReader reader = new ReadAheadVCFReader(new ByteArrayInputStream(data), numThreads, 2)) {
+			Assert.assertEquals(ImmutableList.of("Seth", "Adam", "Eva"), reader.getFileHeader().getGenotypeSamples());
+			List<VariantContext> records = reader.stream().collect(Collectors.toList());
+			Assert.assertEquals(recordLines.size(), records.size());
+			for (int i = 0; i < records.size(); ++i) {
+				final String[] fields = recordLines.get(i).split("\t");
+				Assert.assertEquals(fields[0], records.get(i).getContig());
+				Assert.assertEquals(Integer.parseInt(fields[1]), records.get(i).getStart());
+				Assert.assertEquals(fields[3], records.get(i).getReference().getBaseString());
+				// genotypes are decoded lazily
+				Assert.assertEquals(Integer.parseInt(fields[9].split(":")[1]), records.get(i).getGenotype("Seth")
+						.getDP());
+			}
+			Assert.assertTrue(reader.nextBatch().isEmpty());
+		}
+	}
+
+	private byte[] compress(OutputStream out, ByteArrayOutputStream bos) throws Exception {
+		out.write(vcfText.getBytes(StandardCharsets.UTF_8));
+		out.close();
+		return bos.toByteArray();
+	}
+
+	@Test
+	public void testUncompressed() throws Exception {
+		checkRecords(vcfText.getBytes(StandardCharsets.UTF_8), 1);
+	}
+
+	@Test
+	public void testGzip() throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		checkRecords(compress(new GZIPOutputStream(bos), bos), 1);
+	}
+
+	@Test
+	public void testBlockCompressed() throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		checkRecords(compress(new ParallelBlockCompressedOutputStream(bos, 5, 2), bos), 4);
+	}
+
+	@Test
+	public void testBatches() throws Exception {
+		try (ReadAheadVCFReader reader = new ReadAheadVCFReader(
+				new ByteArrayInputStream(vcfText.getBytes(StandardCharsets.UTF_8)), 1, 2)) {
+			List<String> lines = new ArrayList<>();
+			ImmutableList<String> batch;
+			while (!(batch = reader.nextBatch()).isEmpty()) {
+				Assert.assertTrue(batch.size() <= 2);
+				lines.addAll(batch);
+			}
+			Assert.assertEquals(recordLines, lines);
+			Assert.assertEquals(1, reader.newDecoder().decode(lines.get(0)).getNAlleles() - 1);
+		}
+	}
+
+}
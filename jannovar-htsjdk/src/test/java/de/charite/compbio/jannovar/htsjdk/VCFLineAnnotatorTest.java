@@ -0,0 +1,152 @@
+package de.charite.compbio.jannovar.htsjdk;
+
+import java.io.File;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+import de.charite.compbio.jannovar.annotation.AnnotationMessage;
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.data.JannovarDataSerializer;
+import de.charite.compbio.jannovar.utils.ResourceUtils;
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+
+public class VCFLineAnnotatorTest {
+
+	/** header of the test records */
+	static final String HEADER = "##fileformat=VCFv4.2\n"
+			+ "##INFO=<ID=DP,Number=1,Type=Integer,Description=\"Depth\">\n"
+			+ "##INFO=<ID=ANN,Number=1,Type=String,Description=\"Annotation\">\n"
+			+ "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n"
+			+ "##FORMAT=<ID=DP,Number=1,Type=Integer,Description=\"Depth\">\n"
+			+ "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tS1\tS2\n";
+
+	/** path to Jannovar database file */
+	static String dbPath;
+	/** Jannovar database */
+	JannovarData jannovarData;
+	/** codec for decoding the records */
+	VCFCodec codec;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		File tmpDir = Files.createTempDir();
+		dbPath = tmpDir + "/mini_fbn1.ser";
+		ResourceUtils.copyResourceToFile("/ex_fbn1/mini_fbn1.ser", new File(dbPath));
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		this.jannovarData = new JannovarDataSerializer(dbPath).load();
+		this.codec = new VCFCodec();
+		this.codec.readActualHeader(new LineIteratorImpl(new SynchronousLineReader(new StringReader(HEADER))));
+	}
+
+	private VariantContextAnnotator buildAnnotator(boolean oneAnnotationOnly) {
+		return new VariantContextAnnotator(jannovarData.getRefDict(), jannovarData.getChromosomes(),
+				new VariantContextAnnotator.Options(oneAnnotationOnly, true, true));
+	}
+
+	/** @return INFO column of <code>line</code> */
+	private static String getInfo(String line) {
+		return line.split("\t")[7];
+	}
+
+	/** Check that the raw annotation of <code>line</code> yields the same ANN as the decoded annotation */
+	private void checkSameANN(boolean oneAnnotationOnly, String line) throws Exception {
+		final String annotated = new VCFLineAnnotator(buildAnnotator(oneAnnotationOnly)).annotateLine(line);
+
+		VariantContextAnnotator annotator = buildAnnotator(oneAnnotationOnly);
+		VariantContext vc = codec.decode(line);
+		vc = annotator.applyAnnotations(vc, annotator.buildAnnotations(vc));
+		final String info = getInfo(line);
+		final String annEntry = "ANN=" + vc.getAttribute("ANN");
+		Assert.assertEquals(info.equals(".") ? annEntry : info + ";" + annEntry, getInfo(annotated));
+	}
+
+	@Test
+	public void testSameAnnotationAsDecoded() throws Exception {
+		checkSameANN(true, "ref\t436900\t.\tT\tC\t.\tPASS\tDP=10\tGT:DP\t0/1:5\t0/0:5");
+		checkSameANN(false, "ref\t436900\t.\tT\tC,G\t.\tPASS\tDP=10\tGT:DP\t1/2:5\t0/0:5");
+		checkSameANN(false, "ref\t405250\t.\tGGC\tG\t.\tPASS\t.\tGT:DP\t0/1:5\t0/0:5");
+	}
+
+	@Test
+	public void testLowerCaseBases() throws Exception {
+		checkSameANN(false, "ref\t436900\t.\tt\tc,g\t.\tPASS\tDP=10\tGT:DP\t1/2:5\t0/0:5");
+		checkSameANN(false, "ref\t405250\t.\tGgc\tg\t.\tPASS\t.\tGT:DP\t0/1:5\t0/0:5");
+
+		final VCFLineAnnotator lineAnnotator = new VCFLineAnnotator(buildAnnotator(false));
+		Assert.assertEquals(getInfo(lineAnnotator.annotateLine("ref\t436900\t.\tT\tC\t.\tPASS\t.")),
+				getInfo(lineAnnotator.annotateLine("ref\t436900\t.\tt\tc\t.\tPASS\t.")));
+	}
+
+	@Test
+	public void testOnlyINFOChanged() throws Exception {
+		final VCFLineAnnotator lineAnnotator = new VCFLineAnnotator(buildAnnotator(true));
+		final String line = "ref\t436900\trs1\tT\tC\t50\tPASS\tDP=10;ANN=old\tGT:DP\t0/1:5\t0/0:5";
+		final String annotated = lineAnnotator.annotateLine(line);
+
+		final String[] fields = line.split("\t");
+		final String[] annotatedFields = annotated.split("\t");
+		Assert.assertEquals(fields.length, annotatedFields.length);
+		for (int i = 0; i < fields.length; ++i)
+			if (i != 7)
+				Assert.assertEquals(fields[i], annotatedFields[i]);
+		Assert.assertTrue(getInfo(annotated).startsWith("DP=10;ANN="));
+		Assert.assertFalse(getInfo(annotated).contains("old"));
+	}
+
+	@Test
+	public void testSemicolonInSampleColumns() throws Exception {
+		final VCFLineAnnotator lineAnnotator = new VCFLineAnnotator(buildAnnotator(true));
+		final String annotated = lineAnnotator.annotateLine("ref\t436900\t.\tT\tC\t.\tPASS\tDP=10\tGT:FT\t0/1:a;ANN");
+		Assert.assertTrue(getInfo(annotated).startsWith("DP=10;ANN="));
+		Assert.assertTrue(annotated.endsWith("\tGT:FT\t0/1:a;ANN"));
+	}
+
+	@Test
+	public void testMissingINFOAndSitesOnly() throws Exception {
+		final VCFLineAnnotator lineAnnotator = new VCFLineAnnotator(buildAnnotator(true));
+		final String annotated = lineAnnotator.annotateLine("ref\t436900\t.\tT\tC\t.\tPASS\t.");
+		Assert.assertEquals(8, annotated.split("\t").length);
+		Assert.assertTrue(getInfo(annotated).startsWith("ANN=C|"));
+	}
+
+	@Test
+	public void testUnknownContigAndNoAlt() throws Exception {
+		final VCFLineAnnotator lineAnnotator = new VCFLineAnnotator(buildAnnotator(true));
+		Assert.assertEquals("chrUn\t100\t.\tT\tC\t.\tPASS\tANN=|||||||||||||||ERROR_CHROMOSOME_NOT_FOUND",
+				lineAnnotator.annotateLine("chrUn\t100\t.\tT\tC\t.\tPASS\t."));
+		final String line = "ref\t436900\t.\tT\t.\t.\tPASS\tDP=10\tGT\t0/0\t0/0";
+		Assert.assertEquals(line, lineAnnotator.annotateLine(line));
+		Assert.assertEquals(ImmutableList.of(), buildAnnotator(true).buildAnnotations(codec.decode(line)));
+		Assert.assertEquals(1, lineAnnotator.getErrorCounter().getCount(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND));
+		Assert.assertEquals(1, lineAnnotator.getErrorCounter().getTotalCount());
+	}
+
+	@Test
+	public void testAnnotationResultForUnknownContig() throws Exception {
+		final VariantContextAnnotator annotator = buildAnnotator(true);
+		final VariantContext vc = codec.decode("chrUn\t100\t.\tT\tC\t.\tPASS\t.\tGT:DP\t0/1:5\t0/0:5");
+		final VariantContextAnnotator.AnnotationResult result = annotator.buildAnnotationResult(vc);
+		Assert.assertTrue(result.isError());
+		Assert.assertEquals(AnnotationMessage.ERROR_CHROMOSOME_NOT_FOUND, result.getError());
+		Assert.assertEquals("|||||||||||||||ERROR_CHROMOSOME_NOT_FOUND",
+				annotator.applyAnnotations(vc, result).getAttribute("ANN"));
+
+		final VariantContext known = codec.decode("ref\t436900\t.\tT\tC\t.\tPASS\t.\tGT:DP\t0/1:5\t0/0:5");
+		Assert.assertFalse(annotator.buildAnnotationResult(known).isError());
+		Assert.assertEquals(1, annotator.getErrorCounter().getTotalCount());
+	}
+
+}
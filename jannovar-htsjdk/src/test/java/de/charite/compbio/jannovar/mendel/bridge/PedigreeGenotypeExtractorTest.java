@@ -0,0 +1,83 @@
+package de.charite.compbio.jannovar.mendel.bridge;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.mendel.impl.MendelianCompatibilityEvaluator;
+import de.charite.compbio.jannovar.pedigree.Disease;
+import de.charite.compbio.jannovar.pedigree.PedFileContents;
+import de.charite.compbio.jannovar.pedigree.PedParseException;
+import de.charite.compbio.jannovar.pedigree.PedPerson;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.pedigree.Sex;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+
+/**
+ * Test for extracting genotype states of pedigree members from {@link VariantContext} objects
+ */
+public class PedigreeGenotypeExtractorTest {
+
+	/** Pedigree with one affected child and one member not in the VCF file */
+	private Pedigree pedigree;
+	/** Sample names from VCF file */
+	private List<String> sampleNames;
+	/** Variants from VCF file, genotypes not decoded yet */
+	private List<VariantContext> variants;
+
+	@Before
+	public void setUp() throws PedParseException {
+		ImmutableList.Builder<PedPerson> individuals = new ImmutableList.Builder<PedPerson>();
+		individuals.add(new PedPerson("ped", "Eva", "0", "0", Sex.FEMALE, Disease.UNAFFECTED)); // Mother
+		individuals.add(new PedPerson("ped", "Adam", "0", "0", Sex.MALE, Disease.UNAFFECTED)); // Father
+		individuals.add(new PedPerson("ped", "Seth", "Adam", "Eva", Sex.MALE, Disease.AFFECTED)); // Child
+		individuals.add(new PedPerson("ped", "Kain", "Adam", "Eva", Sex.MALE, Disease.UNKNOWN)); // Child, not in VCF
+		PedFileContents pedFileContents = new PedFileContents(new ImmutableList.Builder<String>().build(),
+				individuals.build());
+		pedigree = new Pedigree(pedFileContents, "ped");
+
+		variants = new ArrayList<>();
+		try (VCFFileReader reader = new VCFFileReader(new File("src/test/resources/inheritanceFilterTest.b37.vcf"),
+				false)) {
+			sampleNames = reader.getFileHeader().getGenotypeSamples();
+			for (VariantContext vc : reader)
+				variants.add(vc);
+		}
+	}
+
+	@Test
+	public void testExtractFromGenotypeBlock() {
+		PedigreeGenotypeExtractor extractor = new PedigreeGenotypeExtractor(pedigree, sampleNames);
+
+		// First record: Seth 0/1, Adam 0/1, Eva 0/0
+		Assert.assertArrayEquals(new byte[] { MendelianCompatibilityEvaluator.STATE_HOM_REF,
+				MendelianCompatibilityEvaluator.STATE_HET, MendelianCompatibilityEvaluator.STATE_HET,
+				MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED }, extractor.extractStates(variants.get(0)));
+		// Second record: all 1/1
+		Assert.assertArrayEquals(new byte[] { MendelianCompatibilityEvaluator.STATE_HOM_ALT,
+				MendelianCompatibilityEvaluator.STATE_HOM_ALT, MendelianCompatibilityEvaluator.STATE_HOM_ALT,
+				MendelianCompatibilityEvaluator.STATE_NOT_OBSERVED }, extractor.extractStates(variants.get(1)));
+	}
+
+	@Test
+	public void testSameResultForDecodedGenotypes() {
+		PedigreeGenotypeExtractor extractor = new PedigreeGenotypeExtractor(pedigree, sampleNames);
+
+		for (VariantContext vc : variants) {
+			final byte[] lazyStates = extractor.extractStates(vc);
+			final VariantContext decoded = new VariantContextBuilder(vc)
+					.genotypes(GenotypesContext.copy(vc.getGenotypes())).make();
+			Assert.assertArrayEquals(lazyStates, extractor.extractStates(decoded));
+		}
+	}
+
+}
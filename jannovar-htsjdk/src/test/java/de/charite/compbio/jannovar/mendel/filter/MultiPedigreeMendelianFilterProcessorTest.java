@@ -0,0 +1,137 @@
+package de.charite.compbio.jannovar.mendel.filter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.data.JannovarData;
+import de.charite.compbio.jannovar.factories.TestJannovarDataFactory;
+import de.charite.compbio.jannovar.mendel.ModeOfInheritance;
+import de.charite.compbio.jannovar.mendel.bridge.MendelVCFHeaderExtender;
+import de.charite.compbio.jannovar.pedigree.Disease;
+import de.charite.compbio.jannovar.pedigree.PedFileContents;
+import de.charite.compbio.jannovar.pedigree.PedParseException;
+import de.charite.compbio.jannovar.pedigree.PedPerson;
+import de.charite.compbio.jannovar.pedigree.Pedigree;
+import de.charite.compbio.jannovar.pedigree.Sex;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+
+/**
+ * Test for filtering for compatible modes of inheritance with multiple families
+ */
+public class MultiPedigreeMendelianFilterProcessorTest {
+
+	final static String KEY = MendelVCFHeaderExtender.key();
+	final static String FAMILIES_KEY = MultiPedigreeMendelianFilterProcessor.familiesKey("");
+
+	/** Pedigree with one affected child */
+	private Pedigree trio;
+	/** Pedigree with the affected child only */
+	private Pedigree singleton;
+	/** Jannovar DB */
+	private JannovarData jannovarDB;
+	/** Variants to filter */
+	private List<VariantContext> variants;
+
+	@Before
+	public void setUp() throws PedParseException {
+		ImmutableList.Builder<PedPerson> individuals = new ImmutableList.Builder<PedPerson>();
+		individuals.add(new PedPerson("trio", "Eva", "0", "0", Sex.FEMALE, Disease.UNAFFECTED)); // Mother
+		individuals.add(new PedPerson("trio", "Adam", "0", "0", Sex.MALE, Disease.UNAFFECTED)); // Father
+		individuals.add(new PedPerson("trio", "Seth", "Adam", "Eva", Sex.MALE, Disease.AFFECTED)); // Child
+		PedFileContents pedFileContents = new PedFileContents(new ImmutableList.Builder<String>().build(),
+				individuals.build());
+		trio = new Pedigree(pedFileContents, "trio");
+		singleton = new Pedigree(new PedFileContents(new ImmutableList.Builder<String>().build(),
+				ImmutableList.of(new PedPerson("single", "Seth", "0", "0", Sex.MALE, Disease.AFFECTED))), "single");
+
+		jannovarDB = new TestJannovarDataFactory().getJannovarData();
+
+		Path vcfPath = Paths.get("src/test/resources/inheritanceFilterTest.b37.vcf");
+		variants = new ArrayList<VariantContext>();
+		try (VCFFileReader reader = new VCFFileReader(vcfPath.toFile(), false)) {
+			for (VariantContext variantContext : reader)
+				variants.add(variantContext);
+		}
+	}
+
+	private List<VariantContext> runFilter(ImmutableList<Pedigree> pedigrees,
+			MultiPedigreeMendelianFilterProcessor.Options options) {
+		ArrayList<VariantContext> result = new ArrayList<>();
+		try (MultiPedigreeMendelianFilterProcessor proc = new MultiPedigreeMendelianFilterProcessor(pedigrees,
+				jannovarDB, options, vc -> result.add(vc))) {
+			for (VariantContext vc : variants)
+				proc.put(vc);
+		}
+		return result;
+	}
+
+	@Test
+	public void testTrioRemoveIncompatible() {
+		List<VariantContext> result = runFilter(ImmutableList.of(trio),
+				MultiPedigreeMendelianFilterProcessor.Options.createDefaults());
+
+		Assert.assertEquals(4, result.size());
+
+		Assert.assertEquals(145513532, result.get(0).getStart());
+		Assert.assertEquals("[AR]", result.get(0).getAttribute(KEY).toString());
+		Assert.assertEquals("[trio]", result.get(0).getAttribute(FAMILIES_KEY).toString());
+
+		Assert.assertEquals(145513534, result.get(1).getStart());
+		Assert.assertEquals("[AR]", result.get(1).getAttribute(KEY).toString());
+
+		Assert.assertEquals(145515898, result.get(2).getStart());
+		Assert.assertEquals("[AD]", result.get(2).getAttribute(KEY).toString());
+
+		Assert.assertEquals(123239370, result.get(3).getStart());
+		Assert.assertEquals("[AR]", result.get(3).getAttribute(KEY).toString());
+	}
+
+	@Test
+	public void testTrioTagIncompatible() {
+		List<VariantContext> result = runFilter(ImmutableList.of(trio),
+				new MultiPedigreeMendelianFilterProcessor.Options(ImmutableList.of(ModeOfInheritance.AUTOSOMAL_DOMINANT),
+						true, "NotAD", "", 1, 1));
+
+		Assert.assertEquals(7, result.size());
+		for (int i = 0; i < result.size(); ++i) {
+			Assert.assertEquals(variants.get(i).getStart(), result.get(i).getStart());
+			if (i == 3) {
+				Assert.assertFalse(result.get(i).isFiltered());
+				Assert.assertEquals("[AD]", result.get(i).getAttribute(KEY).toString());
+			} else {
+				Assert.assertTrue(result.get(i).getFilters().contains("NotAD"));
+			}
+		}
+	}
+
+	@Test
+	public void testTwoFamiliesParallel() {
+		List<VariantContext> result = runFilter(ImmutableList.of(trio, singleton),
+				new MultiPedigreeMendelianFilterProcessor.Options(ImmutableList.of(ModeOfInheritance.AUTOSOMAL_DOMINANT),
+						false, MultiPedigreeMendelianFilterProcessor.DEFAULT_FILTER_NAME, "", 2, 1));
+
+		// All heterozygous calls of Seth are compatible with AD in the singleton, only one in the trio
+		Assert.assertEquals(4, result.size());
+		Assert.assertEquals(145513532, result.get(0).getStart());
+		Assert.assertEquals("[single]", result.get(0).getAttribute(FAMILIES_KEY).toString());
+		Assert.assertEquals(145513534, result.get(1).getStart());
+		Assert.assertEquals("[single]", result.get(1).getAttribute(FAMILIES_KEY).toString());
+		Assert.assertEquals(145515898, result.get(2).getStart());
+		Assert.assertEquals("[trio, single]", result.get(2).getAttribute(FAMILIES_KEY).toString());
+		Assert.assertEquals(145515899, result.get(3).getStart());
+		Assert.assertEquals("[single]", result.get(3).getAttribute(FAMILIES_KEY).toString());
+		// only the accepted mode is reported, e.g., not AR of the first two variants in the trio
+		for (VariantContext vc : result)
+			Assert.assertEquals("[AD]", vc.getAttribute(KEY).toString());
+	}
+
+}
@@ -4,9 +4,11 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
 import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.vcf.VCFFileReader;
 
 /**
@@ -43,16 +45,39 @@ public abstract class AbstractDBAnnotationDriver<RecordType> implements DBAnnota
 	 */
 	public AbstractDBAnnotationDriver(String vcfPath, String fastaPath, DBAnnotationOptions options,
 			VariantContextToRecordConverter<RecordType> vcToRecord) throws JannovarVarDBException {
+		this(vcfPath, new AlleleMatcher(fastaPath), options, vcToRecord);
+	}
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed, VCF file, sharing an {@link AlleleMatcher}
+	 * 
+	 * @param vcfPath
+	 *            Path to VCF file with the database.
+	 * @param matcher
+	 *            {@link AlleleMatcher} to use, can be shared between drivers
+	 * @param options
+	 *            configuration
+	 * @param vcToRecord
+	 *            converter from {@link VariantContext} to record type
+	 */
+	public AbstractDBAnnotationDriver(String vcfPath, AlleleMatcher matcher, DBAnnotationOptions options,
+			VariantContextToRecordConverter<RecordType> vcToRecord) {
 		this.vcfPath = vcfPath;
-		this.matcher = new AlleleMatcher(fastaPath);
+		this.matcher = matcher;
 		this.vcToRecord = vcToRecord;
 		this.vcfReader = new VCFFileReader(new File(this.vcfPath), true);
 		this.options = options;
-
 	}
 
 	@Override
 	public VariantContext annotateVariantContext(VariantContext obsVC) {
+		VariantContextBuilder builder = new VariantContextBuilder(obsVC);
+		queryDatabase(obsVC, matcher.buildVariantDescriptions(obsVC)).accept(builder);
+		return builder.make();
+	}
+
+	@Override
+	public Consumer<VariantContextBuilder> queryDatabase(VariantContext obsVC, List<VariantDescription> obsVars) {
 		try (CloseableIterator<VariantContext> iter = vcfReader.query(obsVC.getContig(), obsVC.getStart(),
 				obsVC.getEnd())) {
 			// Fetch all overlapping and matching genotypes from database and pair them with the correct allele from vc.
@@ -60,9 +85,10 @@ public abstract class AbstractDBAnnotationDriver<RecordType> implements DBAnnota
 			List<GenotypeMatch> positionOverlaps = new ArrayList<>();
 			while (iter.hasNext()) {
 				final VariantContext dbVC = iter.next();
-				genotypeMatches.addAll(matcher.matchGenotypes(obsVC, dbVC));
+				final List<VariantDescription> dbVars = matcher.buildVariantDescriptions(dbVC);
+				genotypeMatches.addAll(matcher.matchGenotypes(obsVC, obsVars, dbVC, dbVars));
 				if (options.isReportOverlapping() || options.isReportOverlappingAsMatching())
-					positionOverlaps.addAll(matcher.positionOverlaps(obsVC, dbVC));
+					positionOverlaps.addAll(matcher.positionOverlaps(obsVC, obsVars, dbVC, dbVars));
 			}
 
 			// Pick best dbSNP record for each alternative allele
@@ -74,11 +100,11 @@ public abstract class AbstractDBAnnotationDriver<RecordType> implements DBAnnota
 
 			// Use these records to annotate the variant call in obsVC (record-wise but also per alternative allele)
 			if (options.isReportOverlappingAsMatching())
-				return annotateWithDBRecords(obsVC, dbRecordsOverlap, emptyMap);
+				return builder -> annotateWithDBRecords(obsVC, dbRecordsOverlap, emptyMap, builder);
 			else if (options.isReportOverlapping())
-				return annotateWithDBRecords(obsVC, dbRecordsMatch, dbRecordsOverlap);
+				return builder -> annotateWithDBRecords(obsVC, dbRecordsMatch, dbRecordsOverlap, builder);
 			else
-				return annotateWithDBRecords(obsVC, dbRecordsMatch, emptyMap);
+				return builder -> annotateWithDBRecords(obsVC, dbRecordsMatch, emptyMap, builder);
 		}
 	}
 
@@ -134,9 +160,11 @@ public abstract class AbstractDBAnnotationDriver<RecordType> implements DBAnnota
 	 *            Map from alternative allele index to annotating <code>RecordType</code> with matching allele
 	 * @param dbRecordOverlaps
 	 *            Map from alternative allele index to annotating <code>RecordType</code> with overlapping positions
+	 * @param builder
+	 *            {@link VariantContextBuilder} for <code>vc</code> to write the annotations to
 	 */
-	protected abstract VariantContext annotateWithDBRecords(VariantContext vc,
+	protected abstract void annotateWithDBRecords(VariantContext vc,
 			HashMap<Integer, AnnotatingRecord<RecordType>> dbRecordMatches,
-			HashMap<Integer, AnnotatingRecord<RecordType>> dbRecordOverlaps);
+			HashMap<Integer, AnnotatingRecord<RecordType>> dbRecordOverlaps, VariantContextBuilder builder);
 
 }
\ No newline at end of file
@@ -42,11 +42,26 @@ public final class AlleleMatcher {
 	 * @return {@link Collection} of {@link GenotypeMatch}es for the two variants
 	 */
 	public Collection<GenotypeMatch> matchGenotypes(VariantContext obsVC, VariantContext dbVC) {
-		List<GenotypeMatch> result = new ArrayList<>();
-
 		// Get normalized description of all alternative observed and database alleles
-		Collection<VariantDescription> obsVars = ctxToVariants(obsVC);
-		Collection<VariantDescription> dbVars = ctxToVariants(dbVC);
+		return matchGenotypes(obsVC, buildVariantDescriptions(obsVC), dbVC, buildVariantDescriptions(dbVC));
+	}
+
+	/**
+	 * Match genotypes of two {@link VariantContext}s with the descriptions of their alleles built before
+	 * 
+	 * @param obsVC
+	 *            {@link VariantContext} describing the observed variant
+	 * @param obsVars
+	 *            result of {@link #buildVariantDescriptions} for <code>obsVC</code>
+	 * @param dbVC
+	 *            {@link VariantContext} describing the database variant
+	 * @param dbVars
+	 *            result of {@link #buildVariantDescriptions} for <code>dbVC</code>
+	 * @return {@link Collection} of {@link GenotypeMatch}es for the two variants
+	 */
+	public Collection<GenotypeMatch> matchGenotypes(VariantContext obsVC, List<VariantDescription> obsVars,
+			VariantContext dbVC, List<VariantDescription> dbVars) {
+		List<GenotypeMatch> result = new ArrayList<>();
 
 		int i = 1; // excludes reference allele
 		for (VariantDescription obsVar : obsVars) {
@@ -76,11 +91,27 @@ public final class AlleleMatcher {
 	 * @return {@link Collection} of {@link GenotypeMatch}es for the two variants
 	 */
 	public Collection<GenotypeMatch> positionOverlaps(VariantContext obsVC, VariantContext dbVC) {
-		List<GenotypeMatch> result = new ArrayList<>();
-
 		// Get normalized description of all alternative observed and database alleles
-		Collection<VariantDescription> obsVars = ctxToVariants(obsVC);
-		Collection<VariantDescription> dbVars = ctxToVariants(dbVC);
+		return positionOverlaps(obsVC, buildVariantDescriptions(obsVC), dbVC, buildVariantDescriptions(dbVC));
+	}
+
+	/**
+	 * Pair genotypes of two {@link VariantContext}s based on their position, with the descriptions of their alleles
+	 * built before
+	 * 
+	 * @param obsVC
+	 *            {@link VariantContext} describing the observed variant
+	 * @param obsVars
+	 *            result of {@link #buildVariantDescriptions} for <code>obsVC</code>
+	 * @param dbVC
+	 *            {@link VariantContext} describing the database variant
+	 * @param dbVars
+	 *            result of {@link #buildVariantDescriptions} for <code>dbVC</code>
+	 * @return {@link Collection} of {@link GenotypeMatch}es for the two variants
+	 */
+	public Collection<GenotypeMatch> positionOverlaps(VariantContext obsVC, List<VariantDescription> obsVars,
+			VariantContext dbVC, List<VariantDescription> dbVars) {
+		List<GenotypeMatch> result = new ArrayList<>();
 
 		int i = 1; // excludes reference allele
 		for (VariantDescription obsVar : obsVars) {
@@ -97,11 +128,40 @@ public final class AlleleMatcher {
 		return result;
 	}
 
-	private Collection<VariantDescription> ctxToVariants(VariantContext vc) {
+	/**
+	 * Build the descriptions of the alternative alleles of a {@link VariantContext} for matching
+	 *
+	 * The result for an observed variant can be reused for matching against multiple database variants.
+	 *
+	 * @param vc
+	 *            the {@link VariantContext} to describe
+	 * @return {@link VariantDescription} for each alternative allele
+	 */
+	public List<VariantDescription> buildVariantDescriptions(VariantContext vc) {
+		List<String> alts = new ArrayList<>();
+		for (int i = 1; i < vc.getNAlleles(); ++i)
+			alts.add(vc.getAlleles().get(i).getBaseString());
+		return buildVariantDescriptions(vc.getContig(), vc.getStart() - 1, vc.getAlleles().get(0).getBaseString(),
+				alts);
+	}
+
+	/**
+	 * Build the descriptions of alternative alleles for matching, e.g., of a record from a tabular file
+	 *
+	 * @param contig
+	 *            name of the contig
+	 * @param pos
+	 *            0-based position of the first reference base
+	 * @param ref
+	 *            the reference allele
+	 * @param alts
+	 *            the alternative alleles
+	 * @return {@link VariantDescription} for each alternative allele
+	 */
+	public List<VariantDescription> buildVariantDescriptions(String contig, int pos, String ref, List<String> alts) {
 		List<VariantDescription> vars = new ArrayList<>();
-		for (int i = 1; i < vc.getNAlleles(); ++i) {
-			VariantDescription vd = new VariantDescription(vc.getContig(), vc.getStart() - 1,
-					vc.getAlleles().get(0).getBaseString(), vc.getAlleles().get(i).getBaseString());
+		for (String alt : alts) {
+			VariantDescription vd = new VariantDescription(contig, pos, ref, alt);
 			VariantDescription nd = normalizer.normalizeVariant(vd);
 			if (nd.getRef().isEmpty()) // is insertion
 				nd = normalizer.normalizeInsertion(vd);
@@ -1,6 +1,10 @@
 package de.charite.compbio.jannovar.vardbs.base;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 
 /**
  * Interface for annotation drivers by variant databases.
@@ -26,4 +30,18 @@ public interface DBAnnotationDriver {
 	 */
 	public VariantContext annotateVariantContext(VariantContext vc);
 
+	/**
+	 * Query the database for the variants in <code>obsVC</code>
+	 *
+	 * The database is queried right away, the returned update can be applied later, e.g., together with the updates
+	 * from other databases. A driver must only be used by one thread at a time.
+	 *
+	 * @param obsVC
+	 *            {@link VariantContext} to annotate
+	 * @param obsVars
+	 *            the alternative alleles of <code>obsVC</code>, from {@link AlleleMatcher#buildVariantDescriptions}
+	 * @return update of the INFO fields (and IDs) to apply to a {@link VariantContextBuilder} for <code>obsVC</code>
+	 */
+	public Consumer<VariantContextBuilder> queryDatabase(VariantContext obsVC, List<VariantDescription> obsVars);
+
 }
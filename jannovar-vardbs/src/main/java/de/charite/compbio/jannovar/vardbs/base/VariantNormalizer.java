@@ -79,7 +79,10 @@ public final class VariantNormalizer {
 			}
 			// Extend alleles to the left if there is an empty allele
 			if (ref.length() == 0 || alt.length() == 0) {
-				char extension = (char) fai.getSubsequenceAt(desc.getChrom(), pos, pos).getBases()[0];
+				final char extension;
+				synchronized (fai) { // the FASTA file is shared between threads by the database annotators
+					extension = (char) fai.getSubsequenceAt(desc.getChrom(), pos, pos).getBases()[0];
+				}
 				ref = extension + ref;
 				alt = extension + alt;
 				pos -= 1;
@@ -8,6 +8,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 
 import de.charite.compbio.jannovar.vardbs.base.AbstractDBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
 import de.charite.compbio.jannovar.vardbs.base.AnnotatingRecord;
 import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
 import de.charite.compbio.jannovar.vardbs.base.GenotypeMatch;
@@ -38,7 +39,22 @@ final public class DBSNPAnnotationDriver extends AbstractDBAnnotationDriver<DBSN
 	 */
 	public DBSNPAnnotationDriver(String vcfPath, String fastaPath, DBAnnotationOptions options)
 			throws JannovarVarDBException {
-		super(vcfPath, fastaPath, options, new DBSNPVariantContextToRecordConverter());
+		this(vcfPath, new AlleleMatcher(fastaPath), options);
+	}
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed, dbSNP VCF file
+	 * 
+	 * @param vcfPath
+	 *            Path to VCF file with dbSNP.
+	 * @param matcher
+	 *            {@link AlleleMatcher} to use, can be shared between drivers
+	 * @throws JannovarVarDBException
+	 *             on incompatible dbSNP version
+	 */
+	public DBSNPAnnotationDriver(String vcfPath, AlleleMatcher matcher, DBAnnotationOptions options)
+			throws JannovarVarDBException {
+		super(vcfPath, matcher, options, new DBSNPVariantContextToRecordConverter());
 
 		this.dbSNPInfo = new DBSNPInfoFactory().build(vcfReader.getFileHeader());
 		if (dbSNPInfo.dbSNPBuildID != 147)
@@ -47,11 +63,9 @@ final public class DBSNPAnnotationDriver extends AbstractDBAnnotationDriver<DBSN
 	}
 
 	@Override
-	protected VariantContext annotateWithDBRecords(VariantContext vc,
+	protected void annotateWithDBRecords(VariantContext vc,
 			HashMap<Integer, AnnotatingRecord<DBSNPRecord>> matchRecords,
-			HashMap<Integer, AnnotatingRecord<DBSNPRecord>> overlapRecords) {
-		VariantContextBuilder builder = new VariantContextBuilder(vc);
-
+			HashMap<Integer, AnnotatingRecord<DBSNPRecord>> overlapRecords, VariantContextBuilder builder) {
 		annotateIDs(vc, matchRecords, builder);
 
 		// Annotate with records with matching allele
@@ -69,8 +83,6 @@ final public class DBSNPAnnotationDriver extends AbstractDBAnnotationDriver<DBSN
 			annotateInfoG5A(vc, "OVL_", overlapRecords, builder);
 			annotateInfoIDs(vc, "OVL_", overlapRecords, builder);
 		}
-
-		return builder.make();
 	}
 
 	private void annotateInfoG5A(VariantContext vc, String infix,
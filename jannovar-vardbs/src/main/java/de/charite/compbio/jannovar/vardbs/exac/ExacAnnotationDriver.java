@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import de.charite.compbio.jannovar.vardbs.base.AbstractDBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
 import de.charite.compbio.jannovar.vardbs.base.AnnotatingRecord;
 import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
 import de.charite.compbio.jannovar.vardbs.base.GenotypeMatch;
@@ -30,6 +31,10 @@ public class ExacAnnotationDriver extends AbstractDBAnnotationDriver<ExacRecord>
 		super(vcfPath, fastaPath, options, new ExacVariantContextToRecordConverter());
 	}
 
+	public ExacAnnotationDriver(String vcfPath, AlleleMatcher matcher, DBAnnotationOptions options) {
+		super(vcfPath, matcher, options, new ExacVariantContextToRecordConverter());
+	}
+
 	@Override
 	public VCFHeaderExtender constructVCFHeaderExtender() {
 		return new ExacVCFHeaderExtender(options);
@@ -61,13 +66,11 @@ public class ExacAnnotationDriver extends AbstractDBAnnotationDriver<ExacRecord>
 	}
 
 	@Override
-	protected VariantContext annotateWithDBRecords(VariantContext vc,
+	protected void annotateWithDBRecords(VariantContext vc,
 			HashMap<Integer, AnnotatingRecord<ExacRecord>> matchRecords,
-			HashMap<Integer, AnnotatingRecord<ExacRecord>> overlapRecords) {
+			HashMap<Integer, AnnotatingRecord<ExacRecord>> overlapRecords, VariantContextBuilder builder) {
 		if (matchRecords.isEmpty())
-			return vc;
-
-		VariantContextBuilder builder = new VariantContextBuilder(vc);
+			return;
 
 		// Annotate with records with matching allele
 		annotateAlleleCounts(vc, "", matchRecords, builder);
@@ -88,8 +91,6 @@ public class ExacAnnotationDriver extends AbstractDBAnnotationDriver<ExacRecord>
 			annotateFrequencies(vc, "OVL_", overlapRecords, builder);
 			annotateBestAF(vc, "OVL_", overlapRecords, builder);
 		}
-
-		return builder.make();
 	}
 
 	private void annotateBestAF(VariantContext vc, String infix, HashMap<Integer, AnnotatingRecord<ExacRecord>> records,
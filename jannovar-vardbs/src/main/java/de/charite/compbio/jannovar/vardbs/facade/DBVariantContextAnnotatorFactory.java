@@ -4,6 +4,10 @@ import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
 import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
 import de.charite.compbio.jannovar.vardbs.dbsnp.DBSNPAnnotationDriver;
 import de.charite.compbio.jannovar.vardbs.exac.ExacAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.generic_vcf.GenericVCFAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_vcf.GenericVCFAnnotationOptions;
 import de.charite.compbio.jannovar.vardbs.uk10k.UK10KAnnotationDriver;
 import htsjdk.variant.variantcontext.VariantContext;
 
@@ -68,4 +72,42 @@ public class DBVariantContextAnnotatorFactory {
 		return new DBVariantContextAnnotator(new UK10KAnnotationDriver(vcfDBPath, fastaRefPath, options), options);
 	}
 
+	/**
+	 * Construct {@link VariantContext} annotator factory for INFO fields from an arbitrary VCF file.
+	 * 
+	 * @param vcfDBPath
+	 *            Path to gzip-compressed, normalized and tbi-indexed VCF file to use for the annotation
+	 * @param fastaRefPath
+	 *            Path to reference FASTA file
+	 * @param options
+	 *            Configuration for the variant context annotaiton, including the INFO fields to copy
+	 * @return Preconfigured {@link DBVariantContextAnnotator} object
+	 * @throws JannovarVarDBException
+	 *             on problems loading the resources
+	 */
+	public DBVariantContextAnnotator constructGenericVCF(String vcfDBPath, String fastaRefPath,
+			GenericVCFAnnotationOptions options) throws JannovarVarDBException {
+		return new DBVariantContextAnnotator(new GenericVCFAnnotationDriver(vcfDBPath, fastaRefPath, options),
+				options);
+	}
+
+	/**
+	 * Construct {@link VariantContext} annotator factory for columns from a tabular file (e.g., a BED file).
+	 * 
+	 * @param tsvPath
+	 *            Path to bgzip-compressed and tabix-indexed tabular file to use for the annotation
+	 * @param fastaRefPath
+	 *            Path to reference FASTA file
+	 * @param options
+	 *            Configuration for the variant context annotaiton, including the columns to use
+	 * @return Preconfigured {@link DBVariantContextAnnotator} object
+	 * @throws JannovarVarDBException
+	 *             on problems loading the resources
+	 */
+	public DBVariantContextAnnotator constructGenericTSV(String tsvPath, String fastaRefPath,
+			GenericTSVAnnotationOptions options) throws JannovarVarDBException {
+		return new DBVariantContextAnnotator(new GenericTSVAnnotationDriver(tsvPath, fastaRefPath, options),
+				options);
+	}
+
 }
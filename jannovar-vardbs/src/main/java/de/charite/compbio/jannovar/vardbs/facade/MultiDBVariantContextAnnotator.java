@@ -0,0 +1,137 @@
+package de.charite.compbio.jannovar.vardbs.facade;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.base.VariantDescription;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Facade class for annotating {@link VariantContext} objects using multiple databases in one step
+ *
+ * The alleles of each observed variant are described and normalized once, then all databases are queried (in parallel
+ * if configured) and their INFO updates are applied in a single {@link VariantContextBuilder} pass. All databases
+ * share one {@link AlleleMatcher} and thus one reference FASTA file.
+ *
+ * Use {@link MultiDBVariantContextAnnotatorBuilder} for construction. Objects of this class must only be used from
+ * one thread.
+ */
+public final class MultiDBVariantContextAnnotator implements Closeable {
+
+	/** Helper for describing and matching alleles, shared by the drivers */
+	private final AlleleMatcher matcher;
+	/** The DB annotation drivers to use, in the order of annotation */
+	private final ImmutableList<DBAnnotationDriver> drivers;
+	/** The options of each driver */
+	private final ImmutableList<DBAnnotationOptions> options;
+	/** Thread pool for querying the databases, <code>null</code> for querying in the calling thread */
+	private final ExecutorService executor;
+
+	/**
+	 * Initialize the annotator, use {@link MultiDBVariantContextAnnotatorBuilder} instead
+	 *
+	 * @param matcher
+	 *            the {@link AlleleMatcher} used by all <code>drivers</code>
+	 * @param drivers
+	 *            the DB annotation drivers to use
+	 * @param options
+	 *            the options of each driver
+	 * @param numThreads
+	 *            number of threads for querying the databases
+	 */
+	MultiDBVariantContextAnnotator(AlleleMatcher matcher, ImmutableList<DBAnnotationDriver> drivers,
+			ImmutableList<DBAnnotationOptions> options, int numThreads) {
+		this.matcher = matcher;
+		this.drivers = drivers;
+		this.options = options;
+		// the calling thread queries the first database
+		final int poolSize = Math.min(numThreads, drivers.size()) - 1;
+		if (poolSize > 0)
+			this.executor = Executors.newFixedThreadPool(poolSize, r -> {
+				Thread thread = new Thread(r, "db-annotation");
+				thread.setDaemon(true);
+				return thread;
+			});
+		else
+			this.executor = null;
+	}
+
+	/**
+	 * @return number of databases used for the annotation
+	 */
+	public int getNumDatabases() {
+		return drivers.size();
+	}
+
+	/**
+	 * Extend VCF header with the header lines of all databases
+	 *
+	 * @param vcfHeader
+	 *            Extend VCF header
+	 * @return The modified <code>vcfHeader</code>
+	 */
+	public VCFHeader extendHeader(VCFHeader vcfHeader) {
+		for (int i = 0; i < drivers.size(); ++i)
+			drivers.get(i).constructVCFHeaderExtender().addHeaders(vcfHeader, options.get(i).getVCFIdentifierPrefix());
+		return vcfHeader;
+	}
+
+	/**
+	 * Annotate one {@link VariantContext} with information from all databases
+	 *
+	 * @param vc
+	 *            {@link VariantContext} to annotate
+	 * @return the updated {@link VariantContext}
+	 */
+	public VariantContext annotateVariantContext(VariantContext vc) {
+		final List<VariantDescription> obsVars = matcher.buildVariantDescriptions(vc);
+
+		List<Consumer<VariantContextBuilder>> updates = new ArrayList<>(drivers.size());
+		if (executor == null) {
+			for (DBAnnotationDriver driver : drivers)
+				updates.add(driver.queryDatabase(vc, obsVars));
+		} else {
+			List<Future<Consumer<VariantContextBuilder>>> futures = new ArrayList<>(drivers.size() - 1);
+			for (DBAnnotationDriver driver : drivers.subList(1, drivers.size()))
+				futures.add(executor.submit(() -> driver.queryDatabase(vc, obsVars)));
+			updates.add(drivers.get(0).queryDatabase(vc, obsVars));
+			try {
+				for (Future<Consumer<VariantContextBuilder>> future : futures)
+					updates.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UncheckedJannovarException("Interrupted while querying databases", e);
+			} catch (ExecutionException e) {
+				throw new UncheckedJannovarException("Problem querying databases", e.getCause());
+			}
+		}
+
+		// apply all updates in the order of the databases
+		VariantContextBuilder builder = new VariantContextBuilder(vc);
+		for (Consumer<VariantContextBuilder> update : updates)
+			update.accept(builder);
+		return builder.make();
+	}
+
+	/** Stop the threads for querying the databases */
+	@Override
+	public void close() {
+		if (executor != null)
+			executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,149 @@
+package de.charite.compbio.jannovar.vardbs.facade;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import de.charite.compbio.jannovar.vardbs.dbsnp.DBSNPAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.exac.ExacAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_tsv.GenericTSVAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.generic_vcf.GenericVCFAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.generic_vcf.GenericVCFAnnotationOptions;
+import de.charite.compbio.jannovar.vardbs.uk10k.UK10KAnnotationDriver;
+
+/**
+ * Builder for {@link MultiDBVariantContextAnnotator} objects
+ *
+ * The databases are used for the annotation in the order in which they are added.
+ */
+public class MultiDBVariantContextAnnotatorBuilder {
+
+	/** Helper for matching alleles, shared by all databases */
+	private final AlleleMatcher matcher;
+	/** The DB annotation drivers added so far */
+	private final ImmutableList.Builder<DBAnnotationDriver> drivers = ImmutableList.builder();
+	/** The options of the drivers added so far */
+	private final ImmutableList.Builder<DBAnnotationOptions> options = ImmutableList.builder();
+	/** Number of threads for querying the databases */
+	private int numThreads = 1;
+
+	/**
+	 * Initialize the builder
+	 *
+	 * @param fastaRefPath
+	 *            Path to reference FASTA file
+	 * @throws JannovarVarDBException
+	 *             on problems loading the reference FASTA/FAI file
+	 */
+	public MultiDBVariantContextAnnotatorBuilder(String fastaRefPath) throws JannovarVarDBException {
+		this.matcher = new AlleleMatcher(fastaRefPath);
+	}
+
+	/**
+	 * Add dbSNP for the annotation
+	 *
+	 * @param vcfDBPath
+	 *            Path to gzip-compressed, normalized and tbi-indexed dbSNP file to use for the annotation
+	 * @param options
+	 *            Configuration for the variant context annotaiton
+	 * @return <code>this</code>
+	 * @throws JannovarVarDBException
+	 *             on problems loading the resources
+	 */
+	public MultiDBVariantContextAnnotatorBuilder addDBSNP(String vcfDBPath, DBAnnotationOptions options)
+			throws JannovarVarDBException {
+		return add(new DBSNPAnnotationDriver(vcfDBPath, matcher, options), options);
+	}
+
+	/**
+	 * Add ExAC for the annotation
+	 *
+	 * @param vcfDBPath
+	 *            Path to gzip-compressed, normalized and tbi-indexed ExAC file to use for the annotation
+	 * @param options
+	 *            Configuration for the variant context annotaiton
+	 * @return <code>this</code>
+	 */
+	public MultiDBVariantContextAnnotatorBuilder addExac(String vcfDBPath, DBAnnotationOptions options) {
+		return add(new ExacAnnotationDriver(vcfDBPath, matcher, options), options);
+	}
+
+	/**
+	 * Add UK10K for the annotation
+	 *
+	 * @param vcfDBPath
+	 *            Path to gzip-compressed, normalized and tbi-indexed UK10K file to use for the annotation
+	 * @param options
+	 *            Configuration for the variant context annotaiton
+	 * @return <code>this</code>
+	 */
+	public MultiDBVariantContextAnnotatorBuilder addUK10K(String vcfDBPath, DBAnnotationOptions options) {
+		return add(new UK10KAnnotationDriver(vcfDBPath, matcher, options), options);
+	}
+
+	/**
+	 * Add arbitrary VCF file for the annotation
+	 *
+	 * @param vcfDBPath
+	 *            Path to gzip-compressed, normalized and tbi-indexed VCF file to use for the annotation
+	 * @param options
+	 *            Configuration for the variant context annotation, including the INFO fields to copy
+	 * @return <code>this</code>
+	 * @throws JannovarVarDBException
+	 *             if an INFO field is not defined in the VCF file
+	 */
+	public MultiDBVariantContextAnnotatorBuilder addGenericVCF(String vcfDBPath, GenericVCFAnnotationOptions options)
+			throws JannovarVarDBException {
+		return add(new GenericVCFAnnotationDriver(vcfDBPath, matcher, options), options);
+	}
+
+	/**
+	 * Add tabular file (e.g., BED file) for the annotation
+	 *
+	 * @param tsvPath
+	 *            Path to bgzip-compressed and tabix-indexed tabular file to use for the annotation
+	 * @param options
+	 *            Configuration for the variant context annotation, including the columns to use
+	 * @return <code>this</code>
+	 * @throws JannovarVarDBException
+	 *             on problems opening the file
+	 */
+	public MultiDBVariantContextAnnotatorBuilder addGenericTSV(String tsvPath, GenericTSVAnnotationOptions options)
+			throws JannovarVarDBException {
+		return add(new GenericTSVAnnotationDriver(tsvPath, matcher, options), options);
+	}
+
+	private MultiDBVariantContextAnnotatorBuilder add(DBAnnotationDriver driver, DBAnnotationOptions options) {
+		this.drivers.add(driver);
+		this.options.add(options);
+		return this;
+	}
+
+	/**
+	 * @return number of threads for querying the databases
+	 */
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/**
+	 * @param numThreads
+	 *            number of threads for querying the databases, at most one thread per database is used
+	 * @return <code>this</code>
+	 */
+	public MultiDBVariantContextAnnotatorBuilder setNumThreads(int numThreads) {
+		this.numThreads = numThreads;
+		return this;
+	}
+
+	/**
+	 * @return {@link MultiDBVariantContextAnnotator} for the added databases
+	 */
+	public MultiDBVariantContextAnnotator build() {
+		return new MultiDBVariantContextAnnotator(matcher, drivers.build(), options.build(), numThreads);
+	}
+
+}
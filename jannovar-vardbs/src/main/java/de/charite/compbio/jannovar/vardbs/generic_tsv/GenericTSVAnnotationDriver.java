@@ -0,0 +1,235 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.UncheckedJannovarException;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
+import de.charite.compbio.jannovar.vardbs.base.AnnotatingRecord;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import de.charite.compbio.jannovar.vardbs.base.VCFHeaderExtender;
+import de.charite.compbio.jannovar.vardbs.base.VariantDescription;
+import htsjdk.tribble.readers.TabixReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+
+/**
+ * Annotation driver class for annotation with columns of a bgzip-compressed and tabix-indexed tabular file
+ *
+ * Tabular files with reference and alternative alleles are matched to the observed alleles in the same way as VCF
+ * databases, using the first matching record for each allele. For region files (e.g., BED tracks), the distinct
+ * values of all regions overlapping with a variant are used.
+ */
+public class GenericTSVAnnotationDriver implements DBAnnotationDriver {
+
+	/** Value to use for alleles without matching database allele */
+	private static final String MISSING_VALUE = ".";
+
+	/** Path to tabular file */
+	private final String tsvPath;
+	/** Helper objects for matching alleles */
+	private final AlleleMatcher matcher;
+	/** Configuration */
+	private final GenericTSVAnnotationOptions options;
+	/** Reader for querying the tabular file */
+	private final TabixReader tabixReader;
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed, tabix-indexed tabular file
+	 *
+	 * @param tsvPath
+	 *            Path to the tabular file
+	 * @param fastaPath
+	 *            FAI-indexed FASTA file with reference
+	 * @param options
+	 *            configuration, including the columns to use
+	 * @throws JannovarVarDBException
+	 *             on problems loading the reference FASTA/FAI file or opening the tabular file
+	 */
+	public GenericTSVAnnotationDriver(String tsvPath, String fastaPath, GenericTSVAnnotationOptions options)
+			throws JannovarVarDBException {
+		this(tsvPath, new AlleleMatcher(fastaPath), options);
+	}
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed, tabix-indexed tabular file
+	 *
+	 * @param tsvPath
+	 *            Path to the tabular file
+	 * @param matcher
+	 *            {@link AlleleMatcher} to use, can be shared between drivers
+	 * @param options
+	 *            configuration, including the columns to use
+	 * @throws JannovarVarDBException
+	 *             on problems opening the tabular file or its tabix index
+	 */
+	public GenericTSVAnnotationDriver(String tsvPath, AlleleMatcher matcher, GenericTSVAnnotationOptions options)
+			throws JannovarVarDBException {
+		this.tsvPath = tsvPath;
+		this.matcher = matcher;
+		this.options = options;
+		try {
+			this.tabixReader = new TabixReader(tsvPath);
+		} catch (IOException e) {
+			throw new JannovarVarDBException("Could not open tabix-indexed file " + tsvPath, e);
+		}
+	}
+
+	@Override
+	public VCFHeaderExtender constructVCFHeaderExtender() {
+		return new GenericTSVHeaderExtender(options);
+	}
+
+	@Override
+	public VariantContext annotateVariantContext(VariantContext obsVC) {
+		VariantContextBuilder builder = new VariantContextBuilder(obsVC);
+		queryDatabase(obsVC, matcher.buildVariantDescriptions(obsVC)).accept(builder);
+		return builder.make();
+	}
+
+	@Override
+	public Consumer<VariantContextBuilder> queryDatabase(VariantContext obsVC, List<VariantDescription> obsVars) {
+		final List<GenericTSVRecord> records = fetchRecords(obsVC);
+		if (!options.isMatchAlleles())
+			return builder -> annotateWithRegions(records, builder);
+
+		// Pick first matching and overlapping record for each alternative allele
+		HashMap<Integer, AnnotatingRecord<GenericTSVRecord>> dbRecordsMatch = new HashMap<>();
+		HashMap<Integer, AnnotatingRecord<GenericTSVRecord>> dbRecordsOverlap = new HashMap<>();
+		for (GenericTSVRecord record : records) {
+			final List<VariantDescription> dbVars = matcher.buildVariantDescriptions(record.getContig(),
+					record.getBegin(), record.getRef(), record.getAlts());
+			int i = 1; // excludes reference allele
+			for (VariantDescription obsVar : obsVars) {
+				int j = 1; // excludes reference allele
+				for (VariantDescription dbVar : dbVars) {
+					if (dbVar.equals(obsVar))
+						dbRecordsMatch.putIfAbsent(i, new AnnotatingRecord<>(record, j));
+					if (dbVar.overlapsWith(obsVar))
+						dbRecordsOverlap.putIfAbsent(i, new AnnotatingRecord<>(record, j));
+					j += 1;
+				}
+				i += 1;
+			}
+		}
+
+		// Use these records to annotate the variant call in obsVC (per alternative allele)
+		if (options.isReportOverlappingAsMatching()) {
+			return builder -> annotateWithAlleles(obsVC, "", dbRecordsOverlap, builder);
+		} else if (options.isReportOverlapping()) {
+			return builder -> {
+				annotateWithAlleles(obsVC, "", dbRecordsMatch, builder);
+				annotateWithAlleles(obsVC, "OVL_", dbRecordsOverlap, builder);
+			};
+		} else {
+			return builder -> annotateWithAlleles(obsVC, "", dbRecordsMatch, builder);
+		}
+	}
+
+	/**
+	 * Fetch the records overlapping with <code>obsVC</code> from the tabular file
+	 */
+	private List<GenericTSVRecord> fetchRecords(VariantContext obsVC) {
+		List<GenericTSVRecord> result = new ArrayList<>();
+		final int tid = tabixReader.chr2tid(obsVC.getContig());
+		if (tid < 0)
+			return result; // contig not in file
+		try {
+			TabixReader.Iterator iter = tabixReader.query(tid, obsVC.getStart() - 1, obsVC.getEnd());
+			String line;
+			while ((line = iter.next()) != null)
+				result.add(parseRecord(line));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Problem reading from " + tsvPath, e);
+		}
+		return result;
+	}
+
+	/**
+	 * Parse tabular file line into {@link GenericTSVRecord}
+	 */
+	private GenericTSVRecord parseRecord(String line) {
+		final String[] fields = line.split("\t");
+		try {
+			final String contig = fields[options.getContigColumnIndex() - 1];
+			int begin = Integer.parseInt(fields[options.getBeginColumnIndex() - 1]);
+			if (options.isOneBasedPositions())
+				begin -= 1;
+
+			ImmutableList.Builder<String> values = ImmutableList.builder();
+			for (GenericTSVValueColumnDescription column : options.getValueColumns()) {
+				final int idx = column.getColumnIndex() - 1;
+				if (idx < fields.length && !fields[idx].isEmpty())
+					values.add(fields[idx]);
+				else
+					values.add(MISSING_VALUE);
+			}
+
+			if (options.isMatchAlleles()) {
+				final String ref = fields[options.getRefAlleleColumnIndex() - 1];
+				final ImmutableList<String> alts = ImmutableList
+						.copyOf(fields[options.getAltAlleleColumnIndex() - 1].split(","));
+				return new GenericTSVRecord(contig, begin, begin + ref.length(), ref, alts, values.build());
+			} else {
+				final int end = Integer.parseInt(fields[options.getEndColumnIndex() - 1]);
+				return new GenericTSVRecord(contig, begin, end, null, ImmutableList.of(), values.build());
+			}
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			throw new UncheckedJannovarException("Invalid line in " + tsvPath + ": " + line, e);
+		}
+	}
+
+	/**
+	 * Annotate with the values of the records matching each alternative allele
+	 */
+	private void annotateWithAlleles(VariantContext vc, String infix,
+			HashMap<Integer, AnnotatingRecord<GenericTSVRecord>> records, VariantContextBuilder builder) {
+		if (records.isEmpty())
+			return;
+
+		for (int k = 0; k < options.getValueColumns().size(); ++k) {
+			ArrayList<String> values = new ArrayList<>();
+			for (int i = 1; i < vc.getNAlleles(); ++i) {
+				if (records.get(i) == null)
+					values.add(MISSING_VALUE);
+				else
+					values.add(records.get(i).getRecord().getValues().get(k));
+			}
+
+			if (values.stream().allMatch(x -> MISSING_VALUE.equals(x)))
+				continue; // do not set list of missing values
+			final String attrID = options.getVCFIdentifierPrefix() + infix
+					+ options.getValueColumns().get(k).getFieldName();
+			builder.attribute(attrID, values);
+		}
+	}
+
+	/**
+	 * Annotate with the distinct values of all overlapping regions
+	 */
+	private void annotateWithRegions(List<GenericTSVRecord> records, VariantContextBuilder builder) {
+		if (records.isEmpty())
+			return;
+
+		for (int k = 0; k < options.getValueColumns().size(); ++k) {
+			LinkedHashSet<String> values = new LinkedHashSet<>();
+			for (GenericTSVRecord record : records)
+				if (!MISSING_VALUE.equals(record.getValues().get(k)))
+					values.add(record.getValues().get(k));
+
+			if (values.isEmpty())
+				continue;
+			final String attrID = options.getVCFIdentifierPrefix() + options.getValueColumns().get(k).getFieldName();
+			builder.attribute(attrID, new ArrayList<>(values));
+		}
+	}
+
+}
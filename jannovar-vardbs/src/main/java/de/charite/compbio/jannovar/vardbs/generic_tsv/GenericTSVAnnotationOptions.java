@@ -0,0 +1,151 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
+
+/**
+ * Configuration for annotating variants with columns from a bgzip-compressed and tabix-indexed tabular file
+ *
+ * If columns for the reference and alternative allele are given, the records are matched to the observed alleles
+ * like records from VCF files. Otherwise, the records describe regions (e.g., BED tracks) and the values of all
+ * regions overlapping with a variant are used for its annotation. All column indices are 1-based.
+ */
+public class GenericTSVAnnotationOptions extends DBAnnotationOptions {
+
+	/**
+	 * Create options for a BED file (contig, 0-based begin, and end in the first three columns)
+	 *
+	 * @param valueColumns
+	 *            the columns to use for the annotation
+	 * @return Default options for annotating with the regions from a BED file
+	 */
+	public static GenericTSVAnnotationOptions createBEDDefaults(List<GenericTSVValueColumnDescription> valueColumns) {
+		return new GenericTSVAnnotationOptions(true, false, "", MultipleMatchBehaviour.BEST_ONLY, 1, 2, 3, 0, 0,
+				false, valueColumns);
+	}
+
+	/**
+	 * Create options for a tabular file with one variant per line (1-based position, as in VCF)
+	 *
+	 * @param contigColumnIndex
+	 *            index of the contig column
+	 * @param posColumnIndex
+	 *            index of the position column
+	 * @param refAlleleColumnIndex
+	 *            index of the reference allele column
+	 * @param altAlleleColumnIndex
+	 *            index of the alternative allele column, may contain comma-separated alleles
+	 * @param valueColumns
+	 *            the columns to use for the annotation
+	 * @return Default options for annotating with the variants from a tabular file
+	 */
+	public static GenericTSVAnnotationOptions createVariantDefaults(int contigColumnIndex, int posColumnIndex,
+			int refAlleleColumnIndex, int altAlleleColumnIndex, List<GenericTSVValueColumnDescription> valueColumns) {
+		return new GenericTSVAnnotationOptions(true, false, "", MultipleMatchBehaviour.BEST_ONLY, contigColumnIndex,
+				posColumnIndex, posColumnIndex, refAlleleColumnIndex, altAlleleColumnIndex, true, valueColumns);
+	}
+
+	/** Index of the contig column */
+	private int contigColumnIndex;
+	/** Index of the begin position column */
+	private int beginColumnIndex;
+	/** Index of the end position column, ignored when matching alleles */
+	private int endColumnIndex;
+	/** Index of the reference allele column, 0 for region annotation */
+	private int refAlleleColumnIndex;
+	/** Index of the alternative allele column, 0 for region annotation */
+	private int altAlleleColumnIndex;
+	/** Whether the begin positions are 1-based (as in VCF) or 0-based (as in BED) */
+	private boolean oneBasedPositions;
+	/** The columns to use for the annotation */
+	private ImmutableList<GenericTSVValueColumnDescription> valueColumns;
+
+	public GenericTSVAnnotationOptions(boolean reportOverlapping, boolean reportOverlappingAsIdentical,
+			String identifierPrefix, MultipleMatchBehaviour multiMatchBehaviour, int contigColumnIndex,
+			int beginColumnIndex, int endColumnIndex, int refAlleleColumnIndex, int altAlleleColumnIndex,
+			boolean oneBasedPositions, List<GenericTSVValueColumnDescription> valueColumns) {
+		super(reportOverlapping, reportOverlappingAsIdentical, identifierPrefix, multiMatchBehaviour);
+		this.contigColumnIndex = contigColumnIndex;
+		this.beginColumnIndex = beginColumnIndex;
+		this.endColumnIndex = endColumnIndex;
+		this.refAlleleColumnIndex = refAlleleColumnIndex;
+		this.altAlleleColumnIndex = altAlleleColumnIndex;
+		this.oneBasedPositions = oneBasedPositions;
+		this.valueColumns = ImmutableList.copyOf(valueColumns);
+	}
+
+	/**
+	 * @return whether the records are matched to the observed alleles, otherwise they describe regions
+	 */
+	public boolean isMatchAlleles() {
+		return refAlleleColumnIndex > 0 && altAlleleColumnIndex > 0;
+	}
+
+	public int getContigColumnIndex() {
+		return contigColumnIndex;
+	}
+
+	public void setContigColumnIndex(int contigColumnIndex) {
+		this.contigColumnIndex = contigColumnIndex;
+	}
+
+	public int getBeginColumnIndex() {
+		return beginColumnIndex;
+	}
+
+	public void setBeginColumnIndex(int beginColumnIndex) {
+		this.beginColumnIndex = beginColumnIndex;
+	}
+
+	public int getEndColumnIndex() {
+		return endColumnIndex;
+	}
+
+	public void setEndColumnIndex(int endColumnIndex) {
+		this.endColumnIndex = endColumnIndex;
+	}
+
+	public int getRefAlleleColumnIndex() {
+		return refAlleleColumnIndex;
+	}
+
+	public void setRefAlleleColumnIndex(int refAlleleColumnIndex) {
+		this.refAlleleColumnIndex = refAlleleColumnIndex;
+	}
+
+	public int getAltAlleleColumnIndex() {
+		return altAlleleColumnIndex;
+	}
+
+	public void setAltAlleleColumnIndex(int altAlleleColumnIndex) {
+		this.altAlleleColumnIndex = altAlleleColumnIndex;
+	}
+
+	public boolean isOneBasedPositions() {
+		return oneBasedPositions;
+	}
+
+	public void setOneBasedPositions(boolean oneBasedPositions) {
+		this.oneBasedPositions = oneBasedPositions;
+	}
+
+	public ImmutableList<GenericTSVValueColumnDescription> getValueColumns() {
+		return valueColumns;
+	}
+
+	public void setValueColumns(List<GenericTSVValueColumnDescription> valueColumns) {
+		this.valueColumns = ImmutableList.copyOf(valueColumns);
+	}
+
+	@Override
+	public String toString() {
+		return "GenericTSVAnnotationOptions [contigColumnIndex=" + contigColumnIndex + ", beginColumnIndex="
+				+ beginColumnIndex + ", endColumnIndex=" + endColumnIndex + ", refAlleleColumnIndex="
+				+ refAlleleColumnIndex + ", altAlleleColumnIndex=" + altAlleleColumnIndex + ", oneBasedPositions="
+				+ oneBasedPositions + ", valueColumns=" + valueColumns + ", " + super.toString() + "]";
+	}
+
+}
@@ -0,0 +1,42 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import de.charite.compbio.jannovar.vardbs.base.VCFHeaderExtender;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+import htsjdk.variant.vcf.VCFInfoHeaderLine;
+
+/**
+ * Helper class for extending {@link VCFHeader}s for annotations from tabular files
+ */
+public class GenericTSVHeaderExtender extends VCFHeaderExtender {
+
+	public GenericTSVHeaderExtender(GenericTSVAnnotationOptions options) {
+		super(options);
+	}
+
+	@Override
+	public String getDefaultPrefix() {
+		return options.getVCFIdentifierPrefix();
+	}
+
+	@Override
+	public void addHeaders(VCFHeader header, String prefix) {
+		final GenericTSVAnnotationOptions tsvOptions = (GenericTSVAnnotationOptions) options;
+		if (!tsvOptions.isMatchAlleles()) {
+			addHeadersInfixes(header, prefix, "", VCFHeaderLineCount.UNBOUNDED, " (of all overlapping regions)");
+		} else {
+			addHeadersInfixes(header, prefix, "", VCFHeaderLineCount.A, "");
+			if (options.isReportOverlapping() && !options.isReportOverlappingAsMatching())
+				addHeadersInfixes(header, prefix, "OVL_", VCFHeaderLineCount.A,
+						" (requiring no genotype match, only position overlap)");
+		}
+	}
+
+	public void addHeadersInfixes(VCFHeader header, String prefix, String infix, VCFHeaderLineCount count,
+			String note) {
+		for (GenericTSVValueColumnDescription column : ((GenericTSVAnnotationOptions) options).getValueColumns())
+			header.addMetaDataLine(new VCFInfoHeaderLine(prefix + infix + column.getFieldName(), count,
+					column.getFieldType(), column.getFieldDescription() + note));
+	}
+
+}
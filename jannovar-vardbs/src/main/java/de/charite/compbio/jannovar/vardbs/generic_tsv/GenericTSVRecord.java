@@ -0,0 +1,63 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * One line of a tabular annotation file
+ */
+public final class GenericTSVRecord {
+
+	/** Name of the contig */
+	private final String contig;
+	/** 0-based begin position */
+	private final int begin;
+	/** 0-based end position (exclusive) */
+	private final int end;
+	/** Reference allele, <code>null</code> for regions */
+	private final String ref;
+	/** Alternative alleles, empty for regions */
+	private final ImmutableList<String> alts;
+	/** Values of the value columns, in the order of the configuration */
+	private final ImmutableList<String> values;
+
+	public GenericTSVRecord(String contig, int begin, int end, String ref, ImmutableList<String> alts,
+			ImmutableList<String> values) {
+		this.contig = contig;
+		this.begin = begin;
+		this.end = end;
+		this.ref = ref;
+		this.alts = alts;
+		this.values = values;
+	}
+
+	public String getContig() {
+		return contig;
+	}
+
+	public int getBegin() {
+		return begin;
+	}
+
+	public int getEnd() {
+		return end;
+	}
+
+	public String getRef() {
+		return ref;
+	}
+
+	public ImmutableList<String> getAlts() {
+		return alts;
+	}
+
+	public ImmutableList<String> getValues() {
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return "GenericTSVRecord [contig=" + contig + ", begin=" + begin + ", end=" + end + ", ref=" + ref + ", alts="
+				+ alts + ", values=" + values + "]";
+	}
+
+}
@@ -0,0 +1,61 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import htsjdk.variant.vcf.VCFHeaderLineType;
+
+/**
+ * Description of a value column in a tabular annotation file and the INFO field to write its values to
+ */
+public final class GenericTSVValueColumnDescription {
+
+	/** 1-based index of the column */
+	private final int columnIndex;
+	/** Name of the INFO field, without prefix */
+	private final String fieldName;
+	/** Type of the INFO field */
+	private final VCFHeaderLineType fieldType;
+	/** Description of the INFO field */
+	private final String fieldDescription;
+
+	public GenericTSVValueColumnDescription(int columnIndex, String fieldName, VCFHeaderLineType fieldType,
+			String fieldDescription) {
+		this.columnIndex = columnIndex;
+		this.fieldName = fieldName;
+		this.fieldType = fieldType;
+		this.fieldDescription = fieldDescription;
+	}
+
+	/**
+	 * Construct description of a column with string values
+	 *
+	 * @param columnIndex
+	 *            1-based index of the column
+	 * @param fieldName
+	 *            name of the INFO field, without prefix
+	 */
+	public GenericTSVValueColumnDescription(int columnIndex, String fieldName) {
+		this(columnIndex, fieldName, VCFHeaderLineType.String, "Value of column " + columnIndex);
+	}
+
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public VCFHeaderLineType getFieldType() {
+		return fieldType;
+	}
+
+	public String getFieldDescription() {
+		return fieldDescription;
+	}
+
+	@Override
+	public String toString() {
+		return "GenericTSVValueColumnDescription [columnIndex=" + columnIndex + ", fieldName=" + fieldName
+				+ ", fieldType=" + fieldType + ", fieldDescription=" + fieldDescription + "]";
+	}
+
+}
@@ -0,0 +1,145 @@
+package de.charite.compbio.jannovar.vardbs.generic_vcf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import de.charite.compbio.jannovar.vardbs.base.AbstractDBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
+import de.charite.compbio.jannovar.vardbs.base.AnnotatingRecord;
+import de.charite.compbio.jannovar.vardbs.base.GenotypeMatch;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import de.charite.compbio.jannovar.vardbs.base.VCFHeaderExtender;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+import htsjdk.variant.vcf.VCFInfoHeaderLine;
+
+/**
+ * Annotation driver class for copying INFO fields from an arbitrary VCF file (e.g., gnomAD or ClinVar)
+ *
+ * For INFO fields with one value per alternative allele (<tt>Number=A</tt> or <tt>Number=R</tt>), the value for the
+ * matching database allele is used for each observed allele. For all other fields, the value of the database record
+ * matching the first observed allele is copied. If more than one database record matches an allele, the first one
+ * in the file is used.
+ */
+public class GenericVCFAnnotationDriver extends AbstractDBAnnotationDriver<VariantContext> {
+
+	/** Value to use for alleles without matching database allele */
+	private static final String MISSING_VALUE = ".";
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed VCF file
+	 *
+	 * @param vcfPath
+	 *            Path to VCF file with the database
+	 * @param fastaPath
+	 *            FAI-indexed FASTA file with reference
+	 * @param options
+	 *            configuration, including the INFO fields to copy
+	 * @throws JannovarVarDBException
+	 *             on problems loading the reference FASTA/FAI file or INFO fields missing from the VCF header
+	 */
+	public GenericVCFAnnotationDriver(String vcfPath, String fastaPath, GenericVCFAnnotationOptions options)
+			throws JannovarVarDBException {
+		this(vcfPath, new AlleleMatcher(fastaPath), options);
+	}
+
+	/**
+	 * Create annotation driver for a coordinate-sorted, bgzip-compressed VCF file
+	 *
+	 * @param vcfPath
+	 *            Path to VCF file with the database
+	 * @param matcher
+	 *            {@link AlleleMatcher} to use, can be shared between drivers
+	 * @param options
+	 *            configuration, including the INFO fields to copy
+	 * @throws JannovarVarDBException
+	 *             on INFO fields missing from the VCF header
+	 */
+	public GenericVCFAnnotationDriver(String vcfPath, AlleleMatcher matcher, GenericVCFAnnotationOptions options)
+			throws JannovarVarDBException {
+		super(vcfPath, matcher, options, vc -> vc);
+		for (String field : options.getInfoFields())
+			if (vcfReader.getFileHeader().getInfoHeaderLine(field) == null)
+				throw new JannovarVarDBException("INFO field " + field + " is not defined in " + vcfPath);
+	}
+
+	@Override
+	public VCFHeaderExtender constructVCFHeaderExtender() {
+		return new GenericVCFHeaderExtender((GenericVCFAnnotationOptions) options, vcfReader.getFileHeader());
+	}
+
+	@Override
+	protected HashMap<Integer, AnnotatingRecord<VariantContext>> pickAnnotatingDBRecords(
+			HashMap<Integer, ArrayList<GenotypeMatch>> annotatingRecords,
+			HashMap<GenotypeMatch, AnnotatingRecord<VariantContext>> matchToRecord) {
+		// There is no notion of a "best" record, pick first one in the database
+		HashMap<Integer, AnnotatingRecord<VariantContext>> annotatingRecord = new HashMap<>();
+		for (Entry<Integer, ArrayList<GenotypeMatch>> entry : annotatingRecords.entrySet())
+			annotatingRecord.put(entry.getKey(), matchToRecord.get(entry.getValue().get(0)));
+		return annotatingRecord;
+	}
+
+	@Override
+	protected void annotateWithDBRecords(VariantContext vc,
+			HashMap<Integer, AnnotatingRecord<VariantContext>> matchRecords,
+			HashMap<Integer, AnnotatingRecord<VariantContext>> overlapRecords, VariantContextBuilder builder) {
+		for (String field : ((GenericVCFAnnotationOptions) options).getInfoFields()) {
+			// Annotate with records with matching allele
+			annotateField(vc, "", field, matchRecords, builder);
+			// Annotate with records with overlapping positions
+			if (options.isReportOverlapping() && !options.isReportOverlappingAsMatching())
+				annotateField(vc, "OVL_", field, overlapRecords, builder);
+		}
+	}
+
+	private void annotateField(VariantContext vc, String infix, String field,
+			HashMap<Integer, AnnotatingRecord<VariantContext>> records, VariantContextBuilder builder) {
+		if (records.isEmpty())
+			return;
+
+		final String attrID = options.getVCFIdentifierPrefix() + infix + field;
+		final VCFInfoHeaderLine dbLine = vcfReader.getFileHeader().getInfoHeaderLine(field);
+		if (dbLine.getCountType() == VCFHeaderLineCount.A || dbLine.getCountType() == VCFHeaderLineCount.R) {
+			// Number=R lists start with the value for the reference allele
+			final int offset = (dbLine.getCountType() == VCFHeaderLineCount.R) ? 1 : 0;
+			ArrayList<Object> values = new ArrayList<>();
+			if (offset == 1) {
+				final VariantContext first = records.get(Collections.min(records.keySet())).getRecord();
+				values.add(getValue(first, field, 0));
+			}
+			for (int i = 1; i < vc.getNAlleles(); ++i) {
+				if (records.get(i) == null) {
+					values.add(MISSING_VALUE);
+				} else {
+					final AnnotatingRecord<VariantContext> record = records.get(i);
+					values.add(getValue(record.getRecord(), field, record.getAlleleNo() - 1 + offset));
+				}
+			}
+
+			if (values.stream().allMatch(x -> MISSING_VALUE.equals(x)))
+				return; // do not set list of missing values
+			builder.attribute(attrID, values);
+		} else {
+			final VariantContext first = records.get(Collections.min(records.keySet())).getRecord();
+			if (first.hasAttribute(field))
+				builder.attribute(attrID, first.getAttribute(field));
+		}
+	}
+
+	/**
+	 * @return <code>idx</code>-th value of INFO field <code>field</code> in <code>dbVC</code>, or
+	 *         {@link #MISSING_VALUE}
+	 */
+	private static Object getValue(VariantContext dbVC, String field, int idx) {
+		final List<Object> values = dbVC.getAttributeAsList(field);
+		if (idx < values.size())
+			return values.get(idx);
+		else
+			return MISSING_VALUE;
+	}
+
+}
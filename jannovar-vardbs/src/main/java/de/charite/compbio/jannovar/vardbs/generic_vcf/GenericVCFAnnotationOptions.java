@@ -0,0 +1,45 @@
+package de.charite.compbio.jannovar.vardbs.generic_vcf;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
+
+/**
+ * Configuration for annotating variants with INFO fields from an arbitrary VCF file
+ */
+public class GenericVCFAnnotationOptions extends DBAnnotationOptions {
+
+	/**
+	 * @param infoFields
+	 *            names of the INFO fields to copy from the database VCF file
+	 * @return Default options for copying <code>infoFields</code>
+	 */
+	public static GenericVCFAnnotationOptions createDefaults(List<String> infoFields) {
+		return new GenericVCFAnnotationOptions(true, false, "", MultipleMatchBehaviour.BEST_ONLY, infoFields);
+	}
+
+	/** Names of the INFO fields to copy from the database VCF file */
+	private ImmutableList<String> infoFields;
+
+	public GenericVCFAnnotationOptions(boolean reportOverlapping, boolean reportOverlappingAsIdentical,
+			String identifierPrefix, MultipleMatchBehaviour multiMatchBehaviour, List<String> infoFields) {
+		super(reportOverlapping, reportOverlappingAsIdentical, identifierPrefix, multiMatchBehaviour);
+		this.infoFields = ImmutableList.copyOf(infoFields);
+	}
+
+	public ImmutableList<String> getInfoFields() {
+		return infoFields;
+	}
+
+	public void setInfoFields(List<String> infoFields) {
+		this.infoFields = ImmutableList.copyOf(infoFields);
+	}
+
+	@Override
+	public String toString() {
+		return "GenericVCFAnnotationOptions [infoFields=" + infoFields + ", " + super.toString() + "]";
+	}
+
+}
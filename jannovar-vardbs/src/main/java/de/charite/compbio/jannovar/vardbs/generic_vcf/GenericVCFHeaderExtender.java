@@ -0,0 +1,55 @@
+package de.charite.compbio.jannovar.vardbs.generic_vcf;
+
+import de.charite.compbio.jannovar.vardbs.base.VCFHeaderExtender;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+import htsjdk.variant.vcf.VCFInfoHeaderLine;
+
+/**
+ * Helper class for extending {@link VCFHeader}s for annotations from an arbitrary VCF file
+ *
+ * The header lines are copied from the database VCF file, with the prefix prepended to their IDs.
+ */
+public class GenericVCFHeaderExtender extends VCFHeaderExtender {
+
+	/** Header of the database VCF file */
+	private final VCFHeader dbHeader;
+
+	public GenericVCFHeaderExtender(GenericVCFAnnotationOptions options, VCFHeader dbHeader) {
+		super(options);
+		this.dbHeader = dbHeader;
+	}
+
+	@Override
+	public String getDefaultPrefix() {
+		return options.getVCFIdentifierPrefix();
+	}
+
+	@Override
+	public void addHeaders(VCFHeader header, String prefix) {
+		addHeadersInfixes(header, prefix, "", "");
+		if (options.isReportOverlapping() && !options.isReportOverlappingAsMatching())
+			addHeadersInfixes(header, prefix, "OVL_", " (requiring no genotype match, only position overlap)");
+	}
+
+	public void addHeadersInfixes(VCFHeader header, String prefix, String infix, String note) {
+		for (String field : ((GenericVCFAnnotationOptions) options).getInfoFields()) {
+			final VCFInfoHeaderLine dbLine = dbHeader.getInfoHeaderLine(field);
+			final String id = prefix + infix + field;
+			final String description = dbLine.getDescription() + note;
+			switch (dbLine.getCountType()) {
+			case INTEGER:
+				header.addMetaDataLine(new VCFInfoHeaderLine(id, dbLine.getCount(), dbLine.getType(), description));
+				break;
+			case A:
+			case R:
+				header.addMetaDataLine(new VCFInfoHeaderLine(id, dbLine.getCountType(), dbLine.getType(), description));
+				break;
+			default:
+				header.addMetaDataLine(
+						new VCFInfoHeaderLine(id, VCFHeaderLineCount.UNBOUNDED, dbLine.getType(), description));
+			}
+		}
+	}
+
+}
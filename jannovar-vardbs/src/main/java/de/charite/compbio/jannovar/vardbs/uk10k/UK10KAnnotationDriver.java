@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map.Entry;
 
 import de.charite.compbio.jannovar.vardbs.base.AbstractDBAnnotationDriver;
+import de.charite.compbio.jannovar.vardbs.base.AlleleMatcher;
 import de.charite.compbio.jannovar.vardbs.base.AnnotatingRecord;
 import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
 import de.charite.compbio.jannovar.vardbs.base.GenotypeMatch;
@@ -25,6 +26,10 @@ public class UK10KAnnotationDriver extends AbstractDBAnnotationDriver<UK10KRecor
 		super(vcfPath, fastaPath, options, new UK10KVariantContextToRecordConverter());
 	}
 
+	public UK10KAnnotationDriver(String vcfPath, AlleleMatcher matcher, DBAnnotationOptions options) {
+		super(vcfPath, matcher, options, new UK10KVariantContextToRecordConverter());
+	}
+
 	@Override
 	protected HashMap<Integer, AnnotatingRecord<UK10KRecord>> pickAnnotatingDBRecords(
 			HashMap<Integer, ArrayList<GenotypeMatch>> annotatingRecords,
@@ -56,11 +61,9 @@ public class UK10KAnnotationDriver extends AbstractDBAnnotationDriver<UK10KRecor
 	}
 
 	@Override
-	protected VariantContext annotateWithDBRecords(VariantContext vc,
+	protected void annotateWithDBRecords(VariantContext vc,
 			HashMap<Integer, AnnotatingRecord<UK10KRecord>> matchRecords,
-			HashMap<Integer, AnnotatingRecord<UK10KRecord>> overlapRecords) {
-		VariantContextBuilder builder = new VariantContextBuilder(vc);
-
+			HashMap<Integer, AnnotatingRecord<UK10KRecord>> overlapRecords, VariantContextBuilder builder) {
 		// Annotate with records with matching allele
 		annotateAlleleCounts(vc, "", matchRecords, builder);
 		annotateChromosomeCounts(vc, "", matchRecords, builder);
@@ -72,8 +75,6 @@ public class UK10KAnnotationDriver extends AbstractDBAnnotationDriver<UK10KRecor
 			annotateChromosomeCounts(vc, "OVL_", overlapRecords, builder);
 			annotateFrequencies(vc, "OVL_", overlapRecords, builder);
 		}
-
-		return builder.make();
 	}
 
 	private void annotateChromosomeCounts(VariantContext vc, String infix,
@@ -0,0 +1,119 @@
+package de.charite.compbio.jannovar.vardbs.facade;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.Files;
+
+import de.charite.compbio.jannovar.utils.ResourceUtils;
+import de.charite.compbio.jannovar.vardbs.base.DBAnnotationOptions;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Test for annotation with dbSNP, ExAC, and UK10K in one step
+ */
+public class MultiDBVariantContextAnnotatorTest {
+
+	String pathDBSNP;
+	String pathExac;
+	String pathUK10K;
+	String pathRefFASTA;
+	DBAnnotationOptions dbSNPOptions;
+	DBAnnotationOptions exacOptions;
+	DBAnnotationOptions uk10kOptions;
+	VCFFileReader vcfReader;
+
+	@Before
+	public void setUp() throws Exception {
+		File tmpDir = Files.createTempDir();
+		pathDBSNP = tmpDir + "/dbsnp.vcf.gz";
+		ResourceUtils.copyResourceToFile("/dbSNP147.head.vcf.gz", new File(pathDBSNP));
+		ResourceUtils.copyResourceToFile("/dbSNP147.head.vcf.gz.tbi", new File(pathDBSNP + ".tbi"));
+		pathExac = tmpDir + "/exac.vcf.gz";
+		ResourceUtils.copyResourceToFile("/ExAC.r0.3.sites.vep.head.vcf.gz", new File(pathExac));
+		ResourceUtils.copyResourceToFile("/ExAC.r0.3.sites.vep.head.vcf.gz.tbi", new File(pathExac + ".tbi"));
+		pathUK10K = tmpDir + "/uk10k.vcf.gz";
+		ResourceUtils.copyResourceToFile("/UK10K_COHORT.20160215.sites.head.vcf.gz", new File(pathUK10K));
+		ResourceUtils.copyResourceToFile("/UK10K_COHORT.20160215.sites.head.vcf.gz.tbi",
+				new File(pathUK10K + ".tbi"));
+
+		pathRefFASTA = tmpDir + "/chr1.fasta";
+		ResourceUtils.copyResourceToFile("/chr1.fasta", new File(pathRefFASTA));
+		ResourceUtils.copyResourceToFile("/chr1.fasta.fai", new File(pathRefFASTA + ".fai"));
+
+		dbSNPOptions = DBAnnotationOptions.createDefaults();
+		dbSNPOptions.setIdentifierPrefix("DBSNP_");
+		exacOptions = DBAnnotationOptions.createDefaults();
+		exacOptions.setIdentifierPrefix("EXAC_");
+		uk10kOptions = DBAnnotationOptions.createDefaults();
+		uk10kOptions.setIdentifierPrefix("UK10K_");
+
+		// Write out file with variants in dbSNP, ExAC, and UK10K
+		String testVCFPath = tmpDir + "/test_var.vcf";
+		PrintWriter writer = new PrintWriter(testVCFPath);
+		writer.write("##fileformat=VCFv4.0\n"
+				+ "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tindividual\n");
+		writer.write("1\t11022\t.\tG\tA\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t13482\t.\tG\tA,C,T\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t714118\t.\tC\tA,G,T\t.\t.\t.\tGT\t0/1\n");
+		writer.close();
+
+		vcfReader = new VCFFileReader(new File(testVCFPath), false);
+	}
+
+	private MultiDBVariantContextAnnotator buildAnnotator(int numThreads) throws Exception {
+		return new MultiDBVariantContextAnnotatorBuilder(pathRefFASTA).addDBSNP(pathDBSNP, dbSNPOptions)
+				.addExac(pathExac, exacOptions).addUK10K(pathUK10K, uk10kOptions).setNumThreads(numThreads).build();
+	}
+
+	private void checkSameAsSingleAnnotators(int numThreads) throws Exception {
+		DBVariantContextAnnotatorFactory factory = new DBVariantContextAnnotatorFactory();
+		List<DBVariantContextAnnotator> singleAnnotators = new ArrayList<>();
+		singleAnnotators.add(factory.constructDBSNP(pathDBSNP, pathRefFASTA, dbSNPOptions));
+		singleAnnotators.add(factory.constructExac(pathExac, pathRefFASTA, exacOptions));
+		singleAnnotators.add(factory.constructUK10K(pathUK10K, pathRefFASTA, uk10kOptions));
+
+		try (MultiDBVariantContextAnnotator annotator = buildAnnotator(numThreads)) {
+			Assert.assertEquals(3, annotator.getNumDatabases());
+
+			VCFHeader singleHeader = new VCFHeader(vcfReader.getFileHeader());
+			for (DBVariantContextAnnotator single : singleAnnotators)
+				single.extendHeader(singleHeader);
+			VCFHeader header = annotator.extendHeader(new VCFHeader(vcfReader.getFileHeader()));
+			Assert.assertEquals(singleHeader.getInfoHeaderLines().size(), header.getInfoHeaderLines().size());
+
+			int numAnnotated = 0;
+			for (VariantContext vc : vcfReader) {
+				VariantContext expected = vc;
+				for (DBVariantContextAnnotator single : singleAnnotators)
+					expected = single.annotateVariantContext(expected);
+				VariantContext actual = annotator.annotateVariantContext(vc);
+
+				Assert.assertEquals(expected.getID(), actual.getID());
+				Assert.assertEquals(expected.getAttributes(), actual.getAttributes());
+				if (!actual.getAttributes().isEmpty())
+					++numAnnotated;
+			}
+			Assert.assertEquals(3, numAnnotated);
+		}
+	}
+
+	@Test
+	public void testSingleThread() throws Exception {
+		checkSameAsSingleAnnotators(1);
+	}
+
+	@Test
+	public void testMultipleThreads() throws Exception {
+		checkSameAsSingleAnnotators(3);
+	}
+
+}
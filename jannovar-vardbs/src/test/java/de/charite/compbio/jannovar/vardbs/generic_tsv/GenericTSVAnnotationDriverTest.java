@@ -0,0 +1,134 @@
+package de.charite.compbio.jannovar.vardbs.generic_tsv;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+import de.charite.compbio.jannovar.utils.ResourceUtils;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+
+/**
+ * Test for annotation with columns of tabix-indexed tabular files
+ */
+public class GenericTSVAnnotationDriverTest {
+
+	String variantsPath;
+	String regionsPath;
+	String fastaPath;
+	VCFFileReader vcfReader;
+
+	@Before
+	public void setUp() throws Exception {
+		File tmpDir = Files.createTempDir();
+		variantsPath = tmpDir + "/variants.tsv.gz";
+		ResourceUtils.copyResourceToFile("/generic_variants.tsv.gz", new File(variantsPath));
+		ResourceUtils.copyResourceToFile("/generic_variants.tsv.gz.tbi", new File(variantsPath + ".tbi"));
+		regionsPath = tmpDir + "/regions.bed.gz";
+		ResourceUtils.copyResourceToFile("/generic_regions.bed.gz", new File(regionsPath));
+		ResourceUtils.copyResourceToFile("/generic_regions.bed.gz.tbi", new File(regionsPath + ".tbi"));
+
+		fastaPath = tmpDir + "/chr1.fasta";
+		ResourceUtils.copyResourceToFile("/chr1.fasta", new File(fastaPath));
+		ResourceUtils.copyResourceToFile("/chr1.fasta.fai", new File(fastaPath + ".fai"));
+
+		String testVCFPath = tmpDir + "/test_var.vcf";
+		PrintWriter writer = new PrintWriter(testVCFPath);
+		writer.write("##fileformat=VCFv4.0\n"
+				+ "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tindividual\n");
+		writer.write("1\t13482\t.\tG\tA,C,T\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t13485\t.\tAGC\tA\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t20050\t.\tA\tC\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t30000\t.\tA\tC\t.\t.\t.\tGT\t0/1\n");
+		writer.close();
+
+		vcfReader = new VCFFileReader(new File(testVCFPath), false);
+	}
+
+	private GenericTSVAnnotationOptions buildVariantOptions() {
+		GenericTSVAnnotationOptions options = GenericTSVAnnotationOptions.createVariantDefaults(1, 2, 3, 4,
+				ImmutableList.of(new GenericTSVValueColumnDescription(5, "SCORE")));
+		options.setIdentifierPrefix("TSV_");
+		return options;
+	}
+
+	private GenericTSVAnnotationOptions buildRegionOptions() {
+		GenericTSVAnnotationOptions options = GenericTSVAnnotationOptions
+				.createBEDDefaults(ImmutableList.of(new GenericTSVValueColumnDescription(4, "NAME"),
+						new GenericTSVValueColumnDescription(5, "SCORE")));
+		options.setIdentifierPrefix("BED_");
+		return options;
+	}
+
+	@Test
+	public void testExtendHeader() throws JannovarVarDBException {
+		VCFHeader header = vcfReader.getFileHeader();
+		new GenericTSVAnnotationDriver(variantsPath, fastaPath, buildVariantOptions()).constructVCFHeaderExtender()
+				.addHeaders(header);
+		new GenericTSVAnnotationDriver(regionsPath, fastaPath, buildRegionOptions()).constructVCFHeaderExtender()
+				.addHeaders(header);
+
+		Assert.assertEquals(4, header.getInfoHeaderLines().size());
+		Assert.assertEquals(VCFHeaderLineCount.A, header.getInfoHeaderLine("TSV_SCORE").getCountType());
+		Assert.assertEquals(VCFHeaderLineCount.A, header.getInfoHeaderLine("TSV_OVL_SCORE").getCountType());
+		Assert.assertEquals(VCFHeaderLineCount.UNBOUNDED, header.getInfoHeaderLine("BED_NAME").getCountType());
+		Assert.assertEquals(VCFHeaderLineCount.UNBOUNDED, header.getInfoHeaderLine("BED_SCORE").getCountType());
+	}
+
+	@Test
+	public void testAnnotateVariants() throws JannovarVarDBException {
+		GenericTSVAnnotationOptions options = buildVariantOptions();
+		options.setReportOverlapping(false);
+		GenericTSVAnnotationDriver driver = new GenericTSVAnnotationDriver(variantsPath, fastaPath, options);
+
+		Iterator<VariantContext> it = vcfReader.iterator();
+		VariantContext annotated = driver.annotateVariantContext(it.next());
+		Assert.assertEquals(1, annotated.getAttributes().size());
+		Assert.assertEquals(ImmutableList.of(".", "0.5", "."), annotated.getAttribute("TSV_SCORE"));
+
+		annotated = driver.annotateVariantContext(it.next());
+		Assert.assertEquals(ImmutableList.of("0.9"), annotated.getAttribute("TSV_SCORE"));
+
+		Assert.assertTrue(driver.annotateVariantContext(it.next()).getAttributes().isEmpty());
+	}
+
+	@Test
+	public void testAnnotateVariantsReportOverlapping() throws JannovarVarDBException {
+		GenericTSVAnnotationDriver driver = new GenericTSVAnnotationDriver(variantsPath, fastaPath,
+				buildVariantOptions());
+
+		VariantContext annotated = driver.annotateVariantContext(vcfReader.iterator().next());
+		Assert.assertEquals(2, annotated.getAttributes().size());
+		Assert.assertEquals(ImmutableList.of(".", "0.5", "."), annotated.getAttribute("TSV_SCORE"));
+		Assert.assertEquals(ImmutableList.of("0.5", "0.5", "0.5"), annotated.getAttribute("TSV_OVL_SCORE"));
+	}
+
+	@Test
+	public void testAnnotateRegions() throws JannovarVarDBException {
+		GenericTSVAnnotationDriver driver = new GenericTSVAnnotationDriver(regionsPath, fastaPath,
+				buildRegionOptions());
+
+		Iterator<VariantContext> it = vcfReader.iterator();
+		VariantContext annotated = driver.annotateVariantContext(it.next());
+		Assert.assertEquals(ImmutableList.of("regionA", "regionB"), annotated.getAttribute("BED_NAME"));
+		Assert.assertEquals(ImmutableList.of("5", "7"), annotated.getAttribute("BED_SCORE"));
+
+		it.next();
+		annotated = driver.annotateVariantContext(it.next());
+		Assert.assertEquals(1, annotated.getAttributes().size());
+		Assert.assertEquals(ImmutableList.of("regionC"), annotated.getAttribute("BED_NAME"));
+
+		Assert.assertTrue(driver.annotateVariantContext(it.next()).getAttributes().isEmpty());
+	}
+
+}
@@ -0,0 +1,98 @@
+package de.charite.compbio.jannovar.vardbs.generic_vcf;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+
+import de.charite.compbio.jannovar.utils.ResourceUtils;
+import de.charite.compbio.jannovar.vardbs.base.JannovarVarDBException;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineCount;
+
+/**
+ * Test for copying INFO fields from an arbitrary VCF file (ExAC here)
+ */
+public class GenericVCFAnnotationDriverTest {
+
+	String dbVCFPath;
+	String fastaPath;
+	VCFFileReader vcfReader;
+	GenericVCFAnnotationOptions options;
+
+	@Before
+	public void setUp() throws Exception {
+		options = GenericVCFAnnotationOptions.createDefaults(ImmutableList.of("AC", "AN", "culprit"));
+		options.setIdentifierPrefix("GEN_");
+		options.setReportOverlapping(false);
+
+		File tmpDir = Files.createTempDir();
+		dbVCFPath = tmpDir + "/exac.vcf.gz";
+		ResourceUtils.copyResourceToFile("/ExAC.r0.3.sites.vep.head.vcf.gz", new File(dbVCFPath));
+		ResourceUtils.copyResourceToFile("/ExAC.r0.3.sites.vep.head.vcf.gz.tbi", new File(dbVCFPath + ".tbi"));
+
+		fastaPath = tmpDir + "/chr1.fasta";
+		ResourceUtils.copyResourceToFile("/chr1.fasta", new File(fastaPath));
+		ResourceUtils.copyResourceToFile("/chr1.fasta.fai", new File(fastaPath + ".fai"));
+
+		String testVCFPath = tmpDir + "/test_var.vcf";
+		PrintWriter writer = new PrintWriter(testVCFPath);
+		writer.write("##fileformat=VCFv4.0\n"
+				+ "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tindividual\n");
+		writer.write("1\t13482\t.\tG\tA,C,T\t.\t.\t.\tGT\t0/1\n");
+		writer.write("1\t13483\t.\tG\tT\t.\t.\t.\tGT\t0/1\n");
+		writer.close();
+
+		vcfReader = new VCFFileReader(new File(testVCFPath), false);
+	}
+
+	@Test
+	public void testExtendHeader() throws JannovarVarDBException {
+		GenericVCFAnnotationDriver driver = new GenericVCFAnnotationDriver(dbVCFPath, fastaPath, options);
+
+		VCFHeader header = vcfReader.getFileHeader();
+		Assert.assertEquals(0, header.getInfoHeaderLines().size());
+		driver.constructVCFHeaderExtender().addHeaders(header);
+
+		Assert.assertEquals(3, header.getInfoHeaderLines().size());
+		Assert.assertEquals(VCFHeaderLineCount.A, header.getInfoHeaderLine("GEN_AC").getCountType());
+		Assert.assertEquals(1, header.getInfoHeaderLine("GEN_AN").getCount());
+		Assert.assertNotNull(header.getInfoHeaderLine("GEN_culprit"));
+	}
+
+	@Test(expected = JannovarVarDBException.class)
+	public void testUnknownField() throws JannovarVarDBException {
+		options.setInfoFields(ImmutableList.of("NO_SUCH_FIELD"));
+		new GenericVCFAnnotationDriver(dbVCFPath, fastaPath, options);
+	}
+
+	@Test
+	public void testAnnotateVariantContext() throws JannovarVarDBException {
+		GenericVCFAnnotationDriver driver = new GenericVCFAnnotationDriver(dbVCFPath, fastaPath, options);
+
+		VariantContext vc = vcfReader.iterator().next();
+		VariantContext annotated = driver.annotateVariantContext(vc);
+
+		Assert.assertEquals(3, annotated.getAttributes().size());
+		Assert.assertEquals(ImmutableList.of(".", "4", "."), annotated.getAttribute("GEN_AC"));
+		Assert.assertEquals("88884", annotated.getAttribute("GEN_AN"));
+		Assert.assertTrue(annotated.hasAttribute("GEN_culprit"));
+	}
+
+	@Test
+	public void testAnnotateVariantContextNoMatch() throws JannovarVarDBException {
+		GenericVCFAnnotationDriver driver = new GenericVCFAnnotationDriver(dbVCFPath, fastaPath, options);
+
+		for (VariantContext vc : vcfReader)
+			if (vc.getStart() == 13483)
+				Assert.assertTrue(driver.annotateVariantContext(vc).getAttributes().isEmpty());
+	}
+
+}